@@ -0,0 +1,229 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.actors.stats;
+
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.thingsboard.server.actors.TbActorId;
+import org.thingsboard.server.actors.TbActorMailboxStats;
+import org.thingsboard.server.common.data.EntityType;
+import org.thingsboard.server.common.stats.StatsFactory;
+import org.thingsboard.server.common.stats.StatsType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+public class DefaultTbActorMailboxStats implements TbActorMailboxStats {
+
+    static final String MAILBOX_DEPTH = StatsType.ACTOR.getName() + ".mailboxDepth";
+    static final String MAILBOX_WAIT_TIME = StatsType.ACTOR.getName() + ".mailboxWaitTime";
+    static final String PROCESSING_TIME = StatsType.ACTOR.getName() + ".processingTime";
+
+    private static final String ACTOR_TYPE_TAG = "actorType";
+    private static final String DISPATCHER_TAG = "dispatcher";
+    private static final String NO_ENTITY_TYPE = "NONE";
+
+    private final StatsFactory statsFactory;
+    private final ConcurrentMap<ActorTypeKey, ActorTypeStats> actorTypeStats = new ConcurrentHashMap<>();
+    private final ConcurrentMap<TbActorId, ActorStats> actorStats = new ConcurrentHashMap<>();
+
+    @Value("${actors.system.mailbox_stats.top_slowest_actors:10}")
+    private int topSlowestActors;
+
+    private volatile boolean enabled;
+
+    public DefaultTbActorMailboxStats(StatsFactory statsFactory,
+                                      @Value("${actors.system.mailbox_stats.enabled:false}") boolean enabled) {
+        this.statsFactory = statsFactory;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Switches the collection at runtime. Messages already timestamped are still reported on dequeue,
+     * so the mailbox depth stays consistent; messages enqueued while disabled are not reported at all.
+     */
+    public void setEnabled(boolean enabled) {
+        if (this.enabled != enabled) {
+            log.info("{} actor mailbox stats", enabled ? "Enabling" : "Disabling");
+            this.enabled = enabled;
+        }
+    }
+
+    @Override
+    public void onMsgEnqueued(TbActorId actorId, String dispatcherId) {
+        ActorStats stats = getOrCreateActorStats(actorId, dispatcherId);
+        stats.mailboxDepth.incrementAndGet();
+        stats.typeStats.mailboxDepth().incrementAndGet();
+    }
+
+    @Override
+    public void onMsgDequeued(TbActorId actorId, String dispatcherId, long waitTimeNanos) {
+        ActorStats stats = actorStats.get(actorId);
+        // the depth of a destroyed actor is already dropped by onActorDestroyed
+        if (stats != null && stats.mailboxDepth.getAndUpdate(depth -> depth > 0 ? depth - 1 : 0) > 0) {
+            stats.typeStats.mailboxDepth().decrementAndGet();
+        }
+        getActorTypeStats(stats, actorId, dispatcherId).waitTimer().record(waitTimeNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void onMsgsProcessed(TbActorId actorId, String dispatcherId, int msgCount, long processingTimeNanos) {
+        ActorStats stats = actorStats.get(actorId);
+        getActorTypeStats(stats, actorId, dispatcherId).processingTimer().record(processingTimeNanos, TimeUnit.NANOSECONDS);
+        if (stats != null) {
+            stats.processedMsgs.add(msgCount);
+            stats.processingTime.add(processingTimeNanos);
+            stats.maxProcessingTime.accumulateAndGet(processingTimeNanos, Math::max);
+        }
+    }
+
+    @Override
+    public void onActorDestroyed(TbActorId actorId) {
+        ActorStats stats = actorStats.remove(actorId);
+        if (stats != null) {
+            stats.typeStats.mailboxDepth().addAndGet(-stats.mailboxDepth.getAndSet(0));
+        }
+    }
+
+    /**
+     * Returns actors that spent the most time processing messages since the last report, slowest first.
+     */
+    public List<ActorProcessingStats> getSlowestActors(int limit) {
+        if (limit <= 0) {
+            return Collections.emptyList();
+        }
+        Comparator<ActorProcessingStats> byProcessingTime = Comparator.comparingLong(ActorProcessingStats::processingTimeNanos);
+        PriorityQueue<ActorProcessingStats> slowest = new PriorityQueue<>(limit + 1, byProcessingTime);
+        actorStats.forEach((actorId, stats) -> {
+            if (stats.processedMsgs.sum() > 0) {
+                slowest.add(stats.toProcessingStats(actorId));
+                if (slowest.size() > limit) {
+                    slowest.poll();
+                }
+            }
+        });
+        List<ActorProcessingStats> result = new ArrayList<>(slowest);
+        result.sort(byProcessingTime.reversed());
+        return result;
+    }
+
+    @Scheduled(initialDelayString = "${actors.system.mailbox_stats.print_interval_ms:60000}",
+            fixedDelayString = "${actors.system.mailbox_stats.print_interval_ms:60000}")
+    public void printStats() {
+        if (!enabled || topSlowestActors <= 0) {
+            return;
+        }
+        List<ActorProcessingStats> slowestActors = getSlowestActors(topSlowestActors);
+        if (!slowestActors.isEmpty()) {
+            log.info("Top {} slowest actors: {}", slowestActors.size(), slowestActors.stream()
+                    .map(ActorProcessingStats::toString)
+                    .collect(Collectors.joining(", ")));
+        }
+        actorStats.values().forEach(ActorStats::reset);
+    }
+
+    private ActorStats getOrCreateActorStats(TbActorId actorId, String dispatcherId) {
+        ActorStats stats = actorStats.get(actorId);
+        if (stats == null) {
+            stats = actorStats.computeIfAbsent(actorId, id -> new ActorStats(dispatcherId, getActorTypeStats(null, id, dispatcherId)));
+        }
+        return stats;
+    }
+
+    private ActorTypeStats getActorTypeStats(ActorStats stats, TbActorId actorId, String dispatcherId) {
+        if (stats != null) {
+            return stats.typeStats;
+        }
+        return actorTypeStats.computeIfAbsent(new ActorTypeKey(toActorType(actorId), dispatcherId), this::createActorTypeStats);
+    }
+
+    private ActorTypeStats createActorTypeStats(ActorTypeKey key) {
+        String[] tags = {ACTOR_TYPE_TAG, key.actorType(), DISPATCHER_TAG, key.dispatcherId()};
+        return new ActorTypeStats(
+                statsFactory.createGauge(MAILBOX_DEPTH, new AtomicInteger(), tags),
+                statsFactory.createTimer(MAILBOX_WAIT_TIME, tags),
+                statsFactory.createTimer(PROCESSING_TIME, tags));
+    }
+
+    private static String toActorType(TbActorId actorId) {
+        EntityType entityType = actorId.getEntityType();
+        return entityType != null ? entityType.name() : NO_ENTITY_TYPE;
+    }
+
+    public record ActorProcessingStats(TbActorId actorId, String dispatcherId, long processedMsgs,
+                                       long processingTimeNanos, long maxProcessingTimeNanos, int mailboxDepth) {
+
+        @Override
+        public String toString() {
+            return "[" + actorId + "][" + dispatcherId + "] processed [" + processedMsgs + "] total time [" +
+                    TimeUnit.NANOSECONDS.toMillis(processingTimeNanos) + " ms] max time [" +
+                    TimeUnit.NANOSECONDS.toMillis(maxProcessingTimeNanos) + " ms] mailbox depth [" + mailboxDepth + "]";
+        }
+
+    }
+
+    private record ActorTypeKey(String actorType, String dispatcherId) {}
+
+    private record ActorTypeStats(AtomicInteger mailboxDepth, Timer waitTimer, Timer processingTimer) {}
+
+    private static class ActorStats {
+
+        private final String dispatcherId;
+        private final ActorTypeStats typeStats;
+        private final AtomicInteger mailboxDepth = new AtomicInteger();
+        private final LongAdder processedMsgs = new LongAdder();
+        private final LongAdder processingTime = new LongAdder();
+        private final AtomicLong maxProcessingTime = new AtomicLong();
+
+        ActorStats(String dispatcherId, ActorTypeStats typeStats) {
+            this.dispatcherId = dispatcherId;
+            this.typeStats = typeStats;
+        }
+
+        ActorProcessingStats toProcessingStats(TbActorId actorId) {
+            return new ActorProcessingStats(actorId, dispatcherId, processedMsgs.sum(),
+                    processingTime.sum(), maxProcessingTime.get(), mailboxDepth.get());
+        }
+
+        void reset() {
+            processedMsgs.reset();
+            processingTime.reset();
+            maxProcessingTime.set(0);
+        }
+
+    }
+
+}
@@ -51,6 +51,7 @@ import org.springframework.web.context.request.async.DeferredResult;
 import org.thingsboard.common.util.JacksonUtil;
 import org.thingsboard.rule.engine.api.MailService;
 import org.thingsboard.rule.engine.api.SmsService;
+import org.thingsboard.server.actors.stats.DefaultTbActorMailboxStats;
 import org.thingsboard.server.common.data.AdminSettings;
 import org.thingsboard.server.common.data.FeaturesInfo;
 import org.thingsboard.server.common.data.StringUtils;
@@ -118,6 +119,7 @@ public class AdminController extends BaseController {
     private final UpdateService updateService;
     private final SystemInfoService systemInfoService;
     private final AuditLogService auditLogService;
+    private final DefaultTbActorMailboxStats actorMailboxStats;
 
     @Value("${queue.vc.request-timeout:180000}")
     private int vcRequestTimeout;
@@ -413,6 +415,27 @@ public class AdminController extends BaseController {
         return systemInfoService.getFeaturesInfo();
     }
 
+    @ApiOperation(value = "Get actor mailbox stats state (isActorMailboxStatsEnabled)",
+            notes = "Returns 'true' if the actor mailbox depth, wait time and processing time metrics are collected " +
+                    "on the node that serves the request. " + SYSTEM_AUTHORITY_PARAGRAPH)
+    @PreAuthorize("hasAuthority('SYS_ADMIN')")
+    @GetMapping("/actorMailboxStats")
+    public Boolean isActorMailboxStatsEnabled() {
+        return actorMailboxStats.isEnabled();
+    }
+
+    @ApiOperation(value = "Enable or disable actor mailbox stats (setActorMailboxStatsEnabled)",
+            notes = "Switches the collection of the actor mailbox depth, wait time and processing time metrics " +
+                    "on the node that serves the request, without a restart. " + SYSTEM_AUTHORITY_PARAGRAPH)
+    @PreAuthorize("hasAuthority('SYS_ADMIN')")
+    @PostMapping("/actorMailboxStats")
+    @ResponseStatus(value = HttpStatus.OK)
+    public void setActorMailboxStatsEnabled(
+            @Parameter(description = "Whether to collect the actor mailbox stats", required = true)
+            @RequestParam boolean enabled) {
+        actorMailboxStats.setEnabled(enabled);
+    }
+
     @ApiOperation(value = "Get OAuth2 log in processing URL (getMailProcessingUrl)", notes = "Returns the URL enclosed in " +
             "double quotes. After successful authentication with OAuth2 provider and user consent for requested scope, it makes a redirect to this path so that the platform can do " +
             "further log in processing and generating access tokens. " + SYSTEM_AUTHORITY_PARAGRAPH)
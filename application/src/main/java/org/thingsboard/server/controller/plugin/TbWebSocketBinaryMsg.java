@@ -0,0 +1,36 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.controller.plugin;
+
+import lombok.RequiredArgsConstructor;
+
+import java.nio.ByteBuffer;
+
+@RequiredArgsConstructor
+public class TbWebSocketBinaryMsg implements TbWebSocketMsg<ByteBuffer> {
+
+    private final byte[] value;
+
+    @Override
+    public TbWebSocketMsgType getType() {
+        return TbWebSocketMsgType.BINARY;
+    }
+
+    @Override
+    public ByteBuffer getMsg() {
+        return ByteBuffer.wrap(value);
+    }
+}
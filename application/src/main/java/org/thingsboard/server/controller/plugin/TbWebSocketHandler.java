@@ -58,6 +58,7 @@ import org.thingsboard.server.service.security.model.UserPrincipal;
 import org.thingsboard.server.service.subscription.SubscriptionErrorCode;
 import org.thingsboard.server.service.ws.AuthCmd;
 import org.thingsboard.server.service.ws.SessionEvent;
+import org.thingsboard.server.service.ws.WebSocketEncoding;
 import org.thingsboard.server.service.ws.WebSocketMsgEndpoint;
 import org.thingsboard.server.service.ws.WebSocketService;
 import org.thingsboard.server.service.ws.WebSocketSessionRef;
@@ -327,8 +328,16 @@ public class TbWebSocketHandler extends TextWebSocketHandler implements WebSocke
                     .orElseThrow(() -> new InvalidParameterException("Unknown session type"));
         }
 
+        String query = session.getUri().getQuery();
+        WebSocketEncoding encoding = WebSocketEncoding.JSON;
+        String encodingName = getQueryParam(query, "encoding");
+        if (StringUtils.isNotEmpty(encodingName)) {
+            encoding = WebSocketEncoding.forName(encodingName)
+                    .orElseThrow(() -> new InvalidParameterException("Unknown encoding"));
+        }
+
         SecurityUser securityCtx = null;
-        String token = StringUtils.substringAfter(session.getUri().getQuery(), "token=");
+        String token = getQueryParam(query, "token");
         if (StringUtils.isNotEmpty(token)) {
             securityCtx = authenticationProvider.authenticate(token);
         }
@@ -338,9 +347,22 @@ public class TbWebSocketHandler extends TextWebSocketHandler implements WebSocke
                 .localAddress(session.getLocalAddress())
                 .remoteAddress(session.getRemoteAddress())
                 .sessionType(sessionType)
+                .encoding(encoding)
                 .build();
     }
 
+    static String getQueryParam(String query, String name) {
+        if (StringUtils.isEmpty(query)) {
+            return null;
+        }
+        for (String param : query.split("&")) {
+            if (param.startsWith(name + "=")) {
+                return param.substring(name.length() + 1);
+            }
+        }
+        return null;
+    }
+
     private SessionMetaData getSessionMd(String internalSessionId) {
         SessionMetaData sessionMd = internalSessionMap.get(internalSessionId);
         if (sessionMd == null) {
@@ -407,6 +429,10 @@ public class TbWebSocketHandler extends TextWebSocketHandler implements WebSocke
             sendMsg(new TbWebSocketTextMsg(msg));
         }
 
+        void sendMsg(byte[] msg) {
+            sendMsg(new TbWebSocketBinaryMsg(msg));
+        }
+
         void sendMsg(TbWebSocketMsg<?> msg) {
             if (outboundMsgQueueSize.get() < maxMsgQueueSize) {
                 outboundMsgQueue.add(msg);
@@ -424,6 +450,10 @@ public class TbWebSocketHandler extends TextWebSocketHandler implements WebSocke
                     TbWebSocketTextMsg textMsg = (TbWebSocketTextMsg) msg;
                     this.asyncRemote.sendText(textMsg.getMsg(), this);
                     // isSending status will be reset in the onResult method by call back
+                } else if (TbWebSocketMsgType.BINARY.equals(msg.getType())) {
+                    TbWebSocketBinaryMsg binaryMsg = (TbWebSocketBinaryMsg) msg;
+                    this.asyncRemote.sendBinary(binaryMsg.getMsg(), this);
+                    // isSending status will be reset in the onResult method by call back
                 } else {
                     TbWebSocketPingMsg pingMsg = (TbWebSocketPingMsg) msg;
                     this.asyncRemote.sendPing(pingMsg.getMsg()); // blocking call
@@ -487,6 +517,16 @@ public class TbWebSocketHandler extends TextWebSocketHandler implements WebSocke
     @Override
     public void send(WebSocketSessionRef sessionRef, int subscriptionId, String msg) throws IOException {
         log.debug("{} Sending {}", sessionRef, msg);
+        send(sessionRef, subscriptionId, new TbWebSocketTextMsg(msg));
+    }
+
+    @Override
+    public void send(WebSocketSessionRef sessionRef, int subscriptionId, byte[] msg) throws IOException {
+        log.debug("{} Sending {} bytes", sessionRef, msg.length);
+        send(sessionRef, subscriptionId, new TbWebSocketBinaryMsg(msg));
+    }
+
+    private void send(WebSocketSessionRef sessionRef, int subscriptionId, TbWebSocketMsg<?> msg) throws IOException {
         String externalId = sessionRef.getSessionId();
         String internalId = externalSessionMap.get(externalId);
         if (internalId != null) {
@@ -496,7 +536,12 @@ public class TbWebSocketHandler extends TextWebSocketHandler implements WebSocke
                 if (!rateLimitService.checkRateLimit(LimitedApi.WS_UPDATES_PER_SESSION, tenantId, (Object) sessionRef.getSessionId())) {
                     if (blacklistedSessions.putIfAbsent(externalId, sessionRef) == null) {
                         log.info("{} Failed to process session update. Max session updates limit reached", sessionRef);
-                        sessionMd.sendMsg("{\"subscriptionId\":" + subscriptionId + ", \"errorCode\":" + ThingsboardErrorCode.TOO_MANY_UPDATES.getErrorCode() + ", \"errorMsg\":\"Too many updates!\"}");
+                        String errorMsg = "{\"subscriptionId\":" + subscriptionId + ", \"errorCode\":" + ThingsboardErrorCode.TOO_MANY_UPDATES.getErrorCode() + ", \"errorMsg\":\"Too many updates!\"}";
+                        if (sessionRef.getEncoding() == WebSocketEncoding.CBOR) {
+                            sessionMd.sendMsg(JacksonUtil.CBOR_MAPPER.writeValueAsBytes(JacksonUtil.toJsonNode(errorMsg)));
+                        } else {
+                            sessionMd.sendMsg(errorMsg);
+                        }
                     }
                     return;
                 } else {
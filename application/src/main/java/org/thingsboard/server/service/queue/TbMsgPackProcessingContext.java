@@ -74,6 +74,10 @@ public class TbMsgPackProcessingContext {
         return success;
     }
 
+    public boolean isProcessed() {
+        return processingTimeoutLatch.getCount() == 0;
+    }
+
     public void onSuccess(UUID id) {
         TbProtoQueueMsg<TransportProtos.ToRuleEngineMsg> msg;
         boolean empty = false;
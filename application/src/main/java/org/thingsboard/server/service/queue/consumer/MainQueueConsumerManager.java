@@ -201,7 +201,7 @@ public class MainQueueConsumerManager<M extends TbQueueMsg, C extends QueueConfi
         consumerTask.setTask(consumerLoop);
     }
 
-    private void consumerLoop(TbQueueConsumer<M> consumer) {
+    protected void consumerLoop(TbQueueConsumer<M> consumer) {
         while (!stopped && !consumer.isStopped()) {
             try {
                 List<M> msgs = consumer.poll(config.getPollInterval());
@@ -43,7 +43,9 @@ import org.thingsboard.server.service.queue.processing.TbRuleEngineProcessingRes
 import org.thingsboard.server.service.queue.processing.TbRuleEngineProcessingStrategy;
 import org.thingsboard.server.service.queue.processing.TbRuleEngineSubmitStrategy;
 
+import java.util.ArrayDeque;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -115,10 +117,58 @@ public class TbRuleEngineQueueConsumerManager extends MainQueueConsumerManager<T
         });
     }
 
+    @Override
+    protected void consumerLoop(TbQueueConsumer<TbProtoQueueMsg<ToRuleEngineMsg>> consumer) {
+        if (ctx.isPipeliningEnabled() && consumer.isPackCommitSupported()) {
+            pipelinedConsumerLoop(consumer);
+        } else {
+            super.consumerLoop(consumer);
+        }
+    }
+
+    private void pipelinedConsumerLoop(TbQueueConsumer<TbProtoQueueMsg<ToRuleEngineMsg>> consumer) {
+        Deque<List<TbProtoQueueMsg<ToRuleEngineMsg>>> prefetchedPacks = new ArrayDeque<>();
+        while (!stopped && !consumer.isStopped()) {
+            List<TbProtoQueueMsg<ToRuleEngineMsg>> msgs = prefetchedPacks.poll();
+            try {
+                if (msgs == null) {
+                    msgs = consumer.poll(config.getPollInterval());
+                    if (msgs.isEmpty()) {
+                        continue;
+                    }
+                }
+                processMsgs(msgs, consumer, config, prefetchedPacks);
+            } catch (Exception e) {
+                if (!consumer.isStopped()) {
+                    log.warn("Failed to process messages from queue", e);
+                    if (msgs != null && !msgs.isEmpty()) {
+                        // the failed pack is skipped, otherwise the next commit would be applied to it instead of the next pack
+                        commitPack(consumer);
+                    }
+                    try {
+                        Thread.sleep(config.getPollInterval());
+                    } catch (InterruptedException e2) {
+                        log.trace("Failed to wait until the server has capacity to handle new requests", e2);
+                    }
+                }
+            }
+        }
+        if (consumer.isStopped()) {
+            consumer.unsubscribe();
+        }
+    }
+
     @Override
     protected void processMsgs(List<TbProtoQueueMsg<ToRuleEngineMsg>> msgs,
                                TbQueueConsumer<TbProtoQueueMsg<ToRuleEngineMsg>> consumer,
                                Queue queue) throws Exception {
+        processMsgs(msgs, consumer, queue, null);
+    }
+
+    // if prefetchedPacks is not null, the next packs are polled while the current one is processed, and only the current pack is committed
+    private void processMsgs(List<TbProtoQueueMsg<ToRuleEngineMsg>> msgs,
+                             TbQueueConsumer<TbProtoQueueMsg<ToRuleEngineMsg>> consumer,
+                             Queue queue, Deque<List<TbProtoQueueMsg<ToRuleEngineMsg>>> prefetchedPacks) throws Exception {
         TbRuleEngineSubmitStrategy submitStrategy = getSubmitStrategy(queue);
         TbRuleEngineProcessingStrategy ackStrategy = getProcessingStrategy(queue);
         submitStrategy.init(msgs);
@@ -126,7 +176,9 @@ public class TbRuleEngineQueueConsumerManager extends MainQueueConsumerManager<T
             TbMsgPackProcessingContext packCtx = new TbMsgPackProcessingContext(queue.getName(), submitStrategy, ackStrategy.isSkipTimeoutMsgs());
             submitStrategy.submitAttempt((id, msg) -> submitMessage(packCtx, id, msg));
 
-            final boolean timeout = !packCtx.await(queue.getPackProcessingTimeout(), TimeUnit.MILLISECONDS);
+            final boolean timeout = prefetchedPacks != null ?
+                    !awaitAndPrefetch(packCtx, consumer, queue, prefetchedPacks) :
+                    !packCtx.await(queue.getPackProcessingTimeout(), TimeUnit.MILLISECONDS);
 
             TbRuleEngineProcessingResult result = new TbRuleEngineProcessingResult(queue.getName(), timeout, packCtx);
             if (timeout) {
@@ -146,7 +198,11 @@ public class TbRuleEngineQueueConsumerManager extends MainQueueConsumerManager<T
 
             if (decision.isCommit()) {
                 submitStrategy.stop();
-                consumer.commit();
+                if (prefetchedPacks != null) {
+                    commitPack(consumer);
+                } else {
+                    consumer.commit();
+                }
                 break;
             } else {
                 submitStrategy.update(decision.getReprocessMap());
@@ -154,6 +210,39 @@ public class TbRuleEngineQueueConsumerManager extends MainQueueConsumerManager<T
         }
     }
 
+    private boolean awaitAndPrefetch(TbMsgPackProcessingContext packCtx,
+                                     TbQueueConsumer<TbProtoQueueMsg<ToRuleEngineMsg>> consumer,
+                                     Queue queue, Deque<List<TbProtoQueueMsg<ToRuleEngineMsg>>> prefetchedPacks) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + queue.getPackProcessingTimeout();
+        while (prefetchedPacks.size() < ctx.getMaxPrefetchedPacks() && !packCtx.isProcessed() && !stopped && !consumer.isStopped()) {
+            long timeLeft = deadline - System.currentTimeMillis();
+            if (timeLeft <= 0) {
+                break;
+            }
+            List<TbProtoQueueMsg<ToRuleEngineMsg>> nextMsgs;
+            try {
+                nextMsgs = consumer.poll(Math.min(queue.getPollInterval(), timeLeft));
+            } catch (Exception e) {
+                // the current pack is still in processing, so it is not affected by the failed prefetch
+                log.warn("[{}] Failed to prefetch messages from queue", queueKey, e);
+                break;
+            }
+            if (!nextMsgs.isEmpty()) {
+                prefetchedPacks.add(nextMsgs);
+            }
+        }
+        return packCtx.await(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+    }
+
+    private void commitPack(TbQueueConsumer<TbProtoQueueMsg<ToRuleEngineMsg>> consumer) {
+        try {
+            consumer.commitPack();
+        } catch (Exception e) {
+            // the pack is removed from the uncommitted ones anyway, so the commit order of the next packs is kept
+            log.warn("[{}] Failed to commit processed pack", queueKey, e);
+        }
+    }
+
     private TbRuleEngineSubmitStrategy getSubmitStrategy(Queue queue) {
         return ctx.getSubmitStrategyFactory().newInstance(queue.getName(), queue.getSubmitStrategy());
     }
@@ -195,8 +195,17 @@ public class DefaultDeviceStateService extends AbstractPartitionBasedService<Dev
     @Getter
     private int telemetryTtl;
 
+    @Value("${state.inactivityTimer.enabled:false}")
+    @Getter
+    private boolean inactivityTimerEnabled;
+
+    @Value("${state.inactivityTimer.tickMs:1000}")
+    @Getter
+    private long inactivityTimerTickMs;
+
     private ListeningExecutorService deviceStateExecutor;
     private ListeningExecutorService deviceStateCallbackExecutor;
+    private DeviceInactivityTimer inactivityTimer;
 
     final ConcurrentMap<DeviceId, DeviceStateData> deviceStates = new ConcurrentHashMap<>();
 
@@ -207,7 +216,12 @@ public class DefaultDeviceStateService extends AbstractPartitionBasedService<Dev
                 Math.max(4, Runtime.getRuntime().availableProcessors()), "device-state"));
         deviceStateCallbackExecutor = MoreExecutors.listeningDecorator(ThingsBoardExecutors.newWorkStealingPool(
                 Math.max(4, Runtime.getRuntime().availableProcessors()), "device-state-callback"));
-        scheduledExecutor.scheduleWithFixedDelay(this::checkStates, new Random().nextInt(defaultStateCheckIntervalInSec), defaultStateCheckIntervalInSec, TimeUnit.SECONDS);
+        if (inactivityTimerEnabled) {
+            inactivityTimer = new DeviceInactivityTimer(inactivityTimerTickMs);
+            scheduledExecutor.scheduleWithFixedDelay(this::checkExpiredStates, inactivityTimerTickMs, inactivityTimerTickMs, TimeUnit.MILLISECONDS);
+        } else {
+            scheduledExecutor.scheduleWithFixedDelay(this::checkStates, new Random().nextInt(defaultStateCheckIntervalInSec), defaultStateCheckIntervalInSec, TimeUnit.SECONDS);
+        }
         scheduledExecutor.scheduleWithFixedDelay(this::reportActivityStats, defaultActivityStatsIntervalInSec, defaultActivityStatsIntervalInSec, TimeUnit.SECONDS);
     }
 
@@ -282,6 +296,7 @@ public class DefaultDeviceStateService extends AbstractPartitionBasedService<Dev
                 }
                 onDeviceActivityStatusChange(deviceId, true, stateData);
             }
+            scheduleInactivityCheck(deviceId, stateData);
         } else {
             log.debug("updateActivityState - fetched state IS NULL for device {}, lastReportedActivity {}", deviceId, lastReportedActivity);
             cleanupEntity(deviceId);
@@ -417,8 +432,9 @@ public class DefaultDeviceStateService extends AbstractPartitionBasedService<Dev
 
     private void initializeActivityState(DeviceId deviceId, DeviceStateData fetchedState) {
         DeviceStateData cachedState = deviceStates.putIfAbsent(fetchedState.getDeviceId(), fetchedState);
-        boolean activityState = Objects.requireNonNullElse(cachedState, fetchedState).getState().isActive();
-        save(deviceId, ACTIVITY_STATE, activityState);
+        DeviceStateData stateData = Objects.requireNonNullElse(cachedState, fetchedState);
+        save(deviceId, ACTIVITY_STATE, stateData.getState().isActive());
+        scheduleInactivityCheck(deviceId, stateData);
     }
 
     @Override
@@ -500,6 +516,7 @@ public class DefaultDeviceStateService extends AbstractPartitionBasedService<Dev
                 }
             }
         }
+        scheduleInactivityCheck(deviceId, state);
     }
 
     void checkStates() {
@@ -533,6 +550,48 @@ public class DefaultDeviceStateService extends AbstractPartitionBasedService<Dev
         }
     }
 
+    void checkExpiredStates() {
+        try {
+            final long ts = getCurrentTimeMillis();
+            List<DeviceId> expiredDeviceIds = inactivityTimer.pollExpired(ts);
+            log.debug("Calculating state updates for {} expired devices, {} devices scheduled", expiredDeviceIds.size(), inactivityTimer.size());
+            for (DeviceId deviceId : expiredDeviceIds) {
+                DeviceStateData stateData = deviceStates.get(deviceId);
+                if (stateData == null) {
+                    continue;
+                }
+                try {
+                    updateInactivityStateIfExpired(ts, deviceId, stateData);
+                    if (deviceStates.get(deviceId) == stateData) {
+                        // device is either still active or its deadline was postponed after it was scheduled
+                        scheduleInactivityCheck(deviceId, stateData);
+                    }
+                } catch (Exception e) {
+                    if (e instanceof TenantNotFoundException) {
+                        cleanupEntity(deviceId);
+                        partitionedEntities.values().forEach(deviceIds -> deviceIds.remove(deviceId));
+                    } else {
+                        log.warn("[{}] Failed to update inactivity state [{}]", deviceId, e.getMessage());
+                    }
+                }
+            }
+        } catch (Throwable t) {
+            log.warn("Failed to check expired devices states", t);
+        }
+    }
+
+    private void scheduleInactivityCheck(DeviceId deviceId, DeviceStateData stateData) {
+        if (inactivityTimer == null) {
+            return;
+        }
+        DeviceState state = stateData.getState();
+        boolean inactivityReported = state.getLastInactivityAlarmTime() != 0L && state.getLastInactivityAlarmTime() > state.getLastActivityTime();
+        if (!inactivityReported) {
+            long deadline = Math.max(state.getLastActivityTime(), stateData.getDeviceCreationTime()) + state.getInactivityTimeout();
+            inactivityTimer.schedule(deviceId, deadline);
+        }
+    }
+
     void reportActivityStats() {
         try {
             Map<TenantId, Pair<AtomicInteger, AtomicInteger>> stats = new HashMap<>();
@@ -641,6 +700,9 @@ public class DefaultDeviceStateService extends AbstractPartitionBasedService<Dev
 
     private void cleanupEntity(DeviceId deviceId) {
         deviceStates.remove(deviceId);
+        if (inactivityTimer != null) {
+            inactivityTimer.cancel(deviceId);
+        }
     }
 
 
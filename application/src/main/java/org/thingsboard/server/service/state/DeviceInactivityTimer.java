@@ -0,0 +1,118 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.service.state;
+
+import org.thingsboard.server.common.data.id.DeviceId;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Deadline-bucketed scheduler of device inactivity checks.
+ * Devices are grouped into buckets of {@code tickMs} width by their inactivity deadline,
+ * so each tick only touches devices whose deadline has passed.
+ * <p>
+ * Postponing a deadline does not move the device: it stays in its earlier bucket and
+ * is expected to be re-armed by the caller when that bucket expires.
+ * This keeps the hot path of device activity to a single map lookup.
+ */
+class DeviceInactivityTimer {
+
+    private final long tickMs;
+    private final NavigableMap<Long, Set<DeviceId>> buckets = new TreeMap<>();
+    private final ConcurrentMap<DeviceId, Long> armedBuckets = new ConcurrentHashMap<>();
+
+    DeviceInactivityTimer(long tickMs) {
+        if (tickMs <= 0) {
+            throw new IllegalArgumentException("Inactivity timer tick must be positive!");
+        }
+        this.tickMs = tickMs;
+    }
+
+    void schedule(DeviceId deviceId, long deadline) {
+        long bucket = toBucket(deadline);
+        Long current = armedBuckets.get(deviceId);
+        if (current != null && current <= bucket) {
+            return;
+        }
+        synchronized (buckets) {
+            current = armedBuckets.get(deviceId);
+            if (current != null) {
+                if (current <= bucket) {
+                    return;
+                }
+                removeFromBucket(current, deviceId);
+            }
+            buckets.computeIfAbsent(bucket, b -> new HashSet<>()).add(deviceId);
+            armedBuckets.put(deviceId, bucket);
+        }
+    }
+
+    void cancel(DeviceId deviceId) {
+        if (!armedBuckets.containsKey(deviceId)) {
+            return;
+        }
+        synchronized (buckets) {
+            Long current = armedBuckets.remove(deviceId);
+            if (current != null) {
+                removeFromBucket(current, deviceId);
+            }
+        }
+    }
+
+    List<DeviceId> pollExpired(long ts) {
+        long lastExpiredBucket = Math.floorDiv(ts, tickMs);
+        List<DeviceId> expired = new ArrayList<>();
+        synchronized (buckets) {
+            Map.Entry<Long, Set<DeviceId>> entry;
+            while ((entry = buckets.firstEntry()) != null && entry.getKey() <= lastExpiredBucket) {
+                buckets.pollFirstEntry();
+                for (DeviceId deviceId : entry.getValue()) {
+                    armedBuckets.remove(deviceId);
+                    expired.add(deviceId);
+                }
+            }
+        }
+        return expired;
+    }
+
+    int size() {
+        return armedBuckets.size();
+    }
+
+    private void removeFromBucket(long bucket, DeviceId deviceId) {
+        Set<DeviceId> deviceIds = buckets.get(bucket);
+        if (deviceIds != null) {
+            deviceIds.remove(deviceId);
+            if (deviceIds.isEmpty()) {
+                buckets.remove(bucket);
+            }
+        }
+    }
+
+    private long toBucket(long deadline) {
+        // rounding up guarantees that the bucket never expires before the deadline itself
+        return -Math.floorDiv(-deadline, tickMs);
+    }
+
+}
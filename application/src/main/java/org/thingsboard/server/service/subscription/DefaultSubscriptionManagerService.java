@@ -51,12 +51,14 @@ import org.thingsboard.server.queue.provider.TbQueueProducerProvider;
 import org.thingsboard.server.queue.util.TbCoreComponent;
 import org.thingsboard.server.service.state.DefaultDeviceStateService;
 import org.thingsboard.server.service.state.DeviceStateService;
+import org.thingsboard.server.service.telemetry.TbCoreTimeseriesLatestStore;
 import org.thingsboard.server.service.ws.notification.sub.NotificationUpdate;
 import org.thingsboard.server.service.ws.notification.sub.NotificationsSubscriptionUpdate;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -79,6 +81,7 @@ public class DefaultSubscriptionManagerService extends TbApplicationEventListene
     private final DeviceStateService deviceStateService;
     private final TbClusterService clusterService;
     private final SubscriptionSchedulerComponent scheduler;
+    private final Optional<TbCoreTimeseriesLatestStore> timeseriesLatestStore;
 
     private final Lock subsLock = new ReentrantLock();
     private final ConcurrentMap<EntityId, TbEntityRemoteSubsInfo> entitySubscriptions = new ConcurrentHashMap<>();
@@ -160,6 +163,7 @@ public class DefaultSubscriptionManagerService extends TbApplicationEventListene
 
     @Override
     public void onTimeSeriesUpdate(TenantId tenantId, EntityId entityId, List<TsKvEntry> ts, TbCallback callback) {
+        timeseriesLatestStore.ifPresent(store -> store.onTimeSeriesUpdate(entityId, ts));
         onTimeSeriesUpdate(entityId, ts);
         if (entityId.getEntityType() == EntityType.DEVICE) {
             updateDeviceInactivityTimeout(tenantId, entityId, ts);
@@ -169,6 +173,7 @@ public class DefaultSubscriptionManagerService extends TbApplicationEventListene
 
     @Override
     public void onTimeSeriesDelete(TenantId tenantId, EntityId entityId, List<String> keys, TbCallback callback) {
+        timeseriesLatestStore.ifPresent(store -> store.onTimeSeriesDelete(entityId, keys));
         onTimeSeriesUpdate(entityId,
                 keys.stream().map(key -> new BasicTsKvEntry(0, new StringDataEntry(key, ""))).collect(Collectors.toList()));
         if (entityId.getEntityType() == EntityType.DEVICE) {
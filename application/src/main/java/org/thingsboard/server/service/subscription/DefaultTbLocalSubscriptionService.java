@@ -63,6 +63,7 @@ import org.thingsboard.server.service.ws.telemetry.sub.TelemetrySubscriptionUpda
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -88,6 +89,7 @@ public class DefaultTbLocalSubscriptionService implements TbLocalSubscriptionSer
     private final ConcurrentMap<String, ConcurrentMap<Integer, TbSubscription<?>>> subscriptionsBySessionId = new ConcurrentHashMap<>();
     private final ConcurrentMap<UUID, TbEntityLocalSubsInfo> subscriptionsByEntityId = new ConcurrentHashMap<>();
     private final ConcurrentMap<UUID, TbEntityUpdatesInfo> entityUpdates = new ConcurrentHashMap<>();
+    private final ConcurrentMap<TbSubscription<?>, CoalescedUpdate> coalescedUpdates = new ConcurrentHashMap<>();
 
     private final AttributesService attrService;
     private final TimeseriesService tsService;
@@ -97,6 +99,7 @@ public class DefaultTbLocalSubscriptionService implements TbLocalSubscriptionSer
     private final SubscriptionManagerService subscriptionManagerService;
     private final WebSocketService webSocketService;
     private final RateLimitService rateLimitService;
+    private final SubscriptionSchedulerComponent subscriptionScheduler;
 
     private ExecutorService tsCallBackExecutor;
     private ScheduledExecutorService staleSessionCleanupExecutor;
@@ -105,11 +108,13 @@ public class DefaultTbLocalSubscriptionService implements TbLocalSubscriptionSer
     private String subscriptionsPerTenantRateLimit;
     @Value("${server.ws.rate_limits.subscriptions_per_user:}")
     private String subscriptionsPerUserRateLimit;
+    @Value("${server.ws.updates_coalescing_window_ms:0}")
+    private long updatesCoalescingWindowMs;
 
     public DefaultTbLocalSubscriptionService(AttributesService attrService, TimeseriesService tsService, TbServiceInfoProvider serviceInfoProvider,
                                              PartitionService partitionService, TbClusterService clusterService,
                                              @Lazy SubscriptionManagerService subscriptionManagerService, @Lazy WebSocketService webSocketService,
-                                             RateLimitService rateLimitService) {
+                                             RateLimitService rateLimitService, SubscriptionSchedulerComponent subscriptionScheduler) {
         this.attrService = attrService;
         this.tsService = tsService;
         this.serviceInfoProvider = serviceInfoProvider;
@@ -118,6 +123,7 @@ public class DefaultTbLocalSubscriptionService implements TbLocalSubscriptionSer
         this.subscriptionManagerService = subscriptionManagerService;
         this.webSocketService = webSocketService;
         this.rateLimitService = rateLimitService;
+        this.subscriptionScheduler = subscriptionScheduler;
     }
 
     private String serviceId;
@@ -132,6 +138,9 @@ public class DefaultTbLocalSubscriptionService implements TbLocalSubscriptionSer
         serviceId = serviceInfoProvider.getServiceId();
         staleSessionCleanupExecutor = ThingsBoardExecutors.newSingleThreadScheduledExecutor("stale-session-cleanup");
         staleSessionCleanupExecutor.scheduleWithFixedDelay(this::cleanupStaleSessions, 60, 60, TimeUnit.SECONDS);
+        if (updatesCoalescingWindowMs > 0) {
+            subscriptionScheduler.scheduleWithFixedDelay(this::flushCoalescedUpdates, updatesCoalescingWindowMs, updatesCoalescingWindowMs, TimeUnit.MILLISECONDS);
+        }
     }
 
     @PreDestroy
@@ -282,6 +291,7 @@ public class DefaultTbLocalSubscriptionService implements TbLocalSubscriptionSer
             if (sessionSubscriptions != null) {
                 TbSubscription<?> subscription = sessionSubscriptions.remove(subscriptionId);
                 if (subscription != null) {
+                    coalescedUpdates.remove(subscription);
                     if (sessionSubscriptions.isEmpty()) {
                         subscriptionsBySessionId.remove(sessionId);
                     }
@@ -308,6 +318,7 @@ public class DefaultTbLocalSubscriptionService implements TbLocalSubscriptionSer
         try {
             Map<Integer, TbSubscription<?>> sessionSubscriptions = subscriptionsBySessionId.remove(sessionId);
             if (sessionSubscriptions != null) {
+                sessionSubscriptions.values().forEach(coalescedUpdates::remove);
                 Map<EntityId, List<TbSubscription<?>>> entitySubscriptions =
                         sessionSubscriptions.values().stream().collect(Collectors.groupingBy(TbSubscription::getEntityId));
 
@@ -356,9 +367,8 @@ public class DefaultTbLocalSubscriptionService implements TbLocalSubscriptionSer
                         }
                     }
                     if (updateData != null) {
-                        TelemetrySubscriptionUpdate update = new TelemetrySubscriptionUpdate(sub.getSubscriptionId(), updateData);
-                        update.getLatestValues().forEach((key, value) -> sub.getKeyStates().put(key, value));
-                        subscriptionUpdateExecutor.submit(() -> sub.getUpdateProcessor().accept(sub, update));
+                        updateData.forEach(kv -> sub.getKeyStates().put(kv.getKey(), kv.getTs()));
+                        pushTelemetryUpdate(sub, updateData, sub.isLatestValues());
                     }
                 }, callback);
     }
@@ -394,14 +404,45 @@ public class DefaultTbLocalSubscriptionService implements TbLocalSubscriptionSer
                             }
                         }
                         if (updateData != null) {
-                            TelemetrySubscriptionUpdate update = new TelemetrySubscriptionUpdate(sub.getSubscriptionId(), updateData);
-                            update.getLatestValues().forEach((key, value) -> sub.getKeyStates().put(key, value));
-                            subscriptionUpdateExecutor.submit(() -> sub.getUpdateProcessor().accept(sub, update));
+                            updateData.forEach(kv -> sub.getKeyStates().put(kv.getKey(), kv.getTs()));
+                            pushTelemetryUpdate(sub, updateData, true);
                         }
                     }
                 }, callback);
     }
 
+    private void pushTelemetryUpdate(TbSubscription<TelemetrySubscriptionUpdate> sub, List<TsKvEntry> updateData, boolean latestOnly) {
+        if (updatesCoalescingWindowMs > 0) {
+            // compute is atomic with the removal on flush, so the data is never added to the already flushed update
+            coalescedUpdates.compute(sub, (s, pending) -> {
+                if (pending == null) {
+                    pending = new CoalescedUpdate(latestOnly);
+                }
+                pending.add(updateData);
+                return pending;
+            });
+        } else {
+            TelemetrySubscriptionUpdate update = new TelemetrySubscriptionUpdate(sub.getSubscriptionId(), updateData);
+            subscriptionUpdateExecutor.submit(() -> sub.getUpdateProcessor().accept(sub, update));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    void flushCoalescedUpdates() {
+        try {
+            for (TbSubscription<?> s : coalescedUpdates.keySet()) {
+                CoalescedUpdate pending = coalescedUpdates.remove(s);
+                if (pending != null) {
+                    TbSubscription<TelemetrySubscriptionUpdate> sub = (TbSubscription<TelemetrySubscriptionUpdate>) s;
+                    TelemetrySubscriptionUpdate update = new TelemetrySubscriptionUpdate(sub.getSubscriptionId(), pending.getData());
+                    subscriptionUpdateExecutor.submit(() -> sub.getUpdateProcessor().accept(sub, update));
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Failed to flush coalesced subscription updates", e);
+        }
+    }
+
     @Override
     public void onAlarmUpdate(TransportProtos.TbAlarmSubUpdateProto proto, TbCallback callback) {
         onAlarmUpdate(new UUID(proto.getEntityIdMSB(), proto.getEntityIdLSB()), TbSubscriptionUtils.fromProto(proto), callback);
@@ -670,4 +711,35 @@ public class DefaultTbLocalSubscriptionService implements TbLocalSubscriptionSer
         return entityUpdates.computeIfAbsent(entityId, id -> new TbEntityUpdatesInfo(0));
     }
 
+    /**
+     * Updates of a single subscription received during the coalescing window.
+     * Latest values and attribute subscriptions need the latest value per key only,
+     * while time series history subscriptions keep every data point and just get them in a single update.
+     */
+    private static class CoalescedUpdate {
+
+        private final boolean latestOnly;
+        private final Map<String, TsKvEntry> latest = new LinkedHashMap<>();
+        private final List<TsKvEntry> all = new ArrayList<>();
+
+        CoalescedUpdate(boolean latestOnly) {
+            this.latestOnly = latestOnly;
+        }
+
+        void add(List<TsKvEntry> data) {
+            if (latestOnly) {
+                for (TsKvEntry kv : data) {
+                    latest.merge(kv.getKey(), kv, (prev, cur) -> cur.getTs() >= prev.getTs() ? cur : prev);
+                }
+            } else {
+                all.addAll(data);
+            }
+        }
+
+        List<TsKvEntry> getData() {
+            return latestOnly ? new ArrayList<>(latest.values()) : all;
+        }
+
+    }
+
 }
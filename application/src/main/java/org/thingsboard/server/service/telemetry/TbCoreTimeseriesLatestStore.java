@@ -0,0 +1,249 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.service.telemetry;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.thingsboard.server.common.data.id.EntityId;
+import org.thingsboard.server.common.data.id.TenantId;
+import org.thingsboard.server.common.data.kv.BasicTsKvEntry;
+import org.thingsboard.server.common.data.kv.StringDataEntry;
+import org.thingsboard.server.common.data.kv.TsKvEntry;
+import org.thingsboard.server.common.data.kv.TsKvLatestRemovingResult;
+import org.thingsboard.server.common.msg.queue.ServiceType;
+import org.thingsboard.server.common.stats.DefaultCounter;
+import org.thingsboard.server.common.stats.StatsFactory;
+import org.thingsboard.server.dao.timeseries.TimeseriesLatestDao;
+import org.thingsboard.server.dao.timeseries.TimeseriesLatestStore;
+import org.thingsboard.server.queue.discovery.PartitionService;
+import org.thingsboard.server.queue.discovery.TbApplicationEventListener;
+import org.thingsboard.server.queue.discovery.event.PartitionChangeEvent;
+import org.thingsboard.server.queue.util.TbCoreComponent;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the latest time series values of the entities that belong to the tb-core partitions of this node.
+ * <p>
+ * The values of the entity are loaded from the {@link TimeseriesLatestDao} on the first read and are kept up to date
+ * by the saves and removals that go through the local time series service. Updates made on other nodes invalidate
+ * the affected entities when the time series update notification reaches this node, so the values that are saved
+ * without the notification may stay stale until the entity expires.
+ */
+@Slf4j
+@TbCoreComponent
+@Service
+@ConditionalOnProperty(prefix = "cache.ts_latest.core_store", value = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class TbCoreTimeseriesLatestStore extends TbApplicationEventListener<PartitionChangeEvent> implements TimeseriesLatestStore {
+
+    public static final String STATS_NAME = "ts_latest.core_store";
+
+    private final PartitionService partitionService;
+    private final TimeseriesLatestDao timeseriesLatestDao;
+    private final StatsFactory statsFactory;
+
+    @Value("${cache.ts_latest.core_store.max_entities:100000}")
+    private long maxEntities;
+
+    @Value("${cache.ts_latest.core_store.ttl_sec:600}")
+    private long ttlSec;
+
+    private Cache<EntityId, EntityLatest> entities;
+    private DefaultCounter hitCounter;
+    private DefaultCounter missCounter;
+
+    @PostConstruct
+    public void init() {
+        entities = Caffeine.newBuilder()
+                .maximumSize(maxEntities)
+                .expireAfterWrite(ttlSec, TimeUnit.SECONDS)
+                .build();
+        hitCounter = statsFactory.createDefaultCounter(STATS_NAME, "result", "hit");
+        missCounter = statsFactory.createDefaultCounter(STATS_NAME, "result", "miss");
+    }
+
+    @Override
+    public boolean isManaged(TenantId tenantId, EntityId entityId) {
+        return partitionService.isMyPartition(ServiceType.TB_CORE, tenantId, entityId);
+    }
+
+    @Override
+    public ListenableFuture<Optional<TsKvEntry>> findLatest(TenantId tenantId, EntityId entityId, String key) {
+        return Futures.transform(getValues(tenantId, entityId), values -> Optional.ofNullable(values.get(key)), MoreExecutors.directExecutor());
+    }
+
+    @Override
+    public ListenableFuture<List<TsKvEntry>> findLatest(TenantId tenantId, EntityId entityId, Collection<String> keys) {
+        return Futures.transform(getValues(tenantId, entityId), values -> {
+            List<TsKvEntry> result = new ArrayList<>(keys.size());
+            for (String key : keys) {
+                TsKvEntry entry = values.get(key);
+                result.add(entry != null ? entry : new BasicTsKvEntry(System.currentTimeMillis(), new StringDataEntry(key, null)));
+            }
+            return result;
+        }, MoreExecutors.directExecutor());
+    }
+
+    @Override
+    public ListenableFuture<List<TsKvEntry>> findAllLatest(TenantId tenantId, EntityId entityId) {
+        return Futures.transform(getValues(tenantId, entityId), values -> new ArrayList<>(values.values()), MoreExecutors.directExecutor());
+    }
+
+    @Override
+    public void onLatestSaved(TenantId tenantId, EntityId entityId, TsKvEntry tsKvEntry) {
+        EntityLatest latest = entities.getIfPresent(entityId);
+        if (latest != null) {
+            latest.onSaved(tsKvEntry);
+        }
+    }
+
+    @Override
+    public void onLatestRemoved(TenantId tenantId, EntityId entityId, TsKvLatestRemovingResult result) {
+        if (result == null || !result.isRemoved()) {
+            return;
+        }
+        EntityLatest latest = entities.getIfPresent(entityId);
+        if (latest != null) {
+            latest.onRemoved(result.getKey(), result.getData());
+        }
+    }
+
+    /**
+     * Handles the time series update notification that is sent to the partition owner after the values are persisted.
+     * Values that differ from the stored ones were saved by another node, so they are reloaded on the next read.
+     */
+    public void onTimeSeriesUpdate(EntityId entityId, List<TsKvEntry> update) {
+        EntityLatest latest = entities.getIfPresent(entityId);
+        if (latest != null) {
+            for (TsKvEntry entry : update) {
+                if (!latest.contains(entry)) {
+                    latest.invalidate(entry.getKey());
+                }
+            }
+        }
+    }
+
+    public void onTimeSeriesDelete(EntityId entityId, List<String> keys) {
+        EntityLatest latest = entities.getIfPresent(entityId);
+        if (latest != null) {
+            keys.forEach(latest::invalidate);
+        }
+    }
+
+    @Override
+    protected void onTbApplicationEvent(PartitionChangeEvent event) {
+        int sizeBefore = entities.asMap().size();
+        entities.asMap().entrySet().removeIf(entry -> !isManaged(entry.getValue().tenantId, entry.getKey()));
+        log.debug("Removed {} entities that no longer belong to the partitions of this node", sizeBefore - entities.asMap().size());
+    }
+
+    @Override
+    protected boolean filterTbApplicationEvent(PartitionChangeEvent event) {
+        return ServiceType.TB_CORE.equals(event.getServiceType());
+    }
+
+    private ListenableFuture<Map<String, TsKvEntry>> getValues(TenantId tenantId, EntityId entityId) {
+        EntityLatest latest = entities.get(entityId, id -> new EntityLatest(tenantId));
+        if (latest.loaded) {
+            hitCounter.increment();
+            return Futures.immediateFuture(latest.values);
+        }
+        missCounter.increment();
+        long generation = latest.generation;
+        return Futures.transform(timeseriesLatestDao.findAllLatest(tenantId, entityId), loaded -> {
+            if (latest.onLoaded(loaded, generation)) {
+                return latest.values;
+            }
+            // the values were modified during the load, so the loaded ones are returned as is and are not stored
+            Map<String, TsKvEntry> result = new HashMap<>();
+            loaded.forEach(entry -> result.put(entry.getKey(), entry));
+            return result;
+        }, MoreExecutors.directExecutor());
+    }
+
+    private static class EntityLatest {
+
+        private final TenantId tenantId;
+        private final Map<String, TsKvEntry> values = new ConcurrentHashMap<>();
+        private volatile boolean loaded;
+        private volatile long generation;
+
+        EntityLatest(TenantId tenantId) {
+            this.tenantId = tenantId;
+        }
+
+        synchronized boolean onLoaded(List<TsKvEntry> loadedValues, long loadGeneration) {
+            if (loadGeneration != generation) {
+                return false;
+            }
+            for (TsKvEntry entry : loadedValues) {
+                values.merge(entry.getKey(), entry, (current, loadedEntry) -> loadedEntry.getTs() > current.getTs() ? loadedEntry : current);
+            }
+            loaded = true;
+            return true;
+        }
+
+        synchronized void onSaved(TsKvEntry entry) {
+            TsKvEntry current = values.get(entry.getKey());
+            if (current == null || entry.getTs() >= current.getTs()) {
+                values.put(entry.getKey(), entry);
+            } else {
+                // whether the older value has overwritten the latest one depends on the DAO, so the key is reloaded
+                invalidate(entry.getKey());
+            }
+        }
+
+        synchronized void onRemoved(String key, TsKvEntry newLatest) {
+            if (newLatest != null) {
+                values.put(key, newLatest);
+            } else {
+                values.remove(key);
+            }
+            generation++;
+        }
+
+        boolean contains(TsKvEntry entry) {
+            TsKvEntry current = values.get(entry.getKey());
+            return current != null && current.getTs() == entry.getTs() && Objects.equals(current.getValue(), entry.getValue());
+        }
+
+        synchronized void invalidate(String key) {
+            values.remove(key);
+            loaded = false;
+            generation++;
+        }
+
+    }
+
+}
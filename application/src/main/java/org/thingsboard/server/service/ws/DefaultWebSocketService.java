@@ -856,6 +856,17 @@ public class DefaultWebSocketService implements WebSocketService {
 
     private void sendUpdate(WebSocketSessionRef sessionRef, int cmdId, Object update) {
         try {
+            if (sessionRef.getEncoding() == WebSocketEncoding.CBOR) {
+                byte[] msg = JacksonUtil.CBOR_MAPPER.writeValueAsBytes(update);
+                executor.submit(() -> {
+                    try {
+                        msgEndpoint.send(sessionRef, cmdId, msg);
+                    } catch (IOException e) {
+                        log.warn("[{}] Failed to send reply: {}", sessionRef.getSessionId(), update, e);
+                    }
+                });
+                return;
+            }
             String msg = JacksonUtil.OBJECT_MAPPER.writeValueAsString(update);
             executor.submit(() -> {
                 try {
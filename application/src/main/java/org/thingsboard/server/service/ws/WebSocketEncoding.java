@@ -0,0 +1,42 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.service.ws;
+
+import lombok.AllArgsConstructor;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Encoding of the updates sent to the WebSocket session, negotiated by the client with the {@code encoding} query parameter.
+ * Commands from the client are always expected as JSON text frames.
+ */
+@AllArgsConstructor
+public enum WebSocketEncoding {
+
+    JSON("json"), // text frames, default
+    CBOR("cbor"); // binary frames, same structure as JSON
+
+    private final String name;
+
+    public static Optional<WebSocketEncoding> forName(String name) {
+        return Arrays.stream(values())
+                .filter(encoding -> StringUtils.equalsIgnoreCase(encoding.name, name))
+                .findFirst();
+    }
+
+}
@@ -38,6 +38,8 @@ public class WebSocketSessionRef {
     private final InetSocketAddress localAddress;
     private final InetSocketAddress remoteAddress;
     private final WebSocketSessionType sessionType;
+    @Builder.Default
+    private final WebSocketEncoding encoding = WebSocketEncoding.JSON;
     private final AtomicInteger sessionSubIdSeq = new AtomicInteger();
 
     public TenantId getTenantId() {
@@ -0,0 +1,236 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.actors.stats;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.thingsboard.server.actors.AbstractTbActor;
+import org.thingsboard.server.actors.DefaultTbActorSystem;
+import org.thingsboard.server.actors.TbActor;
+import org.thingsboard.server.actors.TbActorCreator;
+import org.thingsboard.server.actors.TbActorId;
+import org.thingsboard.server.actors.TbActorRef;
+import org.thingsboard.server.actors.TbActorSystem;
+import org.thingsboard.server.actors.TbActorSystemSettings;
+import org.thingsboard.server.actors.TbEntityActorId;
+import org.thingsboard.server.common.data.id.DeviceId;
+import org.thingsboard.server.common.msg.MsgType;
+import org.thingsboard.server.common.msg.TbActorMsg;
+import org.thingsboard.server.common.stats.StatsFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.mock;
+
+class DefaultTbActorMailboxStatsTest {
+
+    static final String DISPATCHER = "device-dispatcher";
+
+    SimpleMeterRegistry meterRegistry;
+    DefaultTbActorMailboxStats mailboxStats;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        StatsFactory statsFactory = mock(StatsFactory.class);
+        willAnswer(inv -> meterRegistry.gauge(inv.getArgument(0), List.of(), inv.getArgument(1)))
+                .given(statsFactory).createGauge(anyString(), any(), any(String[].class));
+        willAnswer(inv -> meterRegistry.timer(inv.getArgument(0), (String[]) inv.getRawArguments()[1]))
+                .given(statsFactory).createTimer(anyString(), any(String[].class));
+        mailboxStats = new DefaultTbActorMailboxStats(statsFactory, true);
+        ReflectionTestUtils.setField(mailboxStats, "topSlowestActors", 10);
+    }
+
+    @Test
+    void givenEnqueuedAndDequeuedMsgs_whenDestroyActor_thenMailboxDepthIsReleased() {
+        TbActorId actorId = new TbEntityActorId(new DeviceId(UUID.randomUUID()));
+
+        mailboxStats.onMsgEnqueued(actorId, DISPATCHER);
+        mailboxStats.onMsgEnqueued(actorId, DISPATCHER);
+        mailboxStats.onMsgEnqueued(actorId, DISPATCHER);
+        mailboxStats.onMsgDequeued(actorId, DISPATCHER, TimeUnit.MILLISECONDS.toNanos(5));
+
+        assertThat(meterRegistry.get(DefaultTbActorMailboxStats.MAILBOX_DEPTH).gauge().value()).isEqualTo(2);
+        assertThat(meterRegistry.get(DefaultTbActorMailboxStats.MAILBOX_WAIT_TIME).timer().count()).isEqualTo(1);
+
+        mailboxStats.onActorDestroyed(actorId);
+        assertThat(meterRegistry.get(DefaultTbActorMailboxStats.MAILBOX_DEPTH).gauge().value()).isZero();
+
+        // messages left in the mailbox of a re-initialized actor must not drive the depth negative
+        mailboxStats.onMsgDequeued(actorId, DISPATCHER, 0);
+        assertThat(meterRegistry.get(DefaultTbActorMailboxStats.MAILBOX_DEPTH).gauge().value()).isZero();
+    }
+
+    @Test
+    void givenDestroyedActor_whenMsgsProcessed_thenActorStatsAreNotRecreated() {
+        TbActorId actorId = new TbEntityActorId(new DeviceId(UUID.randomUUID()));
+
+        mailboxStats.onMsgEnqueued(actorId, DISPATCHER);
+        mailboxStats.onActorDestroyed(actorId);
+        mailboxStats.onMsgDequeued(actorId, DISPATCHER, 0);
+        mailboxStats.onMsgsProcessed(actorId, DISPATCHER, 1, TimeUnit.MILLISECONDS.toNanos(1));
+
+        assertThat(mailboxStats.getSlowestActors(5)).isEmpty();
+        assertThat(meterRegistry.get(DefaultTbActorMailboxStats.PROCESSING_TIME).timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(DefaultTbActorMailboxStats.MAILBOX_DEPTH).gauge().value()).isZero();
+    }
+
+    @Test
+    void givenMoreActorsThanLimit_whenGetSlowestActors_thenOnlySlowestAreReturned() {
+        List<TbActorId> actors = new ArrayList<>();
+        for (int i = 1; i <= 20; i++) {
+            TbActorId actorId = new TbEntityActorId(new DeviceId(UUID.randomUUID()));
+            mailboxStats.onMsgEnqueued(actorId, DISPATCHER);
+            mailboxStats.onMsgsProcessed(actorId, DISPATCHER, 1, TimeUnit.MILLISECONDS.toNanos(i));
+            actors.add(actorId);
+        }
+
+        assertThat(mailboxStats.getSlowestActors(3)).extracting(DefaultTbActorMailboxStats.ActorProcessingStats::actorId)
+                .containsExactly(actors.get(19), actors.get(18), actors.get(17));
+        assertThat(mailboxStats.getSlowestActors(0)).isEmpty();
+    }
+
+    @Test
+    void givenProcessedMsgs_whenGetSlowestActors_thenSortedByTotalProcessingTime() {
+        TbActorId fastActor = new TbEntityActorId(new DeviceId(UUID.randomUUID()));
+        TbActorId slowActor = new TbEntityActorId(new DeviceId(UUID.randomUUID()));
+        TbActorId idleActor = new TbEntityActorId(new DeviceId(UUID.randomUUID()));
+
+        mailboxStats.onMsgEnqueued(fastActor, DISPATCHER);
+        mailboxStats.onMsgEnqueued(slowActor, DISPATCHER);
+        mailboxStats.onMsgsProcessed(fastActor, DISPATCHER, 10, TimeUnit.MILLISECONDS.toNanos(1));
+        mailboxStats.onMsgsProcessed(slowActor, DISPATCHER, 1, TimeUnit.MILLISECONDS.toNanos(20));
+        mailboxStats.onMsgsProcessed(slowActor, DISPATCHER, 1, TimeUnit.MILLISECONDS.toNanos(30));
+        mailboxStats.onMsgEnqueued(idleActor, DISPATCHER);
+
+        List<DefaultTbActorMailboxStats.ActorProcessingStats> slowest = mailboxStats.getSlowestActors(5);
+        assertThat(slowest).extracting(DefaultTbActorMailboxStats.ActorProcessingStats::actorId).containsExactly(slowActor, fastActor);
+        assertThat(slowest.get(0).processedMsgs()).isEqualTo(2);
+        assertThat(slowest.get(0).maxProcessingTimeNanos()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(30));
+        assertThat(meterRegistry.get(DefaultTbActorMailboxStats.PROCESSING_TIME).timer().count()).isEqualTo(3);
+
+        assertThat(mailboxStats.getSlowestActors(1)).hasSize(1);
+
+        mailboxStats.printStats();
+        assertThat(mailboxStats.getSlowestActors(5)).isEmpty();
+    }
+
+    @Test
+    void givenStatsToggledWhileMsgsInFlight_whenMsgsDequeued_thenOnlyMsgsEnqueuedWhileEnabledAreRecorded() throws Exception {
+        mailboxStats.setEnabled(false);
+        TbActorId actorId = new TbEntityActorId(new DeviceId(UUID.randomUUID()));
+        BlockingTestActor actor = new BlockingTestActor();
+        List<TbActorMsg> msgs = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            msgs.add(new TestMsg(i));
+        }
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        TbActorSystem actorSystem = new DefaultTbActorSystem(new TbActorSystemSettings(5, 1, 42), mailboxStats);
+        try {
+            actorSystem.createDispatcher(DISPATCHER, executor);
+            TbActorRef actorRef = actorSystem.createRootActor(DISPATCHER, new TbActorCreator() {
+                @Override
+                public TbActorId createActorId() {
+                    return actorId;
+                }
+
+                @Override
+                public TbActor createActor() {
+                    return actor;
+                }
+            });
+
+            actorRef.tell(msgs.get(0));
+            assertThat(actor.firstMsgStarted.await(30, TimeUnit.SECONDS)).isTrue();
+            // enqueued while disabled, dequeued while enabled
+            actorRef.tell(msgs.get(1));
+            actorRef.tell(msgs.get(2));
+
+            long enabledTime = System.nanoTime();
+            mailboxStats.setEnabled(true);
+            // enqueued while enabled, dequeued while disabled
+            actorRef.tell(msgs.get(3));
+            actorRef.tell(msgs.get(4));
+            assertThat(meterRegistry.get(DefaultTbActorMailboxStats.MAILBOX_DEPTH).gauge().value()).isEqualTo(2);
+
+            mailboxStats.setEnabled(false);
+            actorRef.tell(msgs.get(5));
+            actor.firstMsgReleased.countDown();
+
+            Awaitility.await().atMost(30, TimeUnit.SECONDS).until(() -> actor.processed.size() == msgs.size());
+            long maxWaitTime = System.nanoTime() - enabledTime;
+
+            assertThat(actor.processed).containsExactlyElementsOf(msgs);
+            Timer waitTimer = meterRegistry.get(DefaultTbActorMailboxStats.MAILBOX_WAIT_TIME).timer();
+            assertThat(waitTimer.count()).isEqualTo(2);
+            assertThat(waitTimer.max(TimeUnit.NANOSECONDS)).isBetween(0.0, (double) maxWaitTime);
+            assertThat(meterRegistry.get(DefaultTbActorMailboxStats.MAILBOX_DEPTH).gauge().value()).isZero();
+            assertThat(meterRegistry.get(DefaultTbActorMailboxStats.PROCESSING_TIME).timer().count()).isZero();
+        } finally {
+            actor.firstMsgReleased.countDown();
+            actorSystem.stop();
+            executor.shutdownNow();
+        }
+    }
+
+    private record TestMsg(int value) implements TbActorMsg {
+
+        @Override
+        public MsgType getMsgType() {
+            return MsgType.QUEUE_TO_RULE_ENGINE_MSG;
+        }
+
+    }
+
+    private static class BlockingTestActor extends AbstractTbActor {
+
+        private final CountDownLatch firstMsgStarted = new CountDownLatch(1);
+        private final CountDownLatch firstMsgReleased = new CountDownLatch(1);
+        private final List<TbActorMsg> processed = new CopyOnWriteArrayList<>();
+
+        @Override
+        public boolean process(TbActorMsg msg) {
+            if (firstMsgStarted.getCount() > 0) {
+                firstMsgStarted.countDown();
+                try {
+                    firstMsgReleased.await(30, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            processed.add(msg);
+            return true;
+        }
+
+    }
+
+}
@@ -181,4 +181,20 @@ public class AdminControllerTest extends AbstractControllerTest {
         resetJwtSettingsToDefault();
     }
 
+    @Test
+    public void testToggleActorMailboxStats() throws Exception {
+        loginSysAdmin();
+        assertThat(doGet("/api/admin/actorMailboxStats", Boolean.class)).isFalse();
+
+        doPost("/api/admin/actorMailboxStats?enabled=true").andExpect(status().isOk());
+        assertThat(doGet("/api/admin/actorMailboxStats", Boolean.class)).isTrue();
+
+        doPost("/api/admin/actorMailboxStats?enabled=false").andExpect(status().isOk());
+        assertThat(doGet("/api/admin/actorMailboxStats", Boolean.class)).isFalse();
+
+        loginTenantAdmin();
+        doPost("/api/admin/actorMailboxStats?enabled=true").andExpect(status().isForbidden());
+        doGet("/api/admin/actorMailboxStats").andExpect(status().isForbidden());
+    }
+
 }
@@ -31,6 +31,9 @@ import org.thingsboard.common.util.ThingsBoardThreadFactory;
 import org.thingsboard.server.service.ws.WebSocketSessionRef;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Deque;
 import java.util.List;
@@ -163,6 +166,35 @@ class TbWebSocketHandlerTest {
         verify(asyncRemote, times(1)).sendText(anyString(), any());
     }
 
+    @Test
+    void sendHandler_sendMsg_binary() {
+        List<String> outputs = new ArrayList<>();
+        willAnswer(invocation -> {
+            ByteBuffer buffer = invocation.getArgument(0);
+            outputs.add(StandardCharsets.UTF_8.decode(buffer).toString());
+            SendHandler onResultHandler = invocation.getArgument(1);
+            onResultHandler.onResult(new SendResult());
+            return null;
+        }).given(asyncRemote).sendBinary(any(), any());
+
+        sendHandler.sendMsg("first".getBytes(StandardCharsets.UTF_8));
+        sendHandler.sendMsg("second".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(outputs).containsExactly("first", "second");
+        verify(asyncRemote, never()).sendText(anyString(), any());
+        verify(sendHandler, never()).closeSession(any());
+        assertThat(sendHandler.isSending.get()).as("sendHandler not is in sending state").isFalse();
+    }
+
+    @Test
+    void getQueryParam() {
+        assertThat(TbWebSocketHandler.getQueryParam("token=abc.def", "token")).isEqualTo("abc.def");
+        assertThat(TbWebSocketHandler.getQueryParam("token=abc.def&encoding=cbor", "token")).isEqualTo("abc.def");
+        assertThat(TbWebSocketHandler.getQueryParam("token=abc.def&encoding=cbor", "encoding")).isEqualTo("cbor");
+        assertThat(TbWebSocketHandler.getQueryParam("token=abc.def", "encoding")).isNull();
+        assertThat(TbWebSocketHandler.getQueryParam(null, "token")).isNull();
+    }
+
     @Test
     void sendHandler_onMsg_allProcessed() throws Exception {
         Deque<String> msgs = new ConcurrentLinkedDeque<>();
@@ -51,7 +51,7 @@ public class RateLimitServiceTest {
     @BeforeEach
     public void beforeEach() {
         tenantProfileCache = Mockito.mock(DefaultTbTenantProfileCache.class);
-        rateLimitService = new DefaultRateLimitService(tenantProfileCache, mock(NotificationRuleProcessor.class), 60, 100);
+        rateLimitService = new DefaultRateLimitService(tenantProfileCache, mock(NotificationRuleProcessor.class), 60, 100, "");
         tenantId = new TenantId(UUID.randomUUID());
     }
 
@@ -98,6 +98,22 @@ public class RateLimitServiceTest {
         testRateLimits(LimitedApi.WS_UPDATES_PER_SESSION, max, wsSessionId);
     }
 
+    @Test
+    public void testLockFreeRateLimits() {
+        rateLimitService = new DefaultRateLimitService(tenantProfileCache, mock(NotificationRuleProcessor.class), 60, 100,
+                "WS_UPDATES_PER_SESSION, PASSWORD_RESET");
+        int max = 3;
+        DefaultTenantProfileConfiguration profileConfiguration = new DefaultTenantProfileConfiguration();
+        profileConfiguration.setWsUpdatesPerSessionRateLimit(max + ":600");
+        updateTenantProfileConfiguration(profileConfiguration);
+
+        String wsSessionId = UUID.randomUUID().toString();
+        testRateLimits(LimitedApi.WS_UPDATES_PER_SESSION, max, wsSessionId);
+
+        profileConfiguration.setWsUpdatesPerSessionRateLimit((max + 1) + ":600");
+        testRateLimits(LimitedApi.WS_UPDATES_PER_SESSION, max + 1, wsSessionId);
+    }
+
     private void testRateLimits(LimitedApi limitedApi, int max, Object level) {
         for (int i = 1; i <= max; i++) {
             boolean success = rateLimitService.checkRateLimit(limitedApi, tenantId, level);
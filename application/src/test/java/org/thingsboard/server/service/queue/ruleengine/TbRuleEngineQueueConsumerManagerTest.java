@@ -132,6 +132,7 @@ public class TbRuleEngineQueueConsumerManagerTest {
 
     private Set<TestConsumer> consumers;
     private boolean generateQueueMsgs;
+    private boolean packCommitSupported;
     private AtomicInteger totalConsumedMsgs;
     private AtomicInteger totalProcessedMsgs;
 
@@ -621,6 +622,25 @@ public class TbRuleEngineQueueConsumerManagerTest {
         });
     }
 
+    @Test
+    public void testPipelinedProcessing() {
+        ruleEngineConsumerContext.setPipeliningEnabled(true);
+        ruleEngineConsumerContext.setMaxPrefetchedPacks(2);
+        packCommitSupported = true;
+        queue.setConsumerPerPartition(false);
+        consumerManager.init(queue);
+
+        Set<TopicPartitionInfo> partitions = createTpis(1, 2);
+        consumerManager.update(partitions);
+        TestConsumer consumer = getConsumer();
+        verifySubscribedAndLaunched(consumer, partitions);
+
+        await().atMost(10, TimeUnit.SECONDS)
+                .until(() -> totalConsumedMsgs.get() >= 5);
+        verify(consumer, atLeastOnce()).commitPack();
+        verify(consumer, never()).commit();
+    }
+
     private void verifySubscribedAndLaunched(TestConsumer consumer, Set<TopicPartitionInfo> expectedPartitions) {
         await().atMost(2, TimeUnit.SECONDS)
                 .until(() -> consumer.subscribed && consumer.getPartitions().equals(expectedPartitions) && consumer.pollingStarted);
@@ -757,6 +777,19 @@ public class TbRuleEngineQueueConsumerManagerTest {
             log.debug("doCommit() totalConsumedMsgs = {}", totalConsumedMsgs.incrementAndGet());
         }
 
+        @Override
+        public boolean isPackCommitSupported() {
+            return packCommitSupported;
+        }
+
+        @Override
+        protected void doCommitPack() {
+            if (!subscribed) {
+                throw new IllegalStateException("Cannot commit because not subscribed");
+            }
+            log.debug("doCommitPack() totalConsumedMsgs = {}", totalConsumedMsgs.incrementAndGet());
+        }
+
         @Override
         public void unsubscribe() {
             super.unsubscribe();
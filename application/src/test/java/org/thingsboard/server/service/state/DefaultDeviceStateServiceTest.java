@@ -734,6 +734,40 @@ public class DefaultDeviceStateServiceTest {
         ));
     }
 
+    @Test
+    public void givenInactivityTimerEnabled_whenInactivityDeadlineExpires_thenReportsInactivity() throws Exception {
+        final long defaultTimeout = 1000;
+        initStateService(defaultTimeout);
+        ReflectionTestUtils.setField(service, "inactivityTimer", new DeviceInactivityTimer(1));
+        DeviceState deviceState = DeviceState.builder().build();
+        DeviceStateData deviceStateData = DeviceStateData.builder()
+                .tenantId(tenantId)
+                .deviceId(deviceId)
+                .state(deviceState)
+                .metaData(new TbMsgMetaData())
+                .build();
+
+        service.deviceStates.put(deviceId, deviceStateData);
+        service.getPartitionedEntities(tpi).add(deviceId);
+
+        long lastActivityTime = System.currentTimeMillis();
+        service.onDeviceActivity(tenantId, deviceId, lastActivityTime);
+        activityVerify(true);
+
+        doReturn(lastActivityTime + defaultTimeout - 1).when(service).getCurrentTimeMillis();
+        service.checkExpiredStates();
+        verify(telemetrySubscriptionService, never()).saveAttributes(argThat(request ->
+                request.getEntityId().equals(deviceId) &&
+                        request.getEntries().get(0).getKey().equals(ACTIVITY_STATE) &&
+                        request.getEntries().get(0).getValue().equals(false)
+        ));
+
+        doReturn(lastActivityTime + defaultTimeout).when(service).getCurrentTimeMillis();
+        service.checkExpiredStates();
+        activityVerify(false);
+        assertThat(deviceState.getLastInactivityAlarmTime()).isEqualTo(lastActivityTime + defaultTimeout);
+    }
+
     private void activityVerify(boolean isActive) {
         verify(telemetrySubscriptionService).saveAttributes(argThat(request ->
                 request.getEntityId().equals(deviceId) &&
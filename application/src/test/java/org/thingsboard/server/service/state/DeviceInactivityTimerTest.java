@@ -0,0 +1,81 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.service.state;
+
+import org.junit.jupiter.api.Test;
+import org.thingsboard.server.common.data.id.DeviceId;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DeviceInactivityTimerTest {
+
+    private final DeviceId deviceA = new DeviceId(UUID.randomUUID());
+    private final DeviceId deviceB = new DeviceId(UUID.randomUUID());
+
+    private final DeviceInactivityTimer timer = new DeviceInactivityTimer(100);
+
+    @Test
+    public void givenScheduledDevices_whenPollExpired_thenReturnsOnlyDevicesWithPassedDeadline() {
+        timer.schedule(deviceA, 1000);
+        timer.schedule(deviceB, 5000);
+
+        assertThat(timer.pollExpired(999)).isEmpty();
+        assertThat(timer.pollExpired(1000)).containsExactly(deviceA);
+        assertThat(timer.pollExpired(1000)).isEmpty();
+        assertThat(timer.size()).isEqualTo(1);
+        assertThat(timer.pollExpired(5000)).containsExactly(deviceB);
+        assertThat(timer.size()).isZero();
+    }
+
+    @Test
+    public void givenDeadlineNotAlignedToTick_whenPollExpired_thenNeverExpiresBeforeDeadline() {
+        timer.schedule(deviceA, 1050);
+
+        assertThat(timer.pollExpired(1050)).isEmpty();
+        assertThat(timer.pollExpired(1099)).isEmpty();
+        assertThat(timer.pollExpired(1100)).containsExactly(deviceA);
+    }
+
+    @Test
+    public void givenPostponedDeadline_whenPollExpired_thenDeviceStaysInEarlierBucket() {
+        timer.schedule(deviceA, 1000);
+        timer.schedule(deviceA, 3000);
+
+        assertThat(timer.pollExpired(1000)).containsExactly(deviceA);
+    }
+
+    @Test
+    public void givenEarlierDeadline_whenSchedule_thenDeviceIsMovedToEarlierBucket() {
+        timer.schedule(deviceA, 3000);
+        timer.schedule(deviceA, 1000);
+
+        assertThat(timer.pollExpired(1000)).containsExactly(deviceA);
+        assertThat(timer.pollExpired(3000)).isEmpty();
+    }
+
+    @Test
+    public void givenCancelledDevice_whenPollExpired_thenDeviceIsNotReturned() {
+        timer.schedule(deviceA, 1000);
+        timer.schedule(deviceB, 1000);
+        timer.cancel(deviceA);
+
+        assertThat(timer.pollExpired(1000)).containsExactly(deviceB);
+        assertThat(timer.size()).isZero();
+    }
+
+}
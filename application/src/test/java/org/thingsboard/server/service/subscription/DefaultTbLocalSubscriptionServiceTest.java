@@ -32,11 +32,15 @@ import org.thingsboard.server.cache.limits.RateLimitService;
 import org.thingsboard.server.common.data.id.DeviceId;
 import org.thingsboard.server.common.data.id.EntityId;
 import org.thingsboard.server.common.data.id.TenantId;
+import org.thingsboard.server.common.data.kv.BasicTsKvEntry;
+import org.thingsboard.server.common.data.kv.LongDataEntry;
 import org.thingsboard.server.common.data.limit.LimitedApi;
+import org.thingsboard.server.common.msg.queue.TbCallback;
 import org.thingsboard.server.common.msg.queue.TopicPartitionInfo;
 import org.thingsboard.server.gen.transport.TransportProtos;
 import org.thingsboard.server.queue.discovery.PartitionService;
 import org.thingsboard.server.service.ws.WebSocketSessionRef;
+import org.thingsboard.server.service.ws.telemetry.sub.TelemetrySubscriptionUpdate;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -45,6 +49,7 @@ import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.Executors;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
@@ -68,7 +73,7 @@ public class DefaultTbLocalSubscriptionServiceTest {
         when(rateLimitService.checkRateLimit(eq(LimitedApi.WS_SUBSCRIPTIONS), any(Object.class), nullable(String.class))).thenReturn(true);
         PartitionService partitionService = mock();
         when(partitionService.resolve(any(), any(), any())).thenReturn(TopicPartitionInfo.builder().build());
-        subscriptionService = new DefaultTbLocalSubscriptionService(mock(), mock(), mock(), partitionService, mock(), mock(), mock(), rateLimitService);
+        subscriptionService = new DefaultTbLocalSubscriptionService(mock(), mock(), mock(), partitionService, mock(), mock(), mock(), rateLimitService, mock());
         ReflectionTestUtils.setField(subscriptionService, "serviceId", "serviceId");
     }
 
@@ -110,6 +115,44 @@ public class DefaultTbLocalSubscriptionServiceTest {
         assertFalse(exceptionLogged, "Detected ConcurrentModificationException!");
     }
 
+    @Test
+    public void givenCoalescingWindow_whenTimeSeriesUpdates_thenSendLatestValuePerKeyOnFlush() {
+        ReflectionTestUtils.setField(subscriptionService, "subscriptionUpdateExecutor", MoreExecutors.newDirectExecutorService());
+        ReflectionTestUtils.setField(subscriptionService, "updatesCoalescingWindowMs", 100L);
+        TenantId tenantId = new TenantId(UUID.randomUUID());
+        DeviceId deviceId = new DeviceId(UUID.randomUUID());
+        List<TelemetrySubscriptionUpdate> updates = new ArrayList<>();
+        Map<String, Long> keyStates = new HashMap<>();
+        subscriptionService.addSubscription(TbTimeSeriesSubscription.builder()
+                .tenantId(tenantId)
+                .entityId(deviceId)
+                .subscriptionId(1)
+                .sessionId(RandomStringUtils.randomAlphanumeric(5))
+                .allKeys(true)
+                .latestValues(true)
+                .keyStates(keyStates)
+                .updateProcessor((sub, update) -> updates.add(update))
+                .build(), mock());
+
+        subscriptionService.onTimeSeriesUpdate(deviceId, List.of(new BasicTsKvEntry(1, new LongDataEntry("temperature", 20L))), TbCallback.EMPTY);
+        subscriptionService.onTimeSeriesUpdate(deviceId, List.of(new BasicTsKvEntry(2, new LongDataEntry("temperature", 21L)),
+                new BasicTsKvEntry(2, new LongDataEntry("humidity", 40L))), TbCallback.EMPTY);
+        subscriptionService.onTimeSeriesUpdate(deviceId, List.of(new BasicTsKvEntry(3, new LongDataEntry("temperature", 22L))), TbCallback.EMPTY);
+        assertThat(updates).isEmpty();
+        assertThat(keyStates).containsEntry("temperature", 3L).containsEntry("humidity", 2L);
+
+        ((DefaultTbLocalSubscriptionService) subscriptionService).flushCoalescedUpdates();
+
+        assertThat(updates).hasSize(1);
+        Map<String, List<Object>> data = updates.get(0).getData();
+        assertThat(data).containsOnlyKeys("temperature", "humidity");
+        assertThat(data.get("temperature")).singleElement().isEqualTo(new Object[]{3L, "22"});
+        assertThat(data.get("humidity")).singleElement().isEqualTo(new Object[]{2L, "40"});
+
+        ((DefaultTbLocalSubscriptionService) subscriptionService).flushCoalescedUpdates();
+        assertThat(updates).hasSize(1);
+    }
+
     private TbSubscription<?> createSubscription(TenantId tenantId, EntityId entityId) {
         Map<String, Long> keys = new HashMap<>();
         for (int i = 0; i < 50; i++) {
@@ -0,0 +1,173 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.service.telemetry;
+
+import com.google.common.util.concurrent.SettableFuture;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.thingsboard.server.common.data.id.DeviceId;
+import org.thingsboard.server.common.data.id.TenantId;
+import org.thingsboard.server.common.data.kv.BasicTsKvEntry;
+import org.thingsboard.server.common.data.kv.LongDataEntry;
+import org.thingsboard.server.common.data.kv.TsKvEntry;
+import org.thingsboard.server.common.data.kv.TsKvLatestRemovingResult;
+import org.thingsboard.server.common.msg.queue.ServiceType;
+import org.thingsboard.server.common.stats.DefaultCounter;
+import org.thingsboard.server.common.stats.StatsFactory;
+import org.thingsboard.server.dao.timeseries.TimeseriesLatestDao;
+import org.thingsboard.server.queue.discovery.PartitionService;
+import org.thingsboard.server.queue.discovery.event.PartitionChangeEvent;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.google.common.util.concurrent.Futures.immediateFuture;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+
+public class TbCoreTimeseriesLatestStoreTest {
+
+    private final TenantId tenantId = TenantId.fromUUID(UUID.randomUUID());
+    private final DeviceId deviceId = new DeviceId(UUID.randomUUID());
+
+    private PartitionService partitionService;
+    private TimeseriesLatestDao timeseriesLatestDao;
+    private TbCoreTimeseriesLatestStore store;
+
+    @BeforeEach
+    public void setUp() {
+        partitionService = mock(PartitionService.class);
+        timeseriesLatestDao = mock(TimeseriesLatestDao.class);
+        StatsFactory statsFactory = mock(StatsFactory.class);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        given(statsFactory.createDefaultCounter(anyString(), any(String[].class)))
+                .willAnswer(inv -> new DefaultCounter(new AtomicInteger(), registry.counter(inv.getArgument(0))));
+        given(partitionService.isMyPartition(ServiceType.TB_CORE, tenantId, deviceId)).willReturn(true);
+
+        store = new TbCoreTimeseriesLatestStore(partitionService, timeseriesLatestDao, statsFactory);
+        ReflectionTestUtils.setField(store, "maxEntities", 100L);
+        ReflectionTestUtils.setField(store, "ttlSec", 600L);
+        store.init();
+    }
+
+    @Test
+    public void givenLoadedEntity_whenFindLatest_thenAnsweredFromMemory() throws Exception {
+        given(timeseriesLatestDao.findAllLatest(tenantId, deviceId)).willReturn(immediateFuture(List.of(entry("temperature", 1000, 20))));
+
+        assertThat(store.findLatest(tenantId, deviceId, "temperature").get()).contains(entry("temperature", 1000, 20));
+        assertThat(store.findLatest(tenantId, deviceId, "humidity").get()).isEmpty();
+        List<TsKvEntry> latest = store.findLatest(tenantId, deviceId, List.of("temperature", "humidity")).get();
+        assertThat(latest.get(0)).isEqualTo(entry("temperature", 1000, 20));
+        assertThat(latest.get(1).getValue()).isNull();
+
+        then(timeseriesLatestDao).should(times(1)).findAllLatest(tenantId, deviceId);
+    }
+
+    @Test
+    public void givenLoadedEntity_whenLatestSaved_thenNewerValueIsStored() throws Exception {
+        given(timeseriesLatestDao.findAllLatest(tenantId, deviceId)).willReturn(immediateFuture(List.of(entry("temperature", 1000, 20))));
+        store.findAllLatest(tenantId, deviceId).get();
+
+        store.onLatestSaved(tenantId, deviceId, entry("temperature", 2000, 21));
+        store.onLatestSaved(tenantId, deviceId, entry("humidity", 2000, 50));
+
+        assertThat(store.findAllLatest(tenantId, deviceId).get())
+                .containsExactlyInAnyOrder(entry("temperature", 2000, 21), entry("humidity", 2000, 50));
+        then(timeseriesLatestDao).should(times(1)).findAllLatest(tenantId, deviceId);
+    }
+
+    @Test
+    public void givenLoadedEntity_whenOlderValueSaved_thenEntityIsReloaded() throws Exception {
+        given(timeseriesLatestDao.findAllLatest(tenantId, deviceId)).willReturn(immediateFuture(List.of(entry("temperature", 2000, 21))));
+        store.findAllLatest(tenantId, deviceId).get();
+
+        store.onLatestSaved(tenantId, deviceId, entry("temperature", 1000, 20));
+
+        assertThat(store.findLatest(tenantId, deviceId, "temperature").get()).contains(entry("temperature", 2000, 21));
+        then(timeseriesLatestDao).should(times(2)).findAllLatest(tenantId, deviceId);
+    }
+
+    @Test
+    public void givenLoadedEntity_whenLatestRemoved_thenKeyIsRemovedOrReplaced() throws Exception {
+        given(timeseriesLatestDao.findAllLatest(tenantId, deviceId))
+                .willReturn(immediateFuture(List.of(entry("temperature", 2000, 21), entry("humidity", 2000, 50))));
+        store.findAllLatest(tenantId, deviceId).get();
+
+        store.onLatestRemoved(tenantId, deviceId, new TsKvLatestRemovingResult(entry("temperature", 1000, 20), 10L));
+        store.onLatestRemoved(tenantId, deviceId, new TsKvLatestRemovingResult("humidity", true, 11L));
+
+        assertThat(store.findAllLatest(tenantId, deviceId).get()).containsExactly(entry("temperature", 1000, 20));
+    }
+
+    @Test
+    public void givenRemoteUpdate_whenValueDiffers_thenEntityIsReloaded() throws Exception {
+        given(timeseriesLatestDao.findAllLatest(tenantId, deviceId))
+                .willReturn(immediateFuture(List.of(entry("temperature", 1000, 20))))
+                .willReturn(immediateFuture(List.of(entry("temperature", 2000, 22))));
+        store.findAllLatest(tenantId, deviceId).get();
+
+        store.onTimeSeriesUpdate(deviceId, List.of(entry("temperature", 1000, 20)));
+        assertThat(store.findLatest(tenantId, deviceId, "temperature").get()).contains(entry("temperature", 1000, 20));
+
+        store.onTimeSeriesUpdate(deviceId, List.of(entry("temperature", 2000, 22)));
+        assertThat(store.findLatest(tenantId, deviceId, "temperature").get()).contains(entry("temperature", 2000, 22));
+        then(timeseriesLatestDao).should(times(2)).findAllLatest(tenantId, deviceId);
+    }
+
+    @Test
+    public void givenValuesModifiedDuringLoad_whenLoaded_thenLoadedValuesAreNotStored() throws Exception {
+        SettableFuture<List<TsKvEntry>> load = SettableFuture.create();
+        given(timeseriesLatestDao.findAllLatest(tenantId, deviceId))
+                .willReturn(load)
+                .willReturn(immediateFuture(List.of()));
+
+        var future = store.findLatest(tenantId, deviceId, "temperature");
+        store.onTimeSeriesDelete(deviceId, List.of("temperature"));
+        load.set(List.of(entry("temperature", 1000, 20)));
+
+        assertThat(future.get()).contains(entry("temperature", 1000, 20));
+        assertThat(store.findLatest(tenantId, deviceId, "temperature").get()).isEmpty();
+    }
+
+    @Test
+    public void givenPartitionChange_whenEntityIsNotManaged_thenEntityIsRemoved() throws Exception {
+        given(timeseriesLatestDao.findAllLatest(tenantId, deviceId)).willReturn(immediateFuture(List.of(entry("temperature", 1000, 20))));
+        store.findAllLatest(tenantId, deviceId).get();
+
+        given(partitionService.isMyPartition(ServiceType.TB_CORE, tenantId, deviceId)).willReturn(false);
+        store.onApplicationEvent(new PartitionChangeEvent(this, ServiceType.TB_CORE, Map.of()));
+
+        assertThat(store.isManaged(tenantId, deviceId)).isFalse();
+        store.onLatestSaved(tenantId, deviceId, entry("temperature", 2000, 21));
+        given(partitionService.isMyPartition(ServiceType.TB_CORE, tenantId, deviceId)).willReturn(true);
+        assertThat(store.findLatest(tenantId, deviceId, "temperature").get()).contains(entry("temperature", 1000, 20));
+        then(timeseriesLatestDao).should(times(2)).findAllLatest(tenantId, deviceId);
+    }
+
+    private static TsKvEntry entry(String key, long ts, long value) {
+        return new BasicTsKvEntry(ts, new LongDataEntry(key, value));
+    }
+
+}
@@ -0,0 +1,52 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.benchmarks;
+
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+final class BenchmarkUtils {
+
+    private BenchmarkUtils() {
+    }
+
+    /**
+     * Sets the field normally injected by Spring via {@code @Value}, since benchmarks create services without the context.
+     */
+    static void setField(Object target, String name, Object value) {
+        Field field = ReflectionUtils.findField(target.getClass(), name);
+        if (field == null) {
+            throw new IllegalArgumentException("Field " + name + " not found in " + target.getClass());
+        }
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+
+    /**
+     * Invokes the no-arg method normally called by Spring, e.g. the {@code @PostConstruct} one.
+     */
+    static void invokeMethod(Object target, String name) {
+        Method method = ReflectionUtils.findMethod(target.getClass(), name);
+        if (method == null) {
+            throw new IllegalArgumentException("Method " + name + " not found in " + target.getClass());
+        }
+        ReflectionUtils.makeAccessible(method);
+        ReflectionUtils.invokeMethod(method, target);
+    }
+
+}
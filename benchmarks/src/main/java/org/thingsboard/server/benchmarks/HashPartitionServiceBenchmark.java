@@ -0,0 +1,163 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.thingsboard.server.common.data.DataConstants;
+import org.thingsboard.server.common.data.id.DeviceId;
+import org.thingsboard.server.common.data.id.QueueId;
+import org.thingsboard.server.common.data.id.TenantId;
+import org.thingsboard.server.common.data.queue.Queue;
+import org.thingsboard.server.common.msg.queue.ServiceType;
+import org.thingsboard.server.common.msg.queue.TopicPartitionInfo;
+import org.thingsboard.server.gen.transport.TransportProtos.ServiceInfo;
+import org.thingsboard.server.queue.discovery.HashPartitionService;
+import org.thingsboard.server.queue.discovery.QueueRoutingInfo;
+import org.thingsboard.server.queue.discovery.TbServiceInfoProvider;
+import org.thingsboard.server.queue.discovery.TenantRoutingInfo;
+import org.thingsboard.server.queue.discovery.TopicService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HashPartitionServiceBenchmark {
+
+    private static final int ENTITIES_COUNT = 1024;
+
+    @Param({"murmur3_128", "sha256"})
+    private String hashFunctionName;
+
+    private HashPartitionService partitionService;
+    private TenantId tenantId;
+    private DeviceId[] entityIds;
+    private int idx;
+
+    @Setup
+    public void setup() {
+        Queue mainQueue = new Queue(new QueueId(UUID.randomUUID()));
+        mainQueue.setTenantId(TenantId.SYS_TENANT_ID);
+        mainQueue.setName(DataConstants.MAIN_QUEUE_NAME);
+        mainQueue.setTopic(DataConstants.MAIN_QUEUE_TOPIC);
+        mainQueue.setPartitions(10);
+
+        TopicService topicService = new TopicService();
+        BenchmarkUtils.setField(topicService, "prefix", "");
+
+        partitionService = new HashPartitionService(new MonolithServiceInfoProvider(),
+                tenantId -> new TenantRoutingInfo(tenantId, null, false),
+                event -> {},
+                () -> List.of(new QueueRoutingInfo(mainQueue)),
+                topicService);
+        BenchmarkUtils.setField(partitionService, "coreTopic", "tb_core");
+        BenchmarkUtils.setField(partitionService, "corePartitions", 10);
+        BenchmarkUtils.setField(partitionService, "vcTopic", "tb_version_control");
+        BenchmarkUtils.setField(partitionService, "vcPartitions", 10);
+        BenchmarkUtils.setField(partitionService, "edgeTopic", "tb_edge");
+        BenchmarkUtils.setField(partitionService, "edgePartitions", 10);
+        BenchmarkUtils.setField(partitionService, "hashFunctionName", hashFunctionName);
+        partitionService.init();
+
+        List<ServiceInfo> otherServices = new ArrayList<>();
+        for (int i = 1; i < 3; i++) {
+            otherServices.add(newServiceInfo("tb-node-" + i));
+        }
+        partitionService.recalculatePartitions(newServiceInfo("tb-node-0"), otherServices);
+
+        tenantId = TenantId.fromUUID(UUID.randomUUID());
+        entityIds = new DeviceId[ENTITIES_COUNT];
+        for (int i = 0; i < ENTITIES_COUNT; i++) {
+            entityIds[i] = new DeviceId(UUID.randomUUID());
+        }
+    }
+
+    @Benchmark
+    public TopicPartitionInfo resolveCore() {
+        return partitionService.resolve(ServiceType.TB_CORE, tenantId, nextEntityId());
+    }
+
+    @Benchmark
+    public TopicPartitionInfo resolveRuleEngine() {
+        return partitionService.resolve(ServiceType.TB_RULE_ENGINE, DataConstants.MAIN_QUEUE_NAME, tenantId, nextEntityId());
+    }
+
+    private DeviceId nextEntityId() {
+        return entityIds[idx++ & (ENTITIES_COUNT - 1)];
+    }
+
+    private static ServiceInfo newServiceInfo(String serviceId) {
+        return ServiceInfo.newBuilder()
+                .setServiceId(serviceId)
+                .addServiceTypes(ServiceType.TB_CORE.name())
+                .addServiceTypes(ServiceType.TB_RULE_ENGINE.name())
+                .build();
+    }
+
+    private static class MonolithServiceInfoProvider implements TbServiceInfoProvider {
+
+        private final ServiceInfo serviceInfo = newServiceInfo("tb-node-0");
+
+        @Override
+        public String getServiceId() {
+            return serviceInfo.getServiceId();
+        }
+
+        @Override
+        public String getServiceType() {
+            return "monolith";
+        }
+
+        @Override
+        public ServiceInfo getServiceInfo() {
+            return serviceInfo;
+        }
+
+        @Override
+        public boolean isService(ServiceType serviceType) {
+            return true;
+        }
+
+        @Override
+        public ServiceInfo generateNewServiceInfoWithCurrentSystemInfo() {
+            return serviceInfo;
+        }
+
+        @Override
+        public Set<UUID> getAssignedTenantProfiles() {
+            return Set.of();
+        }
+
+    }
+
+}
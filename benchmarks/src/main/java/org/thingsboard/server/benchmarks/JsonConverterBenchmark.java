@@ -0,0 +1,92 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.thingsboard.server.common.adaptor.JsonConverter;
+import org.thingsboard.server.common.data.kv.KvEntry;
+import org.thingsboard.server.gen.transport.TransportProtos.PostTelemetryMsg;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Telemetry parsing as done by the transports: from the raw JSON payload to the proto message.
+ * The payload bytes are either decoded and parsed into the Gson tree or read by the streaming parser.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonConverterBenchmark {
+
+    @Param({"values", "tsValues", "array"})
+    private String payloadType;
+
+    private String payload;
+
+    private byte[] payloadBytes;
+
+    @Setup
+    public void setup() {
+        String values = "{\"temperature\":42.5,\"humidity\":73,\"active\":true,\"firmware\":\"1.2.3\","
+                + "\"voltage\":3.3,\"rssi\":-67,\"location\":{\"lat\":50.45,\"lng\":30.52}}";
+        long ts = System.currentTimeMillis();
+        payload = switch (payloadType) {
+            case "values" -> values;
+            case "tsValues" -> "{\"ts\":" + ts + ",\"values\":" + values + "}";
+            case "array" -> "[{\"ts\":" + ts + ",\"values\":" + values + "},{\"ts\":" + (ts + 1000) + ",\"values\":" + values + "},"
+                    + "{\"ts\":" + (ts + 2000) + ",\"values\":" + values + "}]";
+            default -> throw new IllegalArgumentException("Unsupported payload type: " + payloadType);
+        };
+        payloadBytes = payload.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public PostTelemetryMsg convertToTelemetryProto() {
+        return JsonConverter.convertToTelemetryProto(JsonConverter.parse(payload));
+    }
+
+    @Benchmark
+    public PostTelemetryMsg convertToTelemetryProtoFromBytesWithGson() {
+        return JsonConverter.convertToTelemetryProto(JsonConverter.parse(new String(payloadBytes, StandardCharsets.UTF_8)));
+    }
+
+    @Benchmark
+    public PostTelemetryMsg convertToTelemetryProtoFromBytes() {
+        return JsonConverter.convertToTelemetryProto(payloadBytes);
+    }
+
+    @Benchmark
+    public Map<Long, List<KvEntry>> convertToTelemetry() {
+        return JsonConverter.convertToTelemetry(JsonConverter.parse(payload), System.currentTimeMillis());
+    }
+
+}
@@ -0,0 +1,102 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.benchmarks;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.thingsboard.common.util.JacksonUtil;
+import org.thingsboard.server.common.data.DataConstants;
+import org.thingsboard.server.common.data.Device;
+import org.thingsboard.server.common.data.id.CustomerId;
+import org.thingsboard.server.common.data.id.DeviceId;
+import org.thingsboard.server.common.data.id.DeviceProfileId;
+import org.thingsboard.server.common.data.id.TenantId;
+import org.thingsboard.server.common.data.kv.AttributeKvEntry;
+import org.thingsboard.server.common.data.kv.BaseAttributeKvEntry;
+import org.thingsboard.server.common.data.kv.BooleanDataEntry;
+import org.thingsboard.server.common.data.kv.DoubleDataEntry;
+import org.thingsboard.server.common.data.kv.LongDataEntry;
+import org.thingsboard.server.common.data.kv.StringDataEntry;
+import org.thingsboard.server.common.msg.ToDeviceActorNotificationMsg;
+import org.thingsboard.server.common.msg.rule.engine.DeviceAttributesEventNotificationMsg;
+import org.thingsboard.server.common.util.ProtoUtils;
+import org.thingsboard.server.gen.transport.TransportProtos;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Round-trips of the entities and notifications that are sent between the services, including the wire format.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProtoUtilsBenchmark {
+
+    private Device device;
+    private ToDeviceActorNotificationMsg attributesMsg;
+
+    @Setup
+    public void setup() {
+        TenantId tenantId = TenantId.fromUUID(UUID.randomUUID());
+        DeviceId deviceId = new DeviceId(UUID.randomUUID());
+
+        device = new Device(deviceId);
+        device.setCreatedTime(System.currentTimeMillis());
+        device.setTenantId(tenantId);
+        device.setCustomerId(new CustomerId(UUID.randomUUID()));
+        device.setDeviceProfileId(new DeviceProfileId(UUID.randomUUID()));
+        device.setName("Thermostat A1");
+        device.setType("thermostat");
+        device.setLabel("Building 1, floor 3");
+        device.setAdditionalInfo(JacksonUtil.toJsonNode("{\"gateway\":false,\"description\":\"Benchmark device\"}"));
+        device.setVersion(1L);
+
+        long ts = System.currentTimeMillis();
+        List<AttributeKvEntry> attributes = List.of(
+                new BaseAttributeKvEntry(new DoubleDataEntry("targetTemperature", 21.5), ts),
+                new BaseAttributeKvEntry(new LongDataEntry("reportingInterval", 60L), ts),
+                new BaseAttributeKvEntry(new BooleanDataEntry("powerSaving", true), ts),
+                new BaseAttributeKvEntry(new StringDataEntry("mode", "heating"), ts));
+        attributesMsg = DeviceAttributesEventNotificationMsg.onUpdate(tenantId, deviceId, DataConstants.SHARED_SCOPE, attributes);
+    }
+
+    @Benchmark
+    public Device deviceRoundTrip() throws InvalidProtocolBufferException {
+        byte[] bytes = ProtoUtils.toProto(device).toByteArray();
+        return ProtoUtils.fromProto(TransportProtos.DeviceProto.parseFrom(bytes));
+    }
+
+    @Benchmark
+    public ToDeviceActorNotificationMsg attributesUpdateRoundTrip() throws InvalidProtocolBufferException {
+        byte[] bytes = ProtoUtils.toProto(attributesMsg).toByteArray();
+        return ProtoUtils.fromProto(TransportProtos.ToDeviceActorNotificationMsgProto.parseFrom(bytes));
+    }
+
+}
@@ -0,0 +1,82 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.thingsboard.server.common.msg.tools.RateLimits;
+import org.thingsboard.server.common.msg.tools.TbLockFreeRateLimits;
+import org.thingsboard.server.common.msg.tools.TbRateLimits;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the bucket4j based {@link TbRateLimits} with {@link TbLockFreeRateLimits}.
+ * Limits are high enough for most of the calls to succeed, as it is the common case for transport messages.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RateLimitsBenchmark {
+
+    @Param({"1000000000:1", "1000000000:1,100000000000:60"})
+    private String configuration;
+
+    private RateLimits bucket4jRateLimits;
+    private RateLimits lockFreeRateLimits;
+
+    @Setup
+    public void setup() {
+        bucket4jRateLimits = new TbRateLimits(configuration);
+        lockFreeRateLimits = new TbLockFreeRateLimits(configuration);
+    }
+
+    @Benchmark
+    public boolean bucket4j() {
+        return bucket4jRateLimits.tryConsume();
+    }
+
+    @Benchmark
+    public boolean lockFree() {
+        return lockFreeRateLimits.tryConsume();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean bucket4jContended() {
+        return bucket4jRateLimits.tryConsume();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean lockFreeContended() {
+        return lockFreeRateLimits.tryConsume();
+    }
+
+}
@@ -0,0 +1,151 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.thingsboard.server.dao.model.sql.AbstractTsKvEntity;
+import org.thingsboard.server.dao.model.sqlts.latest.TsKvLatestEntity;
+import org.thingsboard.server.dao.model.sqlts.ts.TsKvEntity;
+import org.thingsboard.server.dao.sqlts.insert.latest.sql.SqlLatestInsertTsRepository;
+import org.thingsboard.server.dao.sqlts.insert.sql.SqlInsertTsRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Rows per second persisted to ts_kv and ts_kv_latest by the JDBC batch of single-row statements and by multi-row inserts.
+ * Requires an empty PostgreSQL database, set via the {@code benchmark.jdbc.url}, {@code benchmark.jdbc.username}
+ * and {@code benchmark.jdbc.password} system properties. The tables are created and truncated by the benchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class SqlInsertTsBenchmark {
+
+    private static final int ROWS_PER_INVOCATION = 1000;
+    private static final int KEYS_PER_ENTITY = 10;
+
+    private static final String CREATE_SCHEMA = """
+            CREATE TABLE IF NOT EXISTS ts_kv (entity_id uuid NOT NULL, key int NOT NULL, ts bigint NOT NULL, bool_v boolean, str_v varchar(10000000),
+                long_v bigint, dbl_v double precision, json_v json, CONSTRAINT ts_kv_pkey PRIMARY KEY (entity_id, key, ts));
+            CREATE SEQUENCE IF NOT EXISTS ts_kv_latest_version_seq cache 1;
+            CREATE TABLE IF NOT EXISTS ts_kv_latest (entity_id uuid NOT NULL, key int NOT NULL, ts bigint NOT NULL, bool_v boolean, str_v varchar(10000000),
+                long_v bigint, dbl_v double precision, json_v json, version bigint default 0, CONSTRAINT ts_kv_latest_pkey PRIMARY KEY (entity_id, key));
+            TRUNCATE ts_kv, ts_kv_latest;
+            """;
+
+    @Param({"false", "true"})
+    private boolean multiRowInsertEnabled;
+
+    @Param({"1000"})
+    private int maxRowsPerStatement;
+
+    private SingleConnectionDataSource dataSource;
+    private TransactionTemplate transactionTemplate;
+    private SqlInsertTsRepository tsRepository;
+    private SqlLatestInsertTsRepository latestRepository;
+    private UUID[] entityIds;
+    private long ts;
+
+    @Setup
+    public void setup() {
+        dataSource = new SingleConnectionDataSource(
+                System.getProperty("benchmark.jdbc.url", "jdbc:postgresql://localhost:5432/thingsboard_benchmark"),
+                System.getProperty("benchmark.jdbc.username", "postgres"),
+                System.getProperty("benchmark.jdbc.password", "postgres"), true);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute(CREATE_SCHEMA);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+
+        tsRepository = new SqlInsertTsRepository();
+        initRepository(tsRepository, jdbcTemplate);
+        latestRepository = new SqlLatestInsertTsRepository();
+        BenchmarkUtils.setField(latestRepository, "updateByLatestTs", true);
+        initRepository(latestRepository, jdbcTemplate);
+
+        entityIds = new UUID[ROWS_PER_INVOCATION / KEYS_PER_ENTITY];
+        for (int i = 0; i < entityIds.length; i++) {
+            entityIds[i] = UUID.randomUUID();
+        }
+        ts = System.currentTimeMillis();
+    }
+
+    private void initRepository(Object repository, JdbcTemplate jdbcTemplate) {
+        BenchmarkUtils.setField(repository, "jdbcTemplate", jdbcTemplate);
+        BenchmarkUtils.setField(repository, "transactionTemplate", transactionTemplate);
+        BenchmarkUtils.setField(repository, "removeNullChars", true);
+        BenchmarkUtils.setField(repository, "multiRowInsertEnabled", multiRowInsertEnabled);
+        BenchmarkUtils.setField(repository, "maxRowsPerStatement", maxRowsPerStatement);
+        BenchmarkUtils.invokeMethod(repository, "init");
+    }
+
+    @TearDown
+    public void tearDown() {
+        dataSource.destroy();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS_PER_INVOCATION)
+    public void saveTs() {
+        List<TsKvEntity> entities = nextBatch(TsKvEntity::new);
+        transactionTemplate.executeWithoutResult(status -> tsRepository.saveOrUpdate(entities));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS_PER_INVOCATION)
+    public List<Long> saveLatest() {
+        return latestRepository.saveOrUpdate(nextBatch(TsKvLatestEntity::new));
+    }
+
+    private <T extends AbstractTsKvEntity> List<T> nextBatch(Supplier<T> factory) {
+        long batchTs = ++ts;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<T> entities = new ArrayList<>(ROWS_PER_INVOCATION);
+        for (int i = 0; i < ROWS_PER_INVOCATION; i++) {
+            T entity = factory.get();
+            entity.setEntityId(entityIds[i / KEYS_PER_ENTITY]);
+            entity.setKey(i % KEYS_PER_ENTITY);
+            entity.setTs(batchTs);
+            entity.setDoubleValue(random.nextDouble());
+            entities.add(entity);
+        }
+        return entities;
+    }
+
+}
@@ -0,0 +1,158 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.thingsboard.common.util.ThingsBoardExecutors;
+import org.thingsboard.server.actors.AbstractTbActor;
+import org.thingsboard.server.actors.DefaultTbActorSystem;
+import org.thingsboard.server.actors.TbActor;
+import org.thingsboard.server.actors.TbActorCreator;
+import org.thingsboard.server.actors.TbActorId;
+import org.thingsboard.server.actors.TbActorRef;
+import org.thingsboard.server.actors.TbActorSystem;
+import org.thingsboard.server.actors.TbActorSystemSettings;
+import org.thingsboard.server.actors.TbStringActorId;
+import org.thingsboard.server.common.msg.MsgType;
+import org.thingsboard.server.common.msg.TbActorMsg;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Enqueue and dispatch of messages through the actor mailboxes, from the first {@code tell} until every message is processed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TbActorMailboxBenchmark {
+
+    private static final String DISPATCHER = "benchmark-dispatcher";
+    private static final int MSGS_PER_INVOCATION = 10000;
+    private static final TbActorMsg MSG = () -> MsgType.QUEUE_TO_RULE_ENGINE_MSG;
+
+    @Param({"1", "16"})
+    private int actorCount;
+
+    @Param({"1", "64"})
+    private int maxBatchSize;
+
+    @Param({"5", "100"})
+    private int actorThroughput;
+
+    private TbActorSystem actorSystem;
+    private ExecutorService executor;
+    private TbActorRef[] actorRefs;
+
+    private final AtomicLong remaining = new AtomicLong();
+    private volatile CountDownLatch processed;
+
+    @Setup
+    public void setup() {
+        int parallelism = Math.max(2, Runtime.getRuntime().availableProcessors() / 2);
+        actorSystem = new DefaultTbActorSystem(new TbActorSystemSettings(actorThroughput, 1, 42));
+        executor = ThingsBoardExecutors.newWorkStealingPool(parallelism, getClass());
+        actorSystem.createDispatcher(DISPATCHER, executor);
+        actorRefs = new TbActorRef[actorCount];
+        for (int i = 0; i < actorCount; i++) {
+            actorRefs[i] = actorSystem.createRootActor(DISPATCHER, new CountingActorCreator(new TbStringActorId("actor-" + i)));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        actorSystem.stop();
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MSGS_PER_INVOCATION)
+    public void tell() throws InterruptedException {
+        processed = new CountDownLatch(1);
+        remaining.set(MSGS_PER_INVOCATION);
+        for (int i = 0; i < MSGS_PER_INVOCATION; i++) {
+            actorRefs[i % actorCount].tell(MSG);
+        }
+        if (!processed.await(1, TimeUnit.MINUTES)) {
+            throw new IllegalStateException("Messages were not processed in time, remaining: " + remaining.get());
+        }
+    }
+
+    private void onProcessed(int count) {
+        if (remaining.addAndGet(-count) == 0) {
+            processed.countDown();
+        }
+    }
+
+    private class CountingActor extends AbstractTbActor {
+
+        @Override
+        public boolean process(TbActorMsg msg) {
+            onProcessed(1);
+            return true;
+        }
+
+        @Override
+        public int getMaxBatchSize() {
+            return maxBatchSize;
+        }
+
+        @Override
+        public void processBatch(List<TbActorMsg> msgs) {
+            onProcessed(msgs.size());
+        }
+
+    }
+
+    private class CountingActorCreator implements TbActorCreator {
+
+        private final TbActorId actorId;
+
+        private CountingActorCreator(TbActorId actorId) {
+            this.actorId = actorId;
+        }
+
+        @Override
+        public TbActorId createActorId() {
+            return actorId;
+        }
+
+        @Override
+        public TbActor createActor() {
+            return new CountingActor();
+        }
+
+    }
+
+}
@@ -0,0 +1,110 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.thingsboard.server.common.data.id.DeviceId;
+import org.thingsboard.server.common.data.id.RuleChainId;
+import org.thingsboard.server.common.data.id.RuleNodeId;
+import org.thingsboard.server.common.data.msg.TbMsgType;
+import org.thingsboard.server.common.msg.TbMsg;
+import org.thingsboard.server.common.msg.TbMsgMetaData;
+import org.thingsboard.server.common.msg.queue.TbMsgCallback;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TbMsgBenchmark {
+
+    private static final String DATA = "{\"temperature\":42.5,\"humidity\":73,\"active\":true,\"firmware\":\"1.2.3\"}";
+
+    private DeviceId deviceId;
+    private TbMsgMetaData metaData;
+    private RuleChainId ruleChainId;
+    private RuleNodeId ruleNodeId;
+    private TbMsg msg;
+    private byte[] msgBytes;
+
+    @Setup
+    public void setup() {
+        deviceId = new DeviceId(UUID.randomUUID());
+        ruleChainId = new RuleChainId(UUID.randomUUID());
+        ruleNodeId = new RuleNodeId(UUID.randomUUID());
+        metaData = new TbMsgMetaData();
+        metaData.putValue("deviceName", "Thermostat A1");
+        metaData.putValue("deviceType", "thermostat");
+        metaData.putValue("ts", String.valueOf(System.currentTimeMillis()));
+        msg = newMsg();
+        msgBytes = TbMsg.toByteArray(msg);
+    }
+
+    @Benchmark
+    public TbMsg build() {
+        return newMsg();
+    }
+
+    @Benchmark
+    public TbMsg copyWithNewCtx() {
+        return msg.copyWithNewCtx();
+    }
+
+    @Benchmark
+    public TbMsg transform() {
+        return msg.transform()
+                .data(DATA)
+                .build();
+    }
+
+    @Benchmark
+    public TbMsg newMsgForTellNext() {
+        return TbMsg.newMsg(msg, "Main", ruleChainId, ruleNodeId);
+    }
+
+    @Benchmark
+    public byte[] toByteArray() {
+        return TbMsg.toByteArray(msg);
+    }
+
+    @Benchmark
+    public TbMsg fromBytes() {
+        return TbMsg.fromBytes("Main", msgBytes, TbMsgCallback.EMPTY);
+    }
+
+    private TbMsg newMsg() {
+        return TbMsg.newMsg()
+                .type(TbMsgType.POST_TELEMETRY_REQUEST)
+                .originator(deviceId)
+                .copyMetaData(metaData)
+                .data(DATA)
+                .build();
+    }
+
+}
@@ -0,0 +1,155 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.benchmarks;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.thingsboard.server.common.stats.MessagesStats;
+import org.thingsboard.server.dao.sql.ScheduledLogExecutorComponent;
+import org.thingsboard.server.dao.sql.TbSqlBlockingQueue;
+import org.thingsboard.server.dao.sql.TbSqlBlockingQueueParams;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Batching overhead of the SQL queue, from {@code add} until the batch with the element is saved.
+ * The database is simulated by a save function with the fixed latency per batch.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TbSqlBlockingQueueBenchmark {
+
+    private static final int ELEMENTS_PER_INVOCATION = 10000;
+
+    @Param({"100", "1000"})
+    private int batchSize;
+
+    @Param({"0", "1000"})
+    private long saveLatencyMicros;
+
+    @Param({"false", "true"})
+    private boolean adaptiveBatchEnabled;
+
+    private ScheduledLogExecutorComponent logExecutor;
+    private TbSqlBlockingQueue<String, Void> queue;
+    private String[] elements;
+
+    @Setup
+    public void setup() {
+        TbSqlBlockingQueueParams params = TbSqlBlockingQueueParams.builder()
+                .logName("Benchmark")
+                .batchSize(batchSize)
+                .maxDelay(10)
+                .statsPrintIntervalMs(60000)
+                .adaptiveBatchEnabled(adaptiveBatchEnabled)
+                .minBatchSize(10)
+                .targetBatchLatencyMs(10)
+                .build();
+        logExecutor = new ScheduledLogExecutorComponent();
+        logExecutor.init();
+        queue = new TbSqlBlockingQueue<>(params, new NoOpMessagesStats(), new AtomicInteger(),
+                new SimpleMeterRegistry().timer("benchmark.batchLatency"));
+        queue.init(logExecutor, this::save, Comparator.naturalOrder(), l -> l, 0);
+        elements = new String[ELEMENTS_PER_INVOCATION];
+        for (int i = 0; i < ELEMENTS_PER_INVOCATION; i++) {
+            elements[i] = "element-" + i;
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        queue.destroy();
+        logExecutor.stop();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ELEMENTS_PER_INVOCATION)
+    public List<Void> addAndSave() throws ExecutionException, InterruptedException, TimeoutException {
+        List<ListenableFuture<Void>> futures = new ArrayList<>(ELEMENTS_PER_INVOCATION);
+        for (String element : elements) {
+            futures.add(queue.add(element));
+        }
+        return Futures.allAsList(futures).get(1, TimeUnit.MINUTES);
+    }
+
+    private List<Void> save(List<String> batch) {
+        if (saveLatencyMicros > 0) {
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(saveLatencyMicros));
+        }
+        return null;
+    }
+
+    private static class NoOpMessagesStats implements MessagesStats {
+
+        @Override
+        public void incrementTotal(int amount) {
+        }
+
+        @Override
+        public void incrementSuccessful(int amount) {
+        }
+
+        @Override
+        public void incrementFailed(int amount) {
+        }
+
+        @Override
+        public int getTotal() {
+            return 0;
+        }
+
+        @Override
+        public int getSuccessful() {
+            return 0;
+        }
+
+        @Override
+        public int getFailed() {
+            return 0;
+        }
+
+        @Override
+        public void reset() {
+        }
+
+    }
+
+}
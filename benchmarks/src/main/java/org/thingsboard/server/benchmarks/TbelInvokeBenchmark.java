@@ -0,0 +1,109 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.thingsboard.common.util.JacksonUtil;
+import org.thingsboard.script.api.ScriptType;
+import org.thingsboard.script.api.tbel.DefaultTbelInvokeService;
+import org.thingsboard.server.common.data.id.TenantId;
+import org.thingsboard.server.common.data.msg.TbMsgType;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Invocation of the rule node TBEL scripts with the arguments prepared the same way as the rule engine does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TbelInvokeBenchmark {
+
+    private static final String DATA = "{\"temperature\":42.5,\"humidity\":73,\"active\":true,\"firmware\":\"1.2.3\"}";
+
+    private static final Map<String, String> SCRIPTS = Map.of(
+            "filter", "return msg.temperature > 20 && metadata.deviceType == 'thermostat';",
+            "transform", "var newMsg = {};\n" +
+                    "newMsg.temperatureF = msg.temperature * 1.8 + 32;\n" +
+                    "newMsg.humidity = msg.humidity;\n" +
+                    "metadata.converted = 'true';\n" +
+                    "return {msg: newMsg, metadata: metadata, msgType: msgType};"
+    );
+
+    @Param({"filter", "transform"})
+    private String script;
+
+    private BenchmarkTbelInvokeService invokeService;
+    private UUID scriptId;
+    private Map<String, String> metaData;
+
+    @Setup
+    public void setup() throws ExecutionException, InterruptedException {
+        invokeService = new BenchmarkTbelInvokeService();
+        BenchmarkUtils.setField(invokeService, "maxTotalArgsSize", 100000L);
+        BenchmarkUtils.setField(invokeService, "maxResultSize", 300000L);
+        BenchmarkUtils.setField(invokeService, "maxScriptBodySize", 50000L);
+        BenchmarkUtils.setField(invokeService, "maxErrors", 3);
+        BenchmarkUtils.setField(invokeService, "maxBlackListDurationSec", 60);
+        BenchmarkUtils.setField(invokeService, "threadPoolSize", Math.max(2, Runtime.getRuntime().availableProcessors()));
+        BenchmarkUtils.setField(invokeService, "maxMemoryLimitMb", 8L);
+        BenchmarkUtils.setField(invokeService, "compiledScriptsCacheSize", 1000);
+        invokeService.init();
+
+        scriptId = invokeService.eval(TenantId.SYS_TENANT_ID, ScriptType.RULE_NODE_SCRIPT, SCRIPTS.get(script), "msg", "metadata", "msgType").get();
+        metaData = Map.of("deviceName", "Thermostat A1", "deviceType", "thermostat");
+    }
+
+    @TearDown
+    public void tearDown() {
+        invokeService.stop();
+    }
+
+    @Benchmark
+    public Object invoke() throws ExecutionException, InterruptedException {
+        Object msg = JacksonUtil.fromString(DATA, Object.class);
+        return invokeService.invokeScript(TenantId.SYS_TENANT_ID, null, scriptId,
+                msg, new HashMap<>(metaData), TbMsgType.POST_TELEMETRY_REQUEST.name()).get();
+    }
+
+    private static class BenchmarkTbelInvokeService extends DefaultTbelInvokeService {
+
+        BenchmarkTbelInvokeService() {
+            super(Optional.empty(), Optional.empty());
+        }
+
+    }
+
+}
@@ -0,0 +1,154 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.thingsboard.common.util.JacksonUtil;
+import org.thingsboard.server.common.data.id.DeviceId;
+import org.thingsboard.server.common.data.page.PageData;
+import org.thingsboard.server.common.data.query.EntityData;
+import org.thingsboard.server.common.data.query.EntityKeyType;
+import org.thingsboard.server.common.data.query.TsValue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of a WebSocket update payload to JSON text vs CBOR binary.
+ * <p>
+ * {@code TelemetrySubscriptionUpdate} and {@code EntityDataUpdate} live in the application module, which this module
+ * does not depend on. The benchmark therefore serializes maps that produce the same fields as those DTOs:
+ * {@code telemetry} is the attribute/time series subscription update with {@code [ts, value]} pairs per key,
+ * {@code entityData} is a page of 10 {@link EntityData} with the latest time series values. The results do not include
+ * the DTO getters and annotations, the WebSocket framing and the session send.
+ * <p>
+ * Encoding time per update is the primary result, the payload size is reported as the {@code bytesPerUpdate} counter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WsUpdateEncodingBenchmark {
+
+    @Param({"json", "cbor"})
+    private String encoding;
+
+    @Param({"telemetry", "entityData"})
+    private String updateType;
+
+    @Param({"5", "50"})
+    private int keysCount;
+
+    private Object update;
+    private int encodedSize;
+
+    @Setup
+    public void setup() throws JsonProcessingException {
+        update = switch (updateType) {
+            case "telemetry" -> createTelemetryUpdate();
+            case "entityData" -> createEntityDataUpdate();
+            default -> throw new IllegalArgumentException("Unsupported update type: " + updateType);
+        };
+        encodedSize = switch (encoding) {
+            case "json" -> JacksonUtil.OBJECT_MAPPER.writeValueAsString(update).getBytes(StandardCharsets.UTF_8).length;
+            case "cbor" -> JacksonUtil.CBOR_MAPPER.writeValueAsBytes(update).length;
+            default -> throw new IllegalArgumentException("Unsupported encoding: " + encoding);
+        };
+    }
+
+    @Benchmark
+    public Object encode(EncodedSize size) throws JsonProcessingException {
+        size.bytesPerUpdate = encodedSize;
+        if ("cbor".equals(encoding)) {
+            return JacksonUtil.CBOR_MAPPER.writeValueAsBytes(update);
+        } else {
+            return JacksonUtil.OBJECT_MAPPER.writeValueAsString(update);
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class EncodedSize {
+
+        public long bytesPerUpdate;
+
+    }
+
+    private Map<String, Object> createTelemetryUpdate() {
+        long ts = System.currentTimeMillis();
+        Map<String, List<Object>> data = new TreeMap<>();
+        Map<String, Long> latestValues = new TreeMap<>();
+        for (int i = 0; i < keysCount; i++) {
+            String key = "key" + i;
+            List<Object> values = new ArrayList<>();
+            values.add(new Object[]{ts, Double.toString(20 + i * 0.5)});
+            data.put(key, values);
+            latestValues.put(key, ts);
+        }
+        Map<String, Object> update = new LinkedHashMap<>();
+        update.put("subscriptionId", 1);
+        update.put("errorCode", 0);
+        update.put("errorMsg", null);
+        update.put("data", data);
+        update.put("latestValues", latestValues);
+        return update;
+    }
+
+    private Map<String, Object> createEntityDataUpdate() {
+        long ts = System.currentTimeMillis();
+        List<EntityData> entities = new ArrayList<>();
+        for (int e = 0; e < 10; e++) {
+            Map<String, TsValue> latest = new LinkedHashMap<>();
+            for (int i = 0; i < keysCount; i++) {
+                latest.put("key" + i, new TsValue(ts, Double.toString(20 + i * 0.5)));
+            }
+            Map<EntityKeyType, Map<String, TsValue>> latestByType = new LinkedHashMap<>();
+            latestByType.put(EntityKeyType.TIME_SERIES, latest);
+            entities.add(new EntityData(new DeviceId(UUID.randomUUID()), latestByType, Collections.emptyMap()));
+        }
+        Map<String, Object> update = new LinkedHashMap<>();
+        update.put("cmdId", 1);
+        update.put("data", new PageData<>(entities, 1, entities.size(), false));
+        update.put("update", null);
+        update.put("errorCode", 0);
+        update.put("errorMsg", null);
+        update.put("cmdUpdateType", "ENTITY_DATA");
+        update.put("allowedEntities", 10);
+        return update;
+    }
+
+}
@@ -47,9 +47,15 @@ public class DefaultTbActorSystem implements TbActorSystem {
     private final TbActorSystemSettings settings;
     @Getter
     private final ScheduledExecutorService scheduler;
+    private final TbActorMailboxStats mailboxStats;
 
     public DefaultTbActorSystem(TbActorSystemSettings settings) {
+        this(settings, TbActorMailboxStats.DISABLED);
+    }
+
+    public DefaultTbActorSystem(TbActorSystemSettings settings, TbActorMailboxStats mailboxStats) {
         this.settings = settings;
+        this.mailboxStats = mailboxStats;
         this.scheduler = ThingsBoardExecutors.newScheduledThreadPool(settings.getSchedulerPoolSize(), "actor-system-scheduler");
     }
 
@@ -112,7 +118,7 @@ public class DefaultTbActorSystem implements TbActorSystem {
                             throw new TbActorNotRegisteredException(parent, "Parent Actor with id [" + parent + "] is not registered!");
                         }
                     }
-                    TbActorMailbox mailbox = new TbActorMailbox(this, settings, actorId, parentRef, actor, dispatcher);
+                    TbActorMailbox mailbox = new TbActorMailbox(this, settings, actorId, parentRef, actor, dispatcher, mailboxStats);
                     actors.put(actorId, mailbox);
                     mailbox.initActor();
                     actorMailbox = mailbox;
@@ -18,10 +18,36 @@ package org.thingsboard.server.actors;
 import org.thingsboard.server.common.msg.TbActorMsg;
 import org.thingsboard.server.common.msg.TbActorStopReason;
 
+import java.util.List;
+
 public interface TbActor {
 
     boolean process(TbActorMsg msg);
 
+    /**
+     * Max number of normal priority messages that the mailbox may pass to {@link #processBatch(List)} in one call.
+     * Values greater than 1 enable batch processing. High priority messages are always processed one by one.
+     */
+    default int getMaxBatchSize() {
+        return 1;
+    }
+
+    /**
+     * Processes a run of normal priority messages in the order they were received.
+     * If one of the messages fails, implementations throw {@link TbActorBatchProcessingException} with the index of that message:
+     * the failure is reported for the message and the messages after it are processed one by one.
+     * The failure of any other exception is reported for each message of the batch.
+     */
+    default void processBatch(List<TbActorMsg> msgs) {
+        for (int i = 0; i < msgs.size(); i++) {
+            try {
+                process(msgs.get(i));
+            } catch (Throwable t) {
+                throw new TbActorBatchProcessingException(i, t);
+            }
+        }
+    }
+
     TbActorRef getActorRef();
 
     default void init(TbActorCtx ctx) throws TbActorException {
@@ -41,4 +67,5 @@ public interface TbActor {
             return ProcessFailureStrategy.resume();
         }
     }
+
 }
@@ -0,0 +1,35 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.actors;
+
+import lombok.Getter;
+
+/**
+ * Thrown by {@link TbActor#processBatch} when one of the messages fails,
+ * so the messages after it are still processed and the failure is reported for the right message.
+ */
+public class TbActorBatchProcessingException extends RuntimeException {
+
+    private static final long serialVersionUID = -3411598283717428463L;
+
+    @Getter
+    private final int failedMsgIdx;
+
+    public TbActorBatchProcessingException(int failedMsgIdx, Throwable cause) {
+        super("Failed to process message " + failedMsgIdx + " of the batch", cause);
+        this.failedMsgIdx = failedMsgIdx;
+    }
+}
@@ -16,7 +16,6 @@
 package org.thingsboard.server.actors;
 
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.thingsboard.server.common.data.EntityType;
 import org.thingsboard.server.common.msg.MsgType;
@@ -24,6 +23,7 @@ import org.thingsboard.server.common.msg.TbActorError;
 import org.thingsboard.server.common.msg.TbActorMsg;
 import org.thingsboard.server.common.msg.TbActorStopReason;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.TimeUnit;
@@ -33,7 +33,6 @@ import java.util.function.Supplier;
 
 @Slf4j
 @Getter
-@RequiredArgsConstructor
 public final class TbActorMailbox implements TbActorCtx {
     private static final boolean HIGH_PRIORITY = true;
     private static final boolean NORMAL_PRIORITY = false;
@@ -50,6 +49,7 @@ public final class TbActorMailbox implements TbActorCtx {
     private final TbActorRef parentRef;
     private final TbActor actor;
     private final Dispatcher dispatcher;
+    private final TbActorMailboxStats mailboxStats;
     private final ConcurrentLinkedQueue<TbActorMsg> highPriorityMsgs = new ConcurrentLinkedQueue<>();
     private final ConcurrentLinkedQueue<TbActorMsg> normalPriorityMsgs = new ConcurrentLinkedQueue<>();
     private final AtomicBoolean busy = new AtomicBoolean(FREE);
@@ -57,6 +57,21 @@ public final class TbActorMailbox implements TbActorCtx {
     private final AtomicBoolean destroyInProgress = new AtomicBoolean();
     private volatile TbActorStopReason stopReason;
 
+    public TbActorMailbox(TbActorSystem system, TbActorSystemSettings settings, TbActorId selfId, TbActorRef parentRef, TbActor actor, Dispatcher dispatcher) {
+        this(system, settings, selfId, parentRef, actor, dispatcher, TbActorMailboxStats.DISABLED);
+    }
+
+    public TbActorMailbox(TbActorSystem system, TbActorSystemSettings settings, TbActorId selfId, TbActorRef parentRef, TbActor actor, Dispatcher dispatcher,
+                          TbActorMailboxStats mailboxStats) {
+        this.system = system;
+        this.settings = settings;
+        this.selfId = selfId;
+        this.parentRef = parentRef;
+        this.actor = actor;
+        this.dispatcher = dispatcher;
+        this.mailboxStats = mailboxStats;
+    }
+
     public void initActor() {
         dispatcher.getExecutor().execute(() -> tryInit(1));
     }
@@ -105,6 +120,10 @@ public final class TbActorMailbox implements TbActorCtx {
 
     private void enqueue(TbActorMsg msg, boolean highPriority) {
         if (!destroyInProgress.get()) {
+            if (mailboxStats.isEnabled()) {
+                mailboxStats.onMsgEnqueued(selfId, dispatcher.getDispatcherId());
+                msg = new TimedActorMsg(msg, System.nanoTime());
+            }
             if (highPriority) {
                 highPriorityMsgs.add(msg);
             } else {
@@ -146,25 +165,24 @@ public final class TbActorMailbox implements TbActorCtx {
 
     private void processMailbox() {
         boolean noMoreElements = false;
-        for (int i = 0; i < settings.getActorThroughput(); i++) {
-            TbActorMsg msg = highPriorityMsgs.poll();
-            if (msg == null) {
-                msg = normalPriorityMsgs.poll();
+        int throughput = settings.getActorThroughput();
+        int maxBatchSize = actor.getMaxBatchSize();
+        int processed = 0;
+        while (processed < throughput) {
+            TbActorMsg msg = unwrap(highPriorityMsgs.poll());
+            if (msg == null && maxBatchSize > 1) {
+                List<TbActorMsg> msgs = pollNormalPriorityMsgs(Math.min(maxBatchSize, throughput - processed));
+                if (!msgs.isEmpty()) {
+                    processMsgs(msgs);
+                    processed += msgs.size();
+                    continue;
+                }
+            } else if (msg == null) {
+                msg = unwrap(normalPriorityMsgs.poll());
             }
             if (msg != null) {
-                try {
-                    log.debug("[{}] Going to process message: {}", selfId, msg);
-                    actor.process(msg);
-                } catch (TbRuleNodeUpdateException updateException) {
-                    stopReason = TbActorStopReason.INIT_FAILED;
-                    destroy(updateException.getCause());
-                } catch (Throwable t) {
-                    log.debug("[{}] Failed to process message: {}", selfId, msg, t);
-                    ProcessFailureStrategy strategy = actor.onProcessFailure(msg, t);
-                    if (strategy.isStop()) {
-                        system.stop(selfId);
-                    }
-                }
+                processMsg(msg);
+                processed++;
             } else {
                 noMoreElements = true;
                 break;
@@ -178,6 +196,90 @@ public final class TbActorMailbox implements TbActorCtx {
         }
     }
 
+    private List<TbActorMsg> pollNormalPriorityMsgs(int limit) {
+        List<TbActorMsg> msgs = new ArrayList<>(limit);
+        // stop draining as soon as a high priority message arrives, so it is not overtaken by the rest of the batch
+        while (msgs.size() < limit && highPriorityMsgs.isEmpty()) {
+            TbActorMsg msg = normalPriorityMsgs.poll();
+            if (msg == null) {
+                break;
+            }
+            msgs.add(unwrap(msg));
+        }
+        return msgs;
+    }
+
+    private TbActorMsg unwrap(TbActorMsg msg) {
+        if (msg instanceof TimedActorMsg timedMsg) {
+            mailboxStats.onMsgDequeued(selfId, dispatcher.getDispatcherId(), System.nanoTime() - timedMsg.enqueueTime());
+            return timedMsg.msg();
+        }
+        return msg;
+    }
+
+    private void processMsg(TbActorMsg msg) {
+        long startTime = mailboxStats.isEnabled() ? System.nanoTime() : 0L;
+        try {
+            log.debug("[{}] Going to process message: {}", selfId, msg);
+            actor.process(msg);
+        } catch (Throwable t) {
+            onProcessFailure(msg, t);
+        }
+        if (startTime != 0L) {
+            mailboxStats.onMsgsProcessed(selfId, dispatcher.getDispatcherId(), 1, System.nanoTime() - startTime);
+        }
+    }
+
+    private void processMsgs(List<TbActorMsg> msgs) {
+        long startTime = mailboxStats.isEnabled() ? System.nanoTime() : 0L;
+        int processed = msgs.size();
+        boolean stopped = false;
+        try {
+            log.debug("[{}] Going to process {} messages", selfId, msgs.size());
+            actor.processBatch(msgs);
+        } catch (TbActorBatchProcessingException e) {
+            processed = e.getFailedMsgIdx() + 1;
+            stopped = onProcessFailure(msgs.get(e.getFailedMsgIdx()), e.getCause());
+        } catch (Throwable t) {
+            // the failed message is unknown
+            for (TbActorMsg msg : msgs) {
+                if (onProcessFailure(msg, t)) {
+                    stopped = true;
+                    break;
+                }
+            }
+        }
+        if (startTime != 0L) {
+            mailboxStats.onMsgsProcessed(selfId, dispatcher.getDispatcherId(), processed, System.nanoTime() - startTime);
+        }
+        for (int i = processed; i < msgs.size(); i++) {
+            if (stopped) {
+                msgs.get(i).onTbActorStopped(stopReason);
+            } else {
+                processMsg(msgs.get(i));
+                stopped = destroyInProgress.get();
+            }
+        }
+    }
+
+    /**
+     * @return whether the actor is stopped
+     */
+    private boolean onProcessFailure(TbActorMsg msg, Throwable t) {
+        if (t instanceof TbRuleNodeUpdateException updateException) {
+            stopReason = TbActorStopReason.INIT_FAILED;
+            destroy(updateException.getCause());
+            return true;
+        }
+        log.debug("[{}] Failed to process message: {}", selfId, msg, t);
+        ProcessFailureStrategy strategy = actor.onProcessFailure(msg, t);
+        if (strategy.isStop()) {
+            system.stop(selfId);
+            return true;
+        }
+        return false;
+    }
+
     @Override
     public TbActorId getSelf() {
         return selfId;
@@ -241,6 +343,8 @@ public final class TbActorMailbox implements TbActorCtx {
                 normalPriorityMsgs.forEach(msg -> msg.onTbActorStopped(stopReason));
             } catch (Throwable t) {
                 log.warn("[{}] Failed to destroy actor: ", selfId, t);
+            } finally {
+                mailboxStats.onActorDestroyed(selfId);
             }
         });
     }
@@ -260,4 +364,18 @@ public final class TbActorMailbox implements TbActorCtx {
         enqueue(actorMsg, HIGH_PRIORITY);
     }
 
+    private record TimedActorMsg(TbActorMsg msg, long enqueueTime) implements TbActorMsg {
+
+        @Override
+        public MsgType getMsgType() {
+            return msg.getMsgType();
+        }
+
+        @Override
+        public void onTbActorStopped(TbActorStopReason reason) {
+            msg.onTbActorStopped(reason);
+        }
+
+    }
+
 }
@@ -0,0 +1,49 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.actors;
+
+/**
+ * Receives instrumentation events from {@link TbActorMailbox}.
+ * <p>
+ * Messages are timestamped on enqueue and processing is timed only while {@link #isEnabled()} returns true,
+ * so a disabled implementation costs a single {@link #isEnabled()} call per message. Implementations may switch
+ * {@link #isEnabled()} at runtime: dequeue events are reported for every timestamped message, even if the stats
+ * were disabled in the meantime, and never for messages enqueued while the stats were disabled.
+ */
+public interface TbActorMailboxStats {
+
+    TbActorMailboxStats DISABLED = new TbActorMailboxStats() {};
+
+    default boolean isEnabled() {
+        return false;
+    }
+
+    default void onMsgEnqueued(TbActorId actorId, String dispatcherId) {
+    }
+
+    default void onMsgDequeued(TbActorId actorId, String dispatcherId, long waitTimeNanos) {
+    }
+
+    /**
+     * Reported once per {@link TbActor#process} or {@link TbActor#processBatch} invocation.
+     */
+    default void onMsgsProcessed(TbActorId actorId, String dispatcherId, int msgCount, long processingTimeNanos) {
+    }
+
+    default void onActorDestroyed(TbActorId actorId) {
+    }
+
+}
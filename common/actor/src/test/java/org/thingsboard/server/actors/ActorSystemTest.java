@@ -28,6 +28,7 @@ import org.thingsboard.server.common.data.id.DeviceId;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
@@ -217,6 +218,132 @@ public class ActorSystemTest {
         Assertions.assertTrue(testCtx1.getLatch().await(3, TimeUnit.SECONDS));
     }
 
+    @Test
+    public void testBatchProcessing() throws InterruptedException {
+        executor = ThingsBoardExecutors.newWorkStealingPool(parallelism, getClass());
+        actorSystem.createDispatcher(ROOT_DISPATCHER, executor);
+        int msgNumber = 1000;
+        ActorTestCtx testCtx = getActorTestCtx(msgNumber);
+        AtomicInteger maxProcessedBatchSize = new AtomicInteger();
+        TbActorRef actorRef = actorSystem.createRootActor(ROOT_DISPATCHER, new BatchTestActor.BatchTestActorCreator(
+                new TbEntityActorId(new DeviceId(UUID.randomUUID())), testCtx, 3, maxProcessedBatchSize));
+
+        long expected = 0;
+        for (int i = 0; i < msgNumber; i++) {
+            actorRef.tell(new IntTbActorMsg(i));
+            expected += i;
+        }
+
+        Assertions.assertTrue(testCtx.getLatch().await(TIMEOUT_AWAIT_MAX_SEC, TimeUnit.SECONDS));
+        Assertions.assertEquals(expected, testCtx.getActual().get());
+        Assertions.assertEquals(msgNumber, testCtx.getInvocationCount().get());
+        assertThat(maxProcessedBatchSize.get()).isBetween(1, 3);
+    }
+
+    @Test
+    public void testBatchProcessingContinuesAfterFailedMsg() throws InterruptedException {
+        executor = ThingsBoardExecutors.newWorkStealingPool(parallelism, getClass());
+        actorSystem.createDispatcher(ROOT_DISPATCHER, executor);
+        RecordingBatchTestActor actor = new RecordingBatchTestActor(3, Set.of(5, 8), true);
+        TbActorRef actorRef = actorSystem.createRootActor(ROOT_DISPATCHER, new RecordingBatchTestActor.RecordingBatchTestActorCreator(
+                new TbEntityActorId(new DeviceId(UUID.randomUUID())), actor));
+
+        actorRef.tell(new IntTbActorMsg(0));
+        actor.awaitFirstMsgStarted();
+        for (int i = 1; i <= 10; i++) {
+            actorRef.tell(new IntTbActorMsg(i));
+        }
+        actor.releaseFirstMsg();
+
+        Awaitility.await("all messages processed").atMost(TIMEOUT_AWAIT_MAX_SEC, TimeUnit.SECONDS)
+                .until(() -> actor.getProcessed().size() + actor.getFailed().size() == 11);
+        assertThat(actor.getProcessed()).containsExactly(0, 1, 2, 3, 4, 6, 7, 9, 10);
+        assertThat(actor.getFailed()).containsExactly(5, 8);
+    }
+
+    @Test
+    public void testHighPriorityMsgsAreNotBatchedWithNormalPriorityMsgs() throws InterruptedException {
+        executor = ThingsBoardExecutors.newWorkStealingPool(parallelism, getClass());
+        actorSystem.createDispatcher(ROOT_DISPATCHER, executor);
+        RecordingBatchTestActor actor = new RecordingBatchTestActor(3, Set.of(-2), true);
+        TbActorRef actorRef = actorSystem.createRootActor(ROOT_DISPATCHER, new RecordingBatchTestActor.RecordingBatchTestActorCreator(
+                new TbEntityActorId(new DeviceId(UUID.randomUUID())), actor));
+
+        actorRef.tell(new IntTbActorMsg(0));
+        actor.awaitFirstMsgStarted();
+        for (int i = 1; i <= 10; i++) {
+            actorRef.tell(new IntTbActorMsg(i));
+        }
+        actorRef.tellWithHighPriority(new IntTbActorMsg(-1));
+        actorRef.tellWithHighPriority(new IntTbActorMsg(-2));
+        for (int i = 11; i <= 20; i++) {
+            actorRef.tell(new IntTbActorMsg(i));
+        }
+        actor.releaseFirstMsg();
+
+        Awaitility.await("all messages processed").atMost(TIMEOUT_AWAIT_MAX_SEC, TimeUnit.SECONDS)
+                .until(() -> actor.getProcessed().size() + actor.getFailed().size() == 23);
+        List<Integer> expected = new ArrayList<>(List.of(0, -1));
+        for (int i = 1; i <= 20; i++) {
+            expected.add(i);
+        }
+        assertThat(actor.getProcessed()).containsExactlyElementsOf(expected);
+        assertThat(actor.getFailed()).containsExactly(-2);
+        // the first message and the normal priority ones are processed in batches, the high priority ones are not
+        assertThat(actor.getBatchSizes()).allMatch(size -> size >= 1 && size <= 3);
+        assertThat(actor.getBatchSizes().stream().mapToInt(Integer::intValue).sum()).isEqualTo(21);
+    }
+
+    @Test
+    public void testMailboxStats() throws InterruptedException {
+        AtomicInteger enqueued = new AtomicInteger();
+        AtomicInteger dequeued = new AtomicInteger();
+        AtomicInteger processed = new AtomicInteger();
+        TbActorMailboxStats mailboxStats = new TbActorMailboxStats() {
+            @Override
+            public boolean isEnabled() {
+                return true;
+            }
+
+            @Override
+            public void onMsgEnqueued(TbActorId actorId, String dispatcherId) {
+                assertThat(dispatcherId).isEqualTo(ROOT_DISPATCHER);
+                enqueued.incrementAndGet();
+            }
+
+            @Override
+            public void onMsgDequeued(TbActorId actorId, String dispatcherId, long waitTimeNanos) {
+                assertThat(waitTimeNanos).isNotNegative();
+                dequeued.incrementAndGet();
+            }
+
+            @Override
+            public void onMsgsProcessed(TbActorId actorId, String dispatcherId, int msgCount, long processingTimeNanos) {
+                processed.addAndGet(msgCount);
+            }
+        };
+        actorSystem.stop();
+        actorSystem = new DefaultTbActorSystem(new TbActorSystemSettings(5, parallelism, 42), mailboxStats);
+        executor = ThingsBoardExecutors.newWorkStealingPool(parallelism, getClass());
+        actorSystem.createDispatcher(ROOT_DISPATCHER, executor);
+        int msgNumber = 1000;
+        ActorTestCtx testCtx = getActorTestCtx(msgNumber);
+        TbActorRef actorRef = actorSystem.createRootActor(ROOT_DISPATCHER, new BatchTestActor.BatchTestActorCreator(
+                new TbEntityActorId(new DeviceId(UUID.randomUUID())), testCtx, 3, new AtomicInteger()));
+
+        long expected = 0;
+        for (int i = 0; i < msgNumber; i++) {
+            actorRef.tell(new IntTbActorMsg(i));
+            expected += i;
+        }
+
+        Assertions.assertTrue(testCtx.getLatch().await(TIMEOUT_AWAIT_MAX_SEC, TimeUnit.SECONDS));
+        Assertions.assertEquals(expected, testCtx.getActual().get());
+        Assertions.assertEquals(msgNumber, enqueued.get());
+        Assertions.assertEquals(msgNumber, dequeued.get());
+        Awaitility.await().atMost(TIMEOUT_AWAIT_MAX_SEC, TimeUnit.SECONDS).until(() -> processed.get() == msgNumber);
+    }
+
 
     public void testActorsAndMessages(int actorsCount, int msgNumber, int times) throws InterruptedException {
         Random random = new Random();
@@ -0,0 +1,69 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.actors;
+
+import org.thingsboard.server.common.msg.TbActorMsg;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class BatchTestActor extends TestRootActor {
+
+    private final int maxBatchSize;
+    private final AtomicInteger maxProcessedBatchSize;
+
+    public BatchTestActor(TbActorId actorId, ActorTestCtx testCtx, int maxBatchSize, AtomicInteger maxProcessedBatchSize) {
+        super(actorId, testCtx);
+        this.maxBatchSize = maxBatchSize;
+        this.maxProcessedBatchSize = maxProcessedBatchSize;
+    }
+
+    @Override
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    @Override
+    public void processBatch(List<TbActorMsg> msgs) {
+        maxProcessedBatchSize.accumulateAndGet(msgs.size(), Math::max);
+        super.processBatch(msgs);
+    }
+
+    public static class BatchTestActorCreator implements TbActorCreator {
+
+        private final TbActorId actorId;
+        private final ActorTestCtx testCtx;
+        private final int maxBatchSize;
+        private final AtomicInteger maxProcessedBatchSize;
+
+        public BatchTestActorCreator(TbActorId actorId, ActorTestCtx testCtx, int maxBatchSize, AtomicInteger maxProcessedBatchSize) {
+            this.actorId = actorId;
+            this.testCtx = testCtx;
+            this.maxBatchSize = maxBatchSize;
+            this.maxProcessedBatchSize = maxProcessedBatchSize;
+        }
+
+        @Override
+        public TbActorId createActorId() {
+            return actorId;
+        }
+
+        @Override
+        public TbActor createActor() {
+            return new BatchTestActor(actorId, testCtx, maxBatchSize, maxProcessedBatchSize);
+        }
+    }
+}
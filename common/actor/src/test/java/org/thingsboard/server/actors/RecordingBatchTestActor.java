@@ -0,0 +1,123 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.actors;
+
+import org.thingsboard.server.common.msg.TbActorMsg;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the values of the processed and failed messages. Fails the messages with the given values
+ * and blocks the processing of the first message until released.
+ */
+public class RecordingBatchTestActor extends AbstractTbActor {
+
+    private final int maxBatchSize;
+    private final Set<Integer> failingValues;
+    private final CountDownLatch firstMsgStarted = new CountDownLatch(1);
+    private final CountDownLatch firstMsgReleased;
+
+    private final List<Integer> processed = new CopyOnWriteArrayList<>();
+    private final List<Integer> failed = new CopyOnWriteArrayList<>();
+    private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+
+    public RecordingBatchTestActor(int maxBatchSize, Set<Integer> failingValues, boolean blockFirstMsg) {
+        this.maxBatchSize = maxBatchSize;
+        this.failingValues = failingValues;
+        this.firstMsgReleased = new CountDownLatch(blockFirstMsg ? 1 : 0);
+    }
+
+    @Override
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    @Override
+    public void processBatch(List<TbActorMsg> msgs) {
+        batchSizes.add(msgs.size());
+        TbActor.super.processBatch(msgs);
+    }
+
+    @Override
+    public boolean process(TbActorMsg msg) {
+        if (firstMsgStarted.getCount() > 0) {
+            firstMsgStarted.countDown();
+            try {
+                firstMsgReleased.await(ActorSystemTest.TIMEOUT_AWAIT_MAX_SEC, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        int value = ((IntTbActorMsg) msg).getValue();
+        if (failingValues.contains(value)) {
+            throw new RuntimeException("Failed to process " + value);
+        }
+        processed.add(value);
+        return true;
+    }
+
+    @Override
+    public ProcessFailureStrategy onProcessFailure(TbActorMsg msg, Throwable t) {
+        failed.add(((IntTbActorMsg) msg).getValue());
+        return ProcessFailureStrategy.resume();
+    }
+
+    public void awaitFirstMsgStarted() throws InterruptedException {
+        firstMsgStarted.await(ActorSystemTest.TIMEOUT_AWAIT_MAX_SEC, TimeUnit.SECONDS);
+    }
+
+    public void releaseFirstMsg() {
+        firstMsgReleased.countDown();
+    }
+
+    public List<Integer> getProcessed() {
+        return processed;
+    }
+
+    public List<Integer> getFailed() {
+        return failed;
+    }
+
+    public List<Integer> getBatchSizes() {
+        return batchSizes;
+    }
+
+    public static class RecordingBatchTestActorCreator implements TbActorCreator {
+
+        private final TbActorId actorId;
+        private final RecordingBatchTestActor actor;
+
+        public RecordingBatchTestActorCreator(TbActorId actorId, RecordingBatchTestActor actor) {
+            this.actorId = actorId;
+            this.actor = actor;
+        }
+
+        @Override
+        public TbActorId createActorId() {
+            return actorId;
+        }
+
+        @Override
+        public TbActor createActor() {
+            return actor;
+        }
+    }
+
+}
@@ -0,0 +1,126 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.cache;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.stereotype.Service;
+import org.thingsboard.server.common.data.StringUtils;
+import org.thingsboard.server.common.stats.StatsFactory;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
+/**
+ * Manages the node-local tier of the Redis caches listed in 'cache.near.caches'.
+ * Every modification of a key is broadcast through Redis pub/sub so that other nodes drop their local copies.
+ * Pub/sub delivery is at-most-once, so the local tier TTL bounds the staleness in case of lost messages.
+ */
+@Slf4j
+@Service
+@ConditionalOnExpression("'${cache.type:caffeine}'=='redis' && '${cache.near.enabled:false}'=='true'")
+@RequiredArgsConstructor
+public class RedisNearCacheService {
+
+    static final String INVALIDATION_CHANNEL_NAME = "tb_cache_invalidation";
+    static final byte[] INVALIDATION_CHANNEL = StringRedisSerializer.UTF_8.serialize(INVALIDATION_CHANNEL_NAME);
+    private static final String SEPARATOR = "\n";
+
+    private final RedisConnectionFactory connectionFactory;
+    private final StatsFactory statsFactory;
+
+    @Value("${cache.near.caches:devices,deviceProfiles,attributes,relations}")
+    private String cacheNamesStr;
+    @Value("${cache.near.max_size:10000}")
+    private int maxSize;
+    @Value("${cache.near.ttl_ms:60000}")
+    private long ttlMs;
+
+    private final ConcurrentMap<String, TbNearCache<?>> nearCaches = new ConcurrentHashMap<>();
+    private Set<String> cacheNames;
+    private RedisMessageListenerContainer listenerContainer;
+
+    @PostConstruct
+    public void init() {
+        cacheNames = Arrays.stream(cacheNamesStr.split(","))
+                .map(String::trim)
+                .filter(StringUtils::isNotEmpty)
+                .collect(Collectors.toSet());
+        listenerContainer = new RedisMessageListenerContainer();
+        listenerContainer.setConnectionFactory(connectionFactory);
+        listenerContainer.addMessageListener(this::onMessage, new ChannelTopic(INVALIDATION_CHANNEL_NAME));
+        listenerContainer.afterPropertiesSet();
+        listenerContainer.start();
+        log.info("Near cache enabled for {} with max size {} and TTL {} ms", cacheNames, maxSize, ttlMs);
+    }
+
+    @PreDestroy
+    public void destroy() throws Exception {
+        if (listenerContainer != null) {
+            listenerContainer.destroy();
+        }
+    }
+
+    /**
+     * @return the local tier for the cache or null if the near cache is not enabled for it
+     */
+    <V extends Serializable> TbNearCache<V> getNearCache(String cacheName) {
+        if (!cacheNames.contains(cacheName)) {
+            return null;
+        }
+        @SuppressWarnings("unchecked")
+        TbNearCache<V> nearCache = (TbNearCache<V>) nearCaches.computeIfAbsent(cacheName, name -> new TbNearCache<>(name, maxSize, ttlMs, statsFactory));
+        return nearCache;
+    }
+
+    /**
+     * Publishes the invalidation using the connection of the modifying command,
+     * so in transaction or pipeline mode the message is sent together with the modification itself.
+     * The node receives its own messages as well, which covers local reads that happened before the modification was applied.
+     */
+    void publishInvalidation(RedisConnection connection, String cacheName, String key) {
+        byte[] message = StringRedisSerializer.UTF_8.serialize(cacheName + SEPARATOR + key);
+        connection.publish(INVALIDATION_CHANNEL, message);
+    }
+
+    void onMessage(Message message, byte[] pattern) {
+        String[] parts = StringRedisSerializer.UTF_8.deserialize(message.getBody()).split(SEPARATOR, 2);
+        if (parts.length != 2) {
+            log.debug("Ignoring malformed cache invalidation message: {}", Arrays.toString(parts));
+            return;
+        }
+        TbNearCache<?> nearCache = nearCaches.get(parts[0]);
+        if (nearCache != null) {
+            log.trace("[{}] Invalidating near cache key: {}", parts[0], parts[1]);
+            nearCache.invalidate(parts[1]);
+        }
+    }
+
+}
@@ -15,6 +15,7 @@
  */
 package org.thingsboard.server.cache;
 
+import jakarta.annotation.PostConstruct;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -22,6 +23,7 @@ import org.springframework.cache.support.NullValue;
 import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.data.redis.connection.RedisConnection;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisPipelineException;
 import org.springframework.data.redis.connection.RedisStringCommands;
 import org.springframework.data.redis.connection.ReturnType;
 import org.springframework.data.redis.connection.jedis.JedisClusterConnection;
@@ -36,9 +38,14 @@ import redis.clients.jedis.JedisPool;
 import redis.clients.jedis.util.JedisClusterCRC16;
 
 import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
@@ -52,6 +59,8 @@ public abstract class RedisTbTransactionalCache<K extends Serializable, V extend
 
     @Autowired
     private FstStatsService fstStatsService;
+    @Autowired(required = false)
+    private RedisNearCacheService nearCacheService;
 
     @Getter
     private final String cacheName;
@@ -62,6 +71,7 @@ public abstract class RedisTbTransactionalCache<K extends Serializable, V extend
     protected final Expiration evictExpiration;
     protected final Expiration cacheTtl;
     protected final boolean cacheEnabled;
+    private TbNearCache<V> nearCache;
 
     public RedisTbTransactionalCache(String cacheName,
                                      CacheSpecsMap cacheSpecsMap,
@@ -87,33 +97,113 @@ public abstract class RedisTbTransactionalCache<K extends Serializable, V extend
                 .orElse(false);
     }
 
+    @PostConstruct
+    public void initNearCache() {
+        if (cacheEnabled && nearCacheService != null) {
+            nearCache = nearCacheService.getNearCache(cacheName);
+        }
+    }
+
     @Override
     public TbCacheValueWrapper<V> get(K key) {
         if (!cacheEnabled) {
             return null;
         }
+        if (nearCache == null) {
+            try (var connection = connectionFactory.getConnection()) {
+                return toValueWrapper(key, doGet(key, connection));
+            }
+        }
+        String keyString = getKeyString(key);
+        TbCacheValueWrapper<V> value = nearCache.get(keyString);
+        if (value != null) {
+            return value;
+        }
+        long invalidationsCount = nearCache.getInvalidationsCount(keyString);
         try (var connection = connectionFactory.getConnection()) {
-            byte[] rawValue = doGet(key, connection);
-            if (rawValue == null || rawValue.length == 0) {
-                return null;
-            } else if (Arrays.equals(rawValue, BINARY_NULL_VALUE)) {
-                return SimpleTbCacheValueWrapper.empty();
-            } else {
-                long startTime = System.nanoTime();
-                V value = valueSerializer.deserialize(key, rawValue);
+            value = toValueWrapper(key, doGet(key, connection));
+        }
+        nearCache.onRedisGet(keyString, value, invalidationsCount);
+        return value;
+    }
+
+    @Override
+    public Map<K, TbCacheValueWrapper<V>> getAll(Collection<K> keys) {
+        if (!cacheEnabled || keys.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<K, TbCacheValueWrapper<V>> result = new HashMap<>();
+        List<K> keysList = new ArrayList<>(keys.size());
+        if (nearCache != null) {
+            for (K key : keys) {
+                TbCacheValueWrapper<V> value = nearCache.get(getKeyString(key));
                 if (value != null) {
-                    fstStatsService.recordDecodeTime(value.getClass(), startTime);
-                    fstStatsService.incrementDecode(value.getClass());
+                    result.put(key, value);
+                } else {
+                    keysList.add(key);
                 }
-                return SimpleTbCacheValueWrapper.wrap(value);
             }
+            if (keysList.isEmpty()) {
+                return result;
+            }
+        } else {
+            keysList.addAll(keys);
+        }
+        long[] invalidationsCounts = new long[keysList.size()];
+        if (nearCache != null) {
+            for (int i = 0; i < keysList.size(); i++) {
+                invalidationsCounts[i] = nearCache.getInvalidationsCount(getKeyString(keysList.get(i)));
+            }
+        }
+        byte[][] rawKeys = keysList.stream().map(this::getRawKey).toArray(byte[][]::new);
+        List<byte[]> rawValues;
+        try (var connection = connectionFactory.getConnection()) {
+            // the cluster connection splits MGET by slots, so the keys are not required to be in the same slot
+            rawValues = connection.stringCommands().mGet(rawKeys);
         }
+        if (rawValues == null) {
+            return result;
+        }
+        for (int i = 0; i < keysList.size(); i++) {
+            K key = keysList.get(i);
+            TbCacheValueWrapper<V> value = toValueWrapper(key, unwrapRawValue(key, rawValues.get(i)));
+            if (nearCache != null) {
+                nearCache.onRedisGet(getKeyString(key), value, invalidationsCounts[i]);
+            }
+            if (value != null) {
+                result.put(key, value);
+            }
+        }
+        return result;
     }
 
     protected byte[] doGet(K key, RedisConnection connection) {
         return connection.stringCommands().get(getRawKey(key));
     }
 
+    /**
+     * Converts the raw value returned by MGET to the same form as returned by {@link #doGet(Serializable, RedisConnection)}.
+     */
+    protected byte[] unwrapRawValue(K key, byte[] rawValue) {
+        return rawValue;
+    }
+
+    private TbCacheValueWrapper<V> toValueWrapper(K key, byte[] rawValue) {
+        if (rawValue == null || rawValue.length == 0) {
+            return null;
+        } else if (Arrays.equals(rawValue, BINARY_NULL_VALUE)) {
+            return SimpleTbCacheValueWrapper.empty();
+        } else {
+            long startTime = System.nanoTime();
+            V value = valueSerializer.deserialize(key, rawValue);
+            if (value != null) {
+                fstStatsService.recordDecodeTime(value.getClass(), startTime);
+                fstStatsService.incrementDecode(value.getClass());
+            }
+            return SimpleTbCacheValueWrapper.wrap(value);
+        }
+    }
+
     @Override
     public void put(K key, V value) {
         if (!cacheEnabled) {
@@ -128,6 +218,29 @@ public abstract class RedisTbTransactionalCache<K extends Serializable, V extend
         put(connection, key, value, RedisStringCommands.SetOption.UPSERT);
     }
 
+    @Override
+    public void putAll(Map<K, V> values) {
+        if (!cacheEnabled || values.isEmpty()) {
+            return;
+        }
+        if (connectionFactory.isRedisClusterAware()) {
+            // pipelining is not supported by the cluster connection
+            values.forEach(this::put);
+            return;
+        }
+        try (var connection = connectionFactory.getConnection()) {
+            connection.openPipeline();
+            values.forEach((key, value) -> put(key, value, connection));
+            try {
+                connection.closePipeline();
+            } catch (RedisPipelineException e) {
+                // e.g. NOSCRIPT for versioned values, since the script is loaded only on the non-pipelined path
+                log.debug("[{}] Failed to put {} values in pipeline, putting one by one", cacheName, values.size(), e);
+                values.forEach((key, value) -> put(key, value, connection));
+            }
+        }
+    }
+
     @Override
     public void putIfAbsent(K key, V value) {
         if (!cacheEnabled) {
@@ -144,7 +257,9 @@ public abstract class RedisTbTransactionalCache<K extends Serializable, V extend
             return;
         }
         try (var connection = connectionFactory.getConnection()) {
-            connection.keyCommands().del(getRawKey(key));
+            byte[] rawKey = getRawKey(key);
+            connection.keyCommands().del(rawKey);
+            invalidateNearCache(connection, rawKey);
         }
     }
 
@@ -158,7 +273,11 @@ public abstract class RedisTbTransactionalCache<K extends Serializable, V extend
             return;
         }
         try (var connection = connectionFactory.getConnection()) {
-            connection.keyCommands().del(keys.stream().map(this::getRawKey).toArray(byte[][]::new));
+            byte[][] rawKeys = keys.stream().map(this::getRawKey).toArray(byte[][]::new);
+            connection.keyCommands().del(rawKeys);
+            for (byte[] rawKey : rawKeys) {
+                invalidateNearCache(connection, rawKey);
+            }
         }
     }
 
@@ -174,6 +293,7 @@ public abstract class RedisTbTransactionalCache<K extends Serializable, V extend
                 //We need to put the value in case of Redis, because evict will NOT cancel concurrent transaction used to "get" the missing value from cache.
                 connection.stringCommands().set(rawKey, getRawValue(value), evictExpiration, RedisStringCommands.SetOption.UPSERT);
             }
+            invalidateNearCache(connection, rawKey);
         }
     }
 
@@ -225,8 +345,12 @@ public abstract class RedisTbTransactionalCache<K extends Serializable, V extend
         return connection;
     }
 
+    protected String getKeyString(K key) {
+        return cacheName + key.toString();
+    }
+
     protected byte[] getRawKey(K key) {
-        String keyString = cacheName + key.toString();
+        String keyString = getKeyString(key);
         byte[] rawKey;
         try {
             rawKey = keySerializer.serialize(keyString);
@@ -269,6 +393,20 @@ public abstract class RedisTbTransactionalCache<K extends Serializable, V extend
     public void put(RedisConnection connection, byte[] rawKey, V value, RedisStringCommands.SetOption setOption) {
         byte[] rawValue = getRawValue(value);
         connection.stringCommands().set(rawKey, rawValue, this.cacheTtl, setOption);
+        invalidateNearCache(connection, rawKey);
+    }
+
+    /**
+     * Drops the local copy of the modified key on this node and broadcasts the invalidation to other nodes.
+     * Should be called after the modification is issued.
+     */
+    protected void invalidateNearCache(RedisConnection connection, byte[] rawKey) {
+        if (nearCache == null) {
+            return;
+        }
+        String keyString = new String(rawKey, StandardCharsets.UTF_8);
+        nearCache.invalidate(keyString);
+        nearCacheService.publishInvalidation(connection, cacheName, keyString);
     }
 
     protected void executeScript(RedisConnection connection, byte[] scriptSha, byte[] luaScript, ReturnType returnType, int numKeys, byte[]... keysAndArgs) {
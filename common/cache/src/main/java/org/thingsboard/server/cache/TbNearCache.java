@@ -0,0 +1,113 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.Getter;
+import org.thingsboard.server.common.stats.DefaultCounter;
+import org.thingsboard.server.common.stats.StatsFactory;
+
+import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Node-local tier of the Redis cache. Values are stored by the Redis key string
+ * and are dropped on any local or remote (pub/sub) modification of the key.
+ * <p>
+ * A value read from Redis is stored only if the key was not invalidated during the read,
+ * otherwise a concurrent update could be shadowed by the stale local copy. Invalidations are counted
+ * per stripe of keys, so an invalidation discards only the concurrent reads of the keys from the same stripe.
+ */
+public class TbNearCache<V extends Serializable> {
+
+    static final String STATS_KEY = "near_cache";
+    private static final int INVALIDATION_STRIPES = 64;
+
+    @Getter
+    private final String cacheName;
+    private final Cache<String, TbCacheValueWrapper<V>> cache;
+    private final AtomicLongArray invalidations = new AtomicLongArray(INVALIDATION_STRIPES);
+
+    private final DefaultCounter localHitCounter;
+    private final DefaultCounter localMissCounter;
+    private final DefaultCounter redisHitCounter;
+    private final DefaultCounter redisMissCounter;
+
+    TbNearCache(String cacheName, int maxSize, long ttlMs, StatsFactory statsFactory) {
+        this.cacheName = cacheName;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttlMs, TimeUnit.MILLISECONDS)
+                .build();
+        this.localHitCounter = statsFactory.createDefaultCounter(STATS_KEY, "cacheName", cacheName, "tier", "local", "result", "hit");
+        this.localMissCounter = statsFactory.createDefaultCounter(STATS_KEY, "cacheName", cacheName, "tier", "local", "result", "miss");
+        this.redisHitCounter = statsFactory.createDefaultCounter(STATS_KEY, "cacheName", cacheName, "tier", "redis", "result", "hit");
+        this.redisMissCounter = statsFactory.createDefaultCounter(STATS_KEY, "cacheName", cacheName, "tier", "redis", "result", "miss");
+    }
+
+    TbCacheValueWrapper<V> get(String key) {
+        TbCacheValueWrapper<V> value = cache.getIfPresent(key);
+        if (value != null) {
+            localHitCounter.increment();
+        } else {
+            localMissCounter.increment();
+        }
+        return value;
+    }
+
+    /**
+     * @return the marker to be passed to {@link #onRedisGet(String, TbCacheValueWrapper, long)} once the value of the key is fetched from Redis
+     */
+    long getInvalidationsCount(String key) {
+        return invalidations.get(stripe(key));
+    }
+
+    void onRedisGet(String key, TbCacheValueWrapper<V> value, long invalidationsCount) {
+        if (value == null) {
+            redisMissCounter.increment();
+            return;
+        }
+        redisHitCounter.increment();
+        cache.put(key, value);
+        if (invalidations.get(stripe(key)) != invalidationsCount) {
+            cache.invalidate(key);
+        }
+    }
+
+    void invalidate(String key) {
+        invalidations.incrementAndGet(stripe(key));
+        cache.invalidate(key);
+    }
+
+    void invalidateAll() {
+        for (int i = 0; i < INVALIDATION_STRIPES; i++) {
+            invalidations.incrementAndGet(i);
+        }
+        cache.invalidateAll();
+    }
+
+    private static int stripe(String key) {
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & (INVALIDATION_STRIPES - 1);
+    }
+
+    long size() {
+        return cache.estimatedSize();
+    }
+
+}
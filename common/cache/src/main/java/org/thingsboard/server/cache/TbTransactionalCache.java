@@ -17,7 +17,9 @@ package org.thingsboard.server.cache;
 
 import java.io.Serializable;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
@@ -29,6 +31,26 @@ public interface TbTransactionalCache<K extends Serializable, V extends Serializ
 
     void put(K key, V value);
 
+    /**
+     * Fetches multiple keys at once. Keys that are not present in the cache are absent in the returned map.
+     * @param keys - keys to fetch
+     * @return map of the cached values by key
+     */
+    default Map<K, TbCacheValueWrapper<V>> getAll(Collection<K> keys) {
+        Map<K, TbCacheValueWrapper<V>> result = new HashMap<>();
+        for (K key : keys) {
+            TbCacheValueWrapper<V> value = get(key);
+            if (value != null) {
+                result.put(key, value);
+            }
+        }
+        return result;
+    }
+
+    default void putAll(Map<K, V> values) {
+        values.forEach(this::put);
+    }
+
     void putIfAbsent(K key, V value);
 
     void evict(K key);
@@ -25,6 +25,7 @@ import org.springframework.data.redis.serializer.StringRedisSerializer;
 import org.thingsboard.server.common.data.HasVersion;
 
 import java.io.Serializable;
+import java.util.Arrays;
 
 @Slf4j
 public abstract class VersionedRedisTbCache<K extends VersionedCacheKey, V extends Serializable & HasVersion> extends RedisTbTransactionalCache<K, V> implements VersionedTbCache<K, V> {
@@ -71,6 +72,18 @@ public abstract class VersionedRedisTbCache<K extends VersionedCacheKey, V exten
         return connection.stringCommands().getRange(rawKey, VERSION_SIZE, VALUE_END_OFFSET);
     }
 
+    @Override
+    protected byte[] unwrapRawValue(K key, byte[] rawValue) {
+        if (!key.isVersioned() || rawValue == null) {
+            return rawValue;
+        }
+        // same as GETRANGE from VERSION_SIZE: the value without a version prefix is treated as absent
+        if (rawValue.length <= VERSION_SIZE) {
+            return null;
+        }
+        return Arrays.copyOfRange(rawValue, VERSION_SIZE, rawValue.length);
+    }
+
     @Override
     public void put(K key, V value) {
         if (!key.isVersioned()) {
@@ -114,6 +127,7 @@ public abstract class VersionedRedisTbCache<K extends VersionedCacheKey, V exten
         byte[] rawVersion = StringRedisSerializer.UTF_8.serialize(String.valueOf(version));
         byte[] rawExpiration = StringRedisSerializer.UTF_8.serialize(String.valueOf(expiration.getExpirationTimeInSeconds()));
         executeScript(connection, SET_VERSIONED_VALUE_SHA, SET_VERSIONED_VALUE_LUA_SCRIPT, ReturnType.VALUE, 1, rawKey, rawValue, rawVersion, rawExpiration);
+        invalidateNearCache(connection, rawKey);
     }
 
     @Override
@@ -30,8 +30,12 @@ import org.thingsboard.server.common.data.id.TenantId;
 import org.thingsboard.server.common.data.limit.LimitedApi;
 import org.thingsboard.server.common.data.notification.rule.trigger.RateLimitsTrigger;
 import org.thingsboard.server.common.msg.notification.NotificationRuleProcessor;
+import org.thingsboard.server.common.msg.tools.RateLimits;
+import org.thingsboard.server.common.msg.tools.TbLockFreeRateLimits;
 import org.thingsboard.server.common.msg.tools.TbRateLimits;
 
+import java.util.EnumSet;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
 @Lazy
@@ -45,16 +49,19 @@ public class DefaultRateLimitService implements RateLimitService {
     public DefaultRateLimitService(TenantProfileProvider tenantProfileProvider,
                                    @Lazy NotificationRuleProcessor notificationRuleProcessor,
                                    @Value("${cache.rateLimits.timeToLiveInMinutes:120}") int rateLimitsTtl,
-                                   @Value("${cache.rateLimits.maxSize:200000}") int rateLimitsCacheMaxSize) {
+                                   @Value("${cache.rateLimits.maxSize:200000}") int rateLimitsCacheMaxSize,
+                                   @Value("${cache.rateLimits.lockFreeApis:}") String lockFreeApis) {
         this.tenantProfileProvider = tenantProfileProvider;
         this.notificationRuleProcessor = notificationRuleProcessor;
+        this.lockFreeApis = parseLockFreeApis(lockFreeApis);
         this.rateLimits = Caffeine.newBuilder()
                 .expireAfterAccess(rateLimitsTtl, TimeUnit.MINUTES)
                 .maximumSize(rateLimitsCacheMaxSize)
                 .build();
     }
 
-    private final Cache<RateLimitKey, TbRateLimits> rateLimits;
+    private final Cache<RateLimitKey, RateLimits> rateLimits;
+    private final Set<LimitedApi> lockFreeApis;
 
     @Override
     public boolean checkRateLimit(LimitedApi api, TenantId tenantId) {
@@ -103,13 +110,16 @@ public class DefaultRateLimitService implements RateLimitService {
         }
         log.trace("[{}] Checking rate limit for {} ({})", level, api, rateLimitConfig);
 
-        TbRateLimits rateLimit = rateLimits.asMap().compute(key, (k, limit) -> {
-            if (limit == null || !limit.getConfiguration().equals(rateLimitConfig)) {
-                limit = new TbRateLimits(rateLimitConfig, api.isRefillRateLimitIntervally());
-                log.trace("[{}] Created new rate limit bucket for {} ({})", level, api, rateLimitConfig);
-            }
-            return limit;
-        });
+        RateLimits rateLimit = rateLimits.getIfPresent(key);
+        if (rateLimit == null || !rateLimit.getConfiguration().equals(rateLimitConfig)) {
+            rateLimit = rateLimits.asMap().compute(key, (k, limit) -> {
+                if (limit == null || !limit.getConfiguration().equals(rateLimitConfig)) {
+                    limit = createRateLimits(api, rateLimitConfig);
+                    log.trace("[{}] Created new rate limit bucket for {} ({})", level, api, rateLimitConfig);
+                }
+                return limit;
+            });
+        }
         boolean success = rateLimit.tryConsume();
         if (!success) {
             log.debug("[{}] Rate limit exceeded for {} ({})", level, api, rateLimitConfig);
@@ -123,6 +133,32 @@ public class DefaultRateLimitService implements RateLimitService {
         rateLimits.invalidate(key);
     }
 
+    private RateLimits createRateLimits(LimitedApi api, String rateLimitConfig) {
+        if (lockFreeApis.contains(api)) {
+            return new TbLockFreeRateLimits(rateLimitConfig);
+        }
+        return new TbRateLimits(rateLimitConfig, api.isRefillRateLimitIntervally());
+    }
+
+    private static Set<LimitedApi> parseLockFreeApis(String lockFreeApis) {
+        Set<LimitedApi> apis = EnumSet.noneOf(LimitedApi.class);
+        if (StringUtils.isBlank(lockFreeApis)) {
+            return apis;
+        }
+        for (String apiName : lockFreeApis.split(",")) {
+            if (StringUtils.isBlank(apiName)) {
+                continue;
+            }
+            LimitedApi api = LimitedApi.valueOf(apiName.trim());
+            if (api.isRefillRateLimitIntervally()) {
+                log.warn("Lock-free rate limits do not support interval refill, ignoring {}", api);
+                continue;
+            }
+            apis.add(api);
+        }
+        return apis;
+    }
+
     @Data(staticConstructor = "of")
     private static class RateLimitKey {
         private final LimitedApi api;
@@ -0,0 +1,300 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisKeyCommands;
+import org.springframework.data.redis.connection.RedisScriptingCommands;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.connection.jedis.JedisConnectionFactory;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.thingsboard.server.common.data.FstStatsService;
+import org.thingsboard.server.common.data.HasVersion;
+import org.thingsboard.server.common.stats.StatsFactory;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.RETURNS_MOCKS;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class RedisTbTransactionalCacheTest {
+
+    private static final String CACHE_NAME = "devices";
+
+    private final Map<String, String> redis = new ConcurrentHashMap<>();
+    private final List<String> requestedKeys = new ArrayList<>();
+
+    private JedisConnectionFactory connectionFactory;
+    private RedisConnection connection;
+    private RedisStringCommands stringCommands;
+    private RedisScriptingCommands scriptingCommands;
+    private RedisNearCacheService nearCacheService;
+
+    @BeforeEach
+    public void setUp() {
+        connectionFactory = mock(JedisConnectionFactory.class);
+        connection = mock(RedisConnection.class);
+        stringCommands = mock(RedisStringCommands.class);
+        given(connectionFactory.getConnection()).willReturn(connection);
+        given(connection.stringCommands()).willReturn(stringCommands);
+        given(connection.keyCommands()).willReturn(mock(RedisKeyCommands.class));
+        scriptingCommands = mock(RedisScriptingCommands.class);
+        given(connection.scriptingCommands()).willReturn(scriptingCommands);
+        given(stringCommands.get(any(byte[].class))).willAnswer(invocation -> {
+            String key = deserialize(invocation.getArgument(0));
+            requestedKeys.add(key);
+            return serialize(redis.get(key));
+        });
+        given(stringCommands.getRange(any(byte[].class), eq(8L), eq(-1L))).willAnswer(invocation -> {
+            String key = deserialize(invocation.getArgument(0));
+            requestedKeys.add(key);
+            return serialize(redis.get(key));
+        });
+        given(stringCommands.mGet(any(byte[][].class))).willAnswer(invocation -> Arrays.stream(invocation.getRawArguments())
+                .flatMap(keys -> Arrays.stream((byte[][]) keys))
+                .map(RedisTbTransactionalCacheTest::deserialize)
+                .peek(requestedKeys::add)
+                .map(key -> serialize(redis.get(key)))
+                .toList());
+
+        StatsFactory statsFactory = mock(StatsFactory.class, RETURNS_MOCKS);
+        nearCacheService = new RedisNearCacheService(mock(RedisConnectionFactory.class), statsFactory);
+        ReflectionTestUtils.setField(nearCacheService, "cacheNames", Set.of(CACHE_NAME));
+        ReflectionTestUtils.setField(nearCacheService, "maxSize", 10);
+        ReflectionTestUtils.setField(nearCacheService, "ttlMs", 60000L);
+    }
+
+    @Test
+    public void testGetIsServedLocallyAfterRedisRead() {
+        TestCache cache = createCache();
+        redis.put(CACHE_NAME + "key", "value");
+
+        assertThat(cache.get("key").get()).isEqualTo("value");
+        assertThat(cache.get("key").get()).isEqualTo("value");
+
+        assertThat(requestedKeys).containsExactly(CACHE_NAME + "key");
+    }
+
+    @Test
+    public void testGetAllReadsOnlyMissingKeysFromRedis() {
+        TestCache cache = createCache();
+        redis.put(CACHE_NAME + "key1", "value1");
+        redis.put(CACHE_NAME + "key2", "value2");
+        cache.get("key1");
+        requestedKeys.clear();
+
+        Map<String, TbCacheValueWrapper<String>> result = cache.getAll(List.of("key1", "key2", "key3"));
+
+        assertThat(result).containsOnlyKeys("key1", "key2");
+        assertThat(result.get("key1").get()).isEqualTo("value1");
+        assertThat(result.get("key2").get()).isEqualTo("value2");
+        assertThat(requestedKeys).containsExactly(CACHE_NAME + "key2", CACHE_NAME + "key3");
+
+        requestedKeys.clear();
+        assertThat(cache.getAll(List.of("key1", "key2"))).containsOnlyKeys("key1", "key2");
+        assertThat(requestedKeys).isEmpty();
+    }
+
+    @Test
+    public void testPutInvalidatesLocalValue() {
+        TestCache cache = createCache();
+        redis.put(CACHE_NAME + "key", "value");
+        cache.get("key");
+
+        cache.put("key", "new");
+        redis.put(CACHE_NAME + "key", "new");
+
+        assertThat(cache.get("key").get()).isEqualTo("new");
+        assertThat(requestedKeys).hasSize(2);
+        verify(connection).publish(eq(RedisNearCacheService.INVALIDATION_CHANNEL), any(byte[].class));
+    }
+
+    @Test
+    public void testEvictInvalidatesLocalValue() {
+        TestCache cache = createCache();
+        redis.put(CACHE_NAME + "key", "value");
+        cache.get("key");
+
+        cache.evict("key");
+        redis.remove(CACHE_NAME + "key");
+
+        assertThat(cache.get("key")).isNull();
+        assertThat(requestedKeys).hasSize(2);
+        verify(connection).publish(eq(RedisNearCacheService.INVALIDATION_CHANNEL), any(byte[].class));
+    }
+
+    @Test
+    public void testPutIfAbsentInvalidatesLocalValue() {
+        TestCache cache = createCache();
+        redis.put(CACHE_NAME + "key", "value");
+        cache.get("key");
+
+        cache.putIfAbsent("key", "new");
+
+        assertThat(cache.get("key").get()).isEqualTo("value");
+        assertThat(requestedKeys).hasSize(2);
+        verify(connection).publish(eq(RedisNearCacheService.INVALIDATION_CHANNEL), any(byte[].class));
+    }
+
+    @Test
+    public void testVersionedPutInvalidatesLocalValue() {
+        TestVersionedCache cache = new TestVersionedCache(CACHE_NAME, cacheSpecs(), connectionFactory);
+        initCache(cache);
+        TestVersionedKey key = new TestVersionedKey("key");
+        redis.put(CACHE_NAME + key, "value");
+        cache.get(key);
+        assertThat(cache.get(key).get().getValue()).isEqualTo("value");
+        assertThat(requestedKeys).hasSize(1);
+
+        cache.put(key, new TestVersionedValue("new", 2L));
+        redis.put(CACHE_NAME + key, "new");
+
+        assertThat(cache.get(key).get().getValue()).isEqualTo("new");
+        assertThat(requestedKeys).hasSize(2);
+        verify(scriptingCommands, atLeastOnce()).evalSha(any(byte[].class), any(), eq(1), any(byte[][].class));
+        verify(connection, times(1)).publish(eq(RedisNearCacheService.INVALIDATION_CHANNEL), any(byte[].class));
+
+        cache.evict(key, 3L);
+        redis.remove(CACHE_NAME + key);
+
+        assertThat(cache.get(key)).isNull();
+        assertThat(requestedKeys).hasSize(3);
+    }
+
+    private TestCache createCache() {
+        TestCache cache = new TestCache(CACHE_NAME, cacheSpecs(), connectionFactory);
+        initCache(cache);
+        return cache;
+    }
+
+    private void initCache(RedisTbTransactionalCache<?, ?> cache) {
+        ReflectionTestUtils.setField(cache, "fstStatsService", mock(FstStatsService.class));
+        ReflectionTestUtils.setField(cache, "nearCacheService", nearCacheService);
+        cache.initNearCache();
+    }
+
+    private static CacheSpecsMap cacheSpecs() {
+        CacheSpecs specs = new CacheSpecs();
+        specs.setMaxSize(100);
+        specs.setTimeToLiveInMinutes(60);
+        CacheSpecsMap cacheSpecsMap = new CacheSpecsMap();
+        cacheSpecsMap.setSpecs(Map.of(CACHE_NAME, specs));
+        return cacheSpecsMap;
+    }
+
+    private static TBRedisCacheConfiguration redisConfiguration() {
+        TBRedisCacheConfiguration configuration = mock(TBRedisCacheConfiguration.class);
+        given(configuration.getEvictTtlInMs()).willReturn(60000);
+        return configuration;
+    }
+
+    private static byte[] serialize(String value) {
+        return StringRedisSerializer.UTF_8.serialize(value);
+    }
+
+    private static String deserialize(byte[] value) {
+        return StringRedisSerializer.UTF_8.deserialize(value);
+    }
+
+    private static class TestCache extends RedisTbTransactionalCache<String, String> {
+
+        TestCache(String cacheName, CacheSpecsMap cacheSpecsMap, RedisConnectionFactory connectionFactory) {
+            super(cacheName, cacheSpecsMap, connectionFactory, redisConfiguration(), new TbRedisSerializer<>() {
+                @Override
+                public byte[] serialize(String value) {
+                    return RedisTbTransactionalCacheTest.serialize(value);
+                }
+
+                @Override
+                public String deserialize(String key, byte[] bytes) {
+                    return RedisTbTransactionalCacheTest.deserialize(bytes);
+                }
+            });
+        }
+
+    }
+
+    private static class TestVersionedCache extends VersionedRedisTbCache<TestVersionedKey, TestVersionedValue> {
+
+        TestVersionedCache(String cacheName, CacheSpecsMap cacheSpecsMap, RedisConnectionFactory connectionFactory) {
+            super(cacheName, cacheSpecsMap, connectionFactory, redisConfiguration(), new TbRedisSerializer<>() {
+                @Override
+                public byte[] serialize(TestVersionedValue value) {
+                    return RedisTbTransactionalCacheTest.serialize(value.getValue());
+                }
+
+                @Override
+                public TestVersionedValue deserialize(TestVersionedKey key, byte[] bytes) {
+                    return new TestVersionedValue(RedisTbTransactionalCacheTest.deserialize(bytes), null);
+                }
+            });
+        }
+
+    }
+
+    private record TestVersionedKey(String key) implements VersionedCacheKey {
+
+        @Override
+        public boolean isVersioned() {
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            return key;
+        }
+
+    }
+
+    private static class TestVersionedValue implements Serializable, HasVersion {
+
+        private final String value;
+        private final Long version;
+
+        TestVersionedValue(String value, Long version) {
+            this.value = value;
+            this.version = version;
+        }
+
+        String getValue() {
+            return value;
+        }
+
+        @Override
+        public Long getVersion() {
+            return version;
+        }
+
+    }
+
+}
@@ -0,0 +1,114 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.thingsboard.server.common.stats.StatsFactory;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.RETURNS_MOCKS;
+import static org.mockito.Mockito.mock;
+
+public class TbNearCacheTest {
+
+    private static final String KEY = "devices{key}";
+
+    private StatsFactory statsFactory;
+
+    @BeforeEach
+    public void setUp() {
+        statsFactory = mock(StatsFactory.class, RETURNS_MOCKS);
+    }
+
+    @Test
+    public void testValueFromRedisIsStoredLocally() {
+        TbNearCache<String> nearCache = new TbNearCache<>("devices", 10, 60000, statsFactory);
+        assertThat(nearCache.get(KEY)).isNull();
+
+        long invalidationsCount = nearCache.getInvalidationsCount(KEY);
+        nearCache.onRedisGet(KEY, SimpleTbCacheValueWrapper.wrap("value"), invalidationsCount);
+
+        assertThat(nearCache.get(KEY).get()).isEqualTo("value");
+    }
+
+    @Test
+    public void testMissingValueIsNotStoredLocally() {
+        TbNearCache<String> nearCache = new TbNearCache<>("devices", 10, 60000, statsFactory);
+
+        nearCache.onRedisGet(KEY, null, nearCache.getInvalidationsCount(KEY));
+
+        assertThat(nearCache.get(KEY)).isNull();
+    }
+
+    @Test
+    public void testValueIsNotStoredIfInvalidatedDuringRead() {
+        TbNearCache<String> nearCache = new TbNearCache<>("devices", 10, 60000, statsFactory);
+
+        long invalidationsCount = nearCache.getInvalidationsCount(KEY);
+        nearCache.invalidate(KEY);
+        nearCache.onRedisGet(KEY, SimpleTbCacheValueWrapper.wrap("stale"), invalidationsCount);
+
+        assertThat(nearCache.get(KEY)).isNull();
+    }
+
+    @Test
+    public void testValueIsStoredIfOtherKeyInvalidatedDuringRead() {
+        TbNearCache<String> nearCache = new TbNearCache<>("devices", 10, 60000, statsFactory);
+
+        String otherKey = null;
+        for (int i = 0; otherKey == null; i++) {
+            // looks for a key from another stripe
+            String key = "devices{key" + i + "}";
+            long invalidationsCount = nearCache.getInvalidationsCount(KEY);
+            nearCache.invalidate(key);
+            if (nearCache.getInvalidationsCount(KEY) == invalidationsCount) {
+                otherKey = key;
+            }
+        }
+
+        long invalidationsCount = nearCache.getInvalidationsCount(KEY);
+        nearCache.invalidate(otherKey);
+        nearCache.onRedisGet(KEY, SimpleTbCacheValueWrapper.wrap("value"), invalidationsCount);
+
+        assertThat(nearCache.get(KEY).get()).isEqualTo("value");
+    }
+
+    @Test
+    public void testRemoteInvalidation() {
+        RedisNearCacheService nearCacheService = new RedisNearCacheService(mock(RedisConnectionFactory.class), statsFactory);
+        ReflectionTestUtils.setField(nearCacheService, "cacheNames", Set.of("devices"));
+        ReflectionTestUtils.setField(nearCacheService, "maxSize", 10);
+        ReflectionTestUtils.setField(nearCacheService, "ttlMs", 60000L);
+
+        assertThat(nearCacheService.<String>getNearCache("relations")).isNull();
+        TbNearCache<String> nearCache = nearCacheService.getNearCache("devices");
+        nearCache.onRedisGet(KEY, SimpleTbCacheValueWrapper.wrap("value"), nearCache.getInvalidationsCount(KEY));
+        assertThat(nearCache.size()).isEqualTo(1);
+
+        byte[] body = StringRedisSerializer.UTF_8.serialize("devices\n" + KEY);
+        nearCacheService.onMessage(new DefaultMessage(RedisNearCacheService.INVALIDATION_CHANNEL, body), null);
+
+        assertThat(nearCache.get(KEY)).isNull();
+    }
+
+}
@@ -36,6 +36,18 @@ public interface TbQueueConsumer<T extends TbQueueMsg> {
 
     void commit();
 
+    /**
+     * Commits the oldest polled pack only, so the next packs may be polled before the current one is processed.
+     * Available if {@link #isPackCommitSupported()} returns true.
+     */
+    default void commitPack() {
+        throw new UnsupportedOperationException("Pack commit is not supported by " + getClass().getSimpleName());
+    }
+
+    default boolean isPackCommitSupported() {
+        return false;
+    }
+
     boolean isStopped();
 
     List<String> getFullTopicNames();
@@ -18,6 +18,7 @@ package org.thingsboard.server.common.data.kv;
 import jakarta.validation.Valid;
 import lombok.Data;
 
+import java.util.Objects;
 import java.util.Optional;
 
 @Data
@@ -102,4 +103,24 @@ public class BasicTsKvEntry implements TsKvEntry {
         return Math.max(1, (length + MAX_CHARS_PER_DATA_POINT - 1) / MAX_CHARS_PER_DATA_POINT);
     }
 
+    /**
+     * Follows the contract of {@link PrimitiveTsKvEntry#equals(Object)}, so the entries are equal
+     * regardless of the representation of the data point.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o instanceof PrimitiveTsKvEntry) return o.equals(this);
+        if (!(o instanceof BasicTsKvEntry that)) return false;
+        return ts == that.ts && Objects.equals(kv, that.kv) && Objects.equals(version, that.version);
+    }
+
+    @Override
+    public int hashCode() {
+        if (kv == null) {
+            return Objects.hash(ts, version);
+        }
+        return Objects.hash(ts, kv.getKey(), kv.getDataType(), kv.getValue(), version);
+    }
+
 }
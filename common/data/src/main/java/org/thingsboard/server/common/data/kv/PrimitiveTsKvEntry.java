@@ -0,0 +1,198 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.common.data.kv;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.thingsboard.server.common.data.validation.Length;
+import org.thingsboard.server.common.data.validation.NoXss;
+
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Compact time series entry for long, double and boolean values.
+ * <p>
+ * Unlike {@link BasicTsKvEntry} it does not wrap a separate {@link KvEntry} and keeps the value unboxed,
+ * so a numeric data point is a single object. Use {@link #getLong()}, {@link #getDouble()} and {@link #getBoolean()}
+ * to read the value without allocation.
+ */
+public final class PrimitiveTsKvEntry implements TsKvEntry {
+
+    private static final long serialVersionUID = 6382754601845730012L;
+
+    private final long ts;
+    @Length(fieldName = "attribute key")
+    @NoXss
+    private final String key;
+    private final DataType dataType;
+    /**
+     * The long value, the bits of the double value or 1/0 for the boolean value.
+     */
+    private final long value;
+    private final Long version;
+
+    private PrimitiveTsKvEntry(long ts, String key, DataType dataType, long value, Long version) {
+        this.ts = ts;
+        this.key = key;
+        this.dataType = dataType;
+        this.value = value;
+        this.version = version;
+    }
+
+    public static PrimitiveTsKvEntry ofLong(long ts, String key, long value) {
+        return new PrimitiveTsKvEntry(ts, key, DataType.LONG, value, null);
+    }
+
+    public static PrimitiveTsKvEntry ofDouble(long ts, String key, double value) {
+        return new PrimitiveTsKvEntry(ts, key, DataType.DOUBLE, Double.doubleToLongBits(value), null);
+    }
+
+    public static PrimitiveTsKvEntry ofBoolean(long ts, String key, boolean value) {
+        return new PrimitiveTsKvEntry(ts, key, DataType.BOOLEAN, value ? 1L : 0L, null);
+    }
+
+    public PrimitiveTsKvEntry withVersion(Long version) {
+        return new PrimitiveTsKvEntry(ts, key, dataType, value, version);
+    }
+
+    @Override
+    public long getTs() {
+        return ts;
+    }
+
+    @Override
+    public String getKey() {
+        return key;
+    }
+
+    @Override
+    public DataType getDataType() {
+        return dataType;
+    }
+
+    @Override
+    public Long getVersion() {
+        return version;
+    }
+
+    @JsonIgnore
+    public long getLong() {
+        checkDataType(DataType.LONG);
+        return value;
+    }
+
+    @JsonIgnore
+    public double getDouble() {
+        checkDataType(DataType.DOUBLE);
+        return Double.longBitsToDouble(value);
+    }
+
+    @JsonIgnore
+    public boolean getBoolean() {
+        checkDataType(DataType.BOOLEAN);
+        return value != 0L;
+    }
+
+    @Override
+    public Optional<String> getStrValue() {
+        return Optional.empty();
+    }
+
+    @Override
+    public Optional<Long> getLongValue() {
+        return dataType == DataType.LONG ? Optional.of(value) : Optional.empty();
+    }
+
+    @Override
+    public Optional<Boolean> getBooleanValue() {
+        return dataType == DataType.BOOLEAN ? Optional.of(value != 0L) : Optional.empty();
+    }
+
+    @Override
+    public Optional<Double> getDoubleValue() {
+        return dataType == DataType.DOUBLE ? Optional.of(Double.longBitsToDouble(value)) : Optional.empty();
+    }
+
+    @Override
+    public Optional<String> getJsonValue() {
+        return Optional.empty();
+    }
+
+    @Override
+    public Object getValue() {
+        return switch (dataType) {
+            case LONG -> value;
+            case DOUBLE -> Double.longBitsToDouble(value);
+            default -> value != 0L;
+        };
+    }
+
+    @Override
+    public String getValueAsString() {
+        return switch (dataType) {
+            case LONG -> Long.toString(value);
+            case DOUBLE -> Double.toString(Double.longBitsToDouble(value));
+            default -> Boolean.toString(value != 0L);
+        };
+    }
+
+    @Override
+    public int getDataPoints() {
+        return 1;
+    }
+
+    private void checkDataType(DataType expected) {
+        if (dataType != expected) {
+            throw new IllegalStateException("Data type of '" + key + "' is " + dataType + ", not " + expected);
+        }
+    }
+
+    /**
+     * Equal to a {@link BasicTsKvEntry} with the same timestamp, key, data type, value and version,
+     * so the representation of a data point does not affect comparisons.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o instanceof PrimitiveTsKvEntry that) {
+            return ts == that.ts && value == that.value && dataType == that.dataType
+                    && Objects.equals(key, that.key) && Objects.equals(version, that.version);
+        }
+        if (o instanceof BasicTsKvEntry that) {
+            return ts == that.getTs() && that.getKv() != null && dataType == that.getDataType()
+                    && Objects.equals(key, that.getKey()) && Objects.equals(getValue(), that.getValue())
+                    && Objects.equals(version, that.getVersion());
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(ts, key, dataType, getValue(), version);
+    }
+
+    @Override
+    public String toString() {
+        return "PrimitiveTsKvEntry{" +
+                "ts=" + ts +
+                ", key='" + key + '\'' +
+                ", dataType=" + dataType +
+                ", value=" + getValueAsString() +
+                ", version=" + version +
+                '}';
+    }
+
+}
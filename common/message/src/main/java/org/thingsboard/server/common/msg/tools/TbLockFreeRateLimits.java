@@ -0,0 +1,102 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.common.msg.tools;
+
+import lombok.Getter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Allocation-free token bucket rate limits with greedy refill.
+ * <p>
+ * The configuration is parsed once on creation. Each bandwidth is tracked as a single
+ * theoretical arrival time (GCRA), so {@link #tryConsume(long)} is one CAS per bandwidth
+ * and takes no locks. Interval refill is not supported, use {@link TbRateLimits} for it.
+ */
+public class TbLockFreeRateLimits implements RateLimits {
+
+    @Getter
+    private final String configuration;
+
+    private final long[] capacities;
+    private final long[] periodsNanos;
+    private final long[] emissionIntervalsNanos;
+    private final AtomicLongArray arrivalTimes;
+
+    public TbLockFreeRateLimits(String limitsConfiguration) {
+        this.configuration = limitsConfiguration;
+        String[] limits = limitsConfiguration.split(",");
+        capacities = new long[limits.length];
+        periodsNanos = new long[limits.length];
+        emissionIntervalsNanos = new long[limits.length];
+        for (int i = 0; i < limits.length; i++) {
+            String[] limit = limits[i].split(":");
+            long capacity = Long.parseLong(limit[0].trim());
+            long duration = Long.parseLong(limit[1].trim());
+            if (capacity <= 0 || duration <= 0) {
+                throw new IllegalArgumentException("Failed to parse rate limits configuration: " + limitsConfiguration);
+            }
+            capacities[i] = capacity;
+            periodsNanos[i] = TimeUnit.SECONDS.toNanos(duration);
+            // rounding up guarantees that no more than 'capacity' tokens are available within the period
+            emissionIntervalsNanos[i] = -Math.floorDiv(-periodsNanos[i], capacity);
+        }
+        arrivalTimes = new AtomicLongArray(limits.length);
+        long now = System.nanoTime();
+        for (int i = 0; i < limits.length; i++) {
+            arrivalTimes.set(i, now - periodsNanos[i]);
+        }
+    }
+
+    @Override
+    public boolean tryConsume() {
+        return tryConsume(1);
+    }
+
+    @Override
+    public boolean tryConsume(long number) {
+        long now = System.nanoTime();
+        for (int i = 0; i < capacities.length; i++) {
+            if (!tryConsume(i, number, now)) {
+                for (int j = 0; j < i; j++) {
+                    arrivalTimes.addAndGet(j, -number * emissionIntervalsNanos[j]);
+                }
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean tryConsume(int idx, long number, long now) {
+        if (number > capacities[idx]) {
+            return false;
+        }
+        long increment = number * emissionIntervalsNanos[idx];
+        long period = periodsNanos[idx];
+        while (true) {
+            long arrivalTime = arrivalTimes.get(idx);
+            long newArrivalTime = Math.max(arrivalTime, now - period) + increment;
+            if (newArrivalTime - now > 0) {
+                return false;
+            }
+            if (arrivalTimes.compareAndSet(idx, arrivalTime, newArrivalTime)) {
+                return true;
+            }
+        }
+    }
+
+}
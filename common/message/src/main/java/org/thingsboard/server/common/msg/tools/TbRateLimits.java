@@ -27,7 +27,7 @@ import java.time.Duration;
 /**
  * Created by ashvayka on 22.10.18.
  */
-public class TbRateLimits {
+public class TbRateLimits implements RateLimits {
     private final LocalBucket bucket;
 
     @Getter
@@ -55,10 +55,12 @@ public class TbRateLimits {
         this.configuration = limitsConfiguration;
     }
 
+    @Override
     public boolean tryConsume() {
         return bucket.tryConsume(1);
     }
 
+    @Override
     public boolean tryConsume(long number) {
         return bucket.tryConsume(number);
     }
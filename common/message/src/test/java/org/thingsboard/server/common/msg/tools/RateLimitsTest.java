@@ -21,6 +21,7 @@ import org.junit.jupiter.api.Test;
 import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.awaitility.Awaitility.await;
 
 public class RateLimitsTest {
@@ -32,9 +33,50 @@ public class RateLimitsTest {
         testRateLimitWithGreedyRefill(4, 2);
     }
 
+    @Test
+    public void testLockFreeRateLimits_greedyRefill() {
+        testRateLimitWithGreedyRefill(3, 10, true);
+        testRateLimitWithGreedyRefill(3, 3, true);
+        testRateLimitWithGreedyRefill(4, 2, true);
+    }
+
+    @Test
+    public void testLockFreeRateLimits_multipleBandwidths() {
+        RateLimits rateLimits = new TbLockFreeRateLimits("5:60,2:1");
+
+        assertThat(rateLimits.tryConsume(3)).as("tokens over the smallest capacity are available").isFalse();
+        assertThat(rateLimits.tryConsume(2)).as("tokens are available").isTrue();
+        assertThat(rateLimits.tryConsume()).as("new token is available").isFalse();
+
+        await("token refill for the short bandwidth")
+                .pollInterval(new FixedPollInterval(10, TimeUnit.MILLISECONDS))
+                .atMost(2, TimeUnit.SECONDS)
+                .untilAsserted(() -> {
+                    assertThat(rateLimits.tryConsume(2)).as("tokens are available").isTrue();
+                });
+        await("token refill for the short bandwidth")
+                .pollInterval(new FixedPollInterval(10, TimeUnit.MILLISECONDS))
+                .atMost(2, TimeUnit.SECONDS)
+                .untilAsserted(() -> {
+                    assertThat(rateLimits.tryConsume()).as("token is available").isTrue();
+                });
+        // the long bandwidth is exhausted and the rejected attempt must not consume short bandwidth tokens
+        assertThat(rateLimits.tryConsume()).as("new token is available").isFalse();
+    }
+
+    @Test
+    public void testLockFreeRateLimits_invalidConfiguration() {
+        assertThatThrownBy(() -> new TbLockFreeRateLimits("0:10")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new TbLockFreeRateLimits("10")).isInstanceOf(RuntimeException.class);
+    }
+
     private void testRateLimitWithGreedyRefill(int capacity, int period) {
+        testRateLimitWithGreedyRefill(capacity, period, false);
+    }
+
+    private void testRateLimitWithGreedyRefill(int capacity, int period, boolean lockFree) {
         String rateLimitConfig = capacity + ":" + period;
-        TbRateLimits rateLimits = new TbRateLimits(rateLimitConfig);
+        RateLimits rateLimits = lockFree ? new TbLockFreeRateLimits(rateLimitConfig) : new TbRateLimits(rateLimitConfig);
 
         rateLimits.tryConsume(capacity);
         assertThat(rateLimits.tryConsume()).as("new token is available").isFalse();
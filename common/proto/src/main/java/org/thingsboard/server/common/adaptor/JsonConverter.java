@@ -28,12 +28,15 @@ import org.thingsboard.server.common.data.StringUtils;
 import org.thingsboard.server.common.data.id.DeviceId;
 import org.thingsboard.server.common.data.kv.AttributeKvEntry;
 import org.thingsboard.server.common.data.kv.BaseAttributeKvEntry;
+import org.thingsboard.server.common.data.kv.BasicTsKvEntry;
 import org.thingsboard.server.common.data.kv.BooleanDataEntry;
 import org.thingsboard.server.common.data.kv.DoubleDataEntry;
 import org.thingsboard.server.common.data.kv.JsonDataEntry;
 import org.thingsboard.server.common.data.kv.KvEntry;
 import org.thingsboard.server.common.data.kv.LongDataEntry;
+import org.thingsboard.server.common.data.kv.PrimitiveTsKvEntry;
 import org.thingsboard.server.common.data.kv.StringDataEntry;
+import org.thingsboard.server.common.data.kv.TsKvEntry;
 import org.thingsboard.server.common.data.util.TbPair;
 import org.thingsboard.server.common.msg.gateway.metrics.GatewayMetadata;
 import org.thingsboard.server.gen.transport.TransportProtos;
@@ -54,6 +57,7 @@ import org.thingsboard.server.gen.transport.TransportProtos.ValidateDeviceTokenR
 import org.thingsboard.server.gen.transport.TransportProtos.ValidateDeviceX509CertRequestMsg;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -67,6 +71,58 @@ import java.util.function.Consumer;
 public class JsonConverter {
 
     private static final Gson GSON = new Gson();
+    private static final KvEntryFactory<KvEntry> KV_ENTRY_FACTORY = new KvEntryFactory<>() {
+        @Override
+        public KvEntry ofString(long ts, String key, String value) {
+            return new StringDataEntry(key, value);
+        }
+
+        @Override
+        public KvEntry ofLong(long ts, String key, long value) {
+            return new LongDataEntry(key, value);
+        }
+
+        @Override
+        public KvEntry ofDouble(long ts, String key, double value) {
+            return new DoubleDataEntry(key, value);
+        }
+
+        @Override
+        public KvEntry ofBoolean(long ts, String key, boolean value) {
+            return new BooleanDataEntry(key, value);
+        }
+
+        @Override
+        public KvEntry ofJson(long ts, String key, String value) {
+            return new JsonDataEntry(key, value);
+        }
+    };
+    private static final KvEntryFactory<TsKvEntry> TS_KV_ENTRY_FACTORY = new KvEntryFactory<>() {
+        @Override
+        public TsKvEntry ofString(long ts, String key, String value) {
+            return new BasicTsKvEntry(ts, new StringDataEntry(key, value));
+        }
+
+        @Override
+        public TsKvEntry ofLong(long ts, String key, long value) {
+            return PrimitiveTsKvEntry.ofLong(ts, key, value);
+        }
+
+        @Override
+        public TsKvEntry ofDouble(long ts, String key, double value) {
+            return PrimitiveTsKvEntry.ofDouble(ts, key, value);
+        }
+
+        @Override
+        public TsKvEntry ofBoolean(long ts, String key, boolean value) {
+            return PrimitiveTsKvEntry.ofBoolean(ts, key, value);
+        }
+
+        @Override
+        public TsKvEntry ofJson(long ts, String key, String value) {
+            return new BasicTsKvEntry(ts, new JsonDataEntry(key, value));
+        }
+    };
     private static final String CAN_T_PARSE_VALUE = "Can't parse value: ";
     private static final String DEVICE_PROPERTY = "device";
 
@@ -84,6 +140,22 @@ public class JsonConverter {
         return convertToTelemetryProto(jsonElement, System.currentTimeMillis());
     }
 
+    /**
+     * Same as {@link #convertToTelemetryProto(JsonElement, long)} for the UTF-8 encoded payload, but without building the JSON tree.
+     * The payloads that are not strict JSON or can't be converted are parsed with Gson, so the result and the errors stay the same.
+     */
+    public static PostTelemetryMsg convertToTelemetryProto(byte[] payload, int offset, int length, long ts) throws JsonSyntaxException {
+        try {
+            return new JsonTelemetryParser(payload, offset, length).parse(ts);
+        } catch (RuntimeException e) {
+            return convertToTelemetryProto(JsonParser.parseString(new String(payload, offset, length, StandardCharsets.UTF_8)), ts);
+        }
+    }
+
+    public static PostTelemetryMsg convertToTelemetryProto(byte[] payload) throws JsonSyntaxException {
+        return convertToTelemetryProto(payload, 0, payload.length, System.currentTimeMillis());
+    }
+
     public static TbPair<TransportProtos.PostTelemetryMsg, List<GatewayMetadata>> convertToGatewayTelemetry(JsonElement jsonElement, long systemTs) {
         List<GatewayMetadata> metadataResult = null;
         PostTelemetryMsg.Builder builder = PostTelemetryMsg.newBuilder();
@@ -236,31 +308,16 @@ public class JsonConverter {
             if (element.isJsonPrimitive()) {
                 JsonPrimitive value = element.getAsJsonPrimitive();
                 if (value.isString()) {
-                    if (maxStringValueLength > 0 && value.getAsString().length() > maxStringValueLength) {
-                        String message = String.format("String value length [%d] for key [%s] is greater than maximum allowed [%d]", value.getAsString().length(), valueEntry.getKey(), maxStringValueLength);
-                        throw new JsonSyntaxException(message);
-                    }
-                    if (isTypeCastEnabled && NumberUtils.isParsable(value.getAsString())) {
-                        try {
-                            result.add(buildNumericKeyValueProto(value, valueEntry.getKey()));
-                        } catch (RuntimeException th) {
-                            result.add(KeyValueProto.newBuilder().setKey(valueEntry.getKey()).setType(KeyValueType.STRING_V)
-                                    .setStringV(value.getAsString()).build());
-                        }
-                    } else {
-                        result.add(KeyValueProto.newBuilder().setKey(valueEntry.getKey()).setType(KeyValueType.STRING_V)
-                                .setStringV(value.getAsString()).build());
-                    }
+                    result.add(buildStringKeyValueProto(value.getAsString(), valueEntry.getKey()));
                 } else if (value.isBoolean()) {
-                    result.add(KeyValueProto.newBuilder().setKey(valueEntry.getKey()).setType(KeyValueType.BOOLEAN_V)
-                            .setBoolV(value.getAsBoolean()).build());
+                    result.add(buildBooleanKeyValueProto(value.getAsBoolean(), valueEntry.getKey()));
                 } else if (value.isNumber()) {
-                    result.add(buildNumericKeyValueProto(value, valueEntry.getKey()));
+                    result.add(buildNumericKeyValueProto(value.getAsString(), valueEntry.getKey()));
                 } else if (!value.isJsonNull()) {
                     throw new JsonSyntaxException(CAN_T_PARSE_VALUE + value);
                 }
             } else if (element.isJsonObject() || element.isJsonArray()) {
-                result.add(KeyValueProto.newBuilder().setKey(valueEntry.getKey()).setType(KeyValueType.JSON_V).setJsonV(element.toString()).build());
+                result.add(buildJsonKeyValueProto(element.toString(), valueEntry.getKey()));
             } else if (!element.isJsonNull()) {
                 throw new JsonSyntaxException(CAN_T_PARSE_VALUE + element);
             }
@@ -268,8 +325,31 @@ public class JsonConverter {
         return result;
     }
 
-    private static KeyValueProto buildNumericKeyValueProto(JsonPrimitive value, String key) {
-        String valueAsString = value.getAsString();
+    static KeyValueProto buildStringKeyValueProto(String value, String key) {
+        if (maxStringValueLength > 0 && value.length() > maxStringValueLength) {
+            String message = String.format("String value length [%d] for key [%s] is greater than maximum allowed [%d]", value.length(), key, maxStringValueLength);
+            throw new JsonSyntaxException(message);
+        }
+        if (isTypeCastEnabled && NumberUtils.isParsable(value)) {
+            try {
+                return buildNumericKeyValueProto(value, key);
+            } catch (RuntimeException th) {
+                return KeyValueProto.newBuilder().setKey(key).setType(KeyValueType.STRING_V).setStringV(value).build();
+            }
+        } else {
+            return KeyValueProto.newBuilder().setKey(key).setType(KeyValueType.STRING_V).setStringV(value).build();
+        }
+    }
+
+    static KeyValueProto buildBooleanKeyValueProto(boolean value, String key) {
+        return KeyValueProto.newBuilder().setKey(key).setType(KeyValueType.BOOLEAN_V).setBoolV(value).build();
+    }
+
+    static KeyValueProto buildJsonKeyValueProto(String value, String key) {
+        return KeyValueProto.newBuilder().setKey(key).setType(KeyValueType.JSON_V).setJsonV(value).build();
+    }
+
+    static KeyValueProto buildNumericKeyValueProto(String valueAsString, String key) {
         KeyValueProto.Builder builder = KeyValueProto.newBuilder().setKey(key);
         var bd = new BigDecimal(valueAsString);
         if (bd.stripTrailingZeros().scale() <= 0 && !isSimpleDouble(valueAsString)) {
@@ -303,25 +383,25 @@ public class JsonConverter {
         return TransportProtos.ToServerRpcRequestMsg.newBuilder().setRequestId(requestId).setMethodName(object.get("method").getAsString()).setParams(GSON.toJson(object.get("params"))).build();
     }
 
-    private static void parseNumericValue(List<KvEntry> result, Entry<String, JsonElement> valueEntry, JsonPrimitive value) {
+    private static <T> void parseNumericValue(List<T> result, long ts, KvEntryFactory<T> factory, Entry<String, JsonElement> valueEntry, JsonPrimitive value) {
         String valueAsString = value.getAsString();
         String key = valueEntry.getKey();
         var bd = new BigDecimal(valueAsString);
         if (bd.stripTrailingZeros().scale() <= 0 && !isSimpleDouble(valueAsString)) {
             try {
-                result.add(new LongDataEntry(key, bd.longValueExact()));
+                result.add(factory.ofLong(ts, key, bd.longValueExact()));
             } catch (ArithmeticException e) {
                 if (isTypeCastEnabled) {
-                    result.add(new StringDataEntry(key, bd.toPlainString()));
+                    result.add(factory.ofString(ts, key, bd.toPlainString()));
                 } else {
                     throw new JsonSyntaxException("Big integer values are not supported!");
                 }
             }
         } else {
             if (bd.scale() <= 16) {
-                result.add(new DoubleDataEntry(key, bd.doubleValue()));
+                result.add(factory.ofDouble(ts, key, bd.doubleValue()));
             } else if (isTypeCastEnabled) {
-                result.add(new StringDataEntry(key, bd.toPlainString()));
+                result.add(factory.ofString(ts, key, bd.toPlainString()));
             } else {
                 throw new JsonSyntaxException("Big integer values are not supported!");
             }
@@ -549,6 +629,11 @@ public class JsonConverter {
 
     private static List<KvEntry> parseValues(JsonObject valuesObject) {
         List<KvEntry> result = new ArrayList<>();
+        parseValues(valuesObject, 0L, KV_ENTRY_FACTORY, result);
+        return result;
+    }
+
+    private static <T> void parseValues(JsonObject valuesObject, long ts, KvEntryFactory<T> factory, List<T> result) {
         for (Entry<String, JsonElement> valueEntry : valuesObject.entrySet()) {
             JsonElement element = valueEntry.getValue();
             if (element.isJsonPrimitive()) {
@@ -560,29 +645,58 @@ public class JsonConverter {
                     }
                     if (isTypeCastEnabled && NumberUtils.isParsable(value.getAsString())) {
                         try {
-                            parseNumericValue(result, valueEntry, value);
+                            parseNumericValue(result, ts, factory, valueEntry, value);
                         } catch (RuntimeException th) {
-                            result.add(new StringDataEntry(valueEntry.getKey(), value.getAsString()));
+                            result.add(factory.ofString(ts, valueEntry.getKey(), value.getAsString()));
                         }
                     } else {
-                        result.add(new StringDataEntry(valueEntry.getKey(), value.getAsString()));
+                        result.add(factory.ofString(ts, valueEntry.getKey(), value.getAsString()));
                     }
                 } else if (value.isBoolean()) {
-                    result.add(new BooleanDataEntry(valueEntry.getKey(), value.getAsBoolean()));
+                    result.add(factory.ofBoolean(ts, valueEntry.getKey(), value.getAsBoolean()));
                 } else if (value.isNumber()) {
-                    parseNumericValue(result, valueEntry, value);
+                    parseNumericValue(result, ts, factory, valueEntry, value);
                 } else {
                     throw new JsonSyntaxException(CAN_T_PARSE_VALUE + value);
                 }
             } else if (element.isJsonObject() || element.isJsonArray()) {
-                result.add(new JsonDataEntry(valueEntry.getKey(), element.toString()));
+                result.add(factory.ofJson(ts, valueEntry.getKey(), element.toString()));
             } else {
                 throw new JsonSyntaxException(CAN_T_PARSE_VALUE + element);
             }
         }
+    }
+
+    /**
+     * Same as {@link #convertToTelemetry(JsonElement, long)}, but produces the time series entries directly,
+     * in the order of the payload. Long, double and boolean values are stored as {@link PrimitiveTsKvEntry}.
+     */
+    public static List<TsKvEntry> convertToTsKvEntries(JsonElement jsonElement, long systemTs) throws JsonSyntaxException {
+        List<TsKvEntry> result = new ArrayList<>();
+        if (jsonElement.isJsonObject()) {
+            parseObject(result, systemTs, jsonElement.getAsJsonObject());
+        } else if (jsonElement.isJsonArray()) {
+            for (JsonElement je : jsonElement.getAsJsonArray()) {
+                if (je.isJsonObject()) {
+                    parseObject(result, systemTs, je.getAsJsonObject());
+                } else {
+                    throw new JsonSyntaxException(CAN_T_PARSE_VALUE + je);
+                }
+            }
+        } else {
+            throw new JsonSyntaxException(CAN_T_PARSE_VALUE + jsonElement);
+        }
         return result;
     }
 
+    private static void parseObject(List<TsKvEntry> result, long systemTs, JsonObject jo) {
+        if (jo.has("ts") && jo.has("values")) {
+            parseValues(jo.get("values").getAsJsonObject(), jo.get("ts").getAsLong(), TS_KV_ENTRY_FACTORY, result);
+        } else {
+            parseValues(jo, systemTs, TS_KV_ENTRY_FACTORY, result);
+        }
+    }
+
     public static Map<Long, List<KvEntry>> convertToTelemetry(JsonElement jsonElement, long systemTs) throws
             JsonSyntaxException {
         return convertToTelemetry(jsonElement, systemTs, false);
@@ -704,4 +818,21 @@ public class JsonConverter {
         }
     }
 
+    /**
+     * Creates the entries for the parsed values, so the same parsing rules apply to {@link KvEntry} and {@link TsKvEntry}.
+     */
+    private interface KvEntryFactory<T> {
+
+        T ofString(long ts, String key, String value);
+
+        T ofLong(long ts, String key, long value);
+
+        T ofDouble(long ts, String key, double value);
+
+        T ofBoolean(long ts, String key, boolean value);
+
+        T ofJson(long ts, String key, String value);
+
+    }
+
 }
@@ -0,0 +1,464 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.common.adaptor;
+
+import org.thingsboard.server.gen.transport.TransportProtos.KeyValueProto;
+import org.thingsboard.server.gen.transport.TransportProtos.PostTelemetryMsg;
+import org.thingsboard.server.gen.transport.TransportProtos.TsKvListProto;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Single pass parser of the UTF-8 encoded telemetry payload into {@link PostTelemetryMsg}.
+ * <p>
+ * Only strict JSON is accepted. Anything else, including the duplicate keys that Gson resolves by the last value,
+ * is rejected with {@link UnsupportedJsonException}, so the caller falls back to the Gson based {@link JsonConverter}.
+ * The nested objects and arrays are written in the same compact form as {@code JsonElement.toString()}.
+ */
+final class JsonTelemetryParser {
+
+    private static final int MAX_DEPTH = 255;
+    private static final int MAX_NUMBER_LENGTH = 1024;
+    private static final String TS = "ts";
+    private static final String VALUES = "values";
+
+    private final byte[] data;
+    private final int end;
+    private int pos;
+
+    JsonTelemetryParser(byte[] data, int offset, int length) {
+        this.data = data;
+        this.pos = offset;
+        this.end = offset + length;
+    }
+
+    PostTelemetryMsg parse(long systemTs) {
+        PostTelemetryMsg.Builder builder = PostTelemetryMsg.newBuilder();
+        skipWhitespace();
+        int c = peek();
+        if (c == '{') {
+            builder.addTsKvList(readTsKvList(systemTs));
+        } else if (c == '[') {
+            pos++;
+            skipWhitespace();
+            if (peek() == ']') {
+                pos++;
+            } else {
+                do {
+                    skipWhitespace();
+                    if (peek() != '{') {
+                        throw new UnsupportedJsonException();
+                    }
+                    builder.addTsKvList(readTsKvList(systemTs));
+                    skipWhitespace();
+                } while (nextSeparator(']'));
+            }
+        } else {
+            throw new UnsupportedJsonException();
+        }
+        skipWhitespace();
+        if (pos != end) {
+            throw new UnsupportedJsonException();
+        }
+        return builder.build();
+    }
+
+    private TsKvListProto readTsKvList(long systemTs) {
+        pos++;
+        Set<String> keys = new HashSet<>();
+        List<KeyValueProto> kvList = new ArrayList<>();
+        int tsPos = -1;
+        int valuesPos = -1;
+        int valuesIndex = -1;
+        List<KeyValueProto> values = null;
+        skipWhitespace();
+        if (peek() == '}') {
+            pos++;
+        } else {
+            do {
+                String key = readKey(keys);
+                if (VALUES.equals(key)) {
+                    valuesPos = pos;
+                    if (peek() == '{') {
+                        // assume the ts and values format, the values are written as JSON only if the ts is missing
+                        values = readValues();
+                        valuesIndex = kvList.size();
+                        kvList.add(null);
+                        skipWhitespace();
+                        continue;
+                    }
+                } else if (TS.equals(key)) {
+                    tsPos = pos;
+                }
+                KeyValueProto kv = readKeyValue(key);
+                if (kv != null) {
+                    kvList.add(kv);
+                }
+                skipWhitespace();
+            } while (nextSeparator('}'));
+        }
+        TsKvListProto.Builder builder = TsKvListProto.newBuilder();
+        if (tsPos >= 0 && valuesPos >= 0) {
+            if (values == null) {
+                throw new UnsupportedJsonException();
+            }
+            builder.setTs(readTs(tsPos));
+            builder.addAllKv(values);
+        } else {
+            if (valuesIndex >= 0) {
+                int current = pos;
+                pos = valuesPos;
+                kvList.set(valuesIndex, readKeyValue(VALUES));
+                pos = current;
+            }
+            builder.setTs(systemTs);
+            builder.addAllKv(kvList);
+        }
+        return builder.build();
+    }
+
+    private List<KeyValueProto> readValues() {
+        pos++;
+        Set<String> keys = new HashSet<>();
+        List<KeyValueProto> result = new ArrayList<>();
+        skipWhitespace();
+        if (peek() == '}') {
+            pos++;
+            return result;
+        }
+        do {
+            KeyValueProto kv = readKeyValue(readKey(keys));
+            if (kv != null) {
+                result.add(kv);
+            }
+            skipWhitespace();
+        } while (nextSeparator('}'));
+        return result;
+    }
+
+    private KeyValueProto readKeyValue(String key) {
+        int c = peek();
+        switch (c) {
+            case '"':
+                return JsonConverter.buildStringKeyValueProto(readString(), key);
+            case 't':
+                readLiteral("true");
+                return JsonConverter.buildBooleanKeyValueProto(true, key);
+            case 'f':
+                readLiteral("false");
+                return JsonConverter.buildBooleanKeyValueProto(false, key);
+            case 'n':
+                readLiteral("null");
+                return null;
+            case '{':
+            case '[':
+                StringBuilder json = new StringBuilder();
+                writeJson(json, 0);
+                return JsonConverter.buildJsonKeyValueProto(json.toString(), key);
+            default:
+                return JsonConverter.buildNumericKeyValueProto(readNumber(), key);
+        }
+    }
+
+    private long readTs(int tsPos) {
+        int current = pos;
+        pos = tsPos;
+        long ts;
+        if (peek() == '"') {
+            ts = Long.parseLong(readString());
+        } else {
+            // the same conversion as the one of Gson's LazilyParsedNumber
+            String number = readNumber();
+            try {
+                ts = Long.parseLong(number);
+            } catch (NumberFormatException e) {
+                ts = new BigDecimal(number).longValue();
+            }
+        }
+        pos = current;
+        return ts;
+    }
+
+    private String readKey(Set<String> keys) {
+        skipWhitespace();
+        if (peek() != '"') {
+            throw new UnsupportedJsonException();
+        }
+        String key = readString();
+        if (!keys.add(key)) {
+            throw new UnsupportedJsonException();
+        }
+        skipWhitespace();
+        if (next() != ':') {
+            throw new UnsupportedJsonException();
+        }
+        skipWhitespace();
+        return key;
+    }
+
+    private void writeJson(StringBuilder json, int depth) {
+        if (depth > MAX_DEPTH) {
+            throw new UnsupportedJsonException();
+        }
+        int c = peek();
+        switch (c) {
+            case '{' -> {
+                pos++;
+                json.append('{');
+                skipWhitespace();
+                if (peek() == '}') {
+                    pos++;
+                } else {
+                    Set<String> keys = new HashSet<>();
+                    boolean first = true;
+                    do {
+                        String key = readKey(keys);
+                        if (!first) {
+                            json.append(',');
+                        }
+                        first = false;
+                        writeString(json, key);
+                        json.append(':');
+                        writeJson(json, depth + 1);
+                        skipWhitespace();
+                    } while (nextSeparator('}'));
+                }
+                json.append('}');
+            }
+            case '[' -> {
+                pos++;
+                json.append('[');
+                skipWhitespace();
+                if (peek() == ']') {
+                    pos++;
+                } else {
+                    boolean first = true;
+                    do {
+                        skipWhitespace();
+                        if (!first) {
+                            json.append(',');
+                        }
+                        first = false;
+                        writeJson(json, depth + 1);
+                        skipWhitespace();
+                    } while (nextSeparator(']'));
+                }
+                json.append(']');
+            }
+            case '"' -> writeString(json, readString());
+            case 't' -> json.append(readLiteral("true"));
+            case 'f' -> json.append(readLiteral("false"));
+            case 'n' -> json.append(readLiteral("null"));
+            default -> json.append(readNumber());
+        }
+    }
+
+    private boolean nextSeparator(char close) {
+        int c = next();
+        if (c == ',') {
+            return true;
+        } else if (c == close) {
+            return false;
+        }
+        throw new UnsupportedJsonException();
+    }
+
+    private String readString() {
+        int start = ++pos;
+        StringBuilder sb = null;
+        while (pos < end) {
+            byte b = data[pos];
+            if (b == '"') {
+                String value;
+                if (sb == null) {
+                    value = new String(data, start, pos - start, StandardCharsets.UTF_8);
+                } else {
+                    value = sb.append(new String(data, start, pos - start, StandardCharsets.UTF_8)).toString();
+                }
+                pos++;
+                return value;
+            } else if (b == '\\') {
+                if (sb == null) {
+                    sb = new StringBuilder();
+                }
+                sb.append(new String(data, start, pos - start, StandardCharsets.UTF_8));
+                pos++;
+                sb.append(readEscapedChar());
+                start = pos;
+            } else {
+                pos++;
+            }
+        }
+        throw new UnsupportedJsonException();
+    }
+
+    private char readEscapedChar() {
+        int c = next();
+        return switch (c) {
+            case '"', '\\', '/' -> (char) c;
+            case 'b' -> '\b';
+            case 'f' -> '\f';
+            case 'n' -> '\n';
+            case 'r' -> '\r';
+            case 't' -> '\t';
+            case 'u' -> {
+                int value = 0;
+                for (int i = 0; i < 4; i++) {
+                    int digit = Character.digit(next(), 16);
+                    if (digit < 0) {
+                        throw new UnsupportedJsonException();
+                    }
+                    value = (value << 4) | digit;
+                }
+                yield (char) value;
+            }
+            default -> throw new UnsupportedJsonException();
+        };
+    }
+
+    private String readNumber() {
+        int start = pos;
+        if (peek() == '-') {
+            pos++;
+        }
+        int c = peek();
+        if (c == '0') {
+            pos++;
+        } else if (isDigit(c)) {
+            skipDigits();
+        } else {
+            throw new UnsupportedJsonException();
+        }
+        if (peek() == '.') {
+            pos++;
+            if (!isDigit(peek())) {
+                throw new UnsupportedJsonException();
+            }
+            skipDigits();
+        }
+        c = peek();
+        if (c == 'e' || c == 'E') {
+            pos++;
+            c = peek();
+            if (c == '+' || c == '-') {
+                pos++;
+            }
+            if (!isDigit(peek())) {
+                throw new UnsupportedJsonException();
+            }
+            skipDigits();
+        }
+        // Gson reads the numbers longer than its buffer as unquoted strings
+        if (pos - start >= MAX_NUMBER_LENGTH) {
+            throw new UnsupportedJsonException();
+        }
+        checkDelimiter();
+        return new String(data, start, pos - start, StandardCharsets.US_ASCII);
+    }
+
+    private String readLiteral(String literal) {
+        for (int i = 0; i < literal.length(); i++) {
+            if (next() != literal.charAt(i)) {
+                throw new UnsupportedJsonException();
+            }
+        }
+        checkDelimiter();
+        return literal;
+    }
+
+    // Gson reads the literals and numbers that are not followed by a delimiter as unquoted strings
+    private void checkDelimiter() {
+        int c = peek();
+        if (c != -1 && c != ',' && c != '}' && c != ']' && !isWhitespace(c)) {
+            throw new UnsupportedJsonException();
+        }
+    }
+
+    private void skipDigits() {
+        while (isDigit(peek())) {
+            pos++;
+        }
+    }
+
+    private void skipWhitespace() {
+        while (pos < end && isWhitespace(data[pos])) {
+            pos++;
+        }
+    }
+
+    private int peek() {
+        return pos < end ? data[pos] & 0xFF : -1;
+    }
+
+    private int next() {
+        return pos < end ? data[pos++] & 0xFF : -1;
+    }
+
+    private static boolean isDigit(int c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isWhitespace(int c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\r';
+    }
+
+    private static void writeString(StringBuilder json, String value) {
+        json.append('"');
+        int last = 0;
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            String replacement;
+            if (c < 0x20) {
+                replacement = switch (c) {
+                    case '\t' -> "\\t";
+                    case '\b' -> "\\b";
+                    case '\n' -> "\\n";
+                    case '\r' -> "\\r";
+                    case '\f' -> "\\f";
+                    default -> String.format("\\u%04x", (int) c);
+                };
+            } else if (c == '"') {
+                replacement = "\\\"";
+            } else if (c == '\\') {
+                replacement = "\\\\";
+            } else if (c == '\u2028') {
+                replacement = "\\u2028";
+            } else if (c == '\u2029') {
+                replacement = "\\u2029";
+            } else {
+                continue;
+            }
+            json.append(value, last, i).append(replacement);
+            last = i + 1;
+        }
+        json.append(value, last, length).append('"');
+    }
+
+    static final class UnsupportedJsonException extends RuntimeException {
+
+        UnsupportedJsonException() {
+            super(null, null, false, false);
+        }
+
+    }
+
+}
@@ -22,8 +22,18 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.parallel.Isolated;
-
+import org.thingsboard.server.common.data.kv.BasicTsKvEntry;
+import org.thingsboard.server.common.data.kv.BooleanDataEntry;
+import org.thingsboard.server.common.data.kv.DoubleDataEntry;
+import org.thingsboard.server.common.data.kv.KvEntry;
+import org.thingsboard.server.common.data.kv.LongDataEntry;
+import org.thingsboard.server.common.data.kv.PrimitiveTsKvEntry;
+import org.thingsboard.server.common.data.kv.StringDataEntry;
+import org.thingsboard.server.common.data.kv.TsKvEntry;
+
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.List;
 
 @Isolated("JsonConverter static settings being modified")
 public class JsonConverterTest {
@@ -108,4 +118,91 @@ public class JsonConverterTest {
             JsonConverter.convertToTelemetry(JsonParser.parseString("{\"meterReadingDelta\": 9.9701010061400066E19}"), 0L);
         });
     }
+
+    @Test
+    public void testConvertToTsKvEntriesUsesPrimitiveEntriesForNumbersAndBooleans() {
+        var result = JsonConverter.convertToTsKvEntries(JsonParser.parseString(
+                "{\"ts\": 100, \"values\": {\"temperature\": 22.3, \"counter\": 1E1, \"active\": true, \"name\": \"dev\"}}"), 0L);
+        Assertions.assertEquals(4, result.size());
+        Assertions.assertEquals(PrimitiveTsKvEntry.ofDouble(100L, "temperature", 22.3), result.get(0));
+        Assertions.assertEquals(PrimitiveTsKvEntry.ofLong(100L, "counter", 10L), result.get(1));
+        Assertions.assertEquals(PrimitiveTsKvEntry.ofBoolean(100L, "active", true), result.get(2));
+        Assertions.assertEquals(new BasicTsKvEntry(100L, new StringDataEntry("name", "dev")), result.get(3));
+    }
+
+    @Test
+    public void testPrimitiveAndBasicEntriesWithSameValueAreEqual() {
+        List<TsKvEntry> primitives = List.of(PrimitiveTsKvEntry.ofLong(100L, "counter", 10L),
+                PrimitiveTsKvEntry.ofDouble(100L, "temperature", 22.3),
+                PrimitiveTsKvEntry.ofBoolean(100L, "active", true).withVersion(3L));
+        List<TsKvEntry> basics = List.of(new BasicTsKvEntry(100L, new LongDataEntry("counter", 10L)),
+                new BasicTsKvEntry(100L, new DoubleDataEntry("temperature", 22.3)),
+                new BasicTsKvEntry(100L, new BooleanDataEntry("active", true), 3L));
+        for (int i = 0; i < primitives.size(); i++) {
+            Assertions.assertEquals(primitives.get(i), basics.get(i));
+            Assertions.assertEquals(basics.get(i), primitives.get(i));
+            Assertions.assertEquals(primitives.get(i).hashCode(), basics.get(i).hashCode());
+        }
+        Assertions.assertNotEquals(PrimitiveTsKvEntry.ofLong(100L, "counter", 10L), new BasicTsKvEntry(100L, new DoubleDataEntry("counter", 10.0)));
+        Assertions.assertNotEquals(new BasicTsKvEntry(100L, new DoubleDataEntry("counter", 10.0)), PrimitiveTsKvEntry.ofLong(100L, "counter", 10L));
+        Assertions.assertNotEquals(new BasicTsKvEntry(100L, new LongDataEntry("counter", 10L)), PrimitiveTsKvEntry.ofLong(100L, "counter", 10L).withVersion(1L));
+    }
+
+    @Test
+    public void testConvertToTsKvEntriesMatchesConvertToTelemetry() {
+        var json = JsonParser.parseString("[{\"ts\": 1, \"values\": {\"a\": 1, \"b\": 2.5}}, {\"c\": false, \"d\": {\"x\": 1}}]");
+        var telemetry = JsonConverter.convertToTelemetry(json, 5L);
+        var entries = JsonConverter.convertToTsKvEntries(json, 5L);
+        Assertions.assertEquals(telemetry.values().stream().mapToInt(List::size).sum(), entries.size());
+        for (TsKvEntry entry : entries) {
+            KvEntry expected = telemetry.get(entry.getTs()).stream()
+                    .filter(kv -> kv.getKey().equals(entry.getKey()))
+                    .findFirst().orElseThrow();
+            Assertions.assertEquals(expected.getDataType(), entry.getDataType());
+            Assertions.assertEquals(expected.getValueAsString(), entry.getValueAsString());
+        }
+    }
+
+    @Test
+    public void testConvertToTelemetryProtoFromBytesMatchesJsonElement() {
+        List<String> payloads = List.of(
+                "{\"a\": 1, \"b\": 2.5, \"c\": true, \"d\": \"12\", \"e\": null, \"f\": {\"x\": [1, 2.0e5, -0, {\"y\": \"\\u2028\\n\\/\"}], \"n\": null}}",
+                "{\"ts\": 100, \"values\": {\"big\": 99701010061400066001, \"e\": 1E+1, \"d\": 101E-1, \"s\": \"abc\", \"\\u00e9\": \"\\ud83d\\ude00\"}}",
+                "{\"values\": {\"a\": 1}, \"ts\": \"200\"}",
+                "{\"values\": {\"a\": 1}, \"other\": 1}",
+                "{\"ts\": 1.5E3, \"values\": {}}",
+                "[{\"ts\": 1, \"values\": {\"a\": 1}}, {\"b\": false}]",
+                "[]",
+                "{}",
+                // not strict JSON or duplicate keys, converted by Gson
+                "{\"a\": 1, \"a\": 2}",
+                "{a: 1, \"b\": tru}",
+                "{\"ts\": 1, \"values\": {\"a\": 1}, \"values\": {\"b\": 1}}"
+        );
+        for (String payload : payloads) {
+            Assertions.assertEquals(JsonConverter.convertToTelemetryProto(JsonParser.parseString(payload), 5L),
+                    JsonConverter.convertToTelemetryProto(toBytes(payload), 0, toBytes(payload).length, 5L), payload);
+        }
+    }
+
+    @Test
+    public void testConvertToTelemetryProtoFromBytesWithOffset() {
+        byte[] payload = toBytes("xx{\"a\": 1}yy");
+        var result = JsonConverter.convertToTelemetryProto(payload, 2, payload.length - 4, 5L);
+        Assertions.assertEquals(1L, result.getTsKvList(0).getKv(0).getLongV());
+    }
+
+    @Test
+    public void testConvertToTelemetryProtoFromBytesKeepsErrors() {
+        Assertions.assertThrows(JsonSyntaxException.class, () -> JsonConverter.convertToTelemetryProto(toBytes("[1]")));
+        Assertions.assertThrows(JsonSyntaxException.class, () -> JsonConverter.convertToTelemetryProto(toBytes("{\"a\": 1")));
+        Assertions.assertThrows(IllegalStateException.class, () -> JsonConverter.convertToTelemetryProto(toBytes("{\"ts\": 1, \"values\": [1]}")));
+        JsonConverter.setTypeCastEnabled(false);
+        Assertions.assertThrows(JsonSyntaxException.class, () -> JsonConverter.convertToTelemetryProto(toBytes("{\"a\": 89701010051400054084}")));
+    }
+
+    private static byte[] toBytes(String payload) {
+        return payload.getBytes(StandardCharsets.UTF_8);
+    }
+
 }
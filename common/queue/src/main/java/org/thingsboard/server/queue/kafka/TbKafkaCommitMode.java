@@ -0,0 +1,33 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.queue.kafka;
+
+public enum TbKafkaCommitMode {
+
+    /**
+     * Blocking commit of the consumer position after every processed pack.
+     */
+    SYNC,
+    /**
+     * Non-blocking commit after every processed pack. Offsets are confirmed by the commit callback.
+     */
+    ASYNC,
+    /**
+     * Blocking commit of the accumulated offsets once per 'max_packs' processed packs or 'interval_ms'.
+     */
+    PERIODIC
+
+}
@@ -15,6 +15,7 @@
  */
 package org.thingsboard.server.queue.kafka;
 
+import io.micrometer.core.instrument.Timer;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import lombok.Builder;
@@ -34,6 +35,7 @@ import org.thingsboard.common.util.ThingsBoardExecutors;
 import org.thingsboard.server.common.data.StringUtils;
 import org.thingsboard.server.common.data.id.TenantId;
 import org.thingsboard.server.common.msg.queue.ServiceType;
+import org.thingsboard.server.common.stats.StatsFactory;
 import org.thingsboard.server.queue.discovery.PartitionService;
 
 import java.time.Duration;
@@ -45,6 +47,7 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Slf4j
 @Component
@@ -52,9 +55,12 @@ import java.util.concurrent.TimeUnit;
 @ConditionalOnProperty(prefix = "queue", value = "type", havingValue = "kafka")
 public class TbKafkaConsumerStatsService {
     private final Set<String> monitoredGroups = ConcurrentHashMap.newKeySet();
+    private final Map<String, Timer> commitTimers = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> uncommittedRecords = new ConcurrentHashMap<>();
 
     private final TbKafkaSettings kafkaSettings;
     private final TbKafkaConsumerStatisticConfig statsConfig;
+    private final StatsFactory statsFactory;
 
     @Lazy
     @Autowired
@@ -148,6 +154,20 @@ public class TbKafkaConsumerStatsService {
         }
     }
 
+    public Timer getCommitTimer(String topic, String groupId) {
+        return commitTimers.computeIfAbsent(topic + "|" + groupId, key ->
+                statsFactory.createTimer("kafka_consumer_commit_time", "topic", topic, "groupId", String.valueOf(groupId)));
+    }
+
+    /**
+     * Number of records that were processed by the consumers of the topic but are not yet confirmed as committed.
+     * Shared between the consumers of the same topic and group, so it has to be updated with deltas.
+     */
+    public AtomicLong getUncommittedRecords(String topic, String groupId) {
+        return uncommittedRecords.computeIfAbsent(topic + "|" + groupId, key ->
+                statsFactory.createGauge("kafka_consumer_uncommitted_records", new AtomicLong(), "topic", topic, "groupId", String.valueOf(groupId)));
+    }
+
     @PreDestroy
     public void destroy() {
         if (statsPrintScheduler != null) {
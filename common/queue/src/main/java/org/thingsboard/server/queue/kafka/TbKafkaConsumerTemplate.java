@@ -15,12 +15,16 @@
  */
 package org.thingsboard.server.queue.kafka;
 
+import io.micrometer.core.instrument.Timer;
 import lombok.Builder;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
 import org.springframework.util.StopWatch;
 import org.thingsboard.server.queue.TbQueueAdmin;
 import org.thingsboard.server.queue.TbQueueMsg;
@@ -28,10 +32,17 @@ import org.thingsboard.server.queue.common.AbstractTbQueueConsumerTemplate;
 
 import java.io.IOException;
 import java.time.Duration;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Created by ashvayka on 24.09.18.
@@ -46,11 +57,36 @@ public class TbKafkaConsumerTemplate<T extends TbQueueMsg> extends AbstractTbQue
     private final TbKafkaConsumerStatsService statsService;
     private final String groupId;
 
+    private final TbKafkaCommitMode commitMode;
+    private final long commitIntervalMs;
+    private final int commitMaxPacks;
+    private final Timer commitTimer;
+    private final AtomicLong uncommittedRecordsGauge;
+
+    private final boolean packCommitEnabled;
+    // offsets of the polled packs that are not yet processed, in the order of polling. Tracked for pack commits only
+    private final Deque<PolledPack> polledPacks;
+    // offsets of the polled records that are not yet processed. Tracked for regular commits in the non-sync modes
+    private final Map<TopicPartition, OffsetAndMetadata> polledOffsets = new HashMap<>();
+    private long polledRecords;
+    // offsets of the processed records that are not yet confirmed as committed
+    private final Map<TopicPartition, OffsetAndMetadata> uncommittedOffsets = new HashMap<>();
+    private long processedRecords;
+    private long committedRecords;
+    private long reportedUncommittedRecords;
+    private int uncommittedPacks;
+    private long lastCommitTime;
+    private boolean asyncCommitFailed;
+
     @Builder
     private TbKafkaConsumerTemplate(TbKafkaSettings settings, TbKafkaDecoder<T> decoder,
                                     String clientId, String groupId, String topic,
-                                    TbQueueAdmin admin, TbKafkaConsumerStatsService statsService) {
+                                    TbQueueAdmin admin, TbKafkaConsumerStatsService statsService,
+                                    boolean packCommitEnabled, int maxPrefetchedPacks) {
         super(topic);
+        if (packCommitEnabled && maxPrefetchedPacks < 1) {
+            throw new IllegalArgumentException("Max prefetched packs must be positive for pack commits, but was " + maxPrefetchedPacks);
+        }
         Properties props = settings.toConsumerProps(topic);
         props.put(ConsumerConfig.CLIENT_ID_CONFIG, clientId);
         if (groupId != null) {
@@ -59,9 +95,21 @@ public class TbKafkaConsumerTemplate<T extends TbQueueMsg> extends AbstractTbQue
 
         this.statsService = statsService;
         this.groupId = groupId;
+        this.commitMode = settings.getConsumerCommitMode() != null ? settings.getConsumerCommitMode() : TbKafkaCommitMode.SYNC;
+        this.commitIntervalMs = settings.getConsumerCommitIntervalMs();
+        this.commitMaxPacks = Math.max(1, settings.getConsumerCommitMaxPacks());
+        this.lastCommitTime = System.currentTimeMillis();
+        this.packCommitEnabled = packCommitEnabled;
+        // the pack in processing and the prefetched ones
+        this.polledPacks = packCommitEnabled ? new ArrayDeque<>(maxPrefetchedPacks + 1) : null;
 
         if (statsService != null) {
             statsService.registerClientGroup(groupId);
+            this.commitTimer = statsService.getCommitTimer(topic, groupId);
+            this.uncommittedRecordsGauge = statsService.getUncommittedRecords(topic, groupId);
+        } else {
+            this.commitTimer = null;
+            this.uncommittedRecordsGauge = null;
         }
 
         this.admin = admin;
@@ -73,7 +121,11 @@ public class TbKafkaConsumerTemplate<T extends TbQueueMsg> extends AbstractTbQue
     protected void doSubscribe(List<String> topicNames) {
         if (!topicNames.isEmpty()) {
             topicNames.forEach(admin::createTopicIfNotExists);
-            consumer.subscribe(topicNames);
+            if (commitMode == TbKafkaCommitMode.SYNC && !packCommitEnabled) {
+                consumer.subscribe(topicNames);
+            } else {
+                consumer.subscribe(topicNames, new CommitOnRevokeListener());
+            }
         } else {
             log.info("unsubscribe due to empty topic list");
             consumer.unsubscribe();
@@ -82,6 +134,11 @@ public class TbKafkaConsumerTemplate<T extends TbQueueMsg> extends AbstractTbQue
 
     @Override
     protected List<ConsumerRecord<String, byte[]>> doPoll(long durationInMillis) {
+        if (commitMode == TbKafkaCommitMode.PERIODIC && isPeriodicCommitRequired()) {
+            // processed packs must not wait for the next one forever when the topic is idle
+            commitPendingOffsets();
+        }
+
         StopWatch stopWatch = new StopWatch();
         stopWatch.start();
 
@@ -97,10 +154,47 @@ public class TbKafkaConsumerTemplate<T extends TbQueueMsg> extends AbstractTbQue
         } else {
             List<ConsumerRecord<String, byte[]>> recordList = new ArrayList<>(256);
             records.forEach(recordList::add);
+            if (packCommitEnabled) {
+                Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+                putNextOffsets(records, offsets);
+                polledPacks.add(new PolledPack(offsets, recordList.size()));
+            } else if (commitMode != TbKafkaCommitMode.SYNC) {
+                putNextOffsets(records, polledOffsets);
+                polledRecords += recordList.size();
+            }
             return recordList;
         }
     }
 
+    private static void putNextOffsets(ConsumerRecords<String, byte[]> records, Map<TopicPartition, OffsetAndMetadata> offsets) {
+        for (TopicPartition partition : records.partitions()) {
+            List<ConsumerRecord<String, byte[]>> partitionRecords = records.records(partition);
+            offsets.put(partition, new OffsetAndMetadata(partitionRecords.get(partitionRecords.size() - 1).offset() + 1));
+        }
+    }
+
+    @Override
+    public List<T> poll(long durationInMillis) {
+        if (!packCommitEnabled) {
+            return super.poll(durationInMillis);
+        }
+        int trackedPacks = polledPacks.size();
+        try {
+            return super.poll(durationInMillis);
+        } catch (RuntimeException e) {
+            // the pack that failed to decode is never returned, so it must not take the commit of the next returned pack
+            consumerLock.lock();
+            try {
+                while (polledPacks.size() > trackedPacks) {
+                    polledPacks.pollLast();
+                }
+            } finally {
+                consumerLock.unlock();
+            }
+            throw e;
+        }
+    }
+
     @Override
     public T decode(ConsumerRecord<String, byte[]> record) throws IOException {
         return decoder.decode(new KafkaTbQueueMsg(record));
@@ -108,14 +202,163 @@ public class TbKafkaConsumerTemplate<T extends TbQueueMsg> extends AbstractTbQue
 
     @Override
     protected void doCommit() {
-        consumer.commitSync();
+        if (commitMode == TbKafkaCommitMode.SYNC) {
+            if (packCommitEnabled) {
+                polledPacks.clear();
+            }
+            long startTime = System.nanoTime();
+            consumer.commitSync();
+            recordCommitTime(startTime);
+        } else {
+            if (packCommitEnabled) {
+                while (!polledPacks.isEmpty()) {
+                    PolledPack pack = polledPacks.poll();
+                    markProcessed(pack.offsets, pack.records);
+                }
+            } else {
+                markProcessed(polledOffsets, polledRecords);
+                polledOffsets.clear();
+                polledRecords = 0;
+            }
+            commitProcessed();
+        }
+    }
+
+    @Override
+    public boolean isPackCommitSupported() {
+        return packCommitEnabled;
+    }
+
+    @Override
+    public void commitPack() {
+        if (!packCommitEnabled) {
+            super.commitPack();
+            return;
+        }
+        consumerLock.lock();
+        try {
+            commitOldestPack();
+        } finally {
+            consumerLock.unlock();
+        }
+    }
+
+    private void commitOldestPack() {
+        PolledPack pack = polledPacks.poll();
+        if (pack == null) {
+            return;
+        }
+        if (commitMode == TbKafkaCommitMode.SYNC) {
+            if (!pack.offsets.isEmpty()) {
+                long startTime = System.nanoTime();
+                consumer.commitSync(pack.offsets);
+                recordCommitTime(startTime);
+            }
+        } else {
+            markProcessed(pack.offsets, pack.records);
+            commitProcessed();
+        }
+    }
+
+    private void markProcessed(Map<TopicPartition, OffsetAndMetadata> offsets, long records) {
+        uncommittedOffsets.putAll(offsets);
+        processedRecords += records;
+        reportUncommittedRecords();
+    }
+
+    private void commitProcessed() {
+        if (commitMode == TbKafkaCommitMode.ASYNC) {
+            if (asyncCommitFailed) {
+                // async commits are not retried by the client, so make sure the group catches up with the processed offsets
+                commitPendingOffsets();
+            } else {
+                commitAsync();
+            }
+        } else {
+            uncommittedPacks++;
+            if (isPeriodicCommitRequired()) {
+                commitPendingOffsets();
+            }
+        }
+    }
+
+    private boolean isPeriodicCommitRequired() {
+        return !uncommittedOffsets.isEmpty() &&
+                (uncommittedPacks >= commitMaxPacks || System.currentTimeMillis() - lastCommitTime >= commitIntervalMs);
+    }
+
+    private void commitAsync() {
+        if (uncommittedOffsets.isEmpty()) {
+            return;
+        }
+        Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>(uncommittedOffsets);
+        long records = processedRecords;
+        long startTime = System.nanoTime();
+        // callbacks are invoked in the order of the commits by the thread that polls or commits, so no extra locking is needed
+        consumer.commitAsync(offsets, (committedOffsets, e) -> {
+            if (e != null) {
+                log.warn("[{}] Failed to commit offsets {} asynchronously", getTopic(), committedOffsets, e);
+                asyncCommitFailed = true;
+                return;
+            }
+            recordCommitTime(startTime);
+            onOffsetsCommitted(offsets, records);
+        });
+    }
+
+    private void commitPendingOffsets() {
+        if (uncommittedOffsets.isEmpty()) {
+            return;
+        }
+        Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>(uncommittedOffsets);
+        long startTime = System.nanoTime();
+        consumer.commitSync(offsets);
+        recordCommitTime(startTime);
+        onOffsetsCommitted(offsets, processedRecords);
+        asyncCommitFailed = false;
+    }
+
+    private void onOffsetsCommitted(Map<TopicPartition, OffsetAndMetadata> committedOffsets, long records) {
+        // keep the offsets that were processed after the commit was sent
+        committedOffsets.forEach((partition, committed) -> {
+            OffsetAndMetadata current = uncommittedOffsets.get(partition);
+            if (current != null && current.offset() <= committed.offset()) {
+                uncommittedOffsets.remove(partition);
+            }
+        });
+        committedRecords = Math.max(committedRecords, records);
+        uncommittedPacks = 0;
+        lastCommitTime = System.currentTimeMillis();
+        reportUncommittedRecords();
+    }
+
+    private void reportUncommittedRecords() {
+        long uncommittedRecords = processedRecords - committedRecords;
+        long delta = uncommittedRecords - reportedUncommittedRecords;
+        reportedUncommittedRecords = uncommittedRecords;
+        if (delta != 0 && uncommittedRecordsGauge != null) {
+            uncommittedRecordsGauge.addAndGet(delta);
+        }
+    }
+
+    private void recordCommitTime(long startTime) {
+        if (commitTimer != null) {
+            commitTimer.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+        }
     }
 
     @Override
     protected void doUnsubscribe() {
         if (consumer != null) {
+            try {
+                commitPendingOffsets();
+            } catch (Exception e) {
+                log.warn("[{}] Failed to commit pending offsets on unsubscribe", getTopic(), e);
+            }
             consumer.unsubscribe();
             consumer.close();
+            committedRecords = processedRecords;
+            reportUncommittedRecords();
         }
         if (statsService != null) {
             statsService.unregisterClientGroup(groupId);
@@ -127,4 +370,51 @@ public class TbKafkaConsumerTemplate<T extends TbQueueMsg> extends AbstractTbQue
         return true;
     }
 
+    private class CommitOnRevokeListener implements ConsumerRebalanceListener {
+
+        @Override
+        public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+            try {
+                commitPendingOffsets();
+            } catch (Exception e) {
+                log.warn("[{}] Failed to commit pending offsets on partitions revoke", getTopic(), e);
+            }
+            forgetPartitions(partitions);
+        }
+
+        @Override
+        public void onPartitionsAssigned(Collection<TopicPartition> partitions) {}
+
+        @Override
+        public void onPartitionsLost(Collection<TopicPartition> partitions) {
+            // the partitions are already owned by other consumers, so the offsets can't be committed anymore
+            forgetPartitions(partitions);
+        }
+
+        private void forgetPartitions(Collection<TopicPartition> partitions) {
+            if (packCommitEnabled) {
+                polledPacks.forEach(pack -> pack.offsets.keySet().removeAll(partitions));
+            }
+            partitions.forEach(polledOffsets::remove);
+            partitions.forEach(uncommittedOffsets::remove);
+            if (uncommittedOffsets.isEmpty()) {
+                committedRecords = processedRecords;
+                reportUncommittedRecords();
+            }
+        }
+
+    }
+
+    private static class PolledPack {
+
+        private final Map<TopicPartition, OffsetAndMetadata> offsets;
+        private final long records;
+
+        PolledPack(Map<TopicPartition, OffsetAndMetadata> offsets, long records) {
+            this.offsets = offsets;
+            this.records = records;
+        }
+
+    }
+
 }
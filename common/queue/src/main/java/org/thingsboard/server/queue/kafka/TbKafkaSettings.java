@@ -122,6 +122,18 @@ public class TbKafkaSettings {
     @Value("${queue.kafka.auto_offset_reset:earliest}")
     private String autoOffsetReset;
 
+    @Value("${queue.kafka.consumer_commit.mode:SYNC}")
+    @Getter
+    private TbKafkaCommitMode consumerCommitMode;
+
+    @Value("${queue.kafka.consumer_commit.interval_ms:1000}")
+    @Getter
+    private long consumerCommitIntervalMs;
+
+    @Value("${queue.kafka.consumer_commit.max_packs:10}")
+    @Getter
+    private int consumerCommitMaxPacks;
+
     @Value("${queue.kafka.use_confluent_cloud:false}")
     private boolean useConfluent;
 
@@ -0,0 +1,114 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.queue.memory;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.thingsboard.server.queue.TbQueueMsg;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory storage with a fixed capacity ring buffer per topic.
+ * When the topic is full, the message is either rejected immediately or after waiting up to {@code block_timeout_ms}
+ * for the consumer to free space, and the producer callback receives the failure.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(prefix = "queue.in_memory.bounded", value = "enabled", havingValue = "true")
+public final class BoundedInMemoryStorage implements InMemoryStorage {
+
+    private final ConcurrentHashMap<String, TopicQueue> storage = new ConcurrentHashMap<>();
+    private final int capacity;
+    private final OverflowPolicy overflowPolicy;
+    private final long blockTimeoutMs;
+
+    public BoundedInMemoryStorage(@Value("${queue.in_memory.bounded.capacity:100000}") int capacity,
+                                  @Value("${queue.in_memory.bounded.overflow_policy:REJECT}") OverflowPolicy overflowPolicy,
+                                  @Value("${queue.in_memory.bounded.block_timeout_ms:1000}") long blockTimeoutMs) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("In-memory queue capacity must be positive!");
+        }
+        this.capacity = capacity;
+        this.overflowPolicy = overflowPolicy;
+        this.blockTimeoutMs = blockTimeoutMs;
+    }
+
+    @Override
+    public void printStats() {
+        storage.forEach((topic, queue) -> {
+            long rejected = queue.rejected().getAndSet(0);
+            if (rejected > 0) {
+                log.warn("[{}] Queue Size [{}] Rejected [{}]", topic, queue.msgs().size(), rejected);
+            } else if (log.isDebugEnabled() && !queue.msgs().isEmpty()) {
+                log.debug("[{}] Queue Size [{}]", topic, queue.msgs().size());
+            }
+        });
+    }
+
+    @Override
+    public int getLagTotal() {
+        int lag = 0;
+        for (TopicQueue queue : storage.values()) {
+            lag += queue.msgs().size();
+        }
+        return lag;
+    }
+
+    @Override
+    public int getLag(String topic) {
+        TopicQueue queue = storage.get(topic);
+        return queue != null ? queue.msgs().size() : 0;
+    }
+
+    @Override
+    public boolean put(String topic, TbQueueMsg msg) {
+        TopicQueue queue = storage.computeIfAbsent(topic, t -> new TopicQueue(new ArrayBlockingQueue<>(capacity), new AtomicLong()));
+        if (queue.msgs().offer(msg)) {
+            return true;
+        }
+        if (overflowPolicy == OverflowPolicy.BLOCK) {
+            try {
+                if (queue.msgs().offer(msg, blockTimeoutMs, TimeUnit.MILLISECONDS)) {
+                    return true;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        queue.rejected().incrementAndGet();
+        return false;
+    }
+
+    @Override
+    public int drainTo(String topic, List<? super TbQueueMsg> target, int maxElements) {
+        TopicQueue queue = storage.get(topic);
+        return queue != null ? queue.msgs().drainTo(target, maxElements) : 0;
+    }
+
+    public enum OverflowPolicy {
+        BLOCK, REJECT
+    }
+
+    private record TopicQueue(ArrayBlockingQueue<TbQueueMsg> msgs, AtomicLong rejected) {}
+
+}
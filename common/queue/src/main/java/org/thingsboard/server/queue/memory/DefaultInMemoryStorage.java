@@ -16,12 +16,11 @@
 package org.thingsboard.server.queue.memory;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 import org.thingsboard.server.queue.TbQueueMsg;
 
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.BlockingQueue;
@@ -30,6 +29,7 @@ import java.util.concurrent.LinkedBlockingQueue;
 
 @Component
 @Slf4j
+@ConditionalOnProperty(prefix = "queue.in_memory.bounded", value = "enabled", havingValue = "false", matchIfMissing = true)
 public final class DefaultInMemoryStorage implements InMemoryStorage {
     private final ConcurrentHashMap<String, BlockingQueue<TbQueueMsg>> storage = new ConcurrentHashMap<>();
 
@@ -59,24 +59,10 @@ public final class DefaultInMemoryStorage implements InMemoryStorage {
         return storage.computeIfAbsent(topic, (t) -> new LinkedBlockingQueue<>()).add(msg);
     }
 
-    @SuppressWarnings("unchecked")
     @Override
-    public <T extends TbQueueMsg> List<T> get(String topic) throws InterruptedException {
+    public int drainTo(String topic, List<? super TbQueueMsg> target, int maxElements) {
         final BlockingQueue<TbQueueMsg> queue = storage.get(topic);
-        if (queue != null) {
-            final TbQueueMsg firstMsg = queue.poll();
-            if (firstMsg != null) {
-                final int queueSize = queue.size();
-                if (queueSize > 0) {
-                    final List<TbQueueMsg> entities = new ArrayList<>(Math.min(queueSize, 999) + 1);
-                    entities.add(firstMsg);
-                    queue.drainTo(entities, 999);
-                    return (List<T>) entities;
-                }
-                return Collections.singletonList((T) firstMsg);
-            }
-        }
-        return Collections.emptyList();
+        return queue != null ? queue.drainTo(target, maxElements) : 0;
     }
 
 }
@@ -21,6 +21,8 @@ import java.util.List;
 
 public interface InMemoryStorage {
 
+    int MAX_POLL_SIZE = 1000;
+
     void printStats();
 
     int getLagTotal();
@@ -29,6 +31,11 @@ public interface InMemoryStorage {
 
     boolean put(String topic, TbQueueMsg msg);
 
-    <T extends TbQueueMsg> List<T> get(String topic) throws InterruptedException;
+    /**
+     * Moves up to {@code maxElements} messages of the topic to the target list without allocating an intermediate one.
+     *
+     * @return the number of moved messages
+     */
+    int drainTo(String topic, List<? super TbQueueMsg> target, int maxElements);
 
 }
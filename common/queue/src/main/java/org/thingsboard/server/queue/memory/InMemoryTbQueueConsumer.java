@@ -20,6 +20,7 @@ import org.thingsboard.server.common.msg.queue.TopicPartitionInfo;
 import org.thingsboard.server.queue.TbQueueConsumer;
 import org.thingsboard.server.queue.TbQueueMsg;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
@@ -71,23 +72,21 @@ public class InMemoryTbQueueConsumer<T extends TbQueueMsg> implements TbQueueCon
     @Override
     public List<T> poll(long durationInMillis) {
         if (subscribed) {
-            @SuppressWarnings("unchecked")
-            List<T> messages = partitions
-                    .stream()
-                    .map(tpi -> {
-                        try {
-                            return storage.get(tpi.getFullTopicName());
-                        } catch (InterruptedException e) {
-                            if (!stopped) {
-                                log.error("Queue was interrupted.", e);
-                            }
-                            return Collections.emptyList();
-                        }
-                    })
-                    .flatMap(List::stream)
-                    .map(msg -> (T) msg).collect(Collectors.toList());
-            if (messages.size() > 0) {
-                return messages;
+            int lag = 0;
+            for (TopicPartitionInfo tpi : partitions) {
+                lag += Math.min(storage.getLag(tpi.getFullTopicName()), InMemoryStorage.MAX_POLL_SIZE);
+            }
+            if (lag > 0) {
+                // sized from the lag, so the messages are drained straight into the returned list
+                List<TbQueueMsg> messages = new ArrayList<>(lag);
+                for (TopicPartitionInfo tpi : partitions) {
+                    storage.drainTo(tpi.getFullTopicName(), messages, InMemoryStorage.MAX_POLL_SIZE);
+                }
+                if (!messages.isEmpty()) {
+                    @SuppressWarnings("unchecked")
+                    List<T> result = (List<T>) (List<?>) messages;
+                    return result;
+                }
             }
             try {
                 Thread.sleep(durationInMillis);
@@ -220,6 +220,8 @@ public class KafkaMonolithQueueFactory implements TbCoreQueueFactory, TbRuleEngi
         consumerBuilder.decoder(msg -> new TbProtoQueueMsg<>(msg.getKey(), ToRuleEngineMsg.parseFrom(msg.getData()), msg.getHeaders()));
         consumerBuilder.admin(ruleEngineAdmin);
         consumerBuilder.statsService(consumerStatsService);
+        consumerBuilder.packCommitEnabled(ruleEngineSettings.isPipeliningEnabled());
+        consumerBuilder.maxPrefetchedPacks(ruleEngineSettings.getMaxPrefetchedPacks());
         return consumerBuilder.build();
     }
 
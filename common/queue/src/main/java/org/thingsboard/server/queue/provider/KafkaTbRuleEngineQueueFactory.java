@@ -223,6 +223,8 @@ public class KafkaTbRuleEngineQueueFactory implements TbRuleEngineQueueFactory {
         consumerBuilder.decoder(msg -> new TbProtoQueueMsg<>(msg.getKey(), ToRuleEngineMsg.parseFrom(msg.getData()), msg.getHeaders()));
         consumerBuilder.admin(ruleEngineAdmin);
         consumerBuilder.statsService(consumerStatsService);
+        consumerBuilder.packCommitEnabled(ruleEngineSettings.isPipeliningEnabled());
+        consumerBuilder.maxPrefetchedPacks(ruleEngineSettings.getMaxPrefetchedPacks());
         return consumerBuilder.build();
     }
 
@@ -28,4 +28,10 @@ public class TbQueueRuleEngineSettings {
     @Value("${queue.rule-engine.topic}")
     private String topic;
 
+    @Value("${queue.rule-engine.pipelining.enabled:false}")
+    private boolean pipeliningEnabled;
+
+    @Value("${queue.rule-engine.pipelining.max-prefetched-packs:1}")
+    private int maxPrefetchedPacks;
+
 }
@@ -0,0 +1,284 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.queue.kafka;
+
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.consumer.OffsetCommitCallback;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.thingsboard.server.common.msg.queue.TopicPartitionInfo;
+import org.thingsboard.server.queue.TbQueueAdmin;
+import org.thingsboard.server.queue.TbQueueMsg;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.BDDMockito.willReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class TbKafkaConsumerTemplateTest {
+
+    static final String TOPIC = "tb_test";
+    static final TopicPartition PARTITION = new TopicPartition(TOPIC, 0);
+
+    KafkaConsumer<String, byte[]> consumer;
+    TbKafkaConsumerTemplate<TbQueueMsg> consumerTemplate;
+
+    @AfterEach
+    void tearDown() {
+        if (consumerTemplate != null) {
+            consumerTemplate.unsubscribe();
+        }
+    }
+
+    @Test
+    void givenSyncMode_whenCommit_thenCommitConsumerPositionEveryPack() {
+        createConsumerTemplate(TbKafkaCommitMode.SYNC, 10);
+
+        pollAndCommit(0, 5);
+        pollAndCommit(5, 5);
+
+        verify(consumer, times(2)).commitSync();
+        verify(consumer, never()).commitSync(anyMap());
+    }
+
+    @Test
+    void givenAsyncMode_whenCommit_thenCommitProcessedOffsetsAsync() {
+        createConsumerTemplate(TbKafkaCommitMode.ASYNC, 10);
+
+        pollAndCommit(0, 5);
+        pollAndCommit(5, 3);
+
+        ArgumentCaptor<Map<TopicPartition, OffsetAndMetadata>> offsetsCaptor = ArgumentCaptor.forClass(Map.class);
+        ArgumentCaptor<OffsetCommitCallback> callbackCaptor = ArgumentCaptor.forClass(OffsetCommitCallback.class);
+        verify(consumer, times(2)).commitAsync(offsetsCaptor.capture(), callbackCaptor.capture());
+        assertThat(offsetsCaptor.getAllValues().get(0)).containsEntry(PARTITION, new OffsetAndMetadata(5));
+        assertThat(offsetsCaptor.getAllValues().get(1)).containsEntry(PARTITION, new OffsetAndMetadata(8));
+        verify(consumer, never()).commitSync();
+
+        // the first commit is confirmed, the second one is still in flight and has to be committed on unsubscribe
+        callbackCaptor.getAllValues().get(0).onComplete(offsetsCaptor.getAllValues().get(0), null);
+        consumerTemplate.unsubscribe();
+        consumerTemplate = null;
+        verify(consumer).commitSync(Map.of(PARTITION, new OffsetAndMetadata(8)));
+    }
+
+    @Test
+    void givenAsyncMode_whenAsyncCommitFailed_thenNextCommitIsSync() {
+        createConsumerTemplate(TbKafkaCommitMode.ASYNC, 10);
+
+        pollAndCommit(0, 5);
+        ArgumentCaptor<OffsetCommitCallback> callbackCaptor = ArgumentCaptor.forClass(OffsetCommitCallback.class);
+        verify(consumer).commitAsync(anyMap(), callbackCaptor.capture());
+        callbackCaptor.getValue().onComplete(Map.of(PARTITION, new OffsetAndMetadata(5)), new RuntimeException("Commit failed"));
+
+        pollAndCommit(5, 5);
+        verify(consumer).commitSync(Map.of(PARTITION, new OffsetAndMetadata(10)));
+        verify(consumer, times(1)).commitAsync(anyMap(), any());
+    }
+
+    @Test
+    void givenPeriodicMode_whenCommit_thenCommitOncePerMaxPacks() {
+        createConsumerTemplate(TbKafkaCommitMode.PERIODIC, 3);
+
+        pollAndCommit(0, 2);
+        pollAndCommit(2, 2);
+        verify(consumer, never()).commitSync(anyMap());
+
+        pollAndCommit(4, 2);
+        verify(consumer).commitSync(Map.of(PARTITION, new OffsetAndMetadata(6)));
+
+        pollAndCommit(6, 2);
+        consumerTemplate.unsubscribe();
+        consumerTemplate = null;
+        verify(consumer).commitSync(Map.of(PARTITION, new OffsetAndMetadata(8)));
+        verify(consumer, never()).commitSync();
+    }
+
+    @Test
+    void givenPeriodicMode_whenPartitionsRevoked_thenCommitProcessedOffsets() {
+        createConsumerTemplate(TbKafkaCommitMode.PERIODIC, 10);
+
+        pollAndCommit(0, 4);
+        ArgumentCaptor<ConsumerRebalanceListener> listenerCaptor = ArgumentCaptor.forClass(ConsumerRebalanceListener.class);
+        verify(consumer).subscribe(anyList(), listenerCaptor.capture());
+        listenerCaptor.getValue().onPartitionsRevoked(List.of(PARTITION));
+        verify(consumer).commitSync(Map.of(PARTITION, new OffsetAndMetadata(4)));
+
+        // nothing is left to commit for the revoked partition
+        consumerTemplate.unsubscribe();
+        consumerTemplate = null;
+        verify(consumer, times(1)).commitSync(anyMap());
+    }
+
+    @Test
+    void givenSyncModeWithoutPackCommit_whenSubscribe_thenNoRebalanceListener() {
+        createConsumerTemplate(TbKafkaCommitMode.SYNC, 10);
+
+        pollAndCommit(0, 5);
+
+        verify(consumer).subscribe(anyList());
+        verify(consumer, never()).subscribe(anyList(), any(ConsumerRebalanceListener.class));
+        assertThat(consumerTemplate.isPackCommitSupported()).isFalse();
+        assertThatThrownBy(consumerTemplate::commitPack).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    void givenSyncMode_whenCommitPack_thenCommitOldestPolledPackOnly() {
+        createConsumerTemplate(TbKafkaCommitMode.SYNC, 10, 1);
+
+        poll(0, 5);
+        poll(5, 3);
+
+        consumerTemplate.commitPack();
+        verify(consumer).commitSync(Map.of(PARTITION, new OffsetAndMetadata(5)));
+        consumerTemplate.commitPack();
+        verify(consumer).commitSync(Map.of(PARTITION, new OffsetAndMetadata(8)));
+        verify(consumer, never()).commitSync();
+    }
+
+    @Test
+    void givenManyPrefetchedPacks_whenCommitPack_thenPacksAreNotMerged() {
+        int maxPrefetchedPacks = 150;
+        createConsumerTemplate(TbKafkaCommitMode.SYNC, 10, maxPrefetchedPacks);
+
+        for (int i = 0; i <= maxPrefetchedPacks; i++) {
+            poll(i * 2L, 2);
+        }
+
+        consumerTemplate.commitPack();
+        verify(consumer).commitSync(Map.of(PARTITION, new OffsetAndMetadata(2)));
+        verify(consumer, times(1)).commitSync(anyMap());
+    }
+
+    @Test
+    void givenPackCommit_whenDecodeFailed_thenFailedPackIsNotTracked() {
+        createConsumerTemplate(TbKafkaCommitMode.SYNC, 10, 2, msg -> {
+            if (msg.getData().length > 0) {
+                throw new IOException("Failed to decode");
+            }
+            return msg;
+        });
+
+        poll(0, 5);
+        willReturn(new ConsumerRecords<>(Map.of(PARTITION, List.of(new ConsumerRecord<>(TOPIC, 0, 5L, UUID.randomUUID().toString(), new byte[]{1})))))
+                .given(consumer).poll(any(Duration.class));
+        assertThatThrownBy(() -> consumerTemplate.poll(100)).isInstanceOf(RuntimeException.class);
+        poll(6, 2);
+
+        consumerTemplate.commitPack();
+        verify(consumer).commitSync(Map.of(PARTITION, new OffsetAndMetadata(5)));
+        consumerTemplate.commitPack();
+        verify(consumer).commitSync(Map.of(PARTITION, new OffsetAndMetadata(8)));
+    }
+
+    @Test
+    void givenPackCommitWithoutPrefetchedPacks_whenCreate_thenThrows() {
+        assertThatThrownBy(() -> createConsumerTemplate(TbKafkaCommitMode.SYNC, 10, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        consumerTemplate = null;
+    }
+
+    @Test
+    void givenPeriodicMode_whenCommitPack_thenPrefetchedPackIsNotCommitted() {
+        createConsumerTemplate(TbKafkaCommitMode.PERIODIC, 1, 1);
+
+        poll(0, 5);
+        poll(5, 3);
+
+        consumerTemplate.commitPack();
+        verify(consumer).commitSync(Map.of(PARTITION, new OffsetAndMetadata(5)));
+
+        consumerTemplate.unsubscribe();
+        consumerTemplate = null;
+        verify(consumer, times(1)).commitSync(anyMap());
+    }
+
+    private void pollAndCommit(long startOffset, int count) {
+        poll(startOffset, count);
+        consumerTemplate.commit();
+    }
+
+    private void poll(long startOffset, int count) {
+        List<ConsumerRecord<String, byte[]>> records = IntStream.range(0, count)
+                .mapToObj(i -> new ConsumerRecord<>(TOPIC, 0, startOffset + i, UUID.randomUUID().toString(), new byte[0]))
+                .collect(Collectors.toList());
+        willReturn(new ConsumerRecords<>(Map.of(PARTITION, records))).given(consumer).poll(any(Duration.class));
+        assertThat(consumerTemplate.poll(100)).hasSize(count);
+    }
+
+    private void createConsumerTemplate(TbKafkaCommitMode commitMode, int maxPacks) {
+        createConsumerTemplate(commitMode, maxPacks, 0);
+    }
+
+    private void createConsumerTemplate(TbKafkaCommitMode commitMode, int maxPacks, int maxPrefetchedPacks) {
+        createConsumerTemplate(commitMode, maxPacks, maxPrefetchedPacks, msg -> msg);
+    }
+
+    // pack commits are enabled if maxPrefetchedPacks is not zero
+    @SuppressWarnings("unchecked")
+    private void createConsumerTemplate(TbKafkaCommitMode commitMode, int maxPacks, int maxPrefetchedPacks, TbKafkaDecoder<TbQueueMsg> decoder) {
+        TbKafkaSettings settings = mock(TbKafkaSettings.class);
+        Properties props = new Properties();
+        props.put("bootstrap.servers", "localhost:9092");
+        props.put("key.deserializer", StringDeserializer.class);
+        props.put("value.deserializer", ByteArrayDeserializer.class);
+        willReturn(props).given(settings).toConsumerProps(TOPIC);
+        willReturn(commitMode).given(settings).getConsumerCommitMode();
+        willReturn(60000L).given(settings).getConsumerCommitIntervalMs();
+        willReturn(maxPacks).given(settings).getConsumerCommitMaxPacks();
+
+        consumerTemplate = TbKafkaConsumerTemplate.<TbQueueMsg>builder()
+                .settings(settings)
+                .decoder(decoder)
+                .clientId("test-client")
+                .groupId("test-group")
+                .topic(TOPIC)
+                .admin(mock(TbQueueAdmin.class))
+                .packCommitEnabled(maxPrefetchedPacks != 0)
+                .maxPrefetchedPacks(maxPrefetchedPacks)
+                .build();
+        ((KafkaConsumer<String, byte[]>) ReflectionTestUtils.getField(consumerTemplate, "consumer")).close();
+        consumer = mock(KafkaConsumer.class);
+        ReflectionTestUtils.setField(consumerTemplate, "consumer", consumer);
+        consumerTemplate.subscribe(Set.of(new TopicPartitionInfo(TOPIC, null, null, true)));
+    }
+
+}
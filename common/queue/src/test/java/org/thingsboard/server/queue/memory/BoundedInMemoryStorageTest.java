@@ -0,0 +1,100 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.queue.memory;
+
+import org.junit.jupiter.api.Test;
+import org.thingsboard.server.queue.TbQueueMsg;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+public class BoundedInMemoryStorageTest {
+
+    static final String TOPIC = "tb_rule_engine.main.0";
+
+    @Test
+    public void givenFullTopic_whenPutWithRejectPolicy_thenRejected() {
+        InMemoryStorage storage = new BoundedInMemoryStorage(2, BoundedInMemoryStorage.OverflowPolicy.REJECT, 0);
+        assertThat(storage.put(TOPIC, mock(TbQueueMsg.class))).isTrue();
+        assertThat(storage.put(TOPIC, mock(TbQueueMsg.class))).isTrue();
+        assertThat(storage.put(TOPIC, mock(TbQueueMsg.class))).isFalse();
+        assertThat(storage.put("other", mock(TbQueueMsg.class))).isTrue();
+        assertThat(storage.getLag(TOPIC)).isEqualTo(2);
+        assertThat(storage.getLagTotal()).isEqualTo(3);
+    }
+
+    @Test
+    public void givenFullTopic_whenPutWithBlockPolicy_thenWaitsForFreeSpace() throws Exception {
+        InMemoryStorage storage = new BoundedInMemoryStorage(1, BoundedInMemoryStorage.OverflowPolicy.BLOCK, TimeUnit.SECONDS.toMillis(30));
+        TbQueueMsg first = mock(TbQueueMsg.class);
+        TbQueueMsg second = mock(TbQueueMsg.class);
+        assertThat(storage.put(TOPIC, first)).isTrue();
+
+        CompletableFuture<Boolean> blockedPut = CompletableFuture.supplyAsync(() -> storage.put(TOPIC, second));
+        Thread.sleep(100);
+        assertThat(blockedPut).isNotDone();
+
+        assertThat(poll(storage, TOPIC)).containsExactly(first);
+        assertThat(blockedPut.get(30, TimeUnit.SECONDS)).isTrue();
+        assertThat(poll(storage, TOPIC)).containsExactly(second);
+    }
+
+    @Test
+    public void givenFullTopic_whenBlockTimeoutExpires_thenRejected() {
+        InMemoryStorage storage = new BoundedInMemoryStorage(1, BoundedInMemoryStorage.OverflowPolicy.BLOCK, 10);
+        assertThat(storage.put(TOPIC, mock(TbQueueMsg.class))).isTrue();
+        assertThat(storage.put(TOPIC, mock(TbQueueMsg.class))).isFalse();
+    }
+
+    @Test
+    public void givenQueueWithMoreThanMaxPollSize_whenDrain_thenKeepOrderAndLimit() {
+        InMemoryStorage storage = new BoundedInMemoryStorage(InMemoryStorage.MAX_POLL_SIZE * 2, BoundedInMemoryStorage.OverflowPolicy.REJECT, 0);
+        List<TbQueueMsg> msgs = new ArrayList<>();
+        for (int i = 0; i < InMemoryStorage.MAX_POLL_SIZE + 1; i++) {
+            TbQueueMsg msg = mock(TbQueueMsg.class);
+            msgs.add(msg);
+            storage.put(TOPIC, msg);
+        }
+
+        List<TbQueueMsg> buffer = new ArrayList<>();
+        assertThat(storage.drainTo(TOPIC, buffer, InMemoryStorage.MAX_POLL_SIZE)).isEqualTo(InMemoryStorage.MAX_POLL_SIZE);
+        assertThat(buffer).isEqualTo(msgs.subList(0, InMemoryStorage.MAX_POLL_SIZE));
+        buffer.clear();
+        assertThat(storage.drainTo(TOPIC, buffer, InMemoryStorage.MAX_POLL_SIZE)).isEqualTo(1);
+        assertThat(buffer).isEqualTo(msgs.subList(InMemoryStorage.MAX_POLL_SIZE, InMemoryStorage.MAX_POLL_SIZE + 1));
+        assertThat(storage.drainTo("unknown", buffer, InMemoryStorage.MAX_POLL_SIZE)).isZero();
+        assertThat(storage.getLagTotal()).isZero();
+    }
+
+    @Test
+    public void givenNonPositiveCapacity_whenCreate_thenThrows() {
+        assertThatThrownBy(() -> new BoundedInMemoryStorage(0, BoundedInMemoryStorage.OverflowPolicy.REJECT, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static List<TbQueueMsg> poll(InMemoryStorage storage, String topic) {
+        List<TbQueueMsg> msgs = new ArrayList<>();
+        storage.drainTo(topic, msgs, InMemoryStorage.MAX_POLL_SIZE);
+        return msgs;
+    }
+
+}
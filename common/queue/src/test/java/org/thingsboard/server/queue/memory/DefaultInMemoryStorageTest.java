@@ -45,7 +45,7 @@ public class DefaultInMemoryStorageTest {
         assertThat(storage.getLagTotal()).isEqualTo(2);
         storage.put("hp", mock(TbQueueMsg.class));
         assertThat(storage.getLagTotal()).isEqualTo(3);
-        storage.get("main");
+        poll("main");
         assertThat(storage.getLagTotal()).isEqualTo(1);
     }
 
@@ -59,8 +59,8 @@ public class DefaultInMemoryStorageTest {
         }
 
         assertThat(storage.getLagTotal()).as("total lag is 1001").isEqualTo(MAX_POLL_SIZE + 1);
-        assertThat(storage.get(topic)).as("poll exactly 1000 msgs").isEqualTo(msgs.subList(0, MAX_POLL_SIZE));
-        assertThat(storage.get(topic)).as("poll last 1 message").isEqualTo(msgs.subList(MAX_POLL_SIZE, MAX_POLL_SIZE + 1));
+        assertThat(poll(topic)).as("poll exactly 1000 msgs").isEqualTo(msgs.subList(0, MAX_POLL_SIZE));
+        assertThat(poll(topic)).as("poll last 1 message").isEqualTo(msgs.subList(MAX_POLL_SIZE, MAX_POLL_SIZE + 1));
         assertThat(storage.getLagTotal()).as("total lag is zero").isEqualTo(0);
     }
 
@@ -73,7 +73,7 @@ public class DefaultInMemoryStorageTest {
         }
 
         assertThat(storage.getLagTotal()).as("total lag before poll").isEqualTo(msgCount);
-        assertThat(storage.get(topic)).as("polled exactly msgs").isEqualTo(msgs.subList(0, msgCount));
+        assertThat(poll(topic)).as("polled exactly msgs").isEqualTo(msgs.subList(0, msgCount));
         assertThat(storage.getLagTotal()).as("final lag is zero").isEqualTo(0);
     }
 
@@ -112,4 +112,10 @@ public class DefaultInMemoryStorageTest {
         testPollOnce(10);
     }
 
+    private List<TbQueueMsg> poll(String topic) {
+        List<TbQueueMsg> msgs = new ArrayList<>();
+        storage.drainTo(topic, msgs, MAX_POLL_SIZE);
+        return msgs;
+    }
+
 }
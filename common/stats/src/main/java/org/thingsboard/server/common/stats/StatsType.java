@@ -22,6 +22,7 @@ public enum StatsType {
     JS_INVOKE("jsInvoke"),
     RATE_EXECUTOR("rateExecutor"),
     HOUSEKEEPER("housekeeper"),
+    ACTOR("actor"),
     EDGE("edge");
 
     private final String name;
@@ -43,9 +43,8 @@ public class JsonCoapAdaptor implements CoapTransportAdaptor {
 
     @Override
     public TransportProtos.PostTelemetryMsg convertToPostTelemetry(UUID sessionId, Request inbound, Descriptors.Descriptor telemetryMsgDescriptor) throws AdaptorException {
-        String payload = validatePayload(sessionId, inbound, false);
         try {
-            return JsonConverter.convertToTelemetryProto(JsonParser.parseString(payload));
+            return JsonConverter.convertToTelemetryProto(inbound.getPayload());
         } catch (IllegalStateException | JsonSyntaxException ex) {
             throw new AdaptorException(ex);
         }
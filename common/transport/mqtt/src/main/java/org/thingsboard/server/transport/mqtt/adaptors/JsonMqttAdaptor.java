@@ -20,6 +20,7 @@ import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import com.google.gson.JsonSyntaxException;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
 import io.netty.handler.codec.mqtt.MqttFixedHeader;
 import io.netty.handler.codec.mqtt.MqttMessage;
 import io.netty.handler.codec.mqtt.MqttMessageType;
@@ -57,9 +58,14 @@ public class JsonMqttAdaptor implements MqttTransportAdaptor {
 
     @Override
     public TransportProtos.PostTelemetryMsg convertToPostTelemetry(MqttDeviceAwareSessionContext ctx, MqttPublishMessage inbound) throws AdaptorException {
-        String payload = validatePayload(ctx.getSessionId(), inbound.payload(), false);
+        ByteBuf payload = inbound.payload();
         try {
-            return JsonConverter.convertToTelemetryProto(JsonParser.parseString(payload));
+            if (payload.hasArray()) {
+                return JsonConverter.convertToTelemetryProto(payload.array(), payload.arrayOffset() + payload.readerIndex(),
+                        payload.readableBytes(), System.currentTimeMillis());
+            } else {
+                return JsonConverter.convertToTelemetryProto(ByteBufUtil.getBytes(payload));
+            }
         } catch (IllegalStateException | JsonSyntaxException ex) {
             log.debug("Failed to decode post telemetry request", ex);
             throw new AdaptorException(ex);
@@ -51,11 +51,13 @@ import org.thingsboard.server.dao.eventsourcing.RelationActionEvent;
 import org.thingsboard.server.dao.exception.DataValidationException;
 import org.thingsboard.server.dao.service.ConstraintValidator;
 import org.thingsboard.server.dao.sql.JpaExecutorService;
+import org.thingsboard.server.dao.sql.query.EntityHierarchyCache;
 import org.thingsboard.server.dao.sql.relation.JpaRelationQueryExecutorService;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
@@ -75,27 +77,37 @@ import static org.thingsboard.server.dao.service.Validator.validateId;
 @Slf4j
 public class BaseRelationService implements RelationService {
 
+    private static final int RELATION_TASKS_BATCH_SIZE = 100;
+
     private final RelationDao relationDao;
     private final EntityService entityService;
     private final TbTransactionalCache<RelationCacheKey, RelationCacheValue> cache;
     private final ApplicationEventPublisher eventPublisher;
     private final JpaExecutorService executor;
     private final JpaRelationQueryExecutorService relationsExecutor;
+    private final EntityHierarchyCache entityHierarchyCache;
     protected ScheduledExecutorService timeoutExecutorService;
 
     @Value("${sql.relations.query_timeout:20}")
     private Integer relationQueryTimeout;
 
+    @Value("${sql.relations.recursive_query_enabled:false}")
+    private boolean recursiveQueryEnabled;
+
+    @Value("${sql.relations.max_level:50}")
+    private int maxLevelAllowed;
+
     public BaseRelationService(RelationDao relationDao, @Lazy EntityService entityService,
                                TbTransactionalCache<RelationCacheKey, RelationCacheValue> cache,
                                ApplicationEventPublisher eventPublisher, JpaExecutorService executor,
-                               JpaRelationQueryExecutorService relationsExecutor) {
+                               JpaRelationQueryExecutorService relationsExecutor, EntityHierarchyCache entityHierarchyCache) {
         this.relationDao = relationDao;
         this.entityService = entityService;
         this.cache = cache;
         this.eventPublisher = eventPublisher;
         this.executor = executor;
         this.relationsExecutor = relationsExecutor;
+        this.entityHierarchyCache = entityHierarchyCache;
     }
 
     @PostConstruct
@@ -119,6 +131,7 @@ public class BaseRelationService implements RelationService {
         keys.add(new RelationCacheKey(null, event.getTo(), event.getType(), event.getTypeGroup(), EntitySearchDirection.TO));
         keys.add(new RelationCacheKey(null, event.getTo(), null, event.getTypeGroup(), EntitySearchDirection.TO));
         cache.evict(keys);
+        entityHierarchyCache.evict(event);
         log.debug("Processed evict event: {}", event);
     }
 
@@ -426,8 +439,14 @@ public class BaseRelationService implements RelationService {
         int maxLvl = params.getMaxLevel() > 0 ? params.getMaxLevel() : Integer.MAX_VALUE;
 
         try {
-            ListenableFuture<Set<EntityRelation>> relationSet = findRelationsRecursively(tenantId, params.getEntityId(), params.getDirection(),
-                    params.getRelationTypeGroup(), maxLvl, params.isFetchLastLevelOnly(), new ConcurrentHashMap<>());
+            ListenableFuture<Set<EntityRelation>> relationSet;
+            if (recursiveQueryEnabled) {
+                relationSet = findRelationsByRecursiveQuery(tenantId, params.getEntityId(), params.getDirection(),
+                        params.getRelationTypeGroup(), maxLvl, params.isFetchLastLevelOnly());
+            } else {
+                relationSet = findRelationsRecursively(tenantId, params.getEntityId(), params.getDirection(),
+                        params.getRelationTypeGroup(), maxLvl, params.isFetchLastLevelOnly(), new ConcurrentHashMap<>());
+            }
             return Futures.transform(relationSet, input -> {
                 List<EntityRelation> relations = new ArrayList<>();
                 if (filters == null || filters.isEmpty()) {
@@ -574,42 +593,81 @@ public class BaseRelationService implements RelationService {
     }
 
     private void processQueue(RelationQueueCtx ctx) {
-        RelationTask task = ctx.tasks.poll();
-        while (task != null) {
-            List<EntityRelation> relations = findRelations(ctx.tenantId, task.root, ctx.direction, ctx.relationTypeGroup);
-            Map<EntityId, List<EntityRelation>> newChildrenRelations = new HashMap<>();
-            for (EntityRelation childRelation : relations) {
-                log.trace("Found Relation: {}", childRelation);
-                EntityId childId = ctx.direction == EntitySearchDirection.FROM ? childRelation.getTo() : childRelation.getFrom();
-                if (ctx.uniqueMap.putIfAbsent(childId, Boolean.TRUE) == null) {
-                    log.trace("Adding Relation: {}", childId);
-                    newChildrenRelations.put(childId, new ArrayList<>());
-                }
-                if (ctx.fetchLastLevelOnly) {
-                    var list = newChildrenRelations.get(childId);
-                    if (list != null) {
-                        list.add(childRelation);
-                    }
+        List<RelationTask> batch = pollTasks(ctx);
+        while (!batch.isEmpty()) {
+            Map<EntityId, List<EntityRelation>> cachedRelations = findCachedRelations(ctx, batch);
+            for (RelationTask task : batch) {
+                List<EntityRelation> relations = cachedRelations.get(task.root);
+                if (relations == null) {
+                    relations = findRelations(ctx.tenantId, task.root, ctx.direction, ctx.relationTypeGroup);
                 }
+                processTask(ctx, task, relations);
+            }
+            batch = pollTasks(ctx);
+        }
+        ctx.future.set(ctx.result);
+    }
+
+    private List<RelationTask> pollTasks(RelationQueueCtx ctx) {
+        List<RelationTask> batch = new ArrayList<>();
+        RelationTask task;
+        while (batch.size() < RELATION_TASKS_BATCH_SIZE && (task = ctx.tasks.poll()) != null) {
+            batch.add(task);
+        }
+        return batch;
+    }
+
+    private Map<EntityId, List<EntityRelation>> findCachedRelations(RelationQueueCtx ctx, List<RelationTask> batch) {
+        RelationTypeGroup typeGroup = ctx.relationTypeGroup != null ? ctx.relationTypeGroup : RelationTypeGroup.COMMON;
+        Map<RelationCacheKey, EntityId> cacheKeys = new HashMap<>();
+        for (RelationTask task : batch) {
+            RelationCacheKey.RelationCacheKeyBuilder cacheKey = RelationCacheKey.builder().typeGroup(typeGroup).direction(ctx.direction);
+            if (ctx.direction == EntitySearchDirection.FROM) {
+                cacheKey.from(task.root);
+            } else {
+                cacheKey.to(task.root);
+            }
+            cacheKeys.put(cacheKey.build(), task.root);
+        }
+        Map<EntityId, List<EntityRelation>> cachedRelations = new HashMap<>();
+        cache.getAll(cacheKeys.keySet()).forEach((cacheKey, cacheValue) -> {
+            if (cacheValue.get() != null) {
+                cachedRelations.put(cacheKeys.get(cacheKey), cacheValue.get().getRelations());
+            }
+        });
+        return cachedRelations;
+    }
+
+    private void processTask(RelationQueueCtx ctx, RelationTask task, List<EntityRelation> relations) {
+        Map<EntityId, List<EntityRelation>> newChildrenRelations = new HashMap<>();
+        for (EntityRelation childRelation : relations) {
+            log.trace("Found Relation: {}", childRelation);
+            EntityId childId = ctx.direction == EntitySearchDirection.FROM ? childRelation.getTo() : childRelation.getFrom();
+            if (ctx.uniqueMap.putIfAbsent(childId, Boolean.TRUE) == null) {
+                log.trace("Adding Relation: {}", childId);
+                newChildrenRelations.put(childId, new ArrayList<>());
             }
             if (ctx.fetchLastLevelOnly) {
-                if (relations.isEmpty()) {
-                    ctx.result.addAll(task.prevRelations);
-                } else if (task.currentLvl == ctx.maxLvl) {
-                    ctx.result.addAll(relations);
+                var list = newChildrenRelations.get(childId);
+                if (list != null) {
+                    list.add(childRelation);
                 }
-            } else {
+            }
+        }
+        if (ctx.fetchLastLevelOnly) {
+            if (relations.isEmpty()) {
+                ctx.result.addAll(task.prevRelations);
+            } else if (task.currentLvl == ctx.maxLvl) {
                 ctx.result.addAll(relations);
             }
-            var finalTask = task;
-            newChildrenRelations.forEach((child, childRelations) -> {
-                var newLvl = finalTask.currentLvl + 1;
-                if (newLvl <= ctx.maxLvl)
-                    ctx.tasks.add(new RelationTask(newLvl, child, childRelations));
-            });
-            task = ctx.tasks.poll();
+        } else {
+            ctx.result.addAll(relations);
         }
-        ctx.future.set(ctx.result);
+        newChildrenRelations.forEach((child, childRelations) -> {
+            var newLvl = task.currentLvl + 1;
+            if (newLvl <= ctx.maxLvl)
+                ctx.tasks.add(new RelationTask(newLvl, child, childRelations));
+        });
     }
 
     private ListenableFuture<Set<EntityRelation>> findRelationsRecursively(final TenantId tenantId, final EntityId rootId, final EntitySearchDirection direction,
@@ -625,6 +683,19 @@ public class BaseRelationService implements RelationService {
     }
 
 
+    private ListenableFuture<Set<EntityRelation>> findRelationsByRecursiveQuery(TenantId tenantId, EntityId rootId, EntitySearchDirection direction,
+                                                                              RelationTypeGroup relationTypeGroup, int lvl, boolean fetchLastLevelOnly) {
+        if (lvl == 0) {
+            return Futures.immediateFuture(Collections.emptySet());
+        }
+        RelationTypeGroup typeGroup = relationTypeGroup != null ? relationTypeGroup : RelationTypeGroup.COMMON;
+        // the level limits the recursion, since the cycles are not tracked by the query
+        int maxLvl = Math.min(lvl, maxLevelAllowed);
+        ListenableFuture<Set<EntityRelation>> future = relationsExecutor.submit(() ->
+                new HashSet<>(relationDao.findRelationsRecursively(tenantId, rootId, direction, typeGroup, maxLvl, fetchLastLevelOnly)));
+        return Futures.withTimeout(future, relationQueryTimeout, TimeUnit.SECONDS, timeoutExecutorService);
+    }
+
     private List<EntityRelation> findRelations(final TenantId tenantId, final EntityId rootId, final EntitySearchDirection direction, RelationTypeGroup relationTypeGroup) {
         List<EntityRelation> relations;
         if (relationTypeGroup == null) {
@@ -19,6 +19,7 @@ import com.google.common.util.concurrent.ListenableFuture;
 import org.thingsboard.server.common.data.id.EntityId;
 import org.thingsboard.server.common.data.id.TenantId;
 import org.thingsboard.server.common.data.relation.EntityRelation;
+import org.thingsboard.server.common.data.relation.EntitySearchDirection;
 import org.thingsboard.server.common.data.relation.RelationTypeGroup;
 import org.thingsboard.server.common.data.rule.RuleChainType;
 
@@ -71,4 +72,15 @@ public interface RelationDao {
 
     List<EntityRelation> findRuleNodeToRuleChainRelations(RuleChainType ruleChainType, int limit);
 
+    /**
+     * Finds the relations reachable from the root entity in a single query.
+     * The relations of each entity are returned once, at the lowest level the entity is reachable at.
+     * The cycles are followed up to the max level only.
+     *
+     * @param maxLevel max relation level, the relations of the root entity are the first level
+     * @param fetchLastLevelOnly whether to return only the relations of the max level and the relations leading to leaf entities
+     */
+    List<EntityRelation> findRelationsRecursively(TenantId tenantId, EntityId root, EntitySearchDirection direction,
+                                                  RelationTypeGroup typeGroup, int maxLevel, boolean fetchLastLevelOnly);
+
 }
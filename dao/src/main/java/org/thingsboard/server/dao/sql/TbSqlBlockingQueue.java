@@ -15,8 +15,10 @@
  */
 package org.thingsboard.server.dao.sql;
 
+import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.SettableFuture;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.thingsboard.common.util.ThingsBoardThreadFactory;
 import org.thingsboard.server.common.data.util.CollectionsUtil;
@@ -29,22 +31,32 @@ import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
 public class TbSqlBlockingQueue<E, R> implements TbSqlQueue<E, R> {
 
-    private final BlockingQueue<TbSqlQueueElement<E, R>> queue = new LinkedBlockingQueue<>();
+    private final BlockingQueue<TbSqlQueueElement<E, R>> queue;
     private final TbSqlBlockingQueueParams params;
 
     private ExecutorService executor;
     private final MessagesStats stats;
+    private final AtomicInteger queueSize;
+    private final Timer batchLatencyTimer;
 
-    public TbSqlBlockingQueue(TbSqlBlockingQueueParams params, MessagesStats stats) {
+    private volatile int currentBatchSize;
+
+    public TbSqlBlockingQueue(TbSqlBlockingQueueParams params, MessagesStats stats, AtomicInteger queueSize, Timer batchLatencyTimer) {
         this.params = params;
         this.stats = stats;
+        this.queueSize = queueSize;
+        this.batchLatencyTimer = batchLatencyTimer;
+        this.queue = params.getMaxQueueSize() > 0 ? new LinkedBlockingQueue<>(params.getMaxQueueSize()) : new LinkedBlockingQueue<>();
+        this.currentBatchSize = params.getBatchSize();
     }
 
     @Override
@@ -52,9 +64,11 @@ public class TbSqlBlockingQueue<E, R> implements TbSqlQueue<E, R> {
         executor = Executors.newSingleThreadExecutor(ThingsBoardThreadFactory.forName("sql-queue-" + index + "-" + params.getLogName().toLowerCase()));
         executor.submit(() -> {
             String logName = params.getLogName();
-            int batchSize = params.getBatchSize();
+            int maxBatchSize = params.getBatchSize();
             long maxDelay = params.getMaxDelay();
-            final List<TbSqlQueueElement<E, R>> entities = new ArrayList<>(batchSize);
+            long lingerDelay = maxDelay;
+            double avgBatchLatency = 0;
+            final List<TbSqlQueueElement<E, R>> entities = new ArrayList<>(maxBatchSize);
             while (!Thread.interrupted()) {
                 try {
                     long currentTs = System.currentTimeMillis();
@@ -64,7 +78,9 @@ public class TbSqlBlockingQueue<E, R> implements TbSqlQueue<E, R> {
                     } else {
                         entities.add(attr);
                     }
+                    int batchSize = currentBatchSize;
                     queue.drainTo(entities, batchSize - 1);
+                    queueSize.set(queue.size());
                     boolean fullPack = entities.size() == batchSize;
                     if (log.isDebugEnabled()) {
                         log.debug("[{}] Going to save {} entities", logName, entities.size());
@@ -77,7 +93,10 @@ public class TbSqlBlockingQueue<E, R> implements TbSqlQueue<E, R> {
                         entitiesToSave = entitiesToSave.stream().sorted((o1, o2) -> batchUpdateComparator.compare(o1.getEntity(), o2.getEntity())).toList();
                     }
 
+                    long saveStartTs = System.nanoTime();
                     List<R> result = saveFunction.apply(entitiesToSave.stream().map(TbSqlQueueElement::getEntity).collect(Collectors.toList()));
+                    long batchLatency = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - saveStartTs);
+                    batchLatencyTimer.record(batchLatency, TimeUnit.MILLISECONDS);
 
                     if (params.isWithResponse()) {
                         for (int i = 0; i < entitiesToSave.size(); i++) {
@@ -92,8 +111,14 @@ public class TbSqlBlockingQueue<E, R> implements TbSqlQueue<E, R> {
                     }
 
                     stats.incrementSuccessful(entities.size());
+                    if (params.isAdaptiveBatchEnabled()) {
+                        avgBatchLatency = avgBatchLatency == 0 ? batchLatency : (avgBatchLatency * 3 + batchLatency) / 4;
+                        currentBatchSize = calculateNextBatchSize(batchSize, avgBatchLatency, fullPack);
+                        // waiting for the next pack longer than the database needs to save it only delays the writes
+                        lingerDelay = Math.min(maxDelay, Math.round(avgBatchLatency));
+                    }
                     if (!fullPack) {
-                        long remainingDelay = maxDelay - (System.currentTimeMillis() - currentTs);
+                        long remainingDelay = lingerDelay - (System.currentTimeMillis() - currentTs);
                         if (remainingDelay > 0) {
                             Thread.sleep(remainingDelay);
                         }
@@ -120,13 +145,29 @@ public class TbSqlBlockingQueue<E, R> implements TbSqlQueue<E, R> {
 
         logExecutor.scheduleAtFixedRate(() -> {
             if (!queue.isEmpty() || stats.getTotal() > 0 || stats.getSuccessful() > 0 || stats.getFailed() > 0) {
-                log.info("Queue-{} [{}] queueSize [{}] totalAdded [{}] totalSaved [{}] totalFailed [{}]", index,
-                        params.getLogName(), queue.size(), stats.getTotal(), stats.getSuccessful(), stats.getFailed());
+                log.info("Queue-{} [{}] queueSize [{}] batchSize [{}] totalAdded [{}] totalSaved [{}] totalFailed [{}]", index,
+                        params.getLogName(), queue.size(), currentBatchSize, stats.getTotal(), stats.getSuccessful(), stats.getFailed());
                 stats.reset();
             }
         }, params.getStatsPrintIntervalMs(), params.getStatsPrintIntervalMs(), TimeUnit.MILLISECONDS);
     }
 
+    int calculateNextBatchSize(int batchSize, double avgBatchLatency, boolean fullPack) {
+        long targetLatency = params.getTargetBatchLatencyMs() > 0 ? params.getTargetBatchLatencyMs() : params.getMaxDelay();
+        int minBatchSize = Math.max(1, Math.min(params.getMinBatchSize(), params.getBatchSize()));
+        if (avgBatchLatency > targetLatency) {
+            return Math.max(minBatchSize, batchSize / 2);
+        } else if (fullPack) {
+            return Math.min(params.getBatchSize(), batchSize + Math.max(1, batchSize / 4));
+        } else {
+            return batchSize;
+        }
+    }
+
+    int getCurrentBatchSize() {
+        return currentBatchSize;
+    }
+
     @Override
     public void destroy() {
         if (executor != null) {
@@ -137,8 +178,36 @@ public class TbSqlBlockingQueue<E, R> implements TbSqlQueue<E, R> {
     @Override
     public ListenableFuture<R> add(E element) {
         SettableFuture<R> future = SettableFuture.create();
-        queue.add(new TbSqlQueueElement<>(future, element));
         stats.incrementTotal();
+        if (offer(new TbSqlQueueElement<>(future, element))) {
+            // the polling thread resets the gauge to the actual size after each drain
+            queueSize.incrementAndGet();
+        } else {
+            stats.incrementFailed();
+            future.setException(new RejectedExecutionException("[" + params.getLogName() + "] Queue is full! Max queue size: " + params.getMaxQueueSize()));
+        }
         return future;
     }
+
+    @Override
+    public ListenableFuture<List<R>> addAll(List<E> elements) {
+        List<ListenableFuture<R>> futures = new ArrayList<>(elements.size());
+        for (E element : elements) {
+            futures.add(add(element));
+        }
+        return Futures.allAsList(futures);
+    }
+
+    private boolean offer(TbSqlQueueElement<E, R> element) {
+        long backpressureTimeoutMs = params.getBackpressureTimeoutMs();
+        if (backpressureTimeoutMs <= 0) {
+            return queue.offer(element);
+        }
+        try {
+            return queue.offer(element, backpressureTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
 }
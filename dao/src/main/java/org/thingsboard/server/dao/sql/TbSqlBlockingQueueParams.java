@@ -31,4 +31,20 @@ public class TbSqlBlockingQueueParams {
     private final String statsNamePrefix;
     private final boolean batchSortEnabled;
     private final boolean withResponse;
+    /**
+     * Max number of elements waiting in the queue. 0 means the queue is unbounded.
+     */
+    private final int maxQueueSize;
+    /**
+     * How long {@link TbSqlBlockingQueue#add} may block the caller while the bounded queue is full.
+     * 0 means that the element is rejected immediately.
+     */
+    private final long backpressureTimeoutMs;
+    /**
+     * Whether the batch size and the delay between batches are adjusted to the observed save latency.
+     * {@link #batchSize} and {@link #maxDelay} are used as upper bounds in this case.
+     */
+    private final boolean adaptiveBatchEnabled;
+    private final int minBatchSize;
+    private final long targetBatchLatencyMs;
 }
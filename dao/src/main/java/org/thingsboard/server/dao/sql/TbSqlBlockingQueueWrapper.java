@@ -15,15 +15,19 @@
  */
 package org.thingsboard.server.dao.sql;
 
+import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
+import io.micrometer.core.instrument.Timer;
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
 import org.thingsboard.server.common.stats.MessagesStats;
 import org.thingsboard.server.common.stats.StatsFactory;
 
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -50,8 +54,11 @@ public class TbSqlBlockingQueueWrapper<E, R> {
 
     public void init(ScheduledLogExecutorComponent logExecutor, Function<List<E>, List<R>> saveFunction, Comparator<E> batchUpdateComparator, Function<List<TbSqlQueueElement<E, R>>, List<TbSqlQueueElement<E, R>>> filter) {
         for (int i = 0; i < maxThreads; i++) {
-            MessagesStats stats = statsFactory.createMessagesStats(params.getStatsNamePrefix() + ".queue." + i);
-            TbSqlBlockingQueue<E, R> queue = new TbSqlBlockingQueue<>(params, stats);
+            String statsKey = params.getStatsNamePrefix() + ".queue." + i;
+            MessagesStats stats = statsFactory.createMessagesStats(statsKey);
+            AtomicInteger queueSize = statsFactory.createGauge(statsKey + ".size", new AtomicInteger(0));
+            Timer batchLatencyTimer = statsFactory.createTimer(statsKey + ".batchLatency");
+            TbSqlBlockingQueue<E, R> queue = new TbSqlBlockingQueue<>(params, stats, queueSize, batchLatencyTimer);
             queues.add(queue);
             queue.init(logExecutor, saveFunction, batchUpdateComparator, filter, i);
         }
@@ -62,6 +69,19 @@ public class TbSqlBlockingQueueWrapper<E, R> {
         return queues.get(queueIndex).add(element);
     }
 
+    /**
+     * Adds all elements to a single queue, selected by the hash of the first element.
+     * Elements of one call must share the same hash (e.g. belong to the same entity) to keep the per-entity ordering of writes.
+     */
+    public ListenableFuture<List<R>> addAll(List<E> elements) {
+        if (elements.isEmpty()) {
+            return Futures.immediateFuture(Collections.emptyList());
+        }
+        E first = elements.get(0);
+        int queueIndex = first != null ? (hashCodeFunction.apply(first) & 0x7FFFFFFF) % maxThreads : 0;
+        return queues.get(queueIndex).addAll(elements);
+    }
+
     public void destroy() {
         queues.forEach(TbSqlBlockingQueue::destroy);
     }
@@ -28,4 +28,6 @@ public interface TbSqlQueue<E, R> {
     void destroy();
 
     ListenableFuture<R> add(E element);
+
+    ListenableFuture<List<R>> addAll(List<E> elements);
 }
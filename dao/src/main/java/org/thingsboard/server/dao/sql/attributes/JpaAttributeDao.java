@@ -84,6 +84,21 @@ public class JpaAttributeDao extends JpaAbstractDaoListeningExecutorService impl
     @Value("${sql.attributes.batch_threads:4}")
     private int batchThreads;
 
+    @Value("${sql.attributes.max_queue_size:0}")
+    private int maxQueueSize;
+
+    @Value("${sql.attributes.backpressure_timeout_ms:0}")
+    private long backpressureTimeoutMs;
+
+    @Value("${sql.attributes.adaptive_batch.enabled:false}")
+    private boolean adaptiveBatchEnabled;
+
+    @Value("${sql.attributes.adaptive_batch.min_batch_size:100}")
+    private int minBatchSize;
+
+    @Value("${sql.attributes.adaptive_batch.target_latency_ms:100}")
+    private long targetBatchLatencyMs;
+
     @Value("${sql.batch_sort:true}")
     private boolean batchSortEnabled;
 
@@ -97,6 +112,11 @@ public class JpaAttributeDao extends JpaAbstractDaoListeningExecutorService impl
                 .maxDelay(maxDelay)
                 .statsPrintIntervalMs(statsPrintIntervalMs)
                 .statsNamePrefix("attributes")
+                .maxQueueSize(maxQueueSize)
+                .backpressureTimeoutMs(backpressureTimeoutMs)
+                .adaptiveBatchEnabled(adaptiveBatchEnabled)
+                .minBatchSize(minBatchSize)
+                .targetBatchLatencyMs(targetBatchLatencyMs)
                 .batchSortEnabled(batchSortEnabled)
                 .withResponse(true)
                 .build();
@@ -25,6 +25,7 @@ import org.thingsboard.server.common.data.EntityType;
 import org.thingsboard.server.common.data.StringUtils;
 import org.thingsboard.server.common.data.id.CustomerId;
 import org.thingsboard.server.common.data.id.EntityId;
+import org.thingsboard.server.common.data.id.EntityIdFactory;
 import org.thingsboard.server.common.data.id.TenantId;
 import org.thingsboard.server.common.data.page.PageData;
 import org.thingsboard.server.common.data.query.ApiUsageStateFilter;
@@ -53,13 +54,18 @@ import org.thingsboard.server.common.data.query.SingleEntityFilter;
 import org.thingsboard.server.common.data.relation.EntitySearchDirection;
 import org.thingsboard.server.common.data.relation.RelationEntityTypeFilter;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 @Repository
@@ -324,11 +330,14 @@ public class DefaultEntityQueryRepository implements EntityQueryRepository {
     private final NamedParameterJdbcTemplate jdbcTemplate;
     private final TransactionTemplate transactionTemplate;
     private final DefaultQueryLogComponent queryLog;
+    private final EntityHierarchyCache hierarchyCache;
 
-    public DefaultEntityQueryRepository(NamedParameterJdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, DefaultQueryLogComponent queryLog) {
+    public DefaultEntityQueryRepository(NamedParameterJdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, DefaultQueryLogComponent queryLog,
+                                        EntityHierarchyCache hierarchyCache) {
         this.jdbcTemplate = jdbcTemplate;
         this.transactionTemplate = transactionTemplate;
         this.queryLog = queryLog;
+        this.hierarchyCache = hierarchyCache;
     }
 
     @Override
@@ -645,7 +654,17 @@ public class DefaultEntityQueryRepository implements EntityQueryRepository {
         String lvlFilter = getLvlFilter(entityFilter.getMaxLevel());
         String selectFields = "SELECT tenant_id, customer_id, id, created_time, type, name, additional_info "
                 + (entityType.equals(EntityType.ENTITY_VIEW) ? "" : ", label ")
-                + "FROM " + entityType.name() + " WHERE id in ( SELECT entity_id";
+                + "FROM " + entityType.name() + " WHERE ";
+        String cachedIdsCondition = cachedEntitySearchCondition(ctx, entityFilter, entityType);
+        if (cachedIdsCondition != null) {
+            String query = "( " + selectFields + cachedIdsCondition;
+            if (types != null && !types.isEmpty()) {
+                query += " and type in (:relation_sub_types)";
+                ctx.addStringListParameter("relation_sub_types", types);
+            }
+            return query + " )";
+        }
+        selectFields += "id in ( SELECT entity_id";
         String from = getQueryTemplate(entityFilter.getDirection(), false);
         String whereFilter = " WHERE";
         if (!StringUtils.isEmpty(entityFilter.getRelationType())) {
@@ -692,6 +711,10 @@ public class DefaultEntityQueryRepository implements EntityQueryRepository {
                 SELECT_ADDRESS + ", " + SELECT_ADDRESS_2 + ", " + SELECT_ZIP + ", " + SELECT_PHONE + ", " +
                 SELECT_ADDITIONAL_INFO + (entityFilter.isMultiRoot() ? (", " + SELECT_RELATED_PARENT_ID) : "") +
                 ", entity.entity_type as entity_type";
+        String cachedFrom = cachedRelationFrom(ctx, entityFilter);
+        if (cachedFrom != null) {
+            return "( " + selectFields + cachedFrom + ")";
+        }
         String from = getQueryTemplate(entityFilter.getDirection(), entityFilter.isMultiRoot());
 
         if (entityFilter.isMultiRoot()) {
@@ -794,6 +817,128 @@ public class DefaultEntityQueryRepository implements EntityQueryRepository {
         return whereFilter.toString();
     }
 
+    /**
+     * Same selection as the hierarchical query, but over the relations from the hierarchy cache:
+     * the related entities are passed to the query as arrays instead of being resolved by recursive SQL.
+     */
+    private String cachedRelationFrom(QueryContext ctx, RelationsQueryFilter entityFilter) {
+        if (!hierarchyCache.isEnabled()) {
+            return null;
+        }
+        boolean multiRoot = entityFilter.isMultiRoot();
+        String from = " FROM unnest(string_to_array(:cached_entity_ids, ',')::uuid[], string_to_array(:cached_entity_types, ',')" +
+                (multiRoot ? ", string_to_array(:cached_parent_ids, ',')::uuid[]) entity(entity_id, entity_type, parent_id)" : ") entity(entity_id, entity_type)");
+        if (ctx.hasValue("cached_entity_ids")) {
+            // the same query is built for both the count and the data queries
+            return from;
+        }
+        List<EntityId> roots;
+        if (multiRoot) {
+            roots = entityFilter.getMultiRootEntityIds().stream()
+                    .map(id -> EntityIdFactory.getByTypeAndUuid(entityFilter.getMultiRootEntitiesType(), UUID.fromString(id)))
+                    .collect(Collectors.toList());
+        } else {
+            roots = Collections.singletonList(entityFilter.getRootEntity());
+        }
+        Collection<EntityHierarchy.Relation> relations = findCachedRelations(roots, entityFilter.getDirection(), entityFilter.getMaxLevel(),
+                entityFilter.isFetchLastLevelOnly(), buildRelationFilter(entityFilter));
+        if (relations == null) {
+            return null;
+        }
+        Set<String> rows = new LinkedHashSet<>();
+        List<String> entityIds = new ArrayList<>();
+        List<String> entityTypes = new ArrayList<>();
+        List<String> parentIds = new ArrayList<>();
+        for (EntityHierarchy.Relation relation : relations) {
+            EntityId entityId = relation.child();
+            String parentId = multiRoot ? relation.parent().getId().toString() : "";
+            if (rows.add(entityId.getId() + parentId)) {
+                entityIds.add(entityId.getId().toString());
+                entityTypes.add(entityId.getEntityType().name());
+                parentIds.add(parentId);
+            }
+        }
+        ctx.addStringParameter("cached_entity_ids", String.join(",", entityIds));
+        ctx.addStringParameter("cached_entity_types", String.join(",", entityTypes));
+        if (multiRoot) {
+            ctx.addStringParameter("cached_parent_ids", String.join(",", parentIds));
+        }
+        return from;
+    }
+
+    private String cachedEntitySearchCondition(QueryContext ctx, EntitySearchQueryFilter entityFilter, EntityType entityType) {
+        if (!hierarchyCache.isEnabled()) {
+            return null;
+        }
+        String condition = "id = ANY(string_to_array(:cached_entity_ids, ',')::uuid[])";
+        if (ctx.hasValue("cached_entity_ids")) {
+            return condition;
+        }
+        String relationType = entityFilter.getRelationType();
+        Predicate<EntityHierarchy.Relation> filter = relation -> relation.child().getEntityType() == entityType
+                && (StringUtils.isEmpty(relationType) || relationType.equals(relation.type()));
+        Collection<EntityHierarchy.Relation> relations = findCachedRelations(Collections.singletonList(entityFilter.getRootEntity()),
+                entityFilter.getDirection(), entityFilter.getMaxLevel(), entityFilter.isFetchLastLevelOnly(), filter);
+        if (relations == null) {
+            return null;
+        }
+        ctx.addStringParameter("cached_entity_ids", relations.stream()
+                .map(relation -> relation.child().getId().toString())
+                .distinct().collect(Collectors.joining(",")));
+        return condition;
+    }
+
+    /**
+     * Applies the conditions of the hierarchical query to the cached relations.
+     * Returns {@code null} if the hierarchy of any root is not available in the cache.
+     */
+    private Collection<EntityHierarchy.Relation> findCachedRelations(List<EntityId> roots, EntitySearchDirection direction, int maxLevel,
+                                                                     boolean fetchLastLevelOnly, Predicate<EntityHierarchy.Relation> filter) {
+        int lvl = getMaxLevel(maxLevel);
+        // one more level is needed to check whether the entities of the max level have children
+        int hierarchyLvl = fetchLastLevelOnly ? lvl + 1 : lvl;
+        List<EntityHierarchy.Relation> result = new ArrayList<>();
+        for (EntityId root : roots) {
+            EntityHierarchy hierarchy = hierarchyCache.get(root, direction, hierarchyLvl);
+            if (hierarchy == null) {
+                return null;
+            }
+            for (EntityHierarchy.Relation relation : hierarchy.getRelations()) {
+                if (relation.level() > lvl || !filter.test(relation)) {
+                    continue;
+                }
+                if (fetchLastLevelOnly && relation.level() != maxLevel
+                        && hierarchy.getChildRelations(relation.child()).stream().anyMatch(filter)) {
+                    continue;
+                }
+                result.add(relation);
+            }
+        }
+        return result;
+    }
+
+    private Predicate<EntityHierarchy.Relation> buildRelationFilter(RelationsQueryFilter entityFilter) {
+        List<Predicate<EntityHierarchy.Relation>> conditions = new ArrayList<>();
+        if (entityFilter.getFilters() != null) {
+            for (RelationEntityTypeFilter etf : entityFilter.getFilters()) {
+                String relationType = etf.getRelationType();
+                List<EntityType> entityTypes = etf.getEntityTypes();
+                boolean hasRelationType = !StringUtils.isEmpty(relationType);
+                boolean hasEntityTypes = entityTypes != null && !entityTypes.isEmpty();
+                if (hasRelationType || hasEntityTypes) {
+                    conditions.add(relation -> (!hasRelationType || relationType.equals(relation.type()) != etf.isNegate())
+                            && (!hasEntityTypes || entityTypes.contains(relation.child().getEntityType())));
+                }
+            }
+        }
+        if (conditions.isEmpty()) {
+            List<EntityType> entityTypes = Arrays.asList(RELATION_QUERY_ENTITY_TYPES);
+            return relation -> entityTypes.contains(relation.child().getEntityType());
+        }
+        Predicate<EntityHierarchy.Relation> filter = relation -> conditions.stream().anyMatch(condition -> condition.test(relation));
+        return entityFilter.isNegate() ? filter.negate() : filter;
+    }
+
     String getLvlFilter(int maxLevel) {
         return "and re.lvl <= " + (getMaxLevel(maxLevel) - 1);
     }
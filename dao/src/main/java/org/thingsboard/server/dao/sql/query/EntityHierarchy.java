@@ -0,0 +1,83 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.dao.sql.query;
+
+import org.thingsboard.server.common.data.id.EntityId;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Snapshot of the common relations reachable from the root entity, as traversed by the recursive relation query.
+ * The same relation is present once per level it is reachable at by a path without cycles.
+ */
+public class EntityHierarchy {
+
+    static final EntityHierarchy TOO_LARGE = new EntityHierarchy(null, Collections.emptyList());
+
+    private final List<Relation> relations;
+    private final Map<EntityId, List<Relation>> childRelations = new HashMap<>();
+    private final Set<EntityId> entities = new HashSet<>();
+
+    EntityHierarchy(EntityId root, List<Relation> relations) {
+        this.relations = relations;
+        if (root != null) {
+            entities.add(root);
+        }
+        for (Relation relation : relations) {
+            entities.add(relation.parent());
+            entities.add(relation.child());
+            childRelations.computeIfAbsent(relation.parent(), parent -> new ArrayList<>()).add(relation);
+        }
+    }
+
+    public List<Relation> getRelations() {
+        return relations;
+    }
+
+    /**
+     * Relations of the entity in the search direction. Complete for every entity reachable below the max level of the hierarchy.
+     */
+    public List<Relation> getChildRelations(EntityId parent) {
+        return childRelations.getOrDefault(parent, Collections.emptyList());
+    }
+
+    public boolean contains(EntityId entityId) {
+        return entities.contains(entityId);
+    }
+
+    /**
+     * The root entity and the entities reachable from it.
+     */
+    Set<EntityId> getEntities() {
+        return entities;
+    }
+
+    public int size() {
+        return relations.size();
+    }
+
+    /**
+     * Relation in the search direction: the parent is the {@code from} entity for the {@code FROM} direction and the {@code to} entity otherwise.
+     */
+    public record Relation(EntityId parent, EntityId child, String type, int level) {}
+
+}
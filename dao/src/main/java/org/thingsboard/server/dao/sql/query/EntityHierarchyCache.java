@@ -0,0 +1,183 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.dao.sql.query;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.thingsboard.server.common.data.id.EntityId;
+import org.thingsboard.server.common.data.id.EntityIdFactory;
+import org.thingsboard.server.common.data.relation.EntitySearchDirection;
+import org.thingsboard.server.common.data.relation.RelationTypeGroup;
+import org.thingsboard.server.dao.relation.EntityRelationEvent;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Node-local cache of the entity hierarchies used by the relation and entity search queries.
+ * A hierarchy is loaded with one recursive query and evicted when a common relation of any of its entities changes.
+ * The cached hierarchies are indexed by the entities they contain, so the eviction does not scan the cache.
+ * Relation changes made on other nodes are only seen after the hierarchy expires.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class EntityHierarchyCache {
+
+    private static final String HIERARCHY_QUERY_TEMPLATE = "WITH RECURSIVE related_entities(from_id, from_type, to_id, to_type, lvl, path) AS (" +
+            " SELECT from_id, from_type, to_id, to_type, 1 as lvl, ARRAY[$in_id] as path" +
+            " FROM relation" +
+            " WHERE $in_id = :root_id and $in_type = :root_type and relation_type_group = 'COMMON'" +
+            " GROUP BY from_id, from_type, to_id, to_type, lvl, path" +
+            " UNION ALL" +
+            " SELECT r.from_id, r.from_type, r.to_id, r.to_type, (re.lvl + 1) as lvl, (re.path || ARRAY[r.$in_id]) as path" +
+            " FROM relation r" +
+            " INNER JOIN related_entities re ON r.$in_id = re.$out_id and r.$in_type = re.$out_type and r.relation_type_group = 'COMMON'" +
+            " AND r.$in_id NOT IN (SELECT * FROM unnest(re.path)) and re.lvl < :max_level" +
+            " GROUP BY r.from_id, r.from_type, r.to_id, r.to_type, (re.lvl + 1), (re.path || ARRAY[r.$in_id])" +
+            ")" +
+            " SELECT DISTINCT re.from_id, re.from_type, re.to_id, re.to_type, re.relation_type, r_int.lvl" +
+            " FROM related_entities r_int" +
+            " INNER JOIN relation re ON re.from_id = r_int.from_id AND re.from_type = r_int.from_type" +
+            " AND re.to_id = r_int.to_id AND re.to_type = r_int.to_type AND re.relation_type_group = 'COMMON'" +
+            " LIMIT :limit";
+    private static final String HIERARCHY_FROM_QUERY = HIERARCHY_QUERY_TEMPLATE.replace("$in", "from").replace("$out", "to");
+    private static final String HIERARCHY_TO_QUERY = HIERARCHY_QUERY_TEMPLATE.replace("$in", "to").replace("$out", "from");
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Getter
+    @Value("${sql.relations.hierarchy_cache.enabled:false}")
+    private boolean enabled;
+    @Value("${sql.relations.hierarchy_cache.ttl_sec:300}")
+    private long ttlSec;
+    @Value("${sql.relations.hierarchy_cache.max_relations:1000000}")
+    private long maxRelations;
+    @Value("${sql.relations.hierarchy_cache.max_relations_per_hierarchy:10000}")
+    private int maxRelationsPerHierarchy;
+
+    private final AtomicLong evictions = new AtomicLong();
+    private final ConcurrentMap<EntityId, Map<HierarchyKey, EntityHierarchy>> hierarchiesByEntity = new ConcurrentHashMap<>();
+    private Cache<HierarchyKey, EntityHierarchy> cache;
+
+    @PostConstruct
+    public void init() {
+        if (enabled) {
+            cache = Caffeine.newBuilder()
+                    .expireAfterWrite(ttlSec, TimeUnit.SECONDS)
+                    .maximumWeight(maxRelations)
+                    .<HierarchyKey, EntityHierarchy>weigher((key, hierarchy) -> hierarchy.size() + 1)
+                    .removalListener(this::onRemoved)
+                    .build();
+        }
+    }
+
+    /**
+     * Returns the relations reachable from the root entity up to the max level,
+     * or {@code null} if the cache is disabled or the hierarchy is too large to be cached.
+     */
+    public EntityHierarchy get(EntityId root, EntitySearchDirection direction, int maxLevel) {
+        if (!enabled) {
+            return null;
+        }
+        HierarchyKey key = new HierarchyKey(root, direction, maxLevel);
+        long evictionsBefore = evictions.get();
+        EntityHierarchy hierarchy = cache.get(key, this::load);
+        if (evictions.get() != evictionsBefore) {
+            // the hierarchy might have been loaded before the relation change, so it is used once but not cached
+            cache.asMap().remove(key, hierarchy);
+        }
+        return hierarchy != EntityHierarchy.TOO_LARGE ? hierarchy : null;
+    }
+
+    public void evict(EntityRelationEvent event) {
+        if (!enabled || event.getTypeGroup() != RelationTypeGroup.COMMON) {
+            return;
+        }
+        evictions.incrementAndGet();
+        EntityId from = event.getFrom();
+        EntityId to = event.getTo();
+        evict(from);
+        evict(to);
+    }
+
+    private void evict(EntityId entityId) {
+        Map<HierarchyKey, EntityHierarchy> hierarchies = hierarchiesByEntity.get(entityId);
+        if (hierarchies != null) {
+            hierarchies.forEach((key, hierarchy) -> cache.asMap().remove(key, hierarchy));
+        }
+    }
+
+    private void onRemoved(HierarchyKey key, EntityHierarchy hierarchy, RemovalCause cause) {
+        if (key == null || hierarchy == null) {
+            return;
+        }
+        for (EntityId entityId : hierarchy.getEntities()) {
+            hierarchiesByEntity.computeIfPresent(entityId, (id, hierarchies) -> {
+                hierarchies.remove(key, hierarchy);
+                return hierarchies.isEmpty() ? null : hierarchies;
+            });
+        }
+    }
+
+    private EntityHierarchy load(HierarchyKey key) {
+        boolean fromDirection = key.direction() == EntitySearchDirection.FROM;
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("root_id", key.root().getId())
+                .addValue("root_type", key.root().getEntityType().name())
+                .addValue("max_level", key.maxLevel())
+                .addValue("limit", maxRelationsPerHierarchy + 1);
+        List<EntityHierarchy.Relation> relations = jdbcTemplate.query(fromDirection ? HIERARCHY_FROM_QUERY : HIERARCHY_TO_QUERY, params, (rs, rowNum) -> {
+            EntityId from = EntityIdFactory.getByTypeAndUuid(rs.getString("from_type"), rs.getObject("from_id", UUID.class));
+            EntityId to = EntityIdFactory.getByTypeAndUuid(rs.getString("to_type"), rs.getObject("to_id", UUID.class));
+            return fromDirection ? new EntityHierarchy.Relation(from, to, rs.getString("relation_type"), rs.getInt("lvl")) :
+                    new EntityHierarchy.Relation(to, from, rs.getString("relation_type"), rs.getInt("lvl"));
+        });
+        if (relations.size() > maxRelationsPerHierarchy) {
+            log.debug("[{}][{}] Hierarchy has more than {} relations and won't be cached", key.root(), key.direction(), maxRelationsPerHierarchy);
+            return EntityHierarchy.TOO_LARGE;
+        }
+        EntityHierarchy hierarchy = new EntityHierarchy(key.root(), relations);
+        // indexed before it is cached, the relation changes in between are handled by the evictions counter
+        for (EntityId entityId : hierarchy.getEntities()) {
+            hierarchiesByEntity.compute(entityId, (id, hierarchies) -> {
+                if (hierarchies == null) {
+                    hierarchies = new ConcurrentHashMap<>();
+                }
+                hierarchies.put(key, hierarchy);
+                return hierarchies;
+            });
+        }
+        return hierarchy;
+    }
+
+    private record HierarchyKey(EntityId root, EntitySearchDirection direction, int maxLevel) {}
+
+}
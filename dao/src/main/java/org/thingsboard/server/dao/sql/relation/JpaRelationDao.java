@@ -21,10 +21,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Component;
 import org.springframework.util.CollectionUtils;
+import org.thingsboard.common.util.JacksonUtil;
 import org.thingsboard.server.common.data.id.EntityId;
 import org.thingsboard.server.common.data.id.EntityIdFactory;
 import org.thingsboard.server.common.data.id.TenantId;
 import org.thingsboard.server.common.data.relation.EntityRelation;
+import org.thingsboard.server.common.data.relation.EntitySearchDirection;
 import org.thingsboard.server.common.data.relation.RelationTypeGroup;
 import org.thingsboard.server.common.data.rule.RuleChainType;
 import org.thingsboard.server.dao.DaoUtil;
@@ -41,6 +43,7 @@ import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
+import static org.thingsboard.server.dao.model.ModelConstants.ADDITIONAL_INFO_PROPERTY;
 import static org.thingsboard.server.dao.model.ModelConstants.RELATION_FROM_ID_PROPERTY;
 import static org.thingsboard.server.dao.model.ModelConstants.RELATION_FROM_TYPE_PROPERTY;
 import static org.thingsboard.server.dao.model.ModelConstants.RELATION_TO_ID_PROPERTY;
@@ -61,6 +64,30 @@ public class JpaRelationDao extends JpaAbstractDaoListeningExecutorService imple
     private static final String RETURNING = "RETURNING from_id, from_type, to_id, to_type, relation_type, relation_type_group, nextval('relation_version_seq') as version";
     private static final String DELETE_QUERY = "DELETE FROM relation WHERE from_id = ? AND from_type = ? AND to_id = ? AND to_type = ? AND relation_type = ? AND relation_type_group = ? " + RETURNING;
 
+    // each entity is expanded once per level it is reachable at, so the number of rows is limited by the number of entities and levels
+    private static final String RECURSIVE_QUERY_TEMPLATE = "WITH RECURSIVE related_entities(id, type, lvl) AS (" +
+            " SELECT CAST(? AS uuid), CAST(? AS varchar), 0" +
+            " UNION" +
+            " SELECT r.$out_id, CAST(r.$out_type AS varchar), re.lvl + 1" +
+            " FROM relation r" +
+            " INNER JOIN related_entities re ON r.$in_id = re.id AND r.$in_type = re.type" +
+            " WHERE r.relation_type_group = ? AND re.lvl < ?" +
+            "), relation_levels AS (" +
+            " SELECT r.from_id, r.from_type, r.to_id, r.to_type, r.relation_type, r.relation_type_group, r.additional_info, r.version, el.lvl + 1 AS lvl" +
+            " FROM (SELECT id, type, min(lvl) AS lvl FROM related_entities GROUP BY id, type) el" +
+            " INNER JOIN relation r ON r.$in_id = el.id AND r.$in_type = el.type AND r.relation_type_group = ?" +
+            ")" +
+            " SELECT rl.from_id, rl.from_type, rl.to_id, rl.to_type, rl.relation_type, rl.relation_type_group, rl.additional_info, rl.version" +
+            " FROM relation_levels rl";
+    // relations of the last level and relations leading to the leaf entities by the shortest path
+    private static final String LAST_LEVEL_ONLY_CONDITION = " WHERE rl.lvl = ? OR (" +
+            " rl.lvl = (SELECT min(t.lvl) FROM relation_levels t WHERE t.$out_id = rl.$out_id AND t.$out_type = rl.$out_type)" +
+            " AND NOT EXISTS (SELECT 1 FROM relation c WHERE c.$in_id = rl.$out_id AND c.$in_type = rl.$out_type AND c.relation_type_group = ?))";
+    private static final String RECURSIVE_FROM_QUERY = RECURSIVE_QUERY_TEMPLATE.replace("$in", "from").replace("$out", "to");
+    private static final String RECURSIVE_TO_QUERY = RECURSIVE_QUERY_TEMPLATE.replace("$in", "to").replace("$out", "from");
+    private static final String LAST_LEVEL_ONLY_FROM_CONDITION = LAST_LEVEL_ONLY_CONDITION.replace("$in", "from").replace("$out", "to");
+    private static final String LAST_LEVEL_ONLY_TO_CONDITION = LAST_LEVEL_ONLY_CONDITION.replace("$in", "to").replace("$out", "from");
+
     static {
         Arrays.stream(RelationTypeGroup.values()).map(RelationTypeGroup::name).forEach(ALL_TYPE_GROUP_NAMES::add);
     }
@@ -288,6 +315,31 @@ public class JpaRelationDao extends JpaAbstractDaoListeningExecutorService imple
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public List<EntityRelation> findRelationsRecursively(TenantId tenantId, EntityId root, EntitySearchDirection direction,
+                                                         RelationTypeGroup typeGroup, int maxLevel, boolean fetchLastLevelOnly) {
+        boolean from = direction == EntitySearchDirection.FROM;
+        String typeGroupName = typeGroup.name();
+        // the entities of the last level are not expanded
+        List<Object> params = new ArrayList<>(List.of(root.getId(), root.getEntityType().name(), typeGroupName, maxLevel - 1, typeGroupName));
+        String query = from ? RECURSIVE_FROM_QUERY : RECURSIVE_TO_QUERY;
+        if (fetchLastLevelOnly) {
+            query += from ? LAST_LEVEL_ONLY_FROM_CONDITION : LAST_LEVEL_ONLY_TO_CONDITION;
+            params.add(maxLevel);
+            params.add(typeGroupName);
+        }
+        return jdbcTemplate.query(query, (rs, rowNum) -> {
+            EntityRelation relation = new EntityRelation();
+            relation.setFrom(EntityIdFactory.getByTypeAndUuid(rs.getString(RELATION_FROM_TYPE_PROPERTY), rs.getObject(RELATION_FROM_ID_PROPERTY, UUID.class)));
+            relation.setTo(EntityIdFactory.getByTypeAndUuid(rs.getString(RELATION_TO_TYPE_PROPERTY), rs.getObject(RELATION_TO_ID_PROPERTY, UUID.class)));
+            relation.setType(rs.getString(RELATION_TYPE_PROPERTY));
+            relation.setTypeGroup(RelationTypeGroup.valueOf(rs.getString(RELATION_TYPE_GROUP_PROPERTY)));
+            relation.setAdditionalInfo(JacksonUtil.toJsonNode(rs.getString(ADDITIONAL_INFO_PROPERTY)));
+            relation.setVersion(rs.getLong(VERSION_COLUMN));
+            return relation;
+        }, params.toArray());
+    }
+
     @Override
     public List<EntityRelation> findRuleNodeToRuleChainRelations(RuleChainType ruleChainType, int limit) {
         return DaoUtil.convertDataList(relationRepository.findRuleNodeToRuleChainRelations(ruleChainType, PageRequest.of(0, limit)));
@@ -27,7 +27,6 @@ import org.thingsboard.server.common.data.id.EntityId;
 import org.thingsboard.server.common.data.id.TenantId;
 import org.thingsboard.server.common.data.kv.Aggregation;
 import org.thingsboard.server.common.data.kv.DeleteTsKvQuery;
-import org.thingsboard.server.common.data.kv.IntervalType;
 import org.thingsboard.server.common.data.kv.ReadTsKvQuery;
 import org.thingsboard.server.common.data.kv.ReadTsKvQueryResult;
 import org.thingsboard.server.common.data.kv.TsKvEntry;
@@ -39,9 +38,11 @@ import org.thingsboard.server.dao.model.sqlts.ts.TsKvEntity;
 import org.thingsboard.server.dao.sql.TbSqlBlockingQueueParams;
 import org.thingsboard.server.dao.sql.TbSqlBlockingQueueWrapper;
 import org.thingsboard.server.dao.sqlts.insert.InsertTsRepository;
+import org.thingsboard.server.dao.sqlts.rollup.SqlTsRollupService;
+import org.thingsboard.server.dao.sqlts.rollup.TsRollupResolution;
+import org.thingsboard.server.dao.sqlts.ts.TsKvBucketAggregationRepository;
 import org.thingsboard.server.dao.sqlts.ts.TsKvRepository;
 import org.thingsboard.server.dao.timeseries.TimeseriesDao;
-import org.thingsboard.server.dao.util.TimeUtils;
 
 import java.util.ArrayList;
 import java.util.Comparator;
@@ -67,6 +68,12 @@ public abstract class AbstractChunkedAggregationTimeseriesDao extends AbstractSq
     @Autowired
     private KeyDictionaryDao keyDictionaryDao;
 
+    @Autowired
+    private TsKvBucketAggregationRepository bucketAggregationRepository;
+
+    @Autowired(required = false)
+    protected SqlTsRollupService rollupService;
+
     @PostConstruct
     protected void init() {
         TbSqlBlockingQueueParams tsParams = TbSqlBlockingQueueParams.builder()
@@ -75,6 +82,11 @@ public abstract class AbstractChunkedAggregationTimeseriesDao extends AbstractSq
                 .maxDelay(tsMaxDelay)
                 .statsPrintIntervalMs(tsStatsPrintIntervalMs)
                 .statsNamePrefix("ts")
+                .maxQueueSize(tsMaxQueueSize)
+                .backpressureTimeoutMs(tsBackpressureTimeoutMs)
+                .adaptiveBatchEnabled(tsAdaptiveBatchEnabled)
+                .minBatchSize(tsMinBatchSize)
+                .targetBatchLatencyMs(tsTargetBatchLatencyMs)
                 .batchSortEnabled(batchSortEnabled)
                 .build();
 
@@ -97,15 +109,29 @@ public abstract class AbstractChunkedAggregationTimeseriesDao extends AbstractSq
     @Override
     public ListenableFuture<Void> remove(TenantId tenantId, EntityId entityId, DeleteTsKvQuery query) {
         return service.submit(() -> {
-            tsKvRepository.delete(
+            Integer keyId = keyDictionaryDao.getOrSaveKeyId(query.getKey());
+            Runnable removeAction = () -> tsKvRepository.delete(
                     entityId.getId(),
-                    keyDictionaryDao.getOrSaveKeyId(query.getKey()),
+                    keyId,
                     query.getStartTs(),
                     query.getEndTs());
+            if (rollupService != null) {
+                rollupService.remove(entityId.getId(), keyId, query.getStartTs(), query.getEndTs(), removeAction);
+            } else {
+                removeAction.run();
+            }
             return null;
         });
     }
 
+    @Override
+    public void cleanup(long systemTtl) {
+        super.cleanup(systemTtl);
+        if (rollupService != null) {
+            rollupService.cleanup();
+        }
+    }
+
     @Override
     public ListenableFuture<Integer> savePartition(TenantId tenantId, EntityId entityId, long tsKvEntryTs, String key) {
         return Futures.immediateFuture(null);
@@ -121,24 +147,27 @@ public abstract class AbstractChunkedAggregationTimeseriesDao extends AbstractSq
         var aggParams = query.getAggParameters();
         if (Aggregation.NONE.equals(aggParams.getAggregation())) {
             return Futures.immediateFuture(findAllAsyncWithLimit(entityId, query));
+        }
+        long[] bounds = calculateIntervalBounds(query);
+        Optional<TsRollupResolution> resolution = rollupService != null ? rollupService.getResolution(bounds) : Optional.empty();
+        if (resolution.isPresent()) {
+            ListenableFuture<List<Optional<? extends AbstractTsKvEntity>>> future = service.submit(() ->
+                    new ArrayList<>(rollupService.findAggregated(entityId.getId(), keyDictionaryDao.getOrSaveKeyId(query.getKey()),
+                            query.getKey(), bounds, query.getAggregation(), resolution.get())));
+            return getReadTsKvQueryResultFuture(query, future);
+        } else if (singleQueryAggregation) {
+            ListenableFuture<List<Optional<? extends AbstractTsKvEntity>>> future = service.submit(() ->
+                    new ArrayList<>(bucketAggregationRepository.findAggregated(entityId.getId(), keyDictionaryDao.getOrSaveKeyId(query.getKey()),
+                            query.getKey(), bounds, query.getAggregation())));
+            return getReadTsKvQueryResultFuture(query, future);
         } else {
             List<ListenableFuture<Optional<TsKvEntity>>> futures = new ArrayList<>();
-            var intervalType = aggParams.getIntervalType();
-            long startPeriod = query.getStartTs();
-            long endPeriod = Math.max(query.getStartTs() + 1, query.getEndTs());
-            while (startPeriod < endPeriod) {
-                long startTs = startPeriod;
-                long endTs;
-                if (IntervalType.MILLISECONDS.equals(intervalType)) {
-                    endTs = startPeriod + aggParams.getInterval();
-                } else {
-                    endTs = TimeUtils.calculateIntervalEnd(startTs, intervalType, aggParams.getTzId());
-                }
-                endTs = Math.min(endTs, endPeriod);
+            for (int i = 0; i < bounds.length - 1; i++) {
+                long startTs = bounds[i];
+                long endTs = bounds[i + 1];
                 long ts = startTs + (endTs - startTs) / 2;
                 ListenableFuture<Optional<TsKvEntity>> aggregateTsKvEntry = findAndAggregateAsync(entityId, query.getKey(), startTs, endTs, ts, query.getAggregation());
                 futures.add(aggregateTsKvEntry);
-                startPeriod = endTs;
             }
             return getReadTsKvQueryResultFuture(query, Futures.allAsList(futures));
         }
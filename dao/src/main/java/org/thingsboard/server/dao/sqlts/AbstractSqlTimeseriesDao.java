@@ -24,16 +24,19 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.thingsboard.server.common.data.id.EntityId;
 import org.thingsboard.server.common.data.id.TenantId;
+import org.thingsboard.server.common.data.kv.IntervalType;
 import org.thingsboard.server.common.data.kv.ReadTsKvQuery;
 import org.thingsboard.server.common.data.kv.ReadTsKvQueryResult;
 import org.thingsboard.server.common.data.kv.TsKvEntry;
 import org.thingsboard.server.dao.model.ModelConstants;
 import org.thingsboard.server.dao.sql.ScheduledLogExecutorComponent;
+import org.thingsboard.server.dao.util.TimeUtils;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.TimeUnit;
@@ -60,6 +63,24 @@ public abstract class AbstractSqlTimeseriesDao extends BaseAbstractSqlTimeseries
     @Value("${sql.ts.batch_threads:4}")
     protected int tsBatchThreads;
 
+    @Value("${sql.ts.max_queue_size:0}")
+    protected int tsMaxQueueSize;
+
+    @Value("${sql.ts.backpressure_timeout_ms:0}")
+    protected long tsBackpressureTimeoutMs;
+
+    @Value("${sql.ts.adaptive_batch.enabled:false}")
+    protected boolean tsAdaptiveBatchEnabled;
+
+    @Value("${sql.ts.adaptive_batch.min_batch_size:100}")
+    protected int tsMinBatchSize;
+
+    @Value("${sql.ts.adaptive_batch.target_latency_ms:100}")
+    protected long tsTargetBatchLatencyMs;
+
+    @Value("${sql.ts.single_query_aggregation:false}")
+    protected boolean singleQueryAggregation;
+
     @Value("${sql.timescale.batch_threads:4}")
     protected int timescaleBatchThreads;
 
@@ -105,6 +126,30 @@ public abstract class AbstractSqlTimeseriesDao extends BaseAbstractSqlTimeseries
         }, service);
     }
 
+    /**
+     * Splits the time range of the aggregation query into intervals.
+     * The interval {@code i} is {@code [bounds[i], bounds[i + 1])}; the last interval is truncated by the end of the range.
+     */
+    protected static long[] calculateIntervalBounds(ReadTsKvQuery query) {
+        var aggParams = query.getAggParameters();
+        var intervalType = aggParams.getIntervalType();
+        long startPeriod = query.getStartTs();
+        long endPeriod = Math.max(query.getStartTs() + 1, query.getEndTs());
+        List<Long> bounds = new ArrayList<>();
+        bounds.add(startPeriod);
+        while (startPeriod < endPeriod) {
+            long endTs;
+            if (IntervalType.MILLISECONDS.equals(intervalType)) {
+                endTs = startPeriod + aggParams.getInterval();
+            } else {
+                endTs = TimeUtils.calculateIntervalEnd(startPeriod, intervalType, aggParams.getTzId());
+            }
+            startPeriod = Math.min(endTs, endPeriod);
+            bounds.add(startPeriod);
+        }
+        return bounds.stream().mapToLong(Long::longValue).toArray();
+    }
+
     protected long computeTtl(long ttl) {
         if (systemTtl > 0) {
             if (ttl == 0) {
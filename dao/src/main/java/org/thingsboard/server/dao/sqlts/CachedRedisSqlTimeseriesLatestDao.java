@@ -31,16 +31,21 @@ import org.thingsboard.server.common.data.id.EntityId;
 import org.thingsboard.server.common.data.id.TenantId;
 import org.thingsboard.server.common.data.kv.BasicTsKvEntry;
 import org.thingsboard.server.common.data.kv.DeleteTsKvQuery;
+import org.thingsboard.server.common.data.kv.PrimitiveTsKvEntry;
 import org.thingsboard.server.common.data.kv.TsKvEntry;
 import org.thingsboard.server.common.data.kv.TsKvLatestRemovingResult;
 import org.thingsboard.server.common.stats.DefaultCounter;
 import org.thingsboard.server.common.stats.StatsFactory;
 import org.thingsboard.server.dao.cache.CacheExecutorService;
+import org.thingsboard.server.dao.model.sqlts.latest.TsKvLatestEntity;
 import org.thingsboard.server.dao.timeseries.TimeseriesLatestDao;
 import org.thingsboard.server.dao.timeseries.TsLatestCacheKey;
 import org.thingsboard.server.dao.util.SqlTsLatestAnyDaoCachedRedis;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Slf4j
@@ -62,13 +67,26 @@ public class CachedRedisSqlTimeseriesLatestDao extends BaseAbstractSqlTimeseries
         log.info("Init Redis cache-aside SQL Timeseries Latest DAO");
         this.hitCounter = statsFactory.createDefaultCounter(STATS_NAME, "result", "hit");
         this.missCounter = statsFactory.createDefaultCounter(STATS_NAME, "result", "miss");
+        sqlDao.setUnchangedValueSharedLatest(new TsLatestUnchangedValueFilter.SharedLatest() {
+            @Override
+            public Long getVersion(EntityId entityId, String key) {
+                TbCacheValueWrapper<TsKvEntry> cacheValueWrap = cache.get(new TsLatestCacheKey(entityId, key));
+                TsKvEntry tsKvEntry = cacheValueWrap != null ? cacheValueWrap.get() : null;
+                return tsKvEntry != null ? tsKvEntry.getVersion() : null;
+            }
+
+            @Override
+            public void onFlushed(EntityId entityId, TsKvLatestEntity entity) {
+                cache.put(new TsLatestCacheKey(entityId, entity.getStrKey()), entity.toData());
+            }
+        });
     }
 
     @Override
     public ListenableFuture<Long> saveLatest(TenantId tenantId, EntityId entityId, TsKvEntry tsKvEntry) {
         ListenableFuture<Long> future = sqlDao.saveLatest(tenantId, entityId, tsKvEntry);
         future = Futures.transform(future, version -> {
-                    cache.put(new TsLatestCacheKey(entityId, tsKvEntry.getKey()), new BasicTsKvEntry(tsKvEntry.getTs(), ((BasicTsKvEntry) tsKvEntry).getKv(), version));
+                    cache.put(new TsLatestCacheKey(entityId, tsKvEntry.getKey()), withVersion(tsKvEntry, version));
                     return version;
                 },
                 cacheExecutorService);
@@ -88,6 +106,33 @@ public class CachedRedisSqlTimeseriesLatestDao extends BaseAbstractSqlTimeseries
         return future;
     }
 
+    @Override
+    public ListenableFuture<List<Long>> saveAllLatest(TenantId tenantId, EntityId entityId, List<TsKvEntry> tsKvEntries) {
+        ListenableFuture<List<Long>> future = sqlDao.saveAllLatest(tenantId, entityId, tsKvEntries);
+        future = Futures.transform(future, versions -> {
+                    for (int i = 0; i < tsKvEntries.size(); i++) {
+                        TsKvEntry tsKvEntry = tsKvEntries.get(i);
+                        cache.put(new TsLatestCacheKey(entityId, tsKvEntry.getKey()), withVersion(tsKvEntry, versions.get(i)));
+                    }
+                    return versions;
+                },
+                cacheExecutorService);
+        if (log.isTraceEnabled()) {
+            Futures.addCallback(future, new FutureCallback<>() {
+                @Override
+                public void onSuccess(List<Long> result) {
+                    log.trace("saveAllLatest onSuccess [{}][{}]", entityId, tsKvEntries);
+                }
+
+                @Override
+                public void onFailure(Throwable t) {
+                    log.info("saveAllLatest onFailure [{}][{}]", entityId, tsKvEntries, t);
+                }
+            }, MoreExecutors.directExecutor());
+        }
+        return future;
+    }
+
     @Override
     public ListenableFuture<TsKvLatestRemovingResult> removeLatest(TenantId tenantId, EntityId entityId, DeleteTsKvQuery query) {
         ListenableFuture<TsKvLatestRemovingResult> future = sqlDao.removeLatest(tenantId, entityId, query);
@@ -97,7 +142,7 @@ public class CachedRedisSqlTimeseriesLatestDao extends BaseAbstractSqlTimeseries
                         Long version = x.getVersion();
                         TsKvEntry newTsKvEntry = x.getData();
                         if (newTsKvEntry != null) {
-                            cache.put(key, new BasicTsKvEntry(newTsKvEntry.getTs(), ((BasicTsKvEntry) newTsKvEntry).getKv(), version));
+                            cache.put(key, withVersion(newTsKvEntry, version));
                         } else {
                             cache.evict(key, version);
                         }
@@ -152,6 +197,32 @@ public class CachedRedisSqlTimeseriesLatestDao extends BaseAbstractSqlTimeseries
         }, MoreExecutors.directExecutor());
     }
 
+    @Override
+    public ListenableFuture<List<TsKvEntry>> findLatest(TenantId tenantId, EntityId entityId, Collection<String> keys) {
+        final List<TsLatestCacheKey> cacheKeys = keys.stream().map(key -> new TsLatestCacheKey(entityId, key)).toList();
+        ListenableFuture<Map<TsLatestCacheKey, TbCacheValueWrapper<TsKvEntry>>> cacheFuture = cacheExecutorService.submit(() -> cache.getAll(cacheKeys));
+
+        return Futures.transformAsync(cacheFuture, cachedValues -> {
+            List<ListenableFuture<TsKvEntry>> futures = new ArrayList<>(cacheKeys.size());
+            for (TsLatestCacheKey cacheKey : cacheKeys) {
+                final String key = cacheKey.getKey();
+                TbCacheValueWrapper<TsKvEntry> cacheValueWrap = cachedValues.get(cacheKey);
+                if (cacheValueWrap != null) {
+                    final TsKvEntry tsKvEntry = cacheValueWrap.get();
+                    log.debug("findLatest cache hit [{}][{}][{}]", entityId, key, tsKvEntry);
+                    futures.add(Futures.immediateFuture(sqlDao.wrapNullTsKvEntry(key, tsKvEntry)));
+                    continue;
+                }
+                log.debug("findLatest cache miss [{}][{}]", entityId, key);
+                futures.add(Futures.transform(sqlDao.findLatestOpt(tenantId, entityId, key), daoValue -> {
+                    cache.put(cacheKey, daoValue.orElse(null));
+                    return sqlDao.wrapNullTsKvEntry(key, daoValue.orElse(null));
+                }, MoreExecutors.directExecutor()));
+            }
+            return Futures.allAsList(futures);
+        }, MoreExecutors.directExecutor());
+    }
+
     @Override
     public ListenableFuture<List<TsKvEntry>> findAllLatest(TenantId tenantId, EntityId entityId) {
         return sqlDao.findAllLatest(tenantId, entityId);
@@ -167,4 +238,11 @@ public class CachedRedisSqlTimeseriesLatestDao extends BaseAbstractSqlTimeseries
         return sqlDao.findAllKeysByEntityIds(tenantId, entityIds);
     }
 
+    private static TsKvEntry withVersion(TsKvEntry tsKvEntry, Long version) {
+        if (tsKvEntry instanceof PrimitiveTsKvEntry primitiveTsKvEntry) {
+            return primitiveTsKvEntry.withVersion(version);
+        }
+        return new BasicTsKvEntry(tsKvEntry.getTs(), ((BasicTsKvEntry) tsKvEntry).getKv(), version);
+    }
+
 }
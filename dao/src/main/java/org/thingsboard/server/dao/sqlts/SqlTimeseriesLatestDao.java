@@ -25,6 +25,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.thingsboard.common.util.ThingsBoardExecutors;
 import org.thingsboard.server.common.data.id.DeviceProfileId;
 import org.thingsboard.server.common.data.id.EntityId;
 import org.thingsboard.server.common.data.id.TenantId;
@@ -60,6 +61,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -70,6 +73,9 @@ public class SqlTimeseriesLatestDao extends BaseAbstractSqlTimeseriesDao impleme
 
     private static final String DESC_ORDER = "DESC";
 
+    private static final String UPDATE_LATEST_TS = "UPDATE ts_kv_latest SET ts = ?, version = nextval('ts_kv_latest_version_seq') " +
+            "WHERE entity_id = ? AND key = ? AND version = ? AND ts < ? RETURNING version";
+
     @Autowired
     private TsKvLatestRepository tsKvLatestRepository;
 
@@ -96,6 +102,30 @@ public class SqlTimeseriesLatestDao extends BaseAbstractSqlTimeseriesDao impleme
     @Value("${sql.ts_latest.batch_threads:4}")
     private int tsLatestBatchThreads;
 
+    @Value("${sql.ts_latest.max_queue_size:0}")
+    private int tsLatestMaxQueueSize;
+
+    @Value("${sql.ts_latest.backpressure_timeout_ms:0}")
+    private long tsLatestBackpressureTimeoutMs;
+
+    @Value("${sql.ts_latest.adaptive_batch.enabled:false}")
+    private boolean tsLatestAdaptiveBatchEnabled;
+
+    @Value("${sql.ts_latest.adaptive_batch.min_batch_size:100}")
+    private int tsLatestMinBatchSize;
+
+    @Value("${sql.ts_latest.adaptive_batch.target_latency_ms:100}")
+    private long tsLatestTargetBatchLatencyMs;
+
+    @Value("${sql.ts_latest.skip_unchanged.enabled:false}")
+    private boolean tsLatestSkipUnchangedEnabled;
+
+    @Value("${sql.ts_latest.skip_unchanged.ts_flush_interval_ms:60000}")
+    private long tsLatestTsFlushIntervalMs;
+
+    @Value("${sql.ts_latest.skip_unchanged.max_idle_time_ms:600000}")
+    private long tsLatestMaxIdleTimeMs;
+
     @Value("${sql.batch_sort:true}")
     protected boolean batchSortEnabled;
 
@@ -108,6 +138,9 @@ public class SqlTimeseriesLatestDao extends BaseAbstractSqlTimeseriesDao impleme
     @Autowired
     private KeyDictionaryDao keyDictionaryDao;
 
+    private TsLatestUnchangedValueFilter unchangedValueFilter;
+    private ScheduledExecutorService unchangedValueFlushExecutor;
+
     @PostConstruct
     protected void init() {
         TbSqlBlockingQueueParams tsLatestParams = TbSqlBlockingQueueParams.builder()
@@ -116,6 +149,11 @@ public class SqlTimeseriesLatestDao extends BaseAbstractSqlTimeseriesDao impleme
                 .maxDelay(tsLatestMaxDelay)
                 .statsPrintIntervalMs(tsLatestStatsPrintIntervalMs)
                 .statsNamePrefix("ts.latest")
+                .maxQueueSize(tsLatestMaxQueueSize)
+                .backpressureTimeoutMs(tsLatestBackpressureTimeoutMs)
+                .adaptiveBatchEnabled(tsLatestAdaptiveBatchEnabled)
+                .minBatchSize(tsLatestMinBatchSize)
+                .targetBatchLatencyMs(tsLatestTargetBatchLatencyMs)
                 .batchSortEnabled(batchSortEnabled)
                 .withResponse(true)
                 .build();
@@ -136,10 +174,27 @@ public class SqlTimeseriesLatestDao extends BaseAbstractSqlTimeseriesDao impleme
                     });
                     return new ArrayList<>(trueLatest.values());
                 });
+
+        if (tsLatestSkipUnchangedEnabled) {
+            boolean coalesceTs = tsLatestTsFlushIntervalMs > 0;
+            unchangedValueFilter = new TsLatestUnchangedValueFilter(tsLatestQueue::add, this::saveLatestTs, coalesceTs, tsLatestMaxIdleTimeMs, statsFactory);
+            long flushIntervalMs = coalesceTs ? tsLatestTsFlushIntervalMs : tsLatestMaxIdleTimeMs;
+            unchangedValueFlushExecutor = ThingsBoardExecutors.newSingleThreadScheduledExecutor("ts-latest-unchanged-flush");
+            unchangedValueFlushExecutor.scheduleWithFixedDelay(() -> {
+                try {
+                    unchangedValueFilter.flush();
+                } catch (Throwable t) {
+                    log.warn("Failed to flush timestamps of unchanged latest values", t);
+                }
+            }, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        }
     }
 
     @PreDestroy
     protected void destroy() {
+        if (unchangedValueFlushExecutor != null) {
+            unchangedValueFlushExecutor.shutdownNow();
+        }
         if (tsLatestQueue != null) {
             tsLatestQueue.destroy();
         }
@@ -150,6 +205,18 @@ public class SqlTimeseriesLatestDao extends BaseAbstractSqlTimeseriesDao impleme
         return getSaveLatestFuture(entityId, tsKvEntry);
     }
 
+    @Override
+    public ListenableFuture<List<Long>> saveAllLatest(TenantId tenantId, EntityId entityId, List<TsKvEntry> tsKvEntries) {
+        if (unchangedValueFilter != null) {
+            return TimeseriesLatestDao.super.saveAllLatest(tenantId, entityId, tsKvEntries);
+        }
+        List<TsKvLatestEntity> latestEntities = new ArrayList<>(tsKvEntries.size());
+        for (TsKvEntry tsKvEntry : tsKvEntries) {
+            latestEntities.add(toLatestEntity(entityId, tsKvEntry));
+        }
+        return tsLatestQueue.addAll(latestEntities);
+    }
+
     @Override
     public ListenableFuture<TsKvLatestRemovingResult> removeLatest(TenantId tenantId, EntityId entityId, DeleteTsKvQuery query) {
         return getRemoveLatestFuture(tenantId, entityId, query);
@@ -232,9 +299,12 @@ public class SqlTimeseriesLatestDao extends BaseAbstractSqlTimeseriesDao impleme
             Long version = null;
             long ts = latest.getTs();
             if (ts >= query.getStartTs() && ts < query.getEndTs()) {
+                int keyId = keyDictionaryDao.getOrSaveKeyId(query.getKey());
+                invalidateUnchangedValue(entityId, keyId);
                 version = transactionTemplate.execute(status -> jdbcTemplate.query("DELETE FROM ts_kv_latest WHERE entity_id = ? " +
                                 "AND key = ? RETURNING nextval('ts_kv_latest_version_seq')",
-                        rs -> rs.next() ? rs.getLong(1) : null, entityId.getId(), keyDictionaryDao.getOrSaveKeyId(query.getKey())));
+                        rs -> rs.next() ? rs.getLong(1) : null, entityId.getId(), keyId));
+                invalidateUnchangedValue(entityId, keyId);
                 isRemoved = true;
                 if (query.getRewriteLatestIfDeleted()) {
                     return getNewLatestEntryFuture(tenantId, entityId, query);
@@ -251,17 +321,50 @@ public class SqlTimeseriesLatestDao extends BaseAbstractSqlTimeseriesDao impleme
     }
 
     protected ListenableFuture<Long> getSaveLatestFuture(EntityId entityId, TsKvEntry tsKvEntry) {
+        TsKvLatestEntity latestEntity = toLatestEntity(entityId, tsKvEntry);
+        if (unchangedValueFilter != null) {
+            return unchangedValueFilter.save(entityId, latestEntity);
+        }
+        return tsLatestQueue.add(latestEntity);
+    }
+
+    private TsKvLatestEntity toLatestEntity(EntityId entityId, TsKvEntry tsKvEntry) {
         TsKvLatestEntity latestEntity = new TsKvLatestEntity();
         latestEntity.setEntityId(entityId.getId());
         latestEntity.setTs(tsKvEntry.getTs());
         latestEntity.setKey(keyDictionaryDao.getOrSaveKeyId(tsKvEntry.getKey()));
+        latestEntity.setStrKey(tsKvEntry.getKey());
         latestEntity.setStrValue(tsKvEntry.getStrValue().orElse(null));
         latestEntity.setDoubleValue(tsKvEntry.getDoubleValue().orElse(null));
         latestEntity.setLongValue(tsKvEntry.getLongValue().orElse(null));
         latestEntity.setBooleanValue(tsKvEntry.getBooleanValue().orElse(null));
         latestEntity.setJsonValue(tsKvEntry.getJsonValue().orElse(null));
+        return latestEntity;
+    }
 
-        return tsLatestQueue.add(latestEntity);
+    void setUnchangedValueSharedLatest(TsLatestUnchangedValueFilter.SharedLatest sharedLatest) {
+        if (unchangedValueFilter != null) {
+            unchangedValueFilter.setSharedLatest(sharedLatest);
+        }
+    }
+
+    private List<Long> saveLatestTs(List<TsKvLatestEntity> entities) {
+        List<Long> versions = new ArrayList<>(entities.size());
+        for (List<TsKvLatestEntity> batch : Lists.partition(entities, tsLatestBatchSize)) {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (TsKvLatestEntity entity : batch) {
+                    versions.add(jdbcTemplate.query(UPDATE_LATEST_TS, rs -> rs.next() ? rs.getLong(1) : null,
+                            entity.getTs(), entity.getEntityId(), entity.getKey(), entity.getVersion(), entity.getTs()));
+                }
+            });
+        }
+        return versions;
+    }
+
+    private void invalidateUnchangedValue(EntityId entityId, int keyId) {
+        if (unchangedValueFilter != null) {
+            unchangedValueFilter.invalidate(entityId.getId(), keyId);
+        }
     }
 
     protected TsKvEntry wrapNullTsKvEntry(final String key, final TsKvEntry latest) {
@@ -0,0 +1,311 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.dao.sqlts;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import lombok.extern.slf4j.Slf4j;
+import org.thingsboard.server.common.data.id.EntityId;
+import org.thingsboard.server.common.stats.DefaultCounter;
+import org.thingsboard.server.common.stats.StatsFactory;
+import org.thingsboard.server.dao.model.sqlts.latest.TsKvLatestEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Skips the upserts of latest values that are equal to the value previously persisted by this node.
+ * <p>
+ * If the latest values are shared by the nodes, e.g. cached in Redis, the value is skipped only if the shared version is still
+ * the one written by this node, so the values written by the other nodes in between are never hidden.
+ * The timestamps of the skipped values are coalesced and persisted by {@link #flush()} only if the persisted version is still
+ * the same, so the timestamp stored in the database may lag behind the last reported one up to the flush interval.
+ * Keys are not tracked while the write is in progress, so the writes of the same key are never reordered.
+ */
+@Slf4j
+class TsLatestUnchangedValueFilter {
+
+    static final String STATS_NAME = "ts.latest.writes";
+
+    private final ConcurrentMap<TsKey, LatestState> states = new ConcurrentHashMap<>();
+    private final Function<TsKvLatestEntity, ListenableFuture<Long>> writer;
+    private final Function<List<TsKvLatestEntity>, List<Long>> tsWriter;
+    private final boolean coalesceTs;
+    private final long maxIdleTimeMs;
+    private volatile SharedLatest sharedLatest;
+
+    private final DefaultCounter writtenCounter;
+    private final DefaultCounter skippedCounter;
+    private final DefaultCounter flushedCounter;
+
+    /**
+     * @param writer   upserts the latest value and returns its new version, or {@code null} if the value was not updated
+     * @param tsWriter updates the timestamps of the latest values if their versions are still the same as the versions of the given entities.
+     *                 Returns the new versions, or {@code null} for the values that were not updated
+     */
+    TsLatestUnchangedValueFilter(Function<TsKvLatestEntity, ListenableFuture<Long>> writer, Function<List<TsKvLatestEntity>, List<Long>> tsWriter,
+                                 boolean coalesceTs, long maxIdleTimeMs, StatsFactory statsFactory) {
+        this.writer = writer;
+        this.tsWriter = tsWriter;
+        this.coalesceTs = coalesceTs;
+        this.maxIdleTimeMs = maxIdleTimeMs;
+        this.writtenCounter = statsFactory.createDefaultCounter(STATS_NAME, "result", "written");
+        this.skippedCounter = statsFactory.createDefaultCounter(STATS_NAME, "result", "skipped");
+        this.flushedCounter = statsFactory.createDefaultCounter(STATS_NAME, "result", "flushed");
+    }
+
+    void setSharedLatest(SharedLatest sharedLatest) {
+        this.sharedLatest = sharedLatest;
+    }
+
+    ListenableFuture<Long> save(EntityId entityId, TsKvLatestEntity entity) {
+        TsKey key = new TsKey(entity.getEntityId(), entity.getKey());
+        SharedLatest sharedLatest = this.sharedLatest;
+        while (true) {
+            LatestState state = states.computeIfAbsent(key, k -> new LatestState(entityId));
+            Long version = null;
+            synchronized (state) {
+                if (state.removed) {
+                    continue;
+                }
+                state.lastAccessTime = System.currentTimeMillis();
+                if (state.isUnchanged(entity)) {
+                    if (sharedLatest == null) {
+                        return skip(state, entity);
+                    }
+                    version = state.version;
+                } else {
+                    state.inProgress++;
+                }
+            }
+            if (version != null) {
+                // the value may have been changed by the other nodes since it was written by this one
+                boolean shared = version.equals(sharedLatest.getVersion(entityId, entity.getStrKey()));
+                synchronized (state) {
+                    if (state.removed) {
+                        continue;
+                    }
+                    if (shared && state.isUnchanged(entity) && version.equals(state.version)) {
+                        return skip(state, entity);
+                    }
+                    if (!shared && version.equals(state.version)) {
+                        state.persisted = null;
+                    }
+                    state.inProgress++;
+                }
+            }
+            writtenCounter.increment();
+            return write(state, entity);
+        }
+    }
+
+    void invalidate(UUID entityId, int key) {
+        LatestState state = states.remove(new TsKey(entityId, key));
+        if (state != null) {
+            synchronized (state) {
+                state.removed = true;
+            }
+        }
+    }
+
+    /**
+     * Persists the coalesced timestamps of the unchanged values and stops tracking of the idle keys.
+     */
+    void flush() {
+        long now = System.currentTimeMillis();
+        List<TsKvLatestEntity> toFlush = new ArrayList<>();
+        List<LatestState> toFlushStates = new ArrayList<>();
+        states.values().removeIf(state -> {
+            synchronized (state) {
+                if (state.inProgress > 0) {
+                    return false;
+                }
+                if (state.persisted != null && state.pendingTs > state.persisted.getTs()) {
+                    toFlush.add(copyWithTs(state.persisted, state.pendingTs, state.version));
+                    toFlushStates.add(state);
+                    state.pendingTs = 0;
+                    state.inProgress++;
+                    return false;
+                }
+                if (now - state.lastAccessTime > maxIdleTimeMs) {
+                    state.removed = true;
+                    return true;
+                }
+                return false;
+            }
+        });
+        if (toFlush.isEmpty()) {
+            return;
+        }
+        List<Long> versions;
+        try {
+            versions = tsWriter.apply(toFlush);
+        } catch (Throwable t) {
+            log.warn("Failed to flush timestamps of {} unchanged latest values", toFlush.size(), t);
+            toFlushStates.forEach(state -> {
+                synchronized (state) {
+                    state.inProgress--;
+                    state.persisted = null;
+                }
+            });
+            return;
+        }
+        int flushed = 0;
+        for (int i = 0; i < toFlush.size(); i++) {
+            LatestState state = toFlushStates.get(i);
+            TsKvLatestEntity entity = toFlush.get(i);
+            Long expectedVersion = entity.getVersion();
+            Long version = versions.get(i);
+            synchronized (state) {
+                state.inProgress--;
+                if (version == null) {
+                    // the value was changed or removed by the other nodes
+                    if (expectedVersion.equals(state.version)) {
+                        state.persisted = null;
+                    }
+                    continue;
+                }
+                entity.setVersion(version);
+                state.onPersisted(entity, version);
+            }
+            flushed++;
+            flushedCounter.increment();
+            SharedLatest sharedLatest = this.sharedLatest;
+            if (sharedLatest != null) {
+                sharedLatest.onFlushed(state.entityId, entity);
+            }
+        }
+        log.debug("Flushed timestamps of {} out of {} unchanged latest values", flushed, toFlush.size());
+    }
+
+    int size() {
+        return states.size();
+    }
+
+    private ListenableFuture<Long> skip(LatestState state, TsKvLatestEntity entity) {
+        if (coalesceTs) {
+            state.pendingTs = Math.max(state.pendingTs, entity.getTs());
+        }
+        skippedCounter.increment();
+        return Futures.immediateFuture(state.version);
+    }
+
+    private ListenableFuture<Long> write(LatestState state, TsKvLatestEntity entity) {
+        ListenableFuture<Long> future;
+        try {
+            future = writer.apply(entity);
+        } catch (Throwable t) {
+            future = Futures.immediateFailedFuture(t);
+        }
+        Futures.addCallback(future, new FutureCallback<>() {
+            @Override
+            public void onSuccess(Long version) {
+                synchronized (state) {
+                    state.inProgress--;
+                    // the version is returned only when the row was actually updated
+                    if (version != null) {
+                        state.onPersisted(entity, version);
+                    }
+                }
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                synchronized (state) {
+                    state.inProgress--;
+                    state.persisted = null;
+                    state.pendingTs = 0;
+                }
+            }
+        }, MoreExecutors.directExecutor());
+        return future;
+    }
+
+    private static TsKvLatestEntity copyWithTs(TsKvLatestEntity entity, long ts, Long version) {
+        TsKvLatestEntity copy = new TsKvLatestEntity();
+        copy.setEntityId(entity.getEntityId());
+        copy.setKey(entity.getKey());
+        copy.setStrKey(entity.getStrKey());
+        copy.setTs(ts);
+        copy.setStrValue(entity.getStrValue());
+        copy.setLongValue(entity.getLongValue());
+        copy.setDoubleValue(entity.getDoubleValue());
+        copy.setBooleanValue(entity.getBooleanValue());
+        copy.setJsonValue(entity.getJsonValue());
+        copy.setVersion(version);
+        return copy;
+    }
+
+    /**
+     * The latest values shared by all nodes.
+     */
+    interface SharedLatest {
+
+        /**
+         * @return the version of the shared latest value of the key, or {@code null} if it is unknown
+         */
+        Long getVersion(EntityId entityId, String key);
+
+        void onFlushed(EntityId entityId, TsKvLatestEntity entity);
+
+    }
+
+    private static class LatestState {
+
+        private final EntityId entityId;
+        private TsKvLatestEntity persisted;
+        private Long version;
+        private long pendingTs;
+        private int inProgress;
+        private long lastAccessTime;
+        private boolean removed;
+
+        private LatestState(EntityId entityId) {
+            this.entityId = entityId;
+        }
+
+        private void onPersisted(TsKvLatestEntity entity, long newVersion) {
+            // the versions are taken from a sequence, so the older write may complete later
+            if (version != null && version > newVersion) {
+                return;
+            }
+            persisted = entity;
+            version = newVersion;
+            if (pendingTs <= entity.getTs()) {
+                pendingTs = 0;
+            }
+        }
+
+        private boolean isUnchanged(TsKvLatestEntity entity) {
+            return inProgress == 0 && persisted != null
+                    && entity.getTs() >= persisted.getTs()
+                    && Objects.equals(entity.getBooleanValue(), persisted.getBooleanValue())
+                    && Objects.equals(entity.getLongValue(), persisted.getLongValue())
+                    && Objects.equals(entity.getDoubleValue(), persisted.getDoubleValue())
+                    && Objects.equals(entity.getStrValue(), persisted.getStrValue())
+                    && Objects.equals(entity.getJsonValue(), persisted.getJsonValue());
+        }
+
+    }
+
+}
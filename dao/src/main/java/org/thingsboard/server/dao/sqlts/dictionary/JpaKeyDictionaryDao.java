@@ -15,10 +15,17 @@
  */
 package org.thingsboard.server.dao.sqlts.dictionary;
 
+import com.google.common.util.concurrent.Striped;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
@@ -31,7 +38,7 @@ import org.thingsboard.server.dao.util.SqlDao;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.Lock;
 
 @Component
 @Slf4j
@@ -39,10 +46,30 @@ import java.util.concurrent.locks.ReentrantLock;
 @RequiredArgsConstructor
 public class JpaKeyDictionaryDao extends JpaAbstractDaoListeningExecutorService implements KeyDictionaryDao {
 
+    private static final int PRELOAD_PAGE_SIZE = 10000;
+    private static final int CREATION_LOCK_STRIPES = 256;
+
     private final KeyDictionaryRepository keyDictionaryRepository;
 
     private final ConcurrentMap<String, Integer> keyDictionaryMap = new ConcurrentHashMap<>();
-    private static final ReentrantLock creationLock = new ReentrantLock();
+    private final ConcurrentMap<Integer, String> keyIdDictionaryMap = new ConcurrentHashMap<>();
+    private static final Striped<Lock> creationLocks = Striped.lock(CREATION_LOCK_STRIPES);
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preloadKeyDictionary() {
+        try {
+            Pageable pageable = PageRequest.of(0, PRELOAD_PAGE_SIZE, Sort.by("keyId"));
+            Page<KeyDictionaryEntry> page;
+            do {
+                page = keyDictionaryRepository.findAll(pageable);
+                page.forEach(this::putToCache);
+                pageable = page.nextPageable();
+            } while (page.hasNext());
+            log.info("Loaded {} keys to the key dictionary", keyDictionaryMap.size());
+        } catch (Exception e) {
+            log.warn("Failed to preload key dictionary, keys will be loaded on demand", e);
+        }
+    }
 
     @Transactional(propagation = Propagation.NOT_SUPPORTED)
     @Override
@@ -52,6 +79,7 @@ public class JpaKeyDictionaryDao extends JpaAbstractDaoListeningExecutorService
             Optional<KeyDictionaryEntry> tsKvDictionaryOptional;
             tsKvDictionaryOptional = keyDictionaryRepository.findById(new KeyDictionaryCompositeKey(strKey));
             if (tsKvDictionaryOptional.isEmpty()) {
+                Lock creationLock = creationLocks.get(strKey);
                 creationLock.lock();
                 try {
                     keyId = keyDictionaryMap.get(strKey);
@@ -64,23 +92,24 @@ public class JpaKeyDictionaryDao extends JpaAbstractDaoListeningExecutorService
                         keyDictionaryEntry.setKey(strKey);
                         try {
                             KeyDictionaryEntry saved = keyDictionaryRepository.save(keyDictionaryEntry);
-                            keyDictionaryMap.put(saved.getKey(), saved.getKeyId());
+                            putToCache(saved);
                             keyId = saved.getKeyId();
                         } catch (DataIntegrityViolationException | ConstraintViolationException e) {
                             tsKvDictionaryOptional = keyDictionaryRepository.findById(new KeyDictionaryCompositeKey(strKey));
                             KeyDictionaryEntry dictionary = tsKvDictionaryOptional.orElseThrow(() -> new RuntimeException("Failed to get KeyDictionaryEntry entity from DB!"));
-                            keyDictionaryMap.put(dictionary.getKey(), dictionary.getKeyId());
+                            putToCache(dictionary);
                             keyId = dictionary.getKeyId();
                         }
                     } else {
+                        putToCache(tsKvDictionaryOptional.get());
                         keyId = tsKvDictionaryOptional.get().getKeyId();
                     }
                 } finally {
                     creationLock.unlock();
                 }
             } else {
+                putToCache(tsKvDictionaryOptional.get());
                 keyId = tsKvDictionaryOptional.get().getKeyId();
-                keyDictionaryMap.put(strKey, keyId);
             }
         }
         return keyId;
@@ -88,8 +117,18 @@ public class JpaKeyDictionaryDao extends JpaAbstractDaoListeningExecutorService
 
     @Override
     public String getKey(Integer keyId) {
-        Optional<KeyDictionaryEntry> byKeyId = keyDictionaryRepository.findByKeyId(keyId);
-        return byKeyId.map(KeyDictionaryEntry::getKey).orElse(null);
+        String key = keyIdDictionaryMap.get(keyId);
+        if (key == null) {
+            Optional<KeyDictionaryEntry> byKeyId = keyDictionaryRepository.findByKeyId(keyId);
+            byKeyId.ifPresent(this::putToCache);
+            key = byKeyId.map(KeyDictionaryEntry::getKey).orElse(null);
+        }
+        return key;
+    }
+
+    private void putToCache(KeyDictionaryEntry entry) {
+        keyDictionaryMap.put(entry.getKey(), entry.getKeyId());
+        keyIdDictionaryMap.put(entry.getKeyId(), entry.getKey());
     }
 
 }
@@ -20,7 +20,11 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.support.TransactionTemplate;
+import org.thingsboard.server.dao.model.sql.AbstractTsKvEntity;
 
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
 import java.util.regex.Pattern;
 
 @Repository
@@ -29,6 +33,13 @@ public abstract class AbstractInsertRepository {
     private static final ThreadLocal<Pattern> PATTERN_THREAD_LOCAL = ThreadLocal.withInitial(() -> Pattern.compile(String.valueOf(Character.MIN_VALUE)));
     private static final String EMPTY_STR = "";
 
+    /**
+     * PostgreSQL wire protocol limits the number of bind parameters of a single statement.
+     */
+    protected static final int MAX_STATEMENT_PARAMETERS = Short.MAX_VALUE;
+    protected static final int TS_KV_PARAMETERS = 8;
+    protected static final String TS_KV_VALUES_ROW = "(?, ?, ?, ?, ?, ?, ?, cast(? AS json))";
+
     @Value("${sql.remove_null_chars:true}")
     private boolean removeNullChars;
 
@@ -44,4 +55,46 @@ public abstract class AbstractInsertRepository {
         }
         return strValue;
     }
+
+    /**
+     * Sets entity_id, key, ts, bool_v, str_v, long_v, dbl_v and json_v starting from the given parameter index.
+     *
+     * @return the index of the next parameter
+     */
+    protected int setTsKvValues(PreparedStatement ps, int idx, AbstractTsKvEntity entity) throws SQLException {
+        ps.setObject(idx++, entity.getEntityId());
+        ps.setInt(idx++, entity.getKey());
+        ps.setLong(idx++, entity.getTs());
+        if (entity.getBooleanValue() != null) {
+            ps.setBoolean(idx++, entity.getBooleanValue());
+        } else {
+            ps.setNull(idx++, Types.BOOLEAN);
+        }
+        ps.setString(idx++, replaceNullChars(entity.getStrValue()));
+        if (entity.getLongValue() != null) {
+            ps.setLong(idx++, entity.getLongValue());
+        } else {
+            ps.setNull(idx++, Types.BIGINT);
+        }
+        if (entity.getDoubleValue() != null) {
+            ps.setDouble(idx++, entity.getDoubleValue());
+        } else {
+            ps.setNull(idx++, Types.DOUBLE);
+        }
+        ps.setString(idx++, replaceNullChars(entity.getJsonValue()));
+        return idx;
+    }
+
+    protected static String buildMultiRowQuery(String insertPrefix, String valuesRow, int rows, String suffix) {
+        StringBuilder sb = new StringBuilder(insertPrefix.length() + (valuesRow.length() + 2) * rows + suffix.length());
+        sb.append(insertPrefix);
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(valuesRow);
+        }
+        return sb.append(suffix).toString();
+    }
+
 }
@@ -15,8 +15,11 @@
  */
 package org.thingsboard.server.dao.sqlts.insert.latest.sql;
 
+import com.google.common.collect.Lists;
 import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 import org.thingsboard.server.dao.AbstractVersionedInsertRepository;
@@ -28,7 +31,17 @@ import org.thingsboard.server.dao.util.SqlTsLatestAnyDao;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.thingsboard.server.dao.model.ModelConstants.ENTITY_ID_COLUMN;
+import static org.thingsboard.server.dao.model.ModelConstants.KEY_COLUMN;
+import static org.thingsboard.server.dao.model.ModelConstants.VERSION_COLUMN;
 
 @SqlTsLatestAnyDao
 @Repository
@@ -39,6 +52,12 @@ public class SqlLatestInsertTsRepository extends AbstractVersionedInsertReposito
     @Value("${sql.ts_latest.update_by_latest_ts:true}")
     private Boolean updateByLatestTs;
 
+    @Value("${sql.ts_latest.multi_row_insert.enabled:false}")
+    private boolean multiRowInsertEnabled;
+
+    @Value("${sql.ts_latest.multi_row_insert.max_rows_per_statement:1000}")
+    private int maxRowsPerStatement;
+
     private static final String BATCH_UPDATE =
             "UPDATE ts_kv_latest SET ts = ?, bool_v = ?, str_v = ?, long_v = ?, dbl_v = ?, json_v = cast(? AS json), version = nextval('ts_kv_latest_version_seq') WHERE entity_id = ? AND key = ?";
 
@@ -52,13 +71,71 @@ public class SqlLatestInsertTsRepository extends AbstractVersionedInsertReposito
 
     private static final String RETURNING = " RETURNING version";
 
+    private static final String MULTI_ROW_INSERT =
+            "INSERT INTO ts_kv_latest (entity_id, key, ts, bool_v, str_v, long_v, dbl_v, json_v, version) VALUES ";
+
+    private static final String MULTI_ROW_VALUES_ROW = "(?, ?, ?, ?, ?, ?, ?, cast(? AS json), nextval('ts_kv_latest_version_seq'))";
+
+    private static final String MULTI_ROW_ON_CONFLICT_DO_UPDATE =
+            " ON CONFLICT (entity_id, key) DO UPDATE SET ts = EXCLUDED.ts, bool_v = EXCLUDED.bool_v, str_v = EXCLUDED.str_v, long_v = EXCLUDED.long_v, " +
+                    "dbl_v = EXCLUDED.dbl_v, json_v = EXCLUDED.json_v, version = nextval('ts_kv_latest_version_seq')";
+
+    private static final String MULTI_ROW_ON_CONFLICT_DO_UPDATE_BY_LATEST_TS = MULTI_ROW_ON_CONFLICT_DO_UPDATE + " WHERE ts_kv_latest.ts <= EXCLUDED.ts";
+
+    private static final String MULTI_ROW_RETURNING = " RETURNING entity_id, key, version";
+
     private String batchUpdateQuery;
     private String insertOrUpdateQuery;
+    private String multiRowSuffix;
+    private String fullMultiRowQuery;
 
     @PostConstruct
     private void init() {
         this.batchUpdateQuery = (updateByLatestTs ? BATCH_UPDATE_BY_LATEST_TS : BATCH_UPDATE) + RETURNING;
         this.insertOrUpdateQuery = (updateByLatestTs ? INSERT_OR_UPDATE_BY_LATEST_TS : INSERT_OR_UPDATE) + RETURNING;
+        this.maxRowsPerStatement = Math.max(1, Math.min(maxRowsPerStatement, MAX_STATEMENT_PARAMETERS / TS_KV_PARAMETERS));
+        this.multiRowSuffix = (updateByLatestTs ? MULTI_ROW_ON_CONFLICT_DO_UPDATE_BY_LATEST_TS : MULTI_ROW_ON_CONFLICT_DO_UPDATE) + MULTI_ROW_RETURNING;
+        this.fullMultiRowQuery = buildMultiRowQuery(MULTI_ROW_INSERT, MULTI_ROW_VALUES_ROW, maxRowsPerStatement, multiRowSuffix);
+    }
+
+    @Override
+    public List<Long> saveOrUpdate(List<TsKvLatestEntity> entities) {
+        if (multiRowInsertEnabled) {
+            return multiRowSaveOrUpdate(entities);
+        }
+        return super.saveOrUpdate(entities);
+    }
+
+    private List<Long> multiRowSaveOrUpdate(List<TsKvLatestEntity> entities) {
+        // a single INSERT ... ON CONFLICT DO UPDATE statement can't affect the same row twice, so only the winning update per key is sent
+        Map<LatestKey, Integer> winnerIndexes = new LinkedHashMap<>();
+        for (int i = 0; i < entities.size(); i++) {
+            TsKvLatestEntity entity = entities.get(i);
+            winnerIndexes.merge(new LatestKey(entity.getEntityId(), entity.getKey()), i, (current, candidate) ->
+                    updateByLatestTs && entities.get(candidate).getTs() < entities.get(current).getTs() ? current : candidate);
+        }
+        List<Integer> indexes = new ArrayList<>(winnerIndexes.values());
+        Map<LatestKey, Long> versions = new HashMap<>(indexes.size());
+        transactionTemplate.executeWithoutResult(status -> {
+            for (List<Integer> chunk : Lists.partition(indexes, maxRowsPerStatement)) {
+                String query = chunk.size() == maxRowsPerStatement ? fullMultiRowQuery :
+                        buildMultiRowQuery(MULTI_ROW_INSERT, MULTI_ROW_VALUES_ROW, chunk.size(), multiRowSuffix);
+                jdbcTemplate.query(query, (PreparedStatementSetter) ps -> {
+                    int idx = 1;
+                    for (int i : chunk) {
+                        idx = setTsKvValues(ps, idx, entities.get(i));
+                    }
+                }, (RowCallbackHandler) rs -> versions.put(
+                        new LatestKey(rs.getObject(ENTITY_ID_COLUMN, UUID.class), rs.getInt(KEY_COLUMN)), rs.getLong(VERSION_COLUMN)));
+            }
+        });
+        // entries that were not applied because of an older ts or a newer duplicate in the same batch get no version
+        List<Long> seqNumbers = new ArrayList<>(Collections.nCopies(entities.size(), null));
+        for (int i : indexes) {
+            TsKvLatestEntity entity = entities.get(i);
+            seqNumbers.set(i, versions.get(new LatestKey(entity.getEntityId(), entity.getKey())));
+        }
+        return seqNumbers;
     }
 
     @Override
@@ -147,4 +224,7 @@ public class SqlLatestInsertTsRepository extends AbstractVersionedInsertReposito
     protected String getInsertOrUpdateQuery() {
         return insertOrUpdateQuery;
     }
+
+    private record LatestKey(UUID entityId, int key) {}
+
 }
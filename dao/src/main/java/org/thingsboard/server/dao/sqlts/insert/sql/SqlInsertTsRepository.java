@@ -15,18 +15,27 @@
  */
 package org.thingsboard.server.dao.sqlts.insert.sql;
 
+import com.google.common.collect.Lists;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 import org.thingsboard.server.dao.model.sqlts.ts.TsKvEntity;
 import org.thingsboard.server.dao.sqlts.insert.AbstractInsertRepository;
 import org.thingsboard.server.dao.sqlts.insert.InsertTsRepository;
+import org.thingsboard.server.dao.sqlts.rollup.SqlTsRollupService;
 import org.thingsboard.server.dao.util.SqlTsDao;
 
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Types;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 @SqlTsDao
 @Repository
@@ -36,8 +45,66 @@ public class SqlInsertTsRepository extends AbstractInsertRepository implements I
     private static final String INSERT_ON_CONFLICT_DO_UPDATE = "INSERT INTO ts_kv (entity_id, key, ts, bool_v, str_v, long_v, dbl_v, json_v) VALUES (?, ?, ?, ?, ?, ?, ?, cast(? AS json)) " +
             "ON CONFLICT (entity_id, key, ts) DO UPDATE SET bool_v = ?, str_v = ?, long_v = ?, dbl_v = ?, json_v = cast(? AS json);";
 
+    private static final String MULTI_ROW_INSERT = "INSERT INTO ts_kv (entity_id, key, ts, bool_v, str_v, long_v, dbl_v, json_v) VALUES ";
+
+    private static final String MULTI_ROW_ON_CONFLICT_DO_UPDATE = " ON CONFLICT (entity_id, key, ts) DO UPDATE SET bool_v = EXCLUDED.bool_v, str_v = EXCLUDED.str_v, " +
+            "long_v = EXCLUDED.long_v, dbl_v = EXCLUDED.dbl_v, json_v = EXCLUDED.json_v;";
+
+    @Value("${sql.ts.multi_row_insert.enabled:false}")
+    private boolean multiRowInsertEnabled;
+
+    @Value("${sql.ts.multi_row_insert.max_rows_per_statement:1000}")
+    private int maxRowsPerStatement;
+
+    @Autowired(required = false)
+    private SqlTsRollupService rollupService;
+
+    private String fullMultiRowQuery;
+
+    @PostConstruct
+    private void init() {
+        maxRowsPerStatement = Math.max(1, Math.min(maxRowsPerStatement, MAX_STATEMENT_PARAMETERS / TS_KV_PARAMETERS));
+        fullMultiRowQuery = buildMultiRowQuery(MULTI_ROW_INSERT, TS_KV_VALUES_ROW, maxRowsPerStatement, MULTI_ROW_ON_CONFLICT_DO_UPDATE);
+    }
+
     @Override
     public void saveOrUpdate(List<TsKvEntity> entities) {
+        if (multiRowInsertEnabled) {
+            multiRowSaveOrUpdate(entities);
+        } else {
+            batchSaveOrUpdate(entities);
+        }
+        if (rollupService != null) {
+            rollupService.onSaved(entities);
+        }
+    }
+
+    private void multiRowSaveOrUpdate(List<TsKvEntity> entities) {
+        for (List<TsKvEntity> chunk : Lists.partition(removeDuplicates(entities), maxRowsPerStatement)) {
+            String query = chunk.size() == maxRowsPerStatement ? fullMultiRowQuery :
+                    buildMultiRowQuery(MULTI_ROW_INSERT, TS_KV_VALUES_ROW, chunk.size(), MULTI_ROW_ON_CONFLICT_DO_UPDATE);
+            jdbcTemplate.update(query, ps -> {
+                int idx = 1;
+                for (TsKvEntity tsKvEntity : chunk) {
+                    idx = setTsKvValues(ps, idx, tsKvEntity);
+                }
+            });
+        }
+    }
+
+    /*
+     * A single INSERT ... ON CONFLICT DO UPDATE statement can't affect the same row twice.
+     * Keeping the last value for the same entity_id, key and ts gives the same result as the batch of single-row statements.
+     */
+    private static List<TsKvEntity> removeDuplicates(List<TsKvEntity> entities) {
+        Map<TsKvKey, TsKvEntity> uniqueEntities = new LinkedHashMap<>();
+        for (TsKvEntity tsKvEntity : entities) {
+            uniqueEntities.put(new TsKvKey(tsKvEntity.getEntityId(), tsKvEntity.getKey(), tsKvEntity.getTs()), tsKvEntity);
+        }
+        return uniqueEntities.size() == entities.size() ? entities : new ArrayList<>(uniqueEntities.values());
+    }
+
+    private void batchSaveOrUpdate(List<TsKvEntity> entities) {
         jdbcTemplate.batchUpdate(INSERT_ON_CONFLICT_DO_UPDATE, new BatchPreparedStatementSetter() {
             @Override
             public void setValues(PreparedStatement ps, int i) throws SQLException {
@@ -85,4 +152,6 @@ public class SqlInsertTsRepository extends AbstractInsertRepository implements I
         });
     }
 
+    private record TsKvKey(UUID entityId, int key, long ts) {}
+
 }
@@ -0,0 +1,255 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.dao.sqlts.rollup;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.thingsboard.common.util.ThingsBoardExecutors;
+import org.thingsboard.server.common.data.kv.Aggregation;
+import org.thingsboard.server.dao.model.sqlts.ts.TsKvEntity;
+import org.thingsboard.server.dao.sqlts.ts.TsKvBucketAggregationRepository;
+import org.thingsboard.server.dao.util.SqlTsDao;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Maintains minute, hour and day aggregates of the time series and serves the aggregation queries
+ * whose intervals are aligned to one of the resolutions.
+ * <p>
+ * Saving the time series records their minutes as changed in the same transaction. The changed minutes are
+ * re-calculated from the raw time series every {@code flush_interval_ms} by any node, together with the hours and days
+ * they belong to. The intervals with the changes that are not re-calculated yet are read from the raw time series,
+ * so the results stay the same as without the rollup.
+ */
+@Slf4j
+@Component
+@SqlTsDao
+@ConditionalOnProperty(prefix = "sql.ts.rollup", value = "enabled", havingValue = "true")
+public class SqlTsRollupService {
+
+    private static final long MAX_TS = Long.MAX_VALUE / 2;
+    private static final int CHANGES_BATCH_SIZE = 1000;
+    // the cleanup may remove the expired rollup of the source resolution while the range is re-calculated
+    private static final long CLEANUP_MARGIN_MS = TsRollupResolution.DAY.getIntervalMs();
+
+    @Value("${sql.ts.rollup.flush_interval_ms:10000}")
+    private long flushIntervalMs;
+
+    @Value("${sql.ts.rollup.ttl.minute:604800}")
+    private long minuteTtlSec;
+
+    @Value("${sql.ts.rollup.ttl.hour:31536000}")
+    private long hourTtlSec;
+
+    @Value("${sql.ts.rollup.ttl.day:0}")
+    private long dayTtlSec;
+
+    @Autowired
+    private TsKvRollupRepository rollupRepository;
+
+    @Autowired
+    private TsKvBucketAggregationRepository bucketAggregationRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private volatile long startTs = Long.MAX_VALUE;
+
+    private ScheduledExecutorService flushExecutor;
+
+    @PostConstruct
+    public void init() {
+        if (flushIntervalMs <= 0) {
+            throw new RuntimeException("Incorrect sql.ts.rollup.flush_interval_ms property: " + flushIntervalMs + ". The value must be positive!");
+        }
+        long now = System.currentTimeMillis();
+        startTs = rollupRepository.initWatermark(TsRollupResolution.MINUTE.toBucketEnd(now), now - getMaxInactivityMs(), now);
+        log.info("Time series rollup covers the values since {}", startTs);
+        flushExecutor = ThingsBoardExecutors.newSingleThreadScheduledExecutor("ts-rollup-flush");
+        flushExecutor.scheduleWithFixedDelay(() -> {
+            try {
+                flush();
+            } catch (Throwable t) {
+                log.warn("Failed to update time series rollup", t);
+            }
+        }, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (flushExecutor != null) {
+            flushExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * Records the minutes of the saved time series as changed. Expected to be called in the transaction that saves them.
+     */
+    public void onSaved(List<TsKvEntity> entities) {
+        rollupRepository.saveChanges(entities);
+    }
+
+    /**
+     * Removes the time series with the given action and re-calculates the rollup of the range in the same transaction.
+     */
+    public void remove(UUID entityId, int keyId, long startTs, long endTs, Runnable removeAction) {
+        transactionTemplate.executeWithoutResult(status -> {
+            removeAction.run();
+            long rangeStartTs = Math.max(0, startTs);
+            long rangeEndTs = Math.min(MAX_TS, endTs);
+            if (rangeStartTs < rangeEndTs) {
+                long now = System.currentTimeMillis();
+                rollupRepository.refresh(entityId, keyId, rangeStartTs, rangeEndTs, resolution -> getSourceStartTs(resolution, now));
+            }
+        });
+    }
+
+    /**
+     * Returns the coarsest resolution all bounds are aligned to, if the rollup covers the time range of the query.
+     */
+    public Optional<TsRollupResolution> getResolution(long[] bounds) {
+        long now = System.currentTimeMillis();
+        if (bounds.length < 2 || bounds[0] < startTs || bounds[1] > getSafeTs(now)) {
+            return Optional.empty();
+        }
+        TsRollupResolution[] resolutions = TsRollupResolution.values();
+        for (int i = resolutions.length - 1; i >= 0; i--) {
+            TsRollupResolution resolution = resolutions[i];
+            if (isAligned(bounds, resolution) && !isExpired(bounds[0], resolution, now)) {
+                return Optional.of(resolution);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Reads the intervals ended before the recent changes could have been re-calculated from the rollup and the rest of them
+     * from the raw time series. All intervals are read from the raw time series if the rollup of the former ones has pending changes.
+     */
+    public List<Optional<TsKvEntity>> findAggregated(UUID entityId, int keyId, String key, long[] bounds, Aggregation aggregation, TsRollupResolution resolution) {
+        long safeTs = getSafeTs(System.currentTimeMillis());
+        int intervals = bounds.length - 1;
+        int rollupIntervals = 0;
+        while (rollupIntervals < intervals && bounds[rollupIntervals + 1] <= safeTs) {
+            rollupIntervals++;
+        }
+        if (rollupIntervals == 0 || rollupRepository.hasChanges(entityId, keyId, bounds[0], bounds[rollupIntervals])) {
+            return bucketAggregationRepository.findAggregated(entityId, keyId, key, bounds, aggregation);
+        }
+        List<Optional<TsKvEntity>> result = new ArrayList<>(intervals);
+        result.addAll(bucketAggregationRepository.findRollupAggregated(entityId, keyId, key, resolution.getIntervalMs(),
+                Arrays.copyOfRange(bounds, 0, rollupIntervals + 1), aggregation));
+        if (rollupIntervals < intervals) {
+            result.addAll(bucketAggregationRepository.findAggregated(entityId, keyId, key,
+                    Arrays.copyOfRange(bounds, rollupIntervals, bounds.length), aggregation));
+        }
+        return result;
+    }
+
+    public void cleanup() {
+        long now = System.currentTimeMillis();
+        for (TsRollupResolution resolution : TsRollupResolution.values()) {
+            long ttlMs = getTtlMs(resolution);
+            if (ttlMs > 0) {
+                int removed = rollupRepository.removeExpired(resolution, now - ttlMs);
+                log.info("Removed {} expired time series rollup records of {} resolution", removed, resolution);
+            }
+        }
+    }
+
+    void flush() {
+        long now = System.currentTimeMillis();
+        Integer refreshed;
+        do {
+            // the claimed changes are restored if the re-calculation fails
+            refreshed = transactionTemplate.execute(status -> refreshChanges(now));
+        } while (refreshed != null && refreshed == CHANGES_BATCH_SIZE);
+        Long watermark = rollupRepository.touchWatermark(now);
+        startTs = watermark != null ? watermark : rollupRepository.initWatermark(TsRollupResolution.MINUTE.toBucketEnd(now), now - getMaxInactivityMs(), now);
+    }
+
+    private int refreshChanges(long now) {
+        List<TsRollupChange> changes = rollupRepository.claimChanges(CHANGES_BATCH_SIZE);
+        long minuteMs = TsRollupResolution.MINUTE.getIntervalMs();
+        int i = 0;
+        while (i < changes.size()) {
+            TsRollupChange first = changes.get(i);
+            long rangeEndTs = first.getTs() + minuteMs;
+            while (++i < changes.size() && isSameKey(first, changes.get(i)) && changes.get(i).getTs() == rangeEndTs) {
+                rangeEndTs += minuteMs;
+            }
+            rollupRepository.refresh(first.getEntityId(), first.getKey(), first.getTs(), rangeEndTs, resolution -> getSourceStartTs(resolution, now));
+        }
+        return changes.size();
+    }
+
+    /**
+     * Returns the start of the range where the rollup of the resolution is complete, so the coarser resolution may be calculated from it.
+     */
+    private long getSourceStartTs(TsRollupResolution resolution, long now) {
+        long ttlMs = getTtlMs(resolution);
+        return ttlMs > 0 ? Math.max(startTs, now - ttlMs + CLEANUP_MARGIN_MS) : startTs;
+    }
+
+    private long getSafeTs(long now) {
+        // the values saved by the other nodes are re-calculated within their flush interval as well
+        return now - 2 * flushIntervalMs;
+    }
+
+    private long getMaxInactivityMs() {
+        return 10 * flushIntervalMs;
+    }
+
+    private boolean isExpired(long ts, TsRollupResolution resolution, long now) {
+        long ttlMs = getTtlMs(resolution);
+        return ttlMs > 0 && ts < now - ttlMs;
+    }
+
+    private long getTtlMs(TsRollupResolution resolution) {
+        long ttlSec = switch (resolution) {
+            case MINUTE -> minuteTtlSec;
+            case HOUR -> hourTtlSec;
+            case DAY -> dayTtlSec;
+        };
+        return TimeUnit.SECONDS.toMillis(ttlSec);
+    }
+
+    private static boolean isSameKey(TsRollupChange change, TsRollupChange other) {
+        return change.getEntityId().equals(other.getEntityId()) && change.getKey() == other.getKey();
+    }
+
+    private static boolean isAligned(long[] bounds, TsRollupResolution resolution) {
+        for (long bound : bounds) {
+            if (bound % resolution.getIntervalMs() != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,187 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.dao.sqlts.rollup;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.thingsboard.server.dao.model.sqlts.ts.TsKvEntity;
+import org.thingsboard.server.dao.util.SqlTsDao;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.function.ToLongFunction;
+
+/**
+ * Maintains the {@code ts_kv_rollup} table. The aggregates are always re-calculated from the source data
+ * (raw time series, or the previous resolution while it is complete for the range) instead of being incremented,
+ * so overwritten and removed values are reflected and the re-calculation of the same range may be repeated safely.
+ * <p>
+ * The changed minutes are recorded in {@code ts_kv_rollup_changes} in the transaction that saves the time series,
+ * so they survive restarts and may be re-calculated by any node.
+ */
+@Repository
+@SqlTsDao
+public class TsKvRollupRepository {
+
+    private static final String INSERT_INTO = "INSERT INTO ts_kv_rollup (entity_id, key, resolution, ts, long_sum, dbl_sum, long_min, long_max, " +
+            "dbl_min, dbl_max, str_min, str_max, str_max_ts, long_cnt, dbl_cnt, bool_cnt, str_cnt, json_cnt, max_ts) ";
+
+    private static final String ON_CONFLICT = " ON CONFLICT (entity_id, key, resolution, ts) DO UPDATE SET long_sum = EXCLUDED.long_sum, " +
+            "dbl_sum = EXCLUDED.dbl_sum, long_min = EXCLUDED.long_min, long_max = EXCLUDED.long_max, dbl_min = EXCLUDED.dbl_min, " +
+            "dbl_max = EXCLUDED.dbl_max, str_min = EXCLUDED.str_min, str_max = EXCLUDED.str_max, str_max_ts = EXCLUDED.str_max_ts, " +
+            "long_cnt = EXCLUDED.long_cnt, dbl_cnt = EXCLUDED.dbl_cnt, bool_cnt = EXCLUDED.bool_cnt, str_cnt = EXCLUDED.str_cnt, " +
+            "json_cnt = EXCLUDED.json_cnt, max_ts = EXCLUDED.max_ts";
+
+    // the same aggregates as the ones of TsKvBucketAggregationRepository, so the values read from the rollup match the raw ones
+    private static final String ROLLUP_FROM_RAW = INSERT_INTO +
+            "SELECT tskv.entity_id, tskv.key, ?, tskv.ts - tskv.ts % ? AS bucket_ts, " +
+            "SUM(COALESCE(tskv.long_v, 0)), SUM(COALESCE(tskv.dbl_v, 0.0)), " +
+            "MIN(COALESCE(tskv.long_v, 9223372036854775807)), MAX(COALESCE(tskv.long_v, -9223372036854775807)), " +
+            "MIN(COALESCE(tskv.dbl_v, 1.79769E+308)), MAX(COALESCE(tskv.dbl_v, -1.79769E+308)), " +
+            "MIN(tskv.str_v), MAX(tskv.str_v), MAX(CASE WHEN tskv.str_v IS NOT NULL THEN tskv.ts END), " +
+            "SUM(CASE WHEN tskv.long_v IS NULL THEN 0 ELSE 1 END), SUM(CASE WHEN tskv.dbl_v IS NULL THEN 0 ELSE 1 END), " +
+            "SUM(CASE WHEN tskv.bool_v IS NULL THEN 0 ELSE 1 END), SUM(CASE WHEN tskv.str_v IS NULL THEN 0 ELSE 1 END), " +
+            "SUM(CASE WHEN tskv.json_v IS NULL THEN 0 ELSE 1 END), MAX(tskv.ts) " +
+            "FROM ts_kv tskv WHERE tskv.entity_id = ? AND tskv.key = ? AND tskv.ts >= ? AND tskv.ts < ? " +
+            "GROUP BY tskv.entity_id, tskv.key, bucket_ts" + ON_CONFLICT;
+
+    private static final String ROLLUP_FROM_ROLLUP = INSERT_INTO +
+            "SELECT r.entity_id, r.key, ?, r.ts - r.ts % ? AS bucket_ts, " +
+            "SUM(r.long_sum), SUM(r.dbl_sum), MIN(r.long_min), MAX(r.long_max), MIN(r.dbl_min), MAX(r.dbl_max), " +
+            "MIN(r.str_min), MAX(r.str_max), MAX(r.str_max_ts), " +
+            "SUM(r.long_cnt), SUM(r.dbl_cnt), SUM(r.bool_cnt), SUM(r.str_cnt), SUM(r.json_cnt), MAX(r.max_ts) " +
+            "FROM ts_kv_rollup r WHERE r.entity_id = ? AND r.key = ? AND r.resolution = ? AND r.ts >= ? AND r.ts < ? " +
+            "GROUP BY r.entity_id, r.key, bucket_ts" + ON_CONFLICT;
+
+    private static final String DELETE_RANGE = "DELETE FROM ts_kv_rollup WHERE entity_id = ? AND key = ? AND resolution = ? AND ts >= ? AND ts < ?";
+
+    private static final String DELETE_EXPIRED = "DELETE FROM ts_kv_rollup WHERE resolution = ? AND ts < ?";
+
+    private static final String INSERT_CHANGE = "INSERT INTO ts_kv_rollup_changes (entity_id, key, ts) VALUES (?, ?, ?) ON CONFLICT DO NOTHING";
+
+    // the locked changes are skipped, so the nodes re-calculate different changes concurrently
+    private static final String CLAIM_CHANGES = "DELETE FROM ts_kv_rollup_changes WHERE (entity_id, key, ts) IN " +
+            "(SELECT entity_id, key, ts FROM ts_kv_rollup_changes ORDER BY entity_id, key, ts LIMIT ? FOR UPDATE SKIP LOCKED) " +
+            "RETURNING entity_id, key, ts";
+
+    private static final String EXISTS_CHANGES = "SELECT EXISTS (SELECT 1 FROM ts_kv_rollup_changes WHERE entity_id = ? AND key = ? AND ts >= ? AND ts < ?)";
+
+    private static final Comparator<TsRollupChange> CHANGE_ORDER = Comparator.comparing(TsRollupChange::getEntityId)
+            .thenComparingInt(TsRollupChange::getKey)
+            .thenComparingLong(TsRollupChange::getTs);
+
+    private static final String SELECT_WATERMARK = "SELECT start_ts, active_ts FROM ts_kv_rollup_watermark WHERE id = 1";
+
+    private static final String RESET_WATERMARK = "INSERT INTO ts_kv_rollup_watermark (id, start_ts, active_ts) VALUES (1, ?, ?) " +
+            "ON CONFLICT (id) DO UPDATE SET start_ts = EXCLUDED.start_ts, active_ts = EXCLUDED.active_ts";
+
+    private static final String TOUCH_WATERMARK = "UPDATE ts_kv_rollup_watermark SET active_ts = GREATEST(active_ts, ?) WHERE id = 1 RETURNING start_ts";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * Re-calculates all resolutions of the key for the range. The range is extended to the buckets of each resolution.
+     * A resolution is calculated from the previous one if its buckets start after {@code sourceStartTs} of the previous one,
+     * otherwise from the raw time series.
+     */
+    public void refresh(UUID entityId, int keyId, long startTs, long endTs, ToLongFunction<TsRollupResolution> sourceStartTs) {
+        transactionTemplate.executeWithoutResult(status -> {
+            TsRollupResolution source = null;
+            for (TsRollupResolution resolution : TsRollupResolution.values()) {
+                long bucketStartTs = resolution.toBucketStart(startTs);
+                long bucketEndTs = resolution.toBucketEnd(endTs);
+                long intervalMs = resolution.getIntervalMs();
+                jdbcTemplate.update(DELETE_RANGE, entityId, keyId, intervalMs, bucketStartTs, bucketEndTs);
+                if (source != null && bucketStartTs >= sourceStartTs.applyAsLong(source)) {
+                    jdbcTemplate.update(ROLLUP_FROM_ROLLUP, intervalMs, intervalMs, entityId, keyId, source.getIntervalMs(), bucketStartTs, bucketEndTs);
+                } else {
+                    jdbcTemplate.update(ROLLUP_FROM_RAW, intervalMs, intervalMs, entityId, keyId, bucketStartTs, bucketEndTs);
+                }
+                source = resolution;
+            }
+        });
+    }
+
+    /**
+     * Records the minutes of the saved time series as changed. Expected to be called in the transaction that saves them.
+     */
+    public void saveChanges(List<TsKvEntity> entities) {
+        // the sorted changes are locked in the same order by the concurrent transactions
+        TreeSet<TsRollupChange> changes = new TreeSet<>(CHANGE_ORDER);
+        for (TsKvEntity entity : entities) {
+            if (entity.getTs() >= 0) {
+                changes.add(new TsRollupChange(entity.getEntityId(), entity.getKey(), TsRollupResolution.MINUTE.toBucketStart(entity.getTs())));
+            }
+        }
+        if (!changes.isEmpty()) {
+            List<Object[]> args = new ArrayList<>(changes.size());
+            for (TsRollupChange change : changes) {
+                args.add(new Object[]{change.getEntityId(), change.getKey(), change.getTs()});
+            }
+            jdbcTemplate.batchUpdate(INSERT_CHANGE, args);
+        }
+    }
+
+    /**
+     * Removes and returns up to {@code limit} changes ordered by the key and the minute.
+     * The changes are restored if the transaction is rolled back.
+     */
+    public List<TsRollupChange> claimChanges(int limit) {
+        List<TsRollupChange> changes = jdbcTemplate.query(CLAIM_CHANGES, (rs, rowNum) ->
+                new TsRollupChange(rs.getObject("entity_id", UUID.class), rs.getInt("key"), rs.getLong("ts")), limit);
+        changes.sort(CHANGE_ORDER);
+        return changes;
+    }
+
+    public boolean hasChanges(UUID entityId, int keyId, long startTs, long endTs) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(EXISTS_CHANGES, Boolean.class, entityId, keyId, startTs, endTs));
+    }
+
+    public int removeExpired(TsRollupResolution resolution, long expirationTs) {
+        return jdbcTemplate.update(DELETE_EXPIRED, resolution.getIntervalMs(), expirationTs);
+    }
+
+    /**
+     * Returns the start of the time range covered by the rollup. The coverage is restarted from {@code newStartTs}
+     * when no node has maintained the rollup since {@code minActiveTs}, since the values saved in between are missing.
+     */
+    public long initWatermark(long newStartTs, long minActiveTs, long now) {
+        List<long[]> watermark = jdbcTemplate.query(SELECT_WATERMARK, (rs, rowNum) -> new long[]{rs.getLong("start_ts"), rs.getLong("active_ts")});
+        if (!watermark.isEmpty() && watermark.get(0)[1] >= minActiveTs) {
+            return watermark.get(0)[0];
+        }
+        jdbcTemplate.update(RESET_WATERMARK, newStartTs, now);
+        return newStartTs;
+    }
+
+    /**
+     * Marks the rollup as maintained at {@code now} and returns the start of the covered time range, if any.
+     */
+    public Long touchWatermark(long now) {
+        List<Long> startTs = jdbcTemplate.query(TOUCH_WATERMARK, (rs, rowNum) -> rs.getLong("start_ts"), now);
+        return startTs.isEmpty() ? null : startTs.get(0);
+    }
+
+}
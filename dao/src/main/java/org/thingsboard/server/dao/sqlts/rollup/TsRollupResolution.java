@@ -0,0 +1,47 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.dao.sqlts.rollup;
+
+import lombok.Getter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolutions of the pre-aggregated time series, from the finest to the coarsest.
+ * Each resolution is calculated from the previous one, the finest one is calculated from the raw time series.
+ */
+public enum TsRollupResolution {
+
+    MINUTE(TimeUnit.MINUTES.toMillis(1)),
+    HOUR(TimeUnit.HOURS.toMillis(1)),
+    DAY(TimeUnit.DAYS.toMillis(1));
+
+    @Getter
+    private final long intervalMs;
+
+    TsRollupResolution(long intervalMs) {
+        this.intervalMs = intervalMs;
+    }
+
+    public long toBucketStart(long ts) {
+        return Math.floorDiv(ts, intervalMs) * intervalMs;
+    }
+
+    public long toBucketEnd(long ts) {
+        return -Math.floorDiv(-ts, intervalMs) * intervalMs;
+    }
+
+}
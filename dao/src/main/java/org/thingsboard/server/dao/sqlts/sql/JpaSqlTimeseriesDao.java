@@ -44,6 +44,8 @@ import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
@@ -85,19 +87,37 @@ public class JpaSqlTimeseriesDao extends AbstractChunkedAggregationTimeseriesDao
     public ListenableFuture<Integer> save(TenantId tenantId, EntityId entityId, TsKvEntry tsKvEntry, long ttl) {
         int dataPointDays = getDataPointDays(tsKvEntry, computeTtl(ttl));
         savePartitionIfNotExist(tsKvEntry.getTs());
-        String strKey = tsKvEntry.getKey();
-        Integer keyId = keyDictionaryDao.getOrSaveKeyId(strKey);
+        TsKvEntity entity = toEntity(entityId, tsKvEntry);
+        log.trace("Saving entity: {}", entity);
+        return Futures.transform(tsQueue.add(entity), v -> dataPointDays, MoreExecutors.directExecutor());
+    }
+
+    @Override
+    public ListenableFuture<Integer> saveAll(TenantId tenantId, EntityId entityId, List<TsKvEntry> tsKvEntries, long ttl) {
+        long computedTtl = computeTtl(ttl);
+        int dataPointDays = 0;
+        List<TsKvEntity> entities = new ArrayList<>(tsKvEntries.size());
+        for (TsKvEntry tsKvEntry : tsKvEntries) {
+            dataPointDays += getDataPointDays(tsKvEntry, computedTtl);
+            savePartitionIfNotExist(tsKvEntry.getTs());
+            entities.add(toEntity(entityId, tsKvEntry));
+        }
+        int totalDataPointDays = dataPointDays;
+        log.trace("Saving entities: {}", entities);
+        return Futures.transform(tsQueue.addAll(entities), v -> totalDataPointDays, MoreExecutors.directExecutor());
+    }
+
+    private TsKvEntity toEntity(EntityId entityId, TsKvEntry tsKvEntry) {
         TsKvEntity entity = new TsKvEntity();
         entity.setEntityId(entityId.getId());
         entity.setTs(tsKvEntry.getTs());
-        entity.setKey(keyId);
+        entity.setKey(keyDictionaryDao.getOrSaveKeyId(tsKvEntry.getKey()));
         entity.setStrValue(tsKvEntry.getStrValue().orElse(null));
         entity.setDoubleValue(tsKvEntry.getDoubleValue().orElse(null));
         entity.setLongValue(tsKvEntry.getLongValue().orElse(null));
         entity.setBooleanValue(tsKvEntry.getBooleanValue().orElse(null));
         entity.setJsonValue(tsKvEntry.getJsonValue().orElse(null));
-        log.trace("Saving entity: {}", entity);
-        return Futures.transform(tsQueue.add(entity), v -> dataPointDays, MoreExecutors.directExecutor());
+        return entity;
     }
 
     @Override
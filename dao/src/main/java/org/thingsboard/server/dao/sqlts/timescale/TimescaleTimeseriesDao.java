@@ -43,6 +43,7 @@ import org.thingsboard.server.dao.sql.TbSqlBlockingQueueParams;
 import org.thingsboard.server.dao.sql.TbSqlBlockingQueueWrapper;
 import org.thingsboard.server.dao.sqlts.AbstractSqlTimeseriesDao;
 import org.thingsboard.server.dao.sqlts.insert.InsertTsRepository;
+import org.thingsboard.server.dao.sqlts.ts.TsKvBucketAggregationRepository;
 import org.thingsboard.server.dao.timeseries.TimeseriesDao;
 import org.thingsboard.server.dao.util.TimeUtils;
 import org.thingsboard.server.dao.util.TimescaleDBTsDao;
@@ -66,6 +67,9 @@ public class TimescaleTimeseriesDao extends AbstractSqlTimeseriesDao implements
     @Autowired
     private AggregationRepository aggregationRepository;
 
+    @Autowired
+    private TsKvBucketAggregationRepository bucketAggregationRepository;
+
     @Autowired
     private StatsFactory statsFactory;
 
@@ -85,6 +89,11 @@ public class TimescaleTimeseriesDao extends AbstractSqlTimeseriesDao implements
                 .maxDelay(tsMaxDelay)
                 .statsPrintIntervalMs(tsStatsPrintIntervalMs)
                 .statsNamePrefix("ts.timescale")
+                .maxQueueSize(tsMaxQueueSize)
+                .backpressureTimeoutMs(tsBackpressureTimeoutMs)
+                .adaptiveBatchEnabled(tsAdaptiveBatchEnabled)
+                .minBatchSize(tsMinBatchSize)
+                .targetBatchLatencyMs(tsTargetBatchLatencyMs)
                 .batchSortEnabled(batchSortEnabled)
                 .build();
 
@@ -113,19 +122,36 @@ public class TimescaleTimeseriesDao extends AbstractSqlTimeseriesDao implements
     @Override
     public ListenableFuture<Integer> save(TenantId tenantId, EntityId entityId, TsKvEntry tsKvEntry, long ttl) {
         int dataPointDays = getDataPointDays(tsKvEntry, computeTtl(ttl));
-        String strKey = tsKvEntry.getKey();
-        Integer keyId = keyDictionaryDao.getOrSaveKeyId(strKey);
+        TimescaleTsKvEntity entity = toEntity(entityId, tsKvEntry);
+        log.trace("Saving entity to timescale db: {}", entity);
+        return Futures.transform(tsQueue.add(entity), v -> dataPointDays, MoreExecutors.directExecutor());
+    }
+
+    @Override
+    public ListenableFuture<Integer> saveAll(TenantId tenantId, EntityId entityId, List<TsKvEntry> tsKvEntries, long ttl) {
+        long computedTtl = computeTtl(ttl);
+        int dataPointDays = 0;
+        List<TimescaleTsKvEntity> entities = new ArrayList<>(tsKvEntries.size());
+        for (TsKvEntry tsKvEntry : tsKvEntries) {
+            dataPointDays += getDataPointDays(tsKvEntry, computedTtl);
+            entities.add(toEntity(entityId, tsKvEntry));
+        }
+        int totalDataPointDays = dataPointDays;
+        log.trace("Saving entities to timescale db: {}", entities);
+        return Futures.transform(tsQueue.addAll(entities), v -> totalDataPointDays, MoreExecutors.directExecutor());
+    }
+
+    private TimescaleTsKvEntity toEntity(EntityId entityId, TsKvEntry tsKvEntry) {
         TimescaleTsKvEntity entity = new TimescaleTsKvEntity();
         entity.setEntityId(entityId.getId());
         entity.setTs(tsKvEntry.getTs());
-        entity.setKey(keyId);
+        entity.setKey(keyDictionaryDao.getOrSaveKeyId(tsKvEntry.getKey()));
         entity.setStrValue(tsKvEntry.getStrValue().orElse(null));
         entity.setDoubleValue(tsKvEntry.getDoubleValue().orElse(null));
         entity.setLongValue(tsKvEntry.getLongValue().orElse(null));
         entity.setBooleanValue(tsKvEntry.getBooleanValue().orElse(null));
         entity.setJsonValue(tsKvEntry.getJsonValue().orElse(null));
-        log.trace("Saving entity to timescale db: {}", entity);
-        return Futures.transform(tsQueue.add(entity), v -> dataPointDays, MoreExecutors.directExecutor());
+        return entity;
     }
 
     @Override
@@ -159,6 +185,12 @@ public class TimescaleTimeseriesDao extends AbstractSqlTimeseriesDao implements
             long timeBucket = query.getInterval();
             List<Optional<? extends AbstractTsKvEntity>> data = findAllAndAggregateAsync(entityId, query.getKey(), startTs, endTs, timeBucket, query.getAggregation());
             return getReadTsKvQueryResultFuture(query, Futures.immediateFuture(data));
+        } else if (singleQueryAggregation) {
+            // time_bucket does not support the calendar intervals in the time zone of the query, so the bounds are calculated in advance
+            long[] bounds = calculateIntervalBounds(query);
+            List<Optional<? extends AbstractTsKvEntity>> data = new ArrayList<>(bucketAggregationRepository.findAggregated(entityId.getId(),
+                    keyDictionaryDao.getOrSaveKeyId(query.getKey()), query.getKey(), bounds, query.getAggregation()));
+            return getReadTsKvQueryResultFuture(query, Futures.immediateFuture(data));
         } else {
             //TODO: @dshvaika improve according to native capabilities of Timescale.
             long startPeriod = query.getStartTs();
@@ -0,0 +1,200 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.dao.sqlts.ts;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.thingsboard.server.common.data.kv.Aggregation;
+import org.thingsboard.server.dao.model.sqlts.ts.TsKvEntity;
+import org.thingsboard.server.dao.util.SqlTsOrTsLatestAnyDao;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Aggregates the time series of the key in all intervals of the query with a single GROUP BY statement.
+ * The interval boundaries are calculated by the caller, so both fixed and calendar intervals are supported.
+ * The same aggregates may be read from the raw time series or from the pre-aggregated {@code ts_kv_rollup} table.
+ */
+@Repository
+@SqlTsOrTsLatestAnyDao
+public class TsKvBucketAggregationRepository {
+
+    private static final String SELECT_BUCKET = "SELECT width_bucket(tskv.ts, CAST(? AS bigint[])) - 1 AS bucket, ";
+
+    private static final String FROM_WHERE_GROUP_BY = "FROM ts_kv tskv WHERE tskv.entity_id = ? AND tskv.key = ? " +
+            "AND tskv.ts >= ? AND tskv.ts < ? GROUP BY bucket";
+
+    private static final String NUMERIC_COUNTS = "SUM(CASE WHEN tskv.long_v IS NULL THEN 0 ELSE 1 END) AS long_count, " +
+            "SUM(CASE WHEN tskv.dbl_v IS NULL THEN 0 ELSE 1 END) AS dbl_count, MAX(tskv.ts) AS max_ts ";
+
+    private static final String SUM_QUERY = SELECT_BUCKET +
+            "SUM(COALESCE(tskv.long_v, 0)) AS long_value, SUM(COALESCE(tskv.dbl_v, 0.0)) AS dbl_value, " +
+            NUMERIC_COUNTS + FROM_WHERE_GROUP_BY;
+
+    private static final String MAX_QUERY = SELECT_BUCKET +
+            "MAX(COALESCE(tskv.long_v, -9223372036854775807)) AS long_value, MAX(COALESCE(tskv.dbl_v, -1.79769E+308)) AS dbl_value, " +
+            "MAX(tskv.str_v) AS str_value, MAX(CASE WHEN tskv.str_v IS NOT NULL THEN tskv.ts END) AS str_max_ts, " +
+            NUMERIC_COUNTS + FROM_WHERE_GROUP_BY;
+
+    private static final String MIN_QUERY = SELECT_BUCKET +
+            "MIN(COALESCE(tskv.long_v, 9223372036854775807)) AS long_value, MIN(COALESCE(tskv.dbl_v, 1.79769E+308)) AS dbl_value, " +
+            "MIN(tskv.str_v) AS str_value, MAX(CASE WHEN tskv.str_v IS NOT NULL THEN tskv.ts END) AS str_max_ts, " +
+            NUMERIC_COUNTS + FROM_WHERE_GROUP_BY;
+
+    private static final String COUNT_QUERY = SELECT_BUCKET +
+            "SUM(CASE WHEN tskv.bool_v IS NULL THEN 0 ELSE 1 END) AS bool_count, " +
+            "SUM(CASE WHEN tskv.str_v IS NULL THEN 0 ELSE 1 END) AS str_count, " +
+            "SUM(CASE WHEN tskv.json_v IS NULL THEN 0 ELSE 1 END) AS json_count, " +
+            NUMERIC_COUNTS + FROM_WHERE_GROUP_BY;
+
+    private static final String ROLLUP_FROM_WHERE_GROUP_BY = "FROM ts_kv_rollup r WHERE r.entity_id = ? AND r.key = ? " +
+            "AND r.resolution = ? AND r.ts >= ? AND r.ts < ? GROUP BY bucket";
+
+    private static final String ROLLUP_SELECT_BUCKET = "SELECT width_bucket(r.ts, CAST(? AS bigint[])) - 1 AS bucket, ";
+
+    private static final String ROLLUP_NUMERIC_COUNTS = "SUM(r.long_cnt) AS long_count, SUM(r.dbl_cnt) AS dbl_count, MAX(r.max_ts) AS max_ts ";
+
+    private static final String ROLLUP_SUM_QUERY = ROLLUP_SELECT_BUCKET +
+            "SUM(r.long_sum) AS long_value, SUM(r.dbl_sum) AS dbl_value, " +
+            ROLLUP_NUMERIC_COUNTS + ROLLUP_FROM_WHERE_GROUP_BY;
+
+    private static final String ROLLUP_MAX_QUERY = ROLLUP_SELECT_BUCKET +
+            "MAX(r.long_max) AS long_value, MAX(r.dbl_max) AS dbl_value, MAX(r.str_max) AS str_value, MAX(r.str_max_ts) AS str_max_ts, " +
+            ROLLUP_NUMERIC_COUNTS + ROLLUP_FROM_WHERE_GROUP_BY;
+
+    private static final String ROLLUP_MIN_QUERY = ROLLUP_SELECT_BUCKET +
+            "MIN(r.long_min) AS long_value, MIN(r.dbl_min) AS dbl_value, MIN(r.str_min) AS str_value, MAX(r.str_max_ts) AS str_max_ts, " +
+            ROLLUP_NUMERIC_COUNTS + ROLLUP_FROM_WHERE_GROUP_BY;
+
+    private static final String ROLLUP_COUNT_QUERY = ROLLUP_SELECT_BUCKET +
+            "SUM(r.bool_cnt) AS bool_count, SUM(r.str_cnt) AS str_count, SUM(r.json_cnt) AS json_count, " +
+            ROLLUP_NUMERIC_COUNTS + ROLLUP_FROM_WHERE_GROUP_BY;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * @param bounds ascending interval boundaries: the interval {@code i} is {@code [bounds[i], bounds[i + 1])}
+     * @return the aggregated value for each interval, in the order of the intervals.
+     * The value has the key and the middle of the interval as a timestamp set
+     */
+    public List<Optional<TsKvEntity>> findAggregated(UUID entityId, int keyId, String key, long[] bounds, Aggregation aggregation) {
+        return doFindAggregated(getQuery(aggregation), null, entityId, keyId, key, bounds, aggregation);
+    }
+
+    /**
+     * Same as {@link #findAggregated} but reads the rollup of the given resolution.
+     * The bounds must be aligned to the resolution.
+     */
+    public List<Optional<TsKvEntity>> findRollupAggregated(UUID entityId, int keyId, String key, long resolutionMs, long[] bounds, Aggregation aggregation) {
+        return doFindAggregated(getRollupQuery(aggregation), resolutionMs, entityId, keyId, key, bounds, aggregation);
+    }
+
+    private List<Optional<TsKvEntity>> doFindAggregated(String query, Long resolutionMs, UUID entityId, int keyId, String key, long[] bounds, Aggregation aggregation) {
+        int intervals = bounds.length - 1;
+        if (intervals <= 0) {
+            return Collections.emptyList();
+        }
+        List<Optional<TsKvEntity>> result = new ArrayList<>(Collections.<Optional<TsKvEntity>>nCopies(intervals, Optional.empty()));
+        Long[] starts = new Long[intervals];
+        for (int i = 0; i < intervals; i++) {
+            starts[i] = bounds[i];
+        }
+        jdbcTemplate.query(query, ps -> {
+            int index = 1;
+            ps.setArray(index++, ps.getConnection().createArrayOf("bigint", starts));
+            ps.setObject(index++, entityId);
+            ps.setInt(index++, keyId);
+            if (resolutionMs != null) {
+                ps.setLong(index++, resolutionMs);
+            }
+            ps.setLong(index++, bounds[0]);
+            ps.setLong(index, bounds[intervals]);
+        }, rs -> {
+            int bucket = rs.getInt("bucket");
+            if (bucket < 0 || bucket >= intervals) {
+                return;
+            }
+            TsKvEntity entity = toEntity(rs, aggregation);
+            if (entity != null && entity.isNotEmpty()) {
+                long startTs = bounds[bucket];
+                long endTs = bounds[bucket + 1];
+                entity.setEntityId(entityId);
+                entity.setStrKey(key);
+                entity.setTs(startTs + (endTs - startTs) / 2);
+                result.set(bucket, Optional.of(entity));
+            }
+        });
+        return result;
+    }
+
+    private static String getQuery(Aggregation aggregation) {
+        return switch (aggregation) {
+            case AVG, SUM -> SUM_QUERY;
+            case MAX -> MAX_QUERY;
+            case MIN -> MIN_QUERY;
+            case COUNT -> COUNT_QUERY;
+            default -> throw new IllegalArgumentException("Not supported aggregation type: " + aggregation);
+        };
+    }
+
+    private static String getRollupQuery(Aggregation aggregation) {
+        return switch (aggregation) {
+            case AVG, SUM -> ROLLUP_SUM_QUERY;
+            case MAX -> ROLLUP_MAX_QUERY;
+            case MIN -> ROLLUP_MIN_QUERY;
+            case COUNT -> ROLLUP_COUNT_QUERY;
+            default -> throw new IllegalArgumentException("Not supported aggregation type: " + aggregation);
+        };
+    }
+
+    private static TsKvEntity toEntity(ResultSet rs, Aggregation aggregation) throws SQLException {
+        Long maxTs = getLong(rs, "max_ts");
+        Long longCount = getLong(rs, "long_count");
+        Long doubleCount = getLong(rs, "dbl_count");
+        switch (aggregation) {
+            case COUNT:
+                return new TsKvEntity(getLong(rs, "bool_count"), getLong(rs, "str_count"), longCount, doubleCount, getLong(rs, "json_count"), maxTs);
+            case MAX:
+            case MIN:
+                TsKvEntity numeric = new TsKvEntity(getLong(rs, "long_value"), getDouble(rs, "dbl_value"), longCount, doubleCount, aggregation.name(), maxTs);
+                if (numeric.isNotEmpty()) {
+                    return numeric;
+                }
+                return new TsKvEntity(rs.getString("str_value"), getLong(rs, "str_max_ts"));
+            default:
+                return new TsKvEntity(getLong(rs, "long_value"), getDouble(rs, "dbl_value"), longCount, doubleCount, aggregation.name(), maxTs);
+        }
+    }
+
+    private static Long getLong(ResultSet rs, String column) throws SQLException {
+        Number value = (Number) rs.getObject(column);
+        return value != null ? value.longValue() : null;
+    }
+
+    private static Double getDouble(ResultSet rs, String column) throws SQLException {
+        Number value = (Number) rs.getObject(column);
+        return value != null ? value.doubleValue() : null;
+    }
+
+}
@@ -60,7 +60,6 @@ import static org.thingsboard.server.common.data.StringUtils.isBlank;
 public class BaseTimeseriesService implements TimeseriesService {
 
     private static final int INSERTS_PER_ENTRY = 3;
-    private static final int INSERTS_PER_ENTRY_WITHOUT_LATEST = 2;
     private static final int DELETES_PER_ENTRY = INSERTS_PER_ENTRY;
     public static final Function<List<Integer>, Integer> SUM_ALL_INTEGERS = new Function<>() {
         @Override
@@ -89,6 +88,9 @@ public class BaseTimeseriesService implements TimeseriesService {
     @Autowired
     private EntityViewService entityViewService;
 
+    @Autowired(required = false)
+    private TimeseriesLatestStore timeseriesLatestStore;
+
     @Override
     public ListenableFuture<List<ReadTsKvQueryResult>> findAllByQueries(TenantId tenantId, EntityId entityId, List<ReadTsKvQuery> queries) {
         validate(entityId);
@@ -120,23 +122,28 @@ public class BaseTimeseriesService implements TimeseriesService {
     @Override
     public ListenableFuture<Optional<TsKvEntry>> findLatest(TenantId tenantId, EntityId entityId, String key) {
         validate(entityId);
+        if (isLatestStored(tenantId, entityId)) {
+            return timeseriesLatestStore.findLatest(tenantId, entityId, key);
+        }
         return timeseriesLatestDao.findLatestOpt(tenantId, entityId, key);
     }
 
     @Override
     public ListenableFuture<List<TsKvEntry>> findLatest(TenantId tenantId, EntityId entityId, Collection<String> keys) {
         validate(entityId);
-        List<ListenableFuture<TsKvEntry>> futures = new ArrayList<>(keys.size());
         keys.forEach(key -> Validator.validateString(key, k -> "Incorrect key " + k));
-        for (String key : keys) {
-            futures.add(timeseriesLatestDao.findLatest(tenantId, entityId, key));
+        if (isLatestStored(tenantId, entityId)) {
+            return timeseriesLatestStore.findLatest(tenantId, entityId, keys);
         }
-        return Futures.allAsList(futures);
+        return timeseriesLatestDao.findLatest(tenantId, entityId, keys);
     }
 
     @Override
     public ListenableFuture<List<TsKvEntry>> findAllLatest(TenantId tenantId, EntityId entityId) {
         validate(entityId);
+        if (isLatestStored(tenantId, entityId)) {
+            return timeseriesLatestStore.findAllLatest(tenantId, entityId);
+        }
         return timeseriesLatestDao.findAllLatest(tenantId, entityId);
     }
 
@@ -158,9 +165,7 @@ public class BaseTimeseriesService implements TimeseriesService {
     @Override
     public ListenableFuture<Integer> save(TenantId tenantId, EntityId entityId, TsKvEntry tsKvEntry) {
         validate(entityId);
-        List<ListenableFuture<Integer>> futures = new ArrayList<>(INSERTS_PER_ENTRY);
-        saveAndRegisterFutures(tenantId, futures, entityId, tsKvEntry, 0L);
-        return Futures.transform(Futures.allAsList(futures), SUM_ALL_INTEGERS, MoreExecutors.directExecutor());
+        return doSave(tenantId, entityId, Collections.singletonList(tsKvEntry), 0L, true);
     }
 
     @Override
@@ -174,42 +179,52 @@ public class BaseTimeseriesService implements TimeseriesService {
     }
 
     private ListenableFuture<Integer> doSave(TenantId tenantId, EntityId entityId, List<TsKvEntry> tsKvEntries, long ttl, boolean saveLatest) {
-        int inserts = saveLatest ? INSERTS_PER_ENTRY : INSERTS_PER_ENTRY_WITHOUT_LATEST;
-        List<ListenableFuture<Integer>> futures = new ArrayList<>(tsKvEntries.size() * inserts);
-        for (TsKvEntry tsKvEntry : tsKvEntries) {
-            if (saveLatest) {
-                saveAndRegisterFutures(tenantId, futures, entityId, tsKvEntry, ttl);
-            } else {
-                saveWithoutLatestAndRegisterFutures(tenantId, futures, entityId, tsKvEntry, ttl);
-            }
+        if (tsKvEntries.isEmpty()) {
+            return Futures.immediateFuture(0);
+        }
+        if (entityId.getEntityType().equals(EntityType.ENTITY_VIEW)) {
+            throw new IncorrectParameterException("Telemetry data can't be stored for entity view. Read only");
         }
-        return Futures.transform(Futures.allAsList(futures), SUM_ALL_INTEGERS, MoreExecutors.directExecutor());
+        ListenableFuture<Integer> tsFuture = timeseriesDao.saveAll(tenantId, entityId, tsKvEntries, ttl);
+        if (!saveLatest) {
+            return tsFuture;
+        }
+        ListenableFuture<List<Long>> latestFuture = doSaveLatest(tenantId, entityId, tsKvEntries);
+        return Futures.whenAllSucceed(tsFuture, latestFuture).call(() -> Futures.getDone(tsFuture), MoreExecutors.directExecutor());
     }
 
     @Override
     public ListenableFuture<List<Long>> saveLatest(TenantId tenantId, EntityId entityId, List<TsKvEntry> tsKvEntries) {
-        List<ListenableFuture<Long>> futures = new ArrayList<>(tsKvEntries.size());
-        for (TsKvEntry tsKvEntry : tsKvEntries) {
-            futures.add(timeseriesLatestDao.saveLatest(tenantId, entityId, tsKvEntry));
+        if (tsKvEntries.isEmpty()) {
+            return Futures.immediateFuture(Collections.emptyList());
         }
-        return Futures.allAsList(futures);
+        return doSaveLatest(tenantId, entityId, tsKvEntries);
     }
 
-    private void saveAndRegisterFutures(TenantId tenantId, List<ListenableFuture<Integer>> futures, EntityId entityId, TsKvEntry tsKvEntry, long ttl) {
-        doSaveAndRegisterFuturesFor(tenantId, futures, entityId, tsKvEntry, ttl);
-        futures.add(Futures.transform(timeseriesLatestDao.saveLatest(tenantId, entityId, tsKvEntry), v -> 0, MoreExecutors.directExecutor()));
+    private ListenableFuture<List<Long>> doSaveLatest(TenantId tenantId, EntityId entityId, List<TsKvEntry> tsKvEntries) {
+        ListenableFuture<List<Long>> future = timeseriesLatestDao.saveAllLatest(tenantId, entityId, tsKvEntries);
+        if (timeseriesLatestStore == null) {
+            return future;
+        }
+        return Futures.transform(future, versions -> {
+            tsKvEntries.forEach(tsKvEntry -> timeseriesLatestStore.onLatestSaved(tenantId, entityId, tsKvEntry));
+            return versions;
+        }, MoreExecutors.directExecutor());
     }
 
-    private void saveWithoutLatestAndRegisterFutures(TenantId tenantId, List<ListenableFuture<Integer>> futures, EntityId entityId, TsKvEntry tsKvEntry, long ttl) {
-        doSaveAndRegisterFuturesFor(tenantId, futures, entityId, tsKvEntry, ttl);
+    private ListenableFuture<TsKvLatestRemovingResult> doRemoveLatest(TenantId tenantId, EntityId entityId, DeleteTsKvQuery query) {
+        ListenableFuture<TsKvLatestRemovingResult> future = timeseriesLatestDao.removeLatest(tenantId, entityId, query);
+        if (timeseriesLatestStore == null) {
+            return future;
+        }
+        return Futures.transform(future, result -> {
+            timeseriesLatestStore.onLatestRemoved(tenantId, entityId, result);
+            return result;
+        }, MoreExecutors.directExecutor());
     }
 
-    private void doSaveAndRegisterFuturesFor(TenantId tenantId, List<ListenableFuture<Integer>> futures, EntityId entityId, TsKvEntry tsKvEntry, long ttl) {
-        if (entityId.getEntityType().equals(EntityType.ENTITY_VIEW)) {
-            throw new IncorrectParameterException("Telemetry data can't be stored for entity view. Read only");
-        }
-        futures.add(timeseriesDao.savePartition(tenantId, entityId, tsKvEntry.getTs(), tsKvEntry.getKey()));
-        futures.add(timeseriesDao.save(tenantId, entityId, tsKvEntry, ttl));
+    private boolean isLatestStored(TenantId tenantId, EntityId entityId) {
+        return timeseriesLatestStore != null && timeseriesLatestStore.isManaged(tenantId, entityId);
     }
 
     private List<ReadTsKvQuery> updateQueriesForEntityView(EntityView entityView, List<ReadTsKvQuery> queries) {
@@ -248,7 +263,7 @@ public class BaseTimeseriesService implements TimeseriesService {
         List<ListenableFuture<TsKvLatestRemovingResult>> futures = new ArrayList<>(keys.size());
         for (String key : keys) {
             DeleteTsKvQuery query = new BaseDeleteTsKvQuery(key, 0, System.currentTimeMillis(), false);
-            futures.add(timeseriesLatestDao.removeLatest(tenantId, entityId, query));
+            futures.add(doRemoveLatest(tenantId, entityId, query));
         }
         return Futures.allAsList(futures);
     }
@@ -269,7 +284,7 @@ public class BaseTimeseriesService implements TimeseriesService {
     private void deleteAndRegisterFutures(TenantId tenantId, List<ListenableFuture<TsKvLatestRemovingResult>> futures, EntityId entityId, DeleteTsKvQuery query) {
         futures.add(Futures.transform(timeseriesDao.remove(tenantId, entityId, query), v -> null, MoreExecutors.directExecutor()));
         if (query.getDeleteLatest()) {
-            futures.add(timeseriesLatestDao.removeLatest(tenantId, entityId, query));
+            futures.add(doRemoveLatest(tenantId, entityId, query));
         }
     }
 
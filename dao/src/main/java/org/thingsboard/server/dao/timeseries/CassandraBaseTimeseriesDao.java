@@ -16,18 +16,23 @@
 package org.thingsboard.server.dao.timeseries;
 
 import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.BatchStatement;
+import com.datastax.oss.driver.api.core.cql.BatchStatementBuilder;
 import com.datastax.oss.driver.api.core.cql.BoundStatement;
 import com.datastax.oss.driver.api.core.cql.BoundStatementBuilder;
+import com.datastax.oss.driver.api.core.cql.DefaultBatchType;
 import com.datastax.oss.driver.api.core.cql.PreparedStatement;
 import com.datastax.oss.driver.api.core.cql.Row;
 import com.datastax.oss.driver.api.querybuilder.QueryBuilder;
 import com.datastax.oss.driver.api.querybuilder.select.Select;
 import com.google.common.base.Function;
+import com.google.common.collect.Lists;
 import com.google.common.util.concurrent.AsyncFunction;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.MoreExecutors;
+import io.micrometer.core.instrument.Timer;
 import jakarta.annotation.Nullable;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
@@ -51,6 +56,8 @@ import org.thingsboard.server.common.data.kv.ReadTsKvQueryResult;
 import org.thingsboard.server.common.data.kv.TsKvEntry;
 import org.thingsboard.server.common.data.kv.TsKvEntryAggWrapper;
 import org.thingsboard.server.common.data.kv.TsKvQuery;
+import org.thingsboard.server.common.stats.DefaultCounter;
+import org.thingsboard.server.common.stats.StatsFactory;
 import org.thingsboard.server.dao.model.ModelConstants;
 import org.thingsboard.server.dao.nosql.TbResultSet;
 import org.thingsboard.server.dao.nosql.TbResultSetFuture;
@@ -64,7 +71,9 @@ import java.time.ZoneOffset;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
@@ -122,6 +131,19 @@ public class CassandraBaseTimeseriesDao extends AbstractCassandraBaseTimeseriesD
     @Value("${cassandra.query.set_null_values_enabled}")
     private boolean setNullValuesEnabled;
 
+    @Value("${cassandra.query.ts_batch.enabled:false}")
+    private boolean tsBatchEnabled;
+
+    @Value("${cassandra.query.ts_batch.max_size:50}")
+    private int tsBatchMaxSize;
+
+    @Autowired
+    private StatsFactory statsFactory;
+
+    private DefaultCounter batchCounter;
+    private DefaultCounter batchStatementsCounter;
+    private Timer batchLatencyTimer;
+
     private NoSqlTsPartitionDate tsFormat;
 
     private PreparedStatement partitionInsertStmt;
@@ -155,6 +177,14 @@ public class CassandraBaseTimeseriesDao extends AbstractCassandraBaseTimeseriesD
             log.warn("Incorrect configuration of partitioning {}", partitioning);
             throw new RuntimeException("Failed to parse partitioning property: " + partitioning + "!");
         }
+        if (tsBatchEnabled) {
+            if (tsBatchMaxSize <= 0) {
+                throw new RuntimeException("Incorrect ts_batch.max_size property: " + tsBatchMaxSize + ". The value must be positive!");
+            }
+            batchCounter = statsFactory.createDefaultCounter("ts.cassandra.batch", "type", "batches");
+            batchStatementsCounter = statsFactory.createDefaultCounter("ts.cassandra.batch", "type", "statements");
+            batchLatencyTimer = statsFactory.createTimer("ts.cassandra.batch.latency");
+        }
     }
 
     @PreDestroy
@@ -171,10 +201,63 @@ public class CassandraBaseTimeseriesDao extends AbstractCassandraBaseTimeseriesD
 
     @Override
     public ListenableFuture<Integer> save(TenantId tenantId, EntityId entityId, TsKvEntry tsKvEntry, long ttl) {
-        List<ListenableFuture<Void>> futures = new ArrayList<>();
         ttl = computeTtl(ttl);
         int dataPointDays = tsKvEntry.getDataPoints() * Math.max(1, (int) (ttl / SECONDS_IN_DAY));
         long partition = toPartitionTs(tsKvEntry.getTs());
+        BoundStatement stmt = getSaveBoundStmt(entityId, tsKvEntry, partition, ttl);
+        return getFuture(executeAsyncWrite(tenantId, stmt), rs -> dataPointDays);
+    }
+
+    @Override
+    public ListenableFuture<Integer> saveAll(TenantId tenantId, EntityId entityId, List<TsKvEntry> tsKvEntries, long ttl) {
+        long computedTtl = computeTtl(ttl);
+        int daysPerDataPoint = Math.max(1, (int) (computedTtl / SECONDS_IN_DAY));
+        int dataPointDays = 0;
+        Map<CassandraPartitionCacheKey, List<TsKvEntry>> entriesByPartition = new LinkedHashMap<>();
+        for (TsKvEntry tsKvEntry : tsKvEntries) {
+            dataPointDays += tsKvEntry.getDataPoints() * daysPerDataPoint;
+            CassandraPartitionCacheKey partitionKey = new CassandraPartitionCacheKey(entityId, tsKvEntry.getKey(), toPartitionTs(tsKvEntry.getTs()));
+            entriesByPartition.computeIfAbsent(partitionKey, k -> new ArrayList<>()).add(tsKvEntry);
+        }
+        List<ListenableFuture<?>> futures = new ArrayList<>(tsKvEntries.size() + entriesByPartition.size());
+        entriesByPartition.forEach((partitionKey, entries) -> {
+            futures.add(savePartitionIfNotCached(tenantId, entityId, partitionKey.getKey(), partitionKey.getPartition()));
+            if (tsBatchEnabled && entries.size() > 1) {
+                for (List<TsKvEntry> batchEntries : Lists.partition(entries, tsBatchMaxSize)) {
+                    futures.add(saveBatch(tenantId, entityId, batchEntries, partitionKey.getPartition(), computedTtl));
+                }
+            } else {
+                for (TsKvEntry tsKvEntry : entries) {
+                    BoundStatement stmt = getSaveBoundStmt(entityId, tsKvEntry, partitionKey.getPartition(), computedTtl);
+                    futures.add(executeAsyncWrite(tenantId, stmt));
+                }
+            }
+        });
+        int totalDataPointDays = dataPointDays;
+        return Futures.transform(Futures.allAsList(futures), result -> totalDataPointDays, MoreExecutors.directExecutor());
+    }
+
+    /**
+     * All entries share the same partition key (entity, key, partition), so the unlogged batch
+     * is applied by a single replica set without the coordinator fanning it out to other nodes.
+     */
+    private ListenableFuture<?> saveBatch(TenantId tenantId, EntityId entityId, List<TsKvEntry> entries, long partition, long ttl) {
+        if (entries.size() == 1) {
+            return executeAsyncWrite(tenantId, getSaveBoundStmt(entityId, entries.get(0), partition, ttl));
+        }
+        BatchStatementBuilder batchBuilder = BatchStatement.builder(DefaultBatchType.UNLOGGED);
+        for (TsKvEntry tsKvEntry : entries) {
+            batchBuilder.addStatement(getSaveBoundStmt(entityId, tsKvEntry, partition, ttl));
+        }
+        batchCounter.increment();
+        batchStatementsCounter.add(entries.size());
+        long startTs = System.nanoTime();
+        TbResultSetFuture future = executeAsyncWrite(tenantId, batchBuilder.build());
+        future.addListener(() -> batchLatencyTimer.record(System.nanoTime() - startTs, TimeUnit.NANOSECONDS), MoreExecutors.directExecutor());
+        return future;
+    }
+
+    private BoundStatement getSaveBoundStmt(EntityId entityId, TsKvEntry tsKvEntry, long partition, long ttl) {
         String entityType = entityId.getEntityType().name();
         UUID entityIdId = entityId.getId();
         String entryKey = tsKvEntry.getKey();
@@ -206,13 +289,15 @@ public class CassandraBaseTimeseriesDao extends AbstractCassandraBaseTimeseriesD
                 stmtBuilder.setInt(6, (int) ttl);
             }
         }
-        BoundStatement stmt = stmtBuilder.build();
-        futures.add(getFuture(executeAsyncWrite(tenantId, stmt), rs -> null));
-        return Futures.transform(Futures.allAsList(futures), result -> dataPointDays, MoreExecutors.directExecutor());
+        return stmtBuilder.build();
     }
 
     @Override
     public ListenableFuture<Integer> savePartition(TenantId tenantId, EntityId entityId, long tsKvEntryTs, String key) {
+        return savePartitionIfNotCached(tenantId, entityId, key, toPartitionTs(tsKvEntryTs));
+    }
+
+    private ListenableFuture<Integer> savePartitionIfNotCached(TenantId tenantId, EntityId entityId, String key, long partition) {
         if (isFixedPartitioning()) {
             return Futures.immediateFuture(null);
         }
@@ -220,7 +305,6 @@ public class CassandraBaseTimeseriesDao extends AbstractCassandraBaseTimeseriesD
         // partitions must remain in the DB forever or be removed only by systemTtl
         // removal of empty partition is too expensive (we need to scan all data keys for these partitions with ALLOW FILTERING)
         long ttl = computeTtl(0);
-        long partition = toPartitionTs(tsKvEntryTs);
         if (cassandraTsPartitionsCache == null) {
             return doSavePartition(tenantId, entityId, key, ttl, partition);
         } else {
@@ -36,6 +36,12 @@ public interface TimeseriesDao {
 
     ListenableFuture<Integer> savePartition(TenantId tenantId, EntityId entityId, long tsKvEntryTs, String key);
 
+    /**
+     * Saves the entries of one telemetry message together with the partitions they belong to.
+     * Returns the total number of data point days, same as the sum of {@link #save} results for each entry.
+     */
+    ListenableFuture<Integer> saveAll(TenantId tenantId, EntityId entityId, List<TsKvEntry> tsKvEntries, long ttl);
+
     ListenableFuture<Void> remove(TenantId tenantId, EntityId entityId, DeleteTsKvQuery query);
 
     void cleanup(long systemTtl);
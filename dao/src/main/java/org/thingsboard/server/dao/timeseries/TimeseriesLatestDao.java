@@ -15,6 +15,7 @@
  */
 package org.thingsboard.server.dao.timeseries;
 
+import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import org.thingsboard.server.common.data.id.DeviceProfileId;
 import org.thingsboard.server.common.data.id.EntityId;
@@ -23,6 +24,8 @@ import org.thingsboard.server.common.data.kv.DeleteTsKvQuery;
 import org.thingsboard.server.common.data.kv.TsKvEntry;
 import org.thingsboard.server.common.data.kv.TsKvLatestRemovingResult;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -40,10 +43,34 @@ public interface TimeseriesLatestDao {
      */
     ListenableFuture<TsKvEntry> findLatest(TenantId tenantId, EntityId entityId, String key);
 
+    /**
+     * Same as {@link #findLatest(TenantId, EntityId, String)} for each of the keys, in the order of the keys
+     *
+     */
+    default ListenableFuture<List<TsKvEntry>> findLatest(TenantId tenantId, EntityId entityId, Collection<String> keys) {
+        List<ListenableFuture<TsKvEntry>> futures = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            futures.add(findLatest(tenantId, entityId, key));
+        }
+        return Futures.allAsList(futures);
+    }
+
     ListenableFuture<List<TsKvEntry>> findAllLatest(TenantId tenantId, EntityId entityId);
 
     ListenableFuture<Long> saveLatest(TenantId tenantId, EntityId entityId, TsKvEntry tsKvEntry);
 
+    /**
+     * Same as {@link #saveLatest(TenantId, EntityId, TsKvEntry)} for each of the entries, in the order of the entries
+     *
+     */
+    default ListenableFuture<List<Long>> saveAllLatest(TenantId tenantId, EntityId entityId, List<TsKvEntry> tsKvEntries) {
+        List<ListenableFuture<Long>> futures = new ArrayList<>(tsKvEntries.size());
+        for (TsKvEntry tsKvEntry : tsKvEntries) {
+            futures.add(saveLatest(tenantId, entityId, tsKvEntry));
+        }
+        return Futures.allAsList(futures);
+    }
+
     ListenableFuture<TsKvLatestRemovingResult> removeLatest(TenantId tenantId, EntityId entityId, DeleteTsKvQuery query);
 
     List<String> findAllKeysByDeviceProfileId(TenantId tenantId, DeviceProfileId deviceProfileId);
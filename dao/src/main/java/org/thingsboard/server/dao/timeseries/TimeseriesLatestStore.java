@@ -0,0 +1,50 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.dao.timeseries;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import org.thingsboard.server.common.data.id.EntityId;
+import org.thingsboard.server.common.data.id.TenantId;
+import org.thingsboard.server.common.data.kv.TsKvEntry;
+import org.thingsboard.server.common.data.kv.TsKvLatestRemovingResult;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * In-memory store of the latest time series values that answers the reads of {@link BaseTimeseriesService}
+ * for the entities it manages instead of the {@link TimeseriesLatestDao}.
+ */
+public interface TimeseriesLatestStore {
+
+    boolean isManaged(TenantId tenantId, EntityId entityId);
+
+    ListenableFuture<Optional<TsKvEntry>> findLatest(TenantId tenantId, EntityId entityId, String key);
+
+    /**
+     * Same contract as {@link TimeseriesLatestDao#findLatest(TenantId, EntityId, Collection)}
+     *
+     */
+    ListenableFuture<List<TsKvEntry>> findLatest(TenantId tenantId, EntityId entityId, Collection<String> keys);
+
+    ListenableFuture<List<TsKvEntry>> findAllLatest(TenantId tenantId, EntityId entityId);
+
+    void onLatestSaved(TenantId tenantId, EntityId entityId, TsKvEntry tsKvEntry);
+
+    void onLatestRemoved(TenantId tenantId, EntityId entityId, TsKvLatestRemovingResult result);
+
+}
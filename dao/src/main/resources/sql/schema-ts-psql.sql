@@ -34,6 +34,48 @@ CREATE TABLE IF NOT EXISTS key_dictionary
     CONSTRAINT key_dictionary_id_pkey PRIMARY KEY (key)
 );
 
+CREATE TABLE IF NOT EXISTS ts_kv_rollup
+(
+    entity_id  uuid   NOT NULL,
+    key        int    NOT NULL,
+    resolution bigint NOT NULL,
+    ts         bigint NOT NULL,
+    long_sum   numeric,
+    dbl_sum    double precision,
+    long_min   bigint,
+    long_max   bigint,
+    dbl_min    double precision,
+    dbl_max    double precision,
+    str_min    varchar(10000000),
+    str_max    varchar(10000000),
+    str_max_ts bigint,
+    long_cnt   bigint NOT NULL,
+    dbl_cnt    bigint NOT NULL,
+    bool_cnt   bigint NOT NULL,
+    str_cnt    bigint NOT NULL,
+    json_cnt   bigint NOT NULL,
+    max_ts     bigint NOT NULL,
+    CONSTRAINT ts_kv_rollup_pkey PRIMARY KEY (entity_id, key, resolution, ts)
+);
+
+CREATE INDEX IF NOT EXISTS idx_ts_kv_rollup_resolution_ts ON ts_kv_rollup (resolution, ts);
+
+CREATE TABLE IF NOT EXISTS ts_kv_rollup_watermark
+(
+    id        int    NOT NULL,
+    start_ts  bigint NOT NULL,
+    active_ts bigint NOT NULL,
+    CONSTRAINT ts_kv_rollup_watermark_pkey PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS ts_kv_rollup_changes
+(
+    entity_id uuid   NOT NULL,
+    key       int    NOT NULL,
+    ts        bigint NOT NULL,
+    CONSTRAINT ts_kv_rollup_changes_pkey PRIMARY KEY (entity_id, key, ts)
+);
+
 CREATE OR REPLACE PROCEDURE drop_partitions_by_system_ttl(IN partition_type varchar, IN system_ttl bigint, INOUT deleted bigint)
     LANGUAGE plpgsql AS
 $$
@@ -30,9 +30,11 @@ import org.thingsboard.server.cache.TBRedisCacheConfiguration;
 import org.thingsboard.server.common.data.id.DeviceId;
 import org.thingsboard.server.common.data.relation.RelationTypeGroup;
 import org.thingsboard.server.dao.relation.RelationCacheKey;
+import org.thingsboard.server.dao.relation.RelationCacheValue;
 import org.thingsboard.server.dao.relation.RelationRedisCache;
 
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static org.mockito.Mockito.never;
@@ -67,6 +69,8 @@ public class RedisTbTransactionalCacheTest {
         relationRedisCache.putIfAbsent(createRelationCacheKey(), null);
         relationRedisCache.evict(createRelationCacheKey());
         relationRedisCache.evict(List.of(createRelationCacheKey()));
+        relationRedisCache.getAll(List.of(createRelationCacheKey()));
+        relationRedisCache.putAll(Map.of(createRelationCacheKey(), RelationCacheValue.builder().build()));
         relationRedisCache.getAndPutInTransaction(createRelationCacheKey(), null, false);
         relationRedisCache.getAndPutInTransaction(createRelationCacheKey(), null, null, null, false);
         relationRedisCache.getOrFetchFromDB(createRelationCacheKey(), null, false, false);
@@ -0,0 +1,168 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.dao.nosql;
+
+import com.datastax.oss.driver.api.core.ConsistencyLevel;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.ColumnDefinitions;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import com.datastax.oss.driver.api.core.cql.Statement;
+import com.google.common.util.concurrent.SettableFuture;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.core.env.Environment;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.thingsboard.server.common.data.id.DeviceId;
+import org.thingsboard.server.common.data.id.TenantId;
+import org.thingsboard.server.common.data.kv.BasicTsKvEntry;
+import org.thingsboard.server.common.data.kv.JsonDataEntry;
+import org.thingsboard.server.common.data.kv.LongDataEntry;
+import org.thingsboard.server.common.data.kv.TsKvEntry;
+import org.thingsboard.server.dao.cassandra.CassandraCluster;
+import org.thingsboard.server.dao.cassandra.guava.GuavaSession;
+import org.thingsboard.server.dao.timeseries.CassandraBaseTimeseriesDao;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.willReturn;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class CassandraBaseTimeseriesDaoSaveAllTest {
+
+    private static final long DAY = TimeUnit.DAYS.toMillis(1);
+    private static final long TTL = TimeUnit.DAYS.toSeconds(3);
+
+    @Spy
+    private CassandraBaseTimeseriesDao cassandraBaseTimeseriesDao;
+
+    @Mock
+    private PreparedStatement preparedStatement;
+
+    @Mock
+    private BoundStatement boundStatement;
+
+    @Mock
+    private ColumnDefinitions columnDefinitions;
+
+    @Mock
+    private Environment environment;
+
+    @Mock
+    private CassandraCluster cluster;
+
+    @Mock
+    private GuavaSession session;
+
+    private final TenantId tenantId = TenantId.fromUUID(UUID.randomUUID());
+
+    @Before
+    public void setUp() throws Exception {
+        ReflectionTestUtils.setField(cassandraBaseTimeseriesDao, "partitioning", "DAYS");
+        ReflectionTestUtils.setField(cassandraBaseTimeseriesDao, "partitionsCacheSize", 100000);
+        ReflectionTestUtils.setField(cassandraBaseTimeseriesDao, "systemTtl", 0);
+        ReflectionTestUtils.setField(cassandraBaseTimeseriesDao, "setNullValuesEnabled", true);
+        ReflectionTestUtils.setField(cassandraBaseTimeseriesDao, "environment", environment);
+        ReflectionTestUtils.setField(cassandraBaseTimeseriesDao, "cluster", cluster);
+
+        when(cluster.getDefaultReadConsistencyLevel()).thenReturn(ConsistencyLevel.ONE);
+        when(cluster.getDefaultWriteConsistencyLevel()).thenReturn(ConsistencyLevel.ONE);
+        when(cluster.getSession()).thenReturn(session);
+        when(session.prepare(anyString())).thenReturn(preparedStatement);
+
+        when(preparedStatement.bind()).thenReturn(boundStatement);
+        when(preparedStatement.bind(any(Object[].class))).thenReturn(boundStatement);
+        when(preparedStatement.getVariableDefinitions()).thenReturn(columnDefinitions);
+        when(boundStatement.getPreparedStatement()).thenReturn(preparedStatement);
+
+        when(boundStatement.setString(anyInt(), anyString())).thenReturn(boundStatement);
+        when(boundStatement.setUuid(anyInt(), any(UUID.class))).thenReturn(boundStatement);
+        when(boundStatement.setLong(anyInt(), anyLong())).thenReturn(boundStatement);
+
+        SettableFuture<TbResultSet> resultSetFuture = SettableFuture.create();
+        resultSetFuture.set(null);
+        willReturn(new TbResultSetFuture(resultSetFuture)).given(cassandraBaseTimeseriesDao).executeAsyncWrite(any(), any());
+
+        cassandraBaseTimeseriesDao.init();
+    }
+
+    @After
+    public void tearDown() {
+        cassandraBaseTimeseriesDao.stop();
+    }
+
+    @Test
+    public void givenEntriesOfSamePartitions_whenSaveAll_thenEachPartitionIsSavedOnce() throws Exception {
+        DeviceId deviceId = new DeviceId(UUID.randomUUID());
+        List<TsKvEntry> entries = List.of(
+                new BasicTsKvEntry(DAY + 1, new LongDataEntry("temperature", 25L)),
+                new BasicTsKvEntry(DAY + 2, new LongDataEntry("temperature", 26L)),
+                new BasicTsKvEntry(2 * DAY + 1, new LongDataEntry("temperature", 27L)),
+                new BasicTsKvEntry(DAY + 1, new LongDataEntry("humidity", 40L)),
+                new BasicTsKvEntry(DAY + 2, new LongDataEntry("humidity", 41L)));
+
+        cassandraBaseTimeseriesDao.saveAll(tenantId, deviceId, entries, 0).get();
+
+        verify(cassandraBaseTimeseriesDao, times(entries.size() + 3)).executeAsyncWrite(any(TenantId.class), any(Statement.class));
+        verify(boundStatement, times(2)).setString(3, "temperature");
+        verify(boundStatement, times(1)).setString(3, "humidity");
+        verify(boundStatement, times(2)).setLong(2, DAY);
+        verify(boundStatement, times(1)).setLong(2, 2 * DAY);
+
+        clearInvocations(cassandraBaseTimeseriesDao, boundStatement);
+        cassandraBaseTimeseriesDao.saveAll(tenantId, deviceId, entries, 0).get();
+
+        verify(cassandraBaseTimeseriesDao, times(entries.size())).executeAsyncWrite(any(TenantId.class), any(Statement.class));
+        verify(boundStatement, never()).setString(eq(3), anyString());
+    }
+
+    @Test
+    public void givenEntries_whenSaveAll_thenDataPointDaysAreSummed() throws Exception {
+        List<TsKvEntry> entries = List.of(
+                new BasicTsKvEntry(DAY + 1, new LongDataEntry("temperature", 25L)),
+                new BasicTsKvEntry(DAY + 2, new LongDataEntry("temperature", 26L)),
+                new BasicTsKvEntry(DAY + 1, new JsonDataEntry("config", "{\"data\":\"" + StringUtils.repeat('a', 1500) + "\"}")));
+
+        DeviceId singleSaveDeviceId = new DeviceId(UUID.randomUUID());
+        int expectedDataPointDays = 0;
+        for (TsKvEntry entry : entries) {
+            expectedDataPointDays += cassandraBaseTimeseriesDao.save(tenantId, singleSaveDeviceId, entry, TTL).get();
+        }
+        assertThat(expectedDataPointDays).isGreaterThan(entries.size() * 3);
+
+        DeviceId deviceId = new DeviceId(UUID.randomUUID());
+        assertThat(cassandraBaseTimeseriesDao.saveAll(tenantId, deviceId, entries, TTL).get()).isEqualTo(expectedDataPointDays);
+    }
+
+}
@@ -0,0 +1,102 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.dao.service;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.test.context.TestPropertySource;
+import org.thingsboard.server.common.data.Device;
+import org.thingsboard.server.common.data.asset.Asset;
+import org.thingsboard.server.common.data.id.CustomerId;
+import org.thingsboard.server.common.data.query.DeviceSearchQueryFilter;
+import org.thingsboard.server.common.data.query.EntityCountQuery;
+import org.thingsboard.server.common.data.query.RelationsQueryFilter;
+import org.thingsboard.server.common.data.relation.EntitySearchDirection;
+import org.thingsboard.server.common.data.relation.RelationTypeGroup;
+
+/**
+ * Runs the entity service tests with the relation hierarchies taken from the hierarchy cache instead of the recursive query.
+ */
+@DaoSqlTest
+@TestPropertySource(properties = "sql.relations.hierarchy_cache.enabled=true")
+public class EntityServiceHierarchyCacheTest extends EntityServiceTest {
+
+    @Test
+    public void testHierarchyEvictedOnRelationChange() {
+        Asset building = saveAsset("Building");
+        Asset floor = saveAsset("Floor");
+        createRelation(tenantId, "Contains", building.getId(), floor.getId());
+
+        RelationsQueryFilter relationsFilter = new RelationsQueryFilter();
+        relationsFilter.setRootEntity(building.getId());
+        relationsFilter.setDirection(EntitySearchDirection.FROM);
+        EntityCountQuery relationsQuery = new EntityCountQuery(relationsFilter);
+
+        DeviceSearchQueryFilter deviceSearchFilter = new DeviceSearchQueryFilter();
+        deviceSearchFilter.setRootEntity(building.getId());
+        deviceSearchFilter.setDirection(EntitySearchDirection.FROM);
+        deviceSearchFilter.setRelationType("Contains");
+        EntityCountQuery deviceSearchQuery = new EntityCountQuery(deviceSearchFilter);
+
+        Assert.assertEquals(1, countEntities(relationsQuery));
+        Assert.assertEquals(0, countEntities(deviceSearchQuery));
+
+        Device device = new Device();
+        device.setTenantId(tenantId);
+        device.setName("Sensor");
+        device.setType("default");
+        device = deviceService.saveDevice(device);
+        createRelation(tenantId, "Contains", floor.getId(), device.getId());
+
+        Assert.assertEquals(2, countEntities(relationsQuery));
+        Assert.assertEquals(1, countEntities(deviceSearchQuery));
+
+        relationService.deleteRelation(tenantId, floor.getId(), device.getId(), "Contains", RelationTypeGroup.COMMON);
+
+        Assert.assertEquals(1, countEntities(relationsQuery));
+        Assert.assertEquals(0, countEntities(deviceSearchQuery));
+    }
+
+    @Test
+    public void testEmptyHierarchyEvictedOnRelationChange() {
+        Asset building = saveAsset("Building");
+        Asset floor = saveAsset("Floor");
+
+        RelationsQueryFilter relationsFilter = new RelationsQueryFilter();
+        relationsFilter.setRootEntity(building.getId());
+        relationsFilter.setDirection(EntitySearchDirection.FROM);
+        EntityCountQuery relationsQuery = new EntityCountQuery(relationsFilter);
+
+        Assert.assertEquals(0, countEntities(relationsQuery));
+
+        createRelation(tenantId, "Contains", building.getId(), floor.getId());
+
+        Assert.assertEquals(1, countEntities(relationsQuery));
+    }
+
+    private Asset saveAsset(String name) {
+        Asset asset = new Asset();
+        asset.setTenantId(tenantId);
+        asset.setName(name);
+        asset.setType("default");
+        return assetService.saveAsset(asset);
+    }
+
+    private long countEntities(EntityCountQuery query) {
+        return entityService.countEntitiesByQuery(tenantId, new CustomerId(CustomerId.NULL_UUID), query);
+    }
+
+}
@@ -655,6 +655,100 @@ public class RelationServiceTest extends AbstractServiceTest {
         Assert.assertTrue(relations.containsAll(expectedRelations));
     }
 
+    @Test
+    public void testFindByQueryToDirection() throws Exception {
+        // A -> B -> C
+        AssetId assetA = new AssetId(Uuids.timeBased());
+        AssetId assetB = new AssetId(Uuids.timeBased());
+        AssetId assetC = new AssetId(Uuids.timeBased());
+
+        EntityRelation relationAB = saveRelation(new EntityRelation(assetA, assetB, EntityRelation.CONTAINS_TYPE));
+        EntityRelation relationBC = saveRelation(new EntityRelation(assetB, assetC, EntityRelation.CONTAINS_TYPE));
+
+        EntityRelationsQuery query = new EntityRelationsQuery();
+        query.setParameters(new RelationsSearchParameters(assetC, EntitySearchDirection.TO, -1, false));
+        List<EntityRelation> relations = relationService.findByQuery(SYSTEM_TENANT_ID, query).get();
+        Assert.assertEquals(2, relations.size());
+        Assert.assertTrue(relations.contains(relationAB));
+        Assert.assertTrue(relations.contains(relationBC));
+
+        query.setParameters(new RelationsSearchParameters(assetC, EntitySearchDirection.TO, -1, true));
+        relations = relationService.findByQuery(SYSTEM_TENANT_ID, query).get();
+        Assert.assertEquals(1, relations.size());
+        Assert.assertTrue(relations.contains(relationAB));
+    }
+
+    @Test
+    public void testFindByQueryDiamond() throws Exception {
+        // A -> B -> D -> E
+        // A -> C -> D
+        AssetId assetA = new AssetId(Uuids.timeBased());
+        AssetId assetB = new AssetId(Uuids.timeBased());
+        AssetId assetC = new AssetId(Uuids.timeBased());
+        AssetId assetD = new AssetId(Uuids.timeBased());
+        AssetId assetE = new AssetId(Uuids.timeBased());
+
+        EntityRelation relationAB = saveRelation(new EntityRelation(assetA, assetB, EntityRelation.CONTAINS_TYPE));
+        EntityRelation relationAC = saveRelation(new EntityRelation(assetA, assetC, EntityRelation.CONTAINS_TYPE));
+        EntityRelation relationBD = saveRelation(new EntityRelation(assetB, assetD, EntityRelation.CONTAINS_TYPE));
+        EntityRelation relationCD = saveRelation(new EntityRelation(assetC, assetD, EntityRelation.CONTAINS_TYPE));
+        EntityRelation relationDE = saveRelation(new EntityRelation(assetD, assetE, EntityRelation.CONTAINS_TYPE));
+
+        EntityRelationsQuery query = new EntityRelationsQuery();
+        query.setParameters(new RelationsSearchParameters(assetA, EntitySearchDirection.FROM, -1, false));
+        List<EntityRelation> relations = relationService.findByQuery(SYSTEM_TENANT_ID, query).get();
+        Assert.assertEquals(5, relations.size());
+        Assert.assertTrue(relations.containsAll(List.of(relationAB, relationAC, relationBD, relationCD, relationDE)));
+
+        query.setParameters(new RelationsSearchParameters(assetA, EntitySearchDirection.FROM, 2, false));
+        relations = relationService.findByQuery(SYSTEM_TENANT_ID, query).get();
+        Assert.assertEquals(4, relations.size());
+        Assert.assertFalse(relations.contains(relationDE));
+
+        query.setParameters(new RelationsSearchParameters(assetA, EntitySearchDirection.FROM, -1, true));
+        relations = relationService.findByQuery(SYSTEM_TENANT_ID, query).get();
+        Assert.assertEquals(1, relations.size());
+        Assert.assertTrue(relations.contains(relationDE));
+    }
+
+    @Test
+    public void testFindByQueryLattice() throws Exception {
+        // each asset of a layer is related to both assets of the next layer, so the number of paths grows exponentially
+        int layers = 20;
+        AssetId root = new AssetId(Uuids.timeBased());
+        List<AssetId> layer = List.of(root);
+        List<EntityRelation> expectedRelations = new ArrayList<>();
+        List<EntityRelation> firstLevelsRelations = new ArrayList<>();
+        for (int lvl = 1; lvl <= layers; lvl++) {
+            List<AssetId> nextLayer = List.of(new AssetId(Uuids.timeBased()), new AssetId(Uuids.timeBased()));
+            for (AssetId from : layer) {
+                for (AssetId to : nextLayer) {
+                    EntityRelation relation = saveRelation(new EntityRelation(from, to, EntityRelation.CONTAINS_TYPE));
+                    expectedRelations.add(relation);
+                    if (lvl <= 3) {
+                        firstLevelsRelations.add(relation);
+                    }
+                }
+            }
+            layer = nextLayer;
+        }
+
+        EntityRelationsQuery query = new EntityRelationsQuery();
+        query.setParameters(new RelationsSearchParameters(root, EntitySearchDirection.FROM, -1, false));
+        List<EntityRelation> relations = relationService.findByQuery(SYSTEM_TENANT_ID, query).get();
+        Assert.assertEquals(expectedRelations.size(), relations.size());
+        Assert.assertTrue(relations.containsAll(expectedRelations));
+
+        query.setParameters(new RelationsSearchParameters(root, EntitySearchDirection.FROM, 3, false));
+        relations = relationService.findByQuery(SYSTEM_TENANT_ID, query).get();
+        Assert.assertEquals(firstLevelsRelations.size(), relations.size());
+        Assert.assertTrue(relations.containsAll(firstLevelsRelations));
+
+        query.setParameters(new RelationsSearchParameters(layer.get(0), EntitySearchDirection.TO, -1, false));
+        relations = relationService.findByQuery(SYSTEM_TENANT_ID, query).get();
+        Assert.assertEquals(expectedRelations.size() - 2, relations.size());
+    }
+
     private void createAssetRelationsRecursively(AssetId rootAsset, int lvl, List<EntityRelation> entityRelations, boolean lastLvlOnly) throws Exception {
         if (lvl == 0) return;
 
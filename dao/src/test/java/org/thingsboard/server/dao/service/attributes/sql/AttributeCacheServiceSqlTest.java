@@ -28,6 +28,9 @@ import org.thingsboard.server.dao.attributes.AttributeCacheKey;
 import org.thingsboard.server.dao.service.AbstractServiceTest;
 import org.thingsboard.server.dao.service.DaoSqlTest;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static org.junit.Assert.assertEquals;
@@ -111,4 +114,24 @@ public class AttributeCacheServiceSqlTest extends AbstractServiceTest {
         wrapper = cache.get(testKey);
         assertNull(wrapper);
     }
+
+    @Test
+    public void testPutAllAndGetAll() {
+        AttributeCacheKey testKey = new AttributeCacheKey(AttributeScope.CLIENT_SCOPE, DEVICE_ID, TEST_KEY);
+        AttributeCacheKey nullKey = new AttributeCacheKey(AttributeScope.CLIENT_SCOPE, DEVICE_ID, TEST_KEY + "_null");
+        AttributeCacheKey missingKey = new AttributeCacheKey(AttributeScope.CLIENT_SCOPE, DEVICE_ID, TEST_KEY + "_missing");
+        AttributeKvEntry testValue = new BaseAttributeKvEntry(new StringDataEntry(TEST_KEY, TEST_VALUE), 1, 1L);
+        Map<AttributeCacheKey, AttributeKvEntry> values = new HashMap<>();
+        values.put(testKey, testValue);
+        values.put(nullKey, null);
+        cache.putAll(values);
+
+        Map<AttributeCacheKey, TbCacheValueWrapper<AttributeKvEntry>> wrappers = cache.getAll(List.of(testKey, nullKey, missingKey));
+        assertEquals(2, wrappers.size());
+        assertEquals(testValue, wrappers.get(testKey).get());
+        assertNull(wrappers.get(nullKey).get());
+        assertNull(wrappers.get(missingKey));
+
+        cache.evict(List.of(testKey, nullKey));
+    }
 }
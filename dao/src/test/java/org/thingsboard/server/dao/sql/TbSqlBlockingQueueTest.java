@@ -0,0 +1,135 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.dao.sql;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.thingsboard.server.common.stats.MessagesStats;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class TbSqlBlockingQueueTest {
+
+    private final MessagesStats stats = mock(MessagesStats.class);
+
+    @Test
+    public void givenBoundedQueueIsFull_whenAdd_thenFutureIsFailed() {
+        TbSqlBlockingQueue<String, Void> queue = createQueue(TbSqlBlockingQueueParams.builder()
+                .logName("Test")
+                .batchSize(10)
+                .maxDelay(100)
+                .maxQueueSize(1)
+                .backpressureTimeoutMs(10)
+                .build());
+
+        ListenableFuture<Void> accepted = queue.add("first");
+        ListenableFuture<Void> rejected = queue.add("second");
+
+        assertThat(accepted.isDone()).isFalse();
+        assertThat(rejected.isDone()).isTrue();
+        assertThatThrownBy(rejected::get)
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(RejectedExecutionException.class);
+        verify(stats).incrementFailed();
+    }
+
+    @Test
+    public void givenBoundedQueueIsFull_whenAddAll_thenCombinedFutureIsFailed() {
+        TbSqlBlockingQueue<String, Void> queue = createQueue(TbSqlBlockingQueueParams.builder()
+                .logName("Test")
+                .batchSize(10)
+                .maxDelay(100)
+                .maxQueueSize(2)
+                .backpressureTimeoutMs(10)
+                .build());
+
+        ListenableFuture<List<Void>> rejected = queue.addAll(List.of("first", "second", "third"));
+
+        assertThat(rejected.isDone()).isTrue();
+        assertThatThrownBy(rejected::get)
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(RejectedExecutionException.class);
+        verify(stats, times(3)).incrementTotal();
+        verify(stats).incrementFailed();
+    }
+
+    @Test
+    public void givenQueueIsNotPolled_whenAdd_thenQueueSizeGaugeIsUpdated() {
+        AtomicInteger queueSize = new AtomicInteger();
+        TbSqlBlockingQueue<String, Void> queue = createQueue(TbSqlBlockingQueueParams.builder()
+                .logName("Test")
+                .batchSize(10)
+                .maxDelay(100)
+                .maxQueueSize(2)
+                .backpressureTimeoutMs(10)
+                .build(), queueSize);
+
+        queue.add("first");
+        queue.add("second");
+        queue.add("third");
+
+        assertThat(queueSize.get()).as("rejected element is not counted").isEqualTo(2);
+    }
+
+    @Test
+    public void givenAdaptiveBatch_whenLatencyExceedsTarget_thenBatchSizeIsReduced() {
+        TbSqlBlockingQueue<String, Void> queue = createAdaptiveQueue();
+
+        assertThat(queue.calculateNextBatchSize(1000, 250, true)).isEqualTo(500);
+        assertThat(queue.calculateNextBatchSize(150, 250, true)).isEqualTo(100);
+    }
+
+    @Test
+    public void givenAdaptiveBatch_whenFullPackIsSavedFast_thenBatchSizeIsIncreasedUpToMax() {
+        TbSqlBlockingQueue<String, Void> queue = createAdaptiveQueue();
+
+        assertThat(queue.calculateNextBatchSize(400, 10, true)).isEqualTo(500);
+        assertThat(queue.calculateNextBatchSize(900, 10, true)).isEqualTo(1000);
+        assertThat(queue.calculateNextBatchSize(400, 10, false)).isEqualTo(400);
+    }
+
+    private TbSqlBlockingQueue<String, Void> createAdaptiveQueue() {
+        return createQueue(TbSqlBlockingQueueParams.builder()
+                .logName("Test")
+                .batchSize(1000)
+                .maxDelay(100)
+                .adaptiveBatchEnabled(true)
+                .minBatchSize(100)
+                .targetBatchLatencyMs(200)
+                .build());
+    }
+
+    private TbSqlBlockingQueue<String, Void> createQueue(TbSqlBlockingQueueParams params) {
+        return createQueue(params, new AtomicInteger());
+    }
+
+    private TbSqlBlockingQueue<String, Void> createQueue(TbSqlBlockingQueueParams params, AtomicInteger queueSize) {
+        Timer timer = Timer.builder("test").register(new SimpleMeterRegistry());
+        return new TbSqlBlockingQueue<>(params, stats, queueSize, timer);
+    }
+
+}
@@ -37,6 +37,8 @@ public class DefaultEntityQueryRepositoryTest {
     TransactionTemplate transactionTemplate;
     @MockBean
     DefaultQueryLogComponent queryLog;
+    @MockBean
+    EntityHierarchyCache hierarchyCache;
 
     @Autowired
     DefaultEntityQueryRepository repo;
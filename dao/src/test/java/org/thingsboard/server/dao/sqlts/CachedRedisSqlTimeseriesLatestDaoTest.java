@@ -0,0 +1,91 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.dao.sqlts;
+
+import com.google.common.util.concurrent.Futures;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.thingsboard.server.cache.VersionedTbCache;
+import org.thingsboard.server.common.data.id.DeviceId;
+import org.thingsboard.server.common.data.id.TenantId;
+import org.thingsboard.server.common.data.kv.BasicTsKvEntry;
+import org.thingsboard.server.common.data.kv.LongDataEntry;
+import org.thingsboard.server.common.data.kv.TsKvEntry;
+import org.thingsboard.server.common.stats.StatsFactory;
+import org.thingsboard.server.dao.cache.CacheExecutorService;
+import org.thingsboard.server.dao.timeseries.TsLatestCacheKey;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class CachedRedisSqlTimeseriesLatestDaoTest {
+
+    private final TenantId tenantId = TenantId.fromUUID(UUID.randomUUID());
+    private final DeviceId deviceId = new DeviceId(UUID.randomUUID());
+
+    private SqlTimeseriesLatestDao sqlDao;
+    private VersionedTbCache<TsLatestCacheKey, TsKvEntry> cache;
+    private CachedRedisSqlTimeseriesLatestDao cachedDao;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        CacheExecutorService cacheExecutorService = mock(CacheExecutorService.class);
+        doAnswer(invocation -> {
+            invocation.getArgument(0, Runnable.class).run();
+            return null;
+        }).when(cacheExecutorService).execute(any());
+        sqlDao = mock(SqlTimeseriesLatestDao.class);
+        cache = mock(VersionedTbCache.class);
+        cachedDao = new CachedRedisSqlTimeseriesLatestDao(cacheExecutorService, sqlDao, mock(StatsFactory.class), cache);
+    }
+
+    @Test
+    public void givenSavedEntries_whenSaveAllLatest_thenCacheIsFilledForEveryKey() throws Exception {
+        List<TsKvEntry> entries = List.of(
+                new BasicTsKvEntry(1000, new LongDataEntry("temperature", 25L)),
+                new BasicTsKvEntry(1000, new LongDataEntry("humidity", 40L)),
+                new BasicTsKvEntry(1, new LongDataEntry("pressure", 1013L)));
+        List<Long> versions = Arrays.asList(7L, 8L, null);
+        when(sqlDao.saveAllLatest(tenantId, deviceId, entries)).thenReturn(Futures.immediateFuture(versions));
+
+        assertThat(cachedDao.saveAllLatest(tenantId, deviceId, entries).get()).isEqualTo(versions);
+
+        ArgumentCaptor<TsLatestCacheKey> keyCaptor = ArgumentCaptor.forClass(TsLatestCacheKey.class);
+        ArgumentCaptor<TsKvEntry> valueCaptor = ArgumentCaptor.forClass(TsKvEntry.class);
+        verify(cache, times(entries.size())).put(keyCaptor.capture(), valueCaptor.capture());
+        for (int i = 0; i < entries.size(); i++) {
+            TsKvEntry expected = entries.get(i);
+            assertThat(keyCaptor.getAllValues().get(i)).isEqualTo(new TsLatestCacheKey(deviceId, expected.getKey()));
+            TsKvEntry cached = valueCaptor.getAllValues().get(i);
+            assertThat(cached.getKey()).isEqualTo(expected.getKey());
+            assertThat(cached.getTs()).isEqualTo(expected.getTs());
+            assertThat(cached.getValue()).isEqualTo(expected.getValue());
+            assertThat(cached.getVersion()).isEqualTo(versions.get(i));
+        }
+    }
+
+}
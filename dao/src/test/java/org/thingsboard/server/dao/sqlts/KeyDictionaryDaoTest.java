@@ -0,0 +1,81 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.dao.sqlts;
+
+import org.apache.commons.lang3.RandomStringUtils;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.thingsboard.server.dao.dictionary.KeyDictionaryDao;
+import org.thingsboard.server.dao.service.AbstractServiceTest;
+import org.thingsboard.server.dao.service.DaoSqlTest;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@DaoSqlTest
+public class KeyDictionaryDaoTest extends AbstractServiceTest {
+
+    @Autowired
+    private KeyDictionaryDao keyDictionaryDao;
+
+    @Test
+    public void getOrSaveKeyIdAndGetKeyTest() {
+        String key = "key_" + RandomStringUtils.randomAlphanumeric(10);
+        Integer keyId = keyDictionaryDao.getOrSaveKeyId(key);
+        assertNotNull(keyId);
+        assertEquals(keyId, keyDictionaryDao.getOrSaveKeyId(key));
+        assertEquals(key, keyDictionaryDao.getKey(keyId));
+        assertEquals(key, keyDictionaryDao.getKey(keyId));
+    }
+
+    @Test
+    public void getKeyForUnknownKeyIdTest() {
+        assertNull(keyDictionaryDao.getKey(Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void concurrentKeyCreationTest() throws Exception {
+        int n = 100;
+        String prefix = "key_" + RandomStringUtils.randomAlphanumeric(10) + "_";
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Integer>> futures = new ArrayList<>(n * 2);
+            for (int i = 0; i < n * 2; i++) {
+                String key = prefix + (i % n);
+                futures.add(executor.submit(() -> keyDictionaryDao.getOrSaveKeyId(key)));
+            }
+            Set<Integer> keyIds = new HashSet<>();
+            for (int i = 0; i < futures.size(); i++) {
+                Integer keyId = futures.get(i).get();
+                keyIds.add(keyId);
+                assertEquals(prefix + (i % n), keyDictionaryDao.getKey(keyId));
+            }
+            assertEquals(n, keyIds.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+}
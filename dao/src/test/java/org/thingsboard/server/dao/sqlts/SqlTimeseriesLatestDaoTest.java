@@ -102,6 +102,38 @@ public class SqlTimeseriesLatestDaoTest extends AbstractServiceTest {
         }
     }
 
+    @Test
+    public void saveAllLatestTest() throws Exception {
+        DeviceId deviceId = new DeviceId(UUID.randomUUID());
+        int n = 20;
+        for (int i = 0; i < n; i++) {
+            timeseriesLatestDao.saveLatest(tenantId, deviceId, createEntry("key_" + i, 2000)).get();
+        }
+
+        List<TsKvEntry> entries = new ArrayList<>(n);
+        for (int i = n - 1; i >= 0; i--) {
+            long ts = i % 3 == 0 ? 1000 : 3000;
+            entries.add(createEntry("key_" + i, ts));
+        }
+        List<Long> versions = timeseriesLatestDao.saveAllLatest(tenantId, deviceId, entries).get();
+        assertEquals(entries.size(), versions.size());
+
+        for (int i = 0; i < entries.size(); i++) {
+            TsKvEntry entry = entries.get(i);
+            Long version = versions.get(i);
+            TsKvEntry foundEntry = timeseriesLatestDao.findLatest(tenantId, deviceId, entry.getKey()).get();
+            assertNotNull(foundEntry);
+            if (entry.getTs() == 1000) {
+                assertNull(version);
+                assertEquals(2000, foundEntry.getTs());
+            } else {
+                assertNotNull(version);
+                equalsIgnoreVersion(entry, foundEntry);
+                assertEquals(version, foundEntry.getVersion());
+            }
+        }
+    }
+
     private TsKvEntry createEntry(String key, long ts) {
         return new BasicTsKvEntry(ts, new StringDataEntry(key, RandomStringUtils.random(10)));
     }
@@ -0,0 +1,283 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.dao.sqlts;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.thingsboard.server.common.data.id.DeviceId;
+import org.thingsboard.server.common.data.id.EntityId;
+import org.thingsboard.server.common.stats.DefaultCounter;
+import org.thingsboard.server.common.stats.StatsFactory;
+import org.thingsboard.server.dao.model.sqlts.latest.TsKvLatestEntity;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TsLatestUnchangedValueFilterTest {
+
+    private final UUID entityId = UUID.randomUUID();
+    private final EntityId deviceId = new DeviceId(entityId);
+    private final List<TsKvLatestEntity> written = new ArrayList<>();
+    private final List<TsKvLatestEntity> flushed = new ArrayList<>();
+    private final Map<Integer, Long> sharedVersions = new HashMap<>();
+    private final AtomicLong versionSeq = new AtomicLong();
+    private final Map<String, DefaultCounter> counters = new HashMap<>();
+    private StatsFactory statsFactory;
+
+    @BeforeEach
+    public void setUp() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        statsFactory = mock(StatsFactory.class);
+        when(statsFactory.createDefaultCounter(eq(TsLatestUnchangedValueFilter.STATS_NAME), any(String[].class))).thenAnswer(invocation -> {
+            String result = ((String[]) invocation.getRawArguments()[1])[1];
+            DefaultCounter counter = new DefaultCounter(new AtomicInteger(), registry.counter(result));
+            counters.put(result, counter);
+            return counter;
+        });
+    }
+
+    @Test
+    public void givenUnchangedValue_whenSave_thenWriteIsSkippedAndPreviousVersionReturned() throws Exception {
+        TsLatestUnchangedValueFilter filter = createFilter(true);
+
+        Long version = filter.save(deviceId, entity(1, 1000, 42L)).get();
+        Long skippedVersion = filter.save(deviceId, entity(1, 2000, 42L)).get();
+
+        assertThat(written).hasSize(1);
+        assertThat(skippedVersion).isEqualTo(version);
+        assertThat(counters.get("written").get()).isEqualTo(1);
+        assertThat(counters.get("skipped").get()).isEqualTo(1);
+    }
+
+    @Test
+    public void givenChangedValueOrOlderTs_whenSave_thenValueIsWritten() throws Exception {
+        TsLatestUnchangedValueFilter filter = createFilter(true);
+
+        filter.save(deviceId, entity(1, 1000, 42L)).get();
+        Long changedVersion = filter.save(deviceId, entity(1, 2000, 43L)).get();
+        filter.save(deviceId, entity(1, 1500, 43L)).get();
+        filter.save(deviceId, entity(2, 2000, 43L)).get();
+
+        assertThat(written).hasSize(4);
+        assertThat(changedVersion).isEqualTo(2L);
+        assertThat(counters.get("skipped").get()).isZero();
+    }
+
+    @Test
+    public void givenCoalescedTs_whenFlush_thenLatestTsIsWrittenOnce() throws Exception {
+        TsLatestUnchangedValueFilter filter = createFilter(true);
+
+        filter.save(deviceId, entity(1, 1000, 42L)).get();
+        filter.save(deviceId, entity(1, 3000, 42L)).get();
+        filter.save(deviceId, entity(1, 2000, 42L)).get();
+        filter.flush();
+        filter.flush();
+
+        assertThat(written).hasSize(1);
+        assertThat(flushed).hasSize(1);
+        assertThat(flushed.get(0).getTs()).isEqualTo(3000L);
+        assertThat(flushed.get(0).getLongValue()).isEqualTo(42L);
+        assertThat(counters.get("flushed").get()).isEqualTo(1);
+    }
+
+    @Test
+    public void givenCoalescingDisabled_whenFlush_thenNothingIsWritten() throws Exception {
+        TsLatestUnchangedValueFilter filter = createFilter(false);
+
+        filter.save(deviceId, entity(1, 1000, 42L)).get();
+        filter.save(deviceId, entity(1, 3000, 42L)).get();
+        filter.flush();
+
+        assertThat(written).hasSize(1);
+        assertThat(written.get(0).getTs()).isEqualTo(1000L);
+        assertThat(flushed).isEmpty();
+    }
+
+    @Test
+    public void givenWriteInProgress_whenSaveUnchangedValue_thenValueIsWritten() {
+        List<SettableFuture<Long>> pending = new ArrayList<>();
+        TsLatestUnchangedValueFilter filter = new TsLatestUnchangedValueFilter(entity -> {
+            written.add(entity);
+            SettableFuture<Long> future = SettableFuture.create();
+            pending.add(future);
+            return future;
+        }, tsWriter(), true, 60000, statsFactory);
+
+        filter.save(deviceId, entity(1, 1000, 42L));
+        filter.save(deviceId, entity(1, 2000, 42L));
+        pending.forEach(future -> future.set(versionSeq.incrementAndGet()));
+        filter.save(deviceId, entity(1, 3000, 42L));
+
+        assertThat(written).hasSize(2);
+        assertThat(counters.get("skipped").get()).isEqualTo(1);
+    }
+
+    @Test
+    public void givenInvalidatedKey_whenSaveUnchangedValue_thenValueIsWritten() throws Exception {
+        TsLatestUnchangedValueFilter filter = createFilter(true);
+
+        filter.save(deviceId, entity(1, 1000, 42L)).get();
+        filter.invalidate(entityId, 1);
+        filter.save(deviceId, entity(1, 2000, 42L)).get();
+
+        assertThat(written).hasSize(2);
+        assertThat(filter.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void givenIdleKey_whenFlush_thenKeyIsNoLongerTracked() throws Exception {
+        TsLatestUnchangedValueFilter filter = new TsLatestUnchangedValueFilter(writer(), tsWriter(), true, -1, statsFactory);
+
+        filter.save(deviceId, entity(1, 1000, 42L)).get();
+        filter.flush();
+
+        assertThat(filter.size()).isZero();
+        filter.save(deviceId, entity(1, 1000, 42L)).get();
+        assertThat(written).hasSize(2);
+    }
+
+    @Test
+    public void givenSharedVersionIsTheSame_whenSaveUnchangedValue_thenWriteIsSkipped() throws Exception {
+        TsLatestUnchangedValueFilter filter = createFilter(true);
+        filter.setSharedLatest(sharedLatest());
+
+        Long version = filter.save(deviceId, entity(1, 1000, 42L)).get();
+        sharedVersions.put(1, version);
+        filter.save(deviceId, entity(1, 2000, 42L)).get();
+
+        assertThat(written).hasSize(1);
+        assertThat(counters.get("skipped").get()).isEqualTo(1);
+    }
+
+    @Test
+    public void givenValueWrittenByOtherNode_whenSaveUnchangedValue_thenValueIsWritten() throws Exception {
+        TsLatestUnchangedValueFilter filter = createFilter(true);
+        filter.setSharedLatest(sharedLatest());
+
+        Long version = filter.save(deviceId, entity(1, 1000, 42L)).get();
+        // the other node has written a different value
+        sharedVersions.put(1, version + 100);
+        filter.save(deviceId, entity(1, 3000, 42L)).get();
+
+        assertThat(written).hasSize(2);
+        assertThat(written.get(1).getTs()).isEqualTo(3000L);
+        assertThat(counters.get("skipped").get()).isZero();
+    }
+
+    @Test
+    public void givenCoalescedTs_whenFlush_thenSharedLatestIsUpdated() throws Exception {
+        TsLatestUnchangedValueFilter filter = createFilter(true);
+        List<TsKvLatestEntity> sharedFlushed = new ArrayList<>();
+        filter.setSharedLatest(new TsLatestUnchangedValueFilter.SharedLatest() {
+            @Override
+            public Long getVersion(EntityId entityId, String key) {
+                return versionSeq.get();
+            }
+
+            @Override
+            public void onFlushed(EntityId entityId, TsKvLatestEntity entity) {
+                assertThat(entityId).isEqualTo(deviceId);
+                sharedFlushed.add(entity);
+            }
+        });
+
+        Long version = filter.save(deviceId, entity(1, 1000, 42L)).get();
+        filter.save(deviceId, entity(1, 2000, 42L)).get();
+        filter.flush();
+
+        assertThat(flushed).hasSize(1);
+        assertThat(flushed.get(0).getVersion()).isGreaterThan(version);
+        assertThat(sharedFlushed).hasSize(1);
+        assertThat(sharedFlushed.get(0).getTs()).isEqualTo(2000L);
+        assertThat(sharedFlushed.get(0).getVersion()).isEqualTo(versionSeq.get());
+    }
+
+    @Test
+    public void givenVersionChangedByOtherNode_whenFlush_thenTsIsNotWrittenAndNextValueIsWritten() throws Exception {
+        TsLatestUnchangedValueFilter filter = new TsLatestUnchangedValueFilter(writer(), entities -> {
+            flushed.addAll(entities);
+            return entities.stream().map(entity -> (Long) null).toList();
+        }, true, 60000, statsFactory);
+
+        filter.save(deviceId, entity(1, 1000, 42L)).get();
+        filter.save(deviceId, entity(1, 2000, 42L)).get();
+        filter.flush();
+        filter.save(deviceId, entity(1, 3000, 42L)).get();
+
+        assertThat(flushed).hasSize(1);
+        assertThat(counters.get("flushed").get()).isZero();
+        assertThat(written).hasSize(2);
+        assertThat(written.get(1).getTs()).isEqualTo(3000L);
+    }
+
+    private TsLatestUnchangedValueFilter createFilter(boolean coalesceTs) {
+        return new TsLatestUnchangedValueFilter(writer(), tsWriter(), coalesceTs, 60000, statsFactory);
+    }
+
+    private Function<TsKvLatestEntity, ListenableFuture<Long>> writer() {
+        return entity -> {
+            written.add(entity);
+            return Futures.immediateFuture(versionSeq.incrementAndGet());
+        };
+    }
+
+    private Function<List<TsKvLatestEntity>, List<Long>> tsWriter() {
+        return entities -> {
+            flushed.addAll(entities);
+            return entities.stream().map(entity -> versionSeq.incrementAndGet()).toList();
+        };
+    }
+
+    private TsLatestUnchangedValueFilter.SharedLatest sharedLatest() {
+        return new TsLatestUnchangedValueFilter.SharedLatest() {
+            @Override
+            public Long getVersion(EntityId entityId, String key) {
+                return sharedVersions.get(Integer.parseInt(key));
+            }
+
+            @Override
+            public void onFlushed(EntityId entityId, TsKvLatestEntity entity) {
+            }
+        };
+    }
+
+    private TsKvLatestEntity entity(int key, long ts, long value) {
+        TsKvLatestEntity entity = new TsKvLatestEntity();
+        entity.setEntityId(entityId);
+        entity.setKey(key);
+        entity.setStrKey(String.valueOf(key));
+        entity.setTs(ts);
+        entity.setLongValue(value);
+        return entity;
+    }
+
+}
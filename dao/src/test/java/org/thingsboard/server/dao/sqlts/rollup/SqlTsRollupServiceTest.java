@@ -0,0 +1,218 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.dao.sqlts.rollup;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.thingsboard.server.common.data.id.DeviceId;
+import org.thingsboard.server.common.data.kv.Aggregation;
+import org.thingsboard.server.common.data.kv.BaseDeleteTsKvQuery;
+import org.thingsboard.server.common.data.kv.BasicTsKvEntry;
+import org.thingsboard.server.common.data.kv.BooleanDataEntry;
+import org.thingsboard.server.common.data.kv.DoubleDataEntry;
+import org.thingsboard.server.common.data.kv.KvEntry;
+import org.thingsboard.server.common.data.kv.LongDataEntry;
+import org.thingsboard.server.common.data.kv.StringDataEntry;
+import org.thingsboard.server.common.data.kv.TsKvEntry;
+import org.thingsboard.server.dao.dictionary.KeyDictionaryDao;
+import org.thingsboard.server.dao.model.sqlts.ts.TsKvEntity;
+import org.thingsboard.server.dao.service.AbstractServiceTest;
+import org.thingsboard.server.dao.service.DaoSqlTest;
+import org.thingsboard.server.dao.sqlts.ts.TsKvBucketAggregationRepository;
+import org.thingsboard.server.dao.timeseries.TimeseriesService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@DaoSqlTest
+@TestPropertySource(properties = {
+        "sql.ts.rollup.enabled=true",
+        // the changes are flushed by the tests only
+        "sql.ts.rollup.flush_interval_ms=3600000",
+        "sql.ts.rollup.ttl.minute=172800"
+})
+public class SqlTsRollupServiceTest extends AbstractServiceTest {
+
+    private static final long MINUTE = TsRollupResolution.MINUTE.getIntervalMs();
+    private static final long HOUR = TsRollupResolution.HOUR.getIntervalMs();
+    private static final long DAY = TsRollupResolution.DAY.getIntervalMs();
+    private static final List<Aggregation> AGGREGATIONS = List.of(Aggregation.AVG, Aggregation.MIN, Aggregation.MAX, Aggregation.SUM, Aggregation.COUNT);
+
+    private static final String NUMBER_KEY = "temperature";
+    private static final String STRING_KEY = "status";
+    private static final String BOOLEAN_KEY = "active";
+
+    @Autowired
+    private SqlTsRollupService rollupService;
+
+    @Autowired
+    private TsKvBucketAggregationRepository bucketAggregationRepository;
+
+    @Autowired
+    private TimeseriesService timeseriesService;
+
+    @Autowired
+    private KeyDictionaryDao keyDictionaryDao;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private DeviceId deviceId;
+
+    @Before
+    public void beforeRollupTest() {
+        deviceId = new DeviceId(UUID.randomUUID());
+        // the rollup covers the values saved before the test started
+        jdbcTemplate.update("UPDATE ts_kv_rollup_watermark SET start_ts = 0");
+        rollupService.flush();
+    }
+
+    @Test
+    public void testRollupMatchesRawTimeseries() throws Exception {
+        long startTs = TsRollupResolution.HOUR.toBucketStart(System.currentTimeMillis()) - 5 * HOUR;
+        saveValues(startTs, 3);
+        rollupService.flush();
+
+        long[] hourBounds = getBounds(startTs, HOUR, 3);
+        assertEquals(Optional.of(TsRollupResolution.HOUR), rollupService.getResolution(hourBounds));
+        assertTrue(countRollup(TsRollupResolution.MINUTE) > 0);
+        for (String key : List.of(NUMBER_KEY, STRING_KEY, BOOLEAN_KEY)) {
+            assertRollupMatchesRaw(key, TsRollupResolution.MINUTE, getBounds(startTs, MINUTE, 180));
+            assertRollupMatchesRaw(key, TsRollupResolution.HOUR, hourBounds);
+            assertRollupMatchesRaw(key, TsRollupResolution.DAY, getBounds(TsRollupResolution.DAY.toBucketStart(startTs), DAY, 1));
+        }
+
+        List<List<TsKvEntry>> expected = findRaw(NUMBER_KEY, hourBounds);
+        jdbcTemplate.update("DELETE FROM ts_kv WHERE entity_id = ?", deviceId.getId());
+        assertEquals(expected, findServed(NUMBER_KEY, hourBounds, TsRollupResolution.HOUR));
+    }
+
+    @Test
+    public void testRollupAndRawIntervalsSplit() throws Exception {
+        long currentHourTs = TsRollupResolution.HOUR.toBucketStart(System.currentTimeMillis());
+        long startTs = currentHourTs - 4 * HOUR;
+        saveValues(startTs, 4);
+        rollupService.flush();
+        // not flushed yet, the last intervals are read from the raw time series
+        save(currentHourTs - HOUR + 15 * MINUTE, new LongDataEntry(NUMBER_KEY, 100L));
+        save(currentHourTs + 10, new DoubleDataEntry(NUMBER_KEY, 0.5));
+
+        long[] bounds = getBounds(startTs, HOUR, 5);
+        assertEquals(Optional.of(TsRollupResolution.HOUR), rollupService.getResolution(bounds));
+        List<List<TsKvEntry>> expected = findRaw(NUMBER_KEY, bounds);
+        // the first intervals are read from the rollup
+        jdbcTemplate.update("DELETE FROM ts_kv WHERE entity_id = ? AND ts < ?", deviceId.getId(), startTs + 2 * HOUR);
+        assertEquals(expected, findServed(NUMBER_KEY, bounds, TsRollupResolution.HOUR));
+    }
+
+    @Test
+    public void testBackfillAndRemoveAfterCleanup() throws Exception {
+        long startTs = TsRollupResolution.HOUR.toBucketStart(System.currentTimeMillis()) - 3 * DAY;
+        long[] hourBounds = getBounds(startTs, HOUR, 1);
+        long[] dayBounds = getBounds(TsRollupResolution.DAY.toBucketStart(startTs), DAY, 1);
+        save(startTs + 5 * MINUTE, new LongDataEntry(NUMBER_KEY, 5L));
+        save(startTs + 10 * MINUTE, new DoubleDataEntry(NUMBER_KEY, 10.5));
+        save(startTs + 20 * MINUTE, new LongDataEntry(NUMBER_KEY, 20L));
+        rollupService.flush();
+
+        rollupService.cleanup();
+        assertEquals(0, countRollup(TsRollupResolution.MINUTE));
+        assertEquals(1, countRollup(TsRollupResolution.HOUR));
+        assertRollupMatchesRaw(NUMBER_KEY, TsRollupResolution.HOUR, hourBounds);
+
+        save(startTs + 30 * MINUTE, new LongDataEntry(NUMBER_KEY, 30L));
+        // the pending changes are read from the raw time series
+        assertEquals(findRaw(NUMBER_KEY, hourBounds), findServed(NUMBER_KEY, hourBounds, TsRollupResolution.HOUR));
+        rollupService.flush();
+        // the expired minutes are not used to re-calculate the hour
+        assertRollupMatchesRaw(NUMBER_KEY, TsRollupResolution.HOUR, hourBounds);
+        assertRollupMatchesRaw(NUMBER_KEY, TsRollupResolution.DAY, dayBounds);
+
+        timeseriesService.remove(tenantId, deviceId, List.of(new BaseDeleteTsKvQuery(NUMBER_KEY, startTs + 5 * MINUTE, startTs + 11 * MINUTE))).get();
+        assertRollupMatchesRaw(NUMBER_KEY, TsRollupResolution.HOUR, hourBounds);
+        assertRollupMatchesRaw(NUMBER_KEY, TsRollupResolution.DAY, dayBounds);
+        assertEquals(2L, (long) findRaw(NUMBER_KEY, hourBounds).get(4).get(0).getLongValue().get());
+    }
+
+    private void saveValues(long startTs, int hours) throws Exception {
+        List<TsKvEntry> entries = new ArrayList<>();
+        for (int i = 0; i < hours * 60; i += 7) {
+            long ts = startTs + i * MINUTE + i % 5 * 1000;
+            entries.add(new BasicTsKvEntry(ts, i % 2 == 0 ? new LongDataEntry(NUMBER_KEY, (long) i) : new DoubleDataEntry(NUMBER_KEY, i + 0.25)));
+            entries.add(new BasicTsKvEntry(ts, new StringDataEntry(STRING_KEY, "state-" + i % 11)));
+            entries.add(new BasicTsKvEntry(ts, new BooleanDataEntry(BOOLEAN_KEY, i % 3 == 0)));
+        }
+        timeseriesService.save(tenantId, deviceId, entries, 0).get();
+    }
+
+    private void save(long ts, KvEntry value) throws Exception {
+        timeseriesService.save(tenantId, deviceId, List.of(new BasicTsKvEntry(ts, value)), 0).get();
+    }
+
+    private void assertRollupMatchesRaw(String key, TsRollupResolution resolution, long[] bounds) {
+        int keyId = keyDictionaryDao.getOrSaveKeyId(key);
+        for (Aggregation aggregation : AGGREGATIONS) {
+            List<Optional<TsKvEntity>> raw = bucketAggregationRepository.findAggregated(deviceId.getId(), keyId, key, bounds, aggregation);
+            List<Optional<TsKvEntity>> rollup = bucketAggregationRepository.findRollupAggregated(deviceId.getId(), keyId, key, resolution.getIntervalMs(), bounds, aggregation);
+            assertFalse(raw.stream().allMatch(Optional::isEmpty));
+            assertEquals(key + " " + aggregation + " " + resolution, toData(raw), toData(rollup));
+        }
+    }
+
+    /**
+     * Returns the results of all aggregations in the order of {@link #AGGREGATIONS}.
+     */
+    private List<List<TsKvEntry>> findRaw(String key, long[] bounds) {
+        int keyId = keyDictionaryDao.getOrSaveKeyId(key);
+        return AGGREGATIONS.stream()
+                .map(aggregation -> toData(bucketAggregationRepository.findAggregated(deviceId.getId(), keyId, key, bounds, aggregation)))
+                .toList();
+    }
+
+    private List<List<TsKvEntry>> findServed(String key, long[] bounds, TsRollupResolution resolution) {
+        int keyId = keyDictionaryDao.getOrSaveKeyId(key);
+        return AGGREGATIONS.stream()
+                .map(aggregation -> toData(rollupService.findAggregated(deviceId.getId(), keyId, key, bounds, aggregation, resolution)))
+                .toList();
+    }
+
+    private long countRollup(TsRollupResolution resolution) {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM ts_kv_rollup WHERE entity_id = ? AND resolution = ?",
+                Long.class, deviceId.getId(), resolution.getIntervalMs());
+    }
+
+    private static List<TsKvEntry> toData(List<Optional<TsKvEntity>> entities) {
+        return entities.stream().flatMap(Optional::stream).map(TsKvEntity::toData).toList();
+    }
+
+    private static long[] getBounds(long startTs, long intervalMs, int intervals) {
+        long[] bounds = new long[intervals + 1];
+        for (int i = 0; i <= intervals; i++) {
+            bounds[i] = startTs + i * intervalMs;
+        }
+        return bounds;
+    }
+
+}
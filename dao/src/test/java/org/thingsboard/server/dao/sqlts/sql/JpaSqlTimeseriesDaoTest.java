@@ -0,0 +1,72 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.dao.sqlts.sql;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.thingsboard.server.common.data.id.DeviceId;
+import org.thingsboard.server.common.data.kv.BaseReadTsKvQuery;
+import org.thingsboard.server.common.data.kv.BasicTsKvEntry;
+import org.thingsboard.server.common.data.kv.JsonDataEntry;
+import org.thingsboard.server.common.data.kv.LongDataEntry;
+import org.thingsboard.server.common.data.kv.StringDataEntry;
+import org.thingsboard.server.common.data.kv.TsKvEntry;
+import org.thingsboard.server.dao.service.AbstractServiceTest;
+import org.thingsboard.server.dao.service.DaoSqlTest;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DaoSqlTest
+public class JpaSqlTimeseriesDaoTest extends AbstractServiceTest {
+
+    private static final long TTL = TimeUnit.DAYS.toSeconds(3);
+
+    @Autowired
+    private JpaSqlTimeseriesDao timeseriesDao;
+
+    @Test
+    public void givenEntries_whenSaveAll_thenDataPointDaysAreSummedAndAllEntriesSaved() throws Exception {
+        List<TsKvEntry> entries = List.of(
+                new BasicTsKvEntry(1000, new LongDataEntry("temperature", 25L)),
+                new BasicTsKvEntry(2000, new LongDataEntry("temperature", 26L)),
+                new BasicTsKvEntry(1000, new StringDataEntry("status", "ok")),
+                new BasicTsKvEntry(1000, new JsonDataEntry("config", "{\"data\":\"" + StringUtils.repeat('a', 1500) + "\"}")));
+
+        DeviceId singleSaveDeviceId = new DeviceId(UUID.randomUUID());
+        int expectedDataPointDays = 0;
+        for (TsKvEntry entry : entries) {
+            expectedDataPointDays += timeseriesDao.save(tenantId, singleSaveDeviceId, entry, TTL).get();
+        }
+        assertThat(expectedDataPointDays).isGreaterThan(entries.size() * 3);
+
+        DeviceId deviceId = new DeviceId(UUID.randomUUID());
+        assertThat(timeseriesDao.saveAll(tenantId, deviceId, entries, TTL).get()).isEqualTo(expectedDataPointDays);
+
+        List<TsKvEntry> temperature = timeseriesDao.findAllAsync(tenantId, deviceId,
+                new BaseReadTsKvQuery("temperature", 0, 3000, 10, "ASC")).get().getData();
+        assertThat(temperature).extracting(TsKvEntry::getTs).containsExactly(1000L, 2000L);
+        assertThat(timeseriesDao.findAllAsync(tenantId, deviceId,
+                new BaseReadTsKvQuery("status", 0, 3000, 10, "ASC")).get().getData()).hasSize(1);
+        assertThat(timeseriesDao.findAllAsync(tenantId, deviceId,
+                new BaseReadTsKvQuery("config", 0, 3000, 10, "ASC")).get().getData()).hasSize(1);
+    }
+
+}
@@ -25,6 +25,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.junit4.SpringRunner;
+import org.thingsboard.server.common.stats.StatsFactory;
 import org.thingsboard.server.dao.cassandra.CassandraCluster;
 import org.thingsboard.server.dao.nosql.CassandraBufferedRateReadExecutor;
 import org.thingsboard.server.dao.nosql.CassandraBufferedRateWriteExecutor;
@@ -61,6 +62,8 @@ public class CassandraBaseTimeseriesDaoPartitioningHoursAlwaysExistsTest {
     CassandraBufferedRateReadExecutor cassandraBufferedRateReadExecutor;
     @MockBean
     CassandraBufferedRateWriteExecutor cassandraBufferedRateWriteExecutor;
+    @MockBean
+    StatsFactory statsFactory;
 
     @Test
     public void testToPartitionsHours() throws ParseException {
@@ -40,9 +40,7 @@ import org.thingsboard.server.common.data.TenantProfile;
 import org.thingsboard.server.common.data.id.DeviceId;
 import org.thingsboard.server.common.data.id.TenantId;
 import org.thingsboard.server.common.data.id.TenantProfileId;
-import org.thingsboard.server.common.data.kv.BasicTsKvEntry;
-import org.thingsboard.server.common.data.kv.DoubleDataEntry;
-import org.thingsboard.server.common.data.kv.KvEntry;
+import org.thingsboard.server.common.data.kv.PrimitiveTsKvEntry;
 import org.thingsboard.server.common.data.kv.TsKvEntry;
 import org.thingsboard.server.common.data.msg.TbMsgType;
 import org.thingsboard.server.common.data.tenant.profile.DefaultTenantProfileConfiguration;
@@ -52,7 +50,6 @@ import org.thingsboard.server.common.msg.TbMsgMetaData;
 import org.thingsboard.server.dao.exception.DataValidationException;
 import org.thingsboard.server.dao.service.ConstraintValidator;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -322,14 +319,7 @@ public class TbMsgTimeseriesNodeTest extends AbstractRuleNodeUpgradeTest {
     }
 
     private static List<TsKvEntry> getTsKvEntriesListWithTs(String data, long ts) {
-        Map<Long, List<KvEntry>> tsKvMap = JsonConverter.convertToTelemetry(JsonParser.parseString(data), ts);
-        List<TsKvEntry> expectedList = new ArrayList<>();
-        for (Map.Entry<Long, List<KvEntry>> tsKvEntry : tsKvMap.entrySet()) {
-            for (KvEntry kvEntry : tsKvEntry.getValue()) {
-                expectedList.add(new BasicTsKvEntry(tsKvEntry.getKey(), kvEntry));
-            }
-        }
-        return expectedList;
+        return JsonConverter.convertToTsKvEntries(JsonParser.parseString(data), ts);
     }
 
     @Test
@@ -351,7 +341,7 @@ public class TbMsgTimeseriesNodeTest extends AbstractRuleNodeUpgradeTest {
                 .tenantId(TENANT_ID)
                 .customerId(msg.getCustomerId())
                 .entityId(msg.getOriginator())
-                .entry(new BasicTsKvEntry(123L, new DoubleDataEntry("temperature", 22.3)))
+                .entry(PrimitiveTsKvEntry.ofDouble(123L, "temperature", 22.3))
                 .ttl(extractTtlAsSeconds(tenantProfile))
                 .strategy(TimeseriesSaveRequest.Strategy.SAVE_ALL)
                 .build();
@@ -386,7 +376,7 @@ public class TbMsgTimeseriesNodeTest extends AbstractRuleNodeUpgradeTest {
                 .tenantId(TENANT_ID)
                 .customerId(msg.getCustomerId())
                 .entityId(msg.getOriginator())
-                .entry(new BasicTsKvEntry(123L, new DoubleDataEntry("temperature", 22.3)))
+                .entry(PrimitiveTsKvEntry.ofDouble(123L, "temperature", 22.3))
                 .ttl(extractTtlAsSeconds(tenantProfile))
                 .strategy(TimeseriesSaveRequest.Strategy.SAVE_ALL)
                 .build();
@@ -421,7 +411,7 @@ public class TbMsgTimeseriesNodeTest extends AbstractRuleNodeUpgradeTest {
                 .tenantId(TENANT_ID)
                 .customerId(msg.getCustomerId())
                 .entityId(msg.getOriginator())
-                .entry(new BasicTsKvEntry(123L, new DoubleDataEntry("temperature", 22.3)))
+                .entry(PrimitiveTsKvEntry.ofDouble(123L, "temperature", 22.3))
                 .ttl(extractTtlAsSeconds(tenantProfile))
                 .strategy(TimeseriesSaveRequest.Strategy.WS_ONLY)
                 .build();
@@ -460,7 +450,7 @@ public class TbMsgTimeseriesNodeTest extends AbstractRuleNodeUpgradeTest {
                 .tenantId(TENANT_ID)
                 .customerId(msg.getCustomerId())
                 .entityId(msg.getOriginator())
-                .entry(new BasicTsKvEntry(123L, new DoubleDataEntry("temperature", 22.3)))
+                .entry(PrimitiveTsKvEntry.ofDouble(123L, "temperature", 22.3))
                 .ttl(extractTtlAsSeconds(tenantProfile))
                 .strategy(TimeseriesSaveRequest.Strategy.SAVE_ALL)
                 .build();